@@ -22,25 +22,46 @@
 
 package com.gregmarut.neo4j.sdn;
 
+import org.springframework.data.neo4j.core.schema.Id;
 import org.springframework.data.neo4j.core.schema.Node;
+import org.springframework.data.neo4j.core.schema.Relationship;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
-import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 
 @SupportedAnnotationTypes("org.springframework.data.neo4j.core.schema.Node")
-@SupportedSourceVersion(SourceVersion.RELEASE_8)
 public class NodeMetaModelProcessor extends AbstractProcessor
 {
+	//the accessor classes are only generated when query-builder-sdn is on the compile path of the nodes
+	private static final String NODE_ACCESSOR = "com.gregmarut.querybuilder.sdn.accessor.NodeAccessor";
+	private static final String RELATIONSHIP_DESCRIPTOR = "com.gregmarut.querybuilder.sdn.accessor.RelationshipDescriptor";
+	private static final String ACCESSOR_SUFFIX = "_Accessor";
+	
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		//the processor only reads fields and annotations, so it supports whatever version the compiler does
+		return SourceVersion.latestSupported();
+	}
+	
 	@Override
 	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
 	{
@@ -74,6 +95,250 @@ public class NodeMetaModelProcessor extends AbstractProcessor
 			processFields(node, writer);
 			writer.write("}\n");
 		}
+		
+		if (null != processingEnv.getElementUtils().getTypeElement(NODE_ACCESSOR))
+		{
+			processAccessor(node, packageName);
+		}
+	}
+	
+	private void processAccessor(TypeElement node, String packageName) throws IOException
+	{
+		List<VariableElement> fields = new ArrayList<>();
+		collectFields(node, fields);
+		
+		//every field must be reachable through a var handle from the package of the node, otherwise the node keeps
+		//using reflection at runtime
+		boolean supported = isAccessible(node, packageName) && node.getTypeParameters().isEmpty();
+		for (VariableElement field : fields)
+		{
+			supported &= !field.getModifiers().contains(Modifier.FINAL)
+				&& isAccessible((TypeElement) field.getEnclosingElement(), packageName);
+		}
+		
+		if (supported)
+		{
+			writeAccessor(node, packageName, fields);
+		}
+	}
+	
+	private void writeAccessor(TypeElement node, String packageName, List<VariableElement> fields) throws IOException
+	{
+		String className = node.getSimpleName() + ACCESSOR_SUFFIX;
+		String nodeType = node.getQualifiedName().toString();
+		TypeMirror collectionType = processingEnv.getTypeUtils().erasure(
+			processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType());
+		
+		try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + className, node).openWriter())
+		{
+			writer.write("package " + packageName + ";\n");
+			writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+			writer.write("public final class " + className + " implements " + NODE_ACCESSOR + "<" + nodeType + "> {\n");
+			writer.write("    public static final " + className + " INSTANCE = new " + className + "();\n");
+			
+			//static field metadata indexed by field
+			List<String> names = new ArrayList<>();
+			List<String> transients = new ArrayList<>();
+			List<String> relationships = new ArrayList<>();
+			int idIndex = -1;
+			for (int i = 0; i < fields.size(); i++)
+			{
+				VariableElement field = fields.get(i);
+				names.add("\"" + field.getSimpleName() + "\"");
+				transients.add(String.valueOf(field.getModifiers().contains(Modifier.TRANSIENT)));
+				relationships.add(toRelationshipDescriptor(field, collectionType));
+				
+				if (idIndex < 0 && null != field.getAnnotation(Id.class))
+				{
+					idIndex = i;
+				}
+			}
+			writer.write("    private static final String[] FIELD_NAMES = {" + String.join(", ", names) + "};\n");
+			writer.write("    private static final boolean[] TRANSIENT = {" + String.join(", ", transients) + "};\n");
+			writer.write("    private static final " + RELATIONSHIP_DESCRIPTOR + "[] RELATIONSHIPS = {" +
+				String.join(", ", relationships) + "};\n");
+			
+			//one var handle per field which the jit can treat as a constant
+			for (int i = 0; i < fields.size(); i++)
+			{
+				writer.write("    private static final java.lang.invoke.VarHandle VH_" + i + ";\n");
+			}
+			writer.write("    static {\n");
+			writer.write("        try {\n");
+			Map<String, String> lookups = new LinkedHashMap<>();
+			for (int i = 0; i < fields.size(); i++)
+			{
+				VariableElement field = fields.get(i);
+				String declaringType = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+				
+				//a private lookup is created once for each class of the hierarchy that declares fields
+				String lookup = lookups.get(declaringType);
+				if (null == lookup)
+				{
+					lookup = "lookup" + lookups.size();
+					lookups.put(declaringType, lookup);
+					writer.write("            java.lang.invoke.MethodHandles.Lookup " + lookup +
+						" = java.lang.invoke.MethodHandles.privateLookupIn(" + declaringType +
+						".class, java.lang.invoke.MethodHandles.lookup());\n");
+				}
+				
+				writer.write("            VH_" + i + " = " + lookup + ".findVarHandle(" + declaringType + ".class, \"" +
+					field.getSimpleName() + "\", " + toSourceName(field.asType()) + ".class);\n");
+			}
+			writer.write("        } catch (ReflectiveOperationException e) {\n");
+			writer.write("            throw new ExceptionInInitializerError(e);\n");
+			writer.write("        }\n");
+			writer.write("    }\n");
+			
+			writer.write("    private " + className + "() {\n");
+			writer.write("    }\n");
+			writer.write("    @Override\n");
+			writer.write("    public Class<" + nodeType + "> getNodeClass() {\n");
+			writer.write("        return " + nodeType + ".class;\n");
+			writer.write("    }\n");
+			writer.write("    @Override\n");
+			writer.write("    public int getFieldCount() {\n");
+			writer.write("        return " + fields.size() + ";\n");
+			writer.write("    }\n");
+			writer.write("    @Override\n");
+			writer.write("    public String getFieldName(final int index) {\n");
+			writer.write("        return FIELD_NAMES[index];\n");
+			writer.write("    }\n");
+			writer.write("    @Override\n");
+			writer.write("    public boolean isTransient(final int index) {\n");
+			writer.write("        return TRANSIENT[index];\n");
+			writer.write("    }\n");
+			writer.write("    @Override\n");
+			writer.write("    public " + RELATIONSHIP_DESCRIPTOR + " getRelationship(final int index) {\n");
+			writer.write("        return RELATIONSHIPS[index];\n");
+			writer.write("    }\n");
+			writer.write("    @Override\n");
+			writer.write("    public int getIdIndex() {\n");
+			writer.write("        return " + idIndex + ";\n");
+			writer.write("    }\n");
+			
+			//a field hidden by a field of the same name keeps the index of the first declaration
+			Set<String> indexedNames = new HashSet<>();
+			writer.write("    @Override\n");
+			writer.write("    public int indexOf(final String fieldName) {\n");
+			writer.write("        switch (fieldName) {\n");
+			for (int i = 0; i < fields.size(); i++)
+			{
+				if (indexedNames.add(fields.get(i).getSimpleName().toString()))
+				{
+					writer.write("            case \"" + fields.get(i).getSimpleName() + "\": return " + i + ";\n");
+				}
+			}
+			writer.write("            default: return -1;\n");
+			writer.write("        }\n");
+			writer.write("    }\n");
+			
+			writer.write("    @Override\n");
+			writer.write("    public Object get(final " + nodeType + " node, final int index) {\n");
+			writer.write("        switch (index) {\n");
+			for (int i = 0; i < fields.size(); i++)
+			{
+				VariableElement field = fields.get(i);
+				writer.write("            case " + i + ": return (" + toSourceName(field.asType()) + ") VH_" + i + ".get(" +
+					toCoordinate(field, node) + ");\n");
+			}
+			writer.write("            default: throw new IndexOutOfBoundsException(\"Field index out of range: \" + index);\n");
+			writer.write("        }\n");
+			writer.write("    }\n");
+			
+			writer.write("    @Override\n");
+			writer.write("    public void set(final " + nodeType + " node, final int index, final Object value) {\n");
+			writer.write("        switch (index) {\n");
+			for (int i = 0; i < fields.size(); i++)
+			{
+				VariableElement field = fields.get(i);
+				writer.write("            case " + i + ": VH_" + i + ".set(" + toCoordinate(field, node) + ", (" +
+					toSourceName(field.asType()) + ") value); break;\n");
+			}
+			writer.write("            default: throw new IndexOutOfBoundsException(\"Field index out of range: \" + index);\n");
+			writer.write("        }\n");
+			writer.write("    }\n");
+			writer.write("}\n");
+		}
+	}
+	
+	private void collectFields(TypeElement node, List<VariableElement> fields)
+	{
+		//superclass fields come first so that the indexes follow the declaration order of the hierarchy
+		TypeElement superclass = (TypeElement) processingEnv.getTypeUtils().asElement(node.getSuperclass());
+		if (superclass != null && !superclass.getQualifiedName().toString().equals(Object.class.getName()))
+		{
+			collectFields(superclass, fields);
+		}
+		
+		for (Element enclosed : node.getEnclosedElements())
+		{
+			if (enclosed.getKind() == ElementKind.FIELD && !enclosed.getModifiers().contains(Modifier.STATIC))
+			{
+				fields.add((VariableElement) enclosed);
+			}
+		}
+	}
+	
+	private boolean isAccessible(TypeElement type, String packageName)
+	{
+		//the type and all of its enclosing types must be visible from the package of the generated accessor
+		boolean accessible = true;
+		Element element = type;
+		while (element.getKind().isClass() || element.getKind().isInterface())
+		{
+			boolean samePackage = processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().contentEquals(
+				packageName);
+			accessible &= !element.getModifiers().contains(Modifier.PRIVATE)
+				&& (element.getModifiers().contains(Modifier.PUBLIC) || samePackage);
+			element = element.getEnclosingElement();
+		}
+		
+		return accessible;
+	}
+	
+	private String toRelationshipDescriptor(VariableElement field, TypeMirror collectionType)
+	{
+		Relationship relationship = field.getAnnotation(Relationship.class);
+		if (null == relationship)
+		{
+			return "null";
+		}
+		else
+		{
+			//value and type are aliases of each other, the same way SDNUtil.getRelationshipType resolves them
+			String type = relationship.value().isEmpty() ? relationship.type() : relationship.value();
+			boolean singular = !processingEnv.getTypeUtils().isAssignable(
+				processingEnv.getTypeUtils().erasure(field.asType()), collectionType);
+			return "new " + RELATIONSHIP_DESCRIPTOR + "(\"" + type.replace("\\", "\\\\").replace("\"", "\\\"") + "\", " +
+				Relationship.Direction.class.getCanonicalName() + "." + relationship.direction().name() + ", " + singular + ")";
+		}
+	}
+	
+	private String toCoordinate(VariableElement field, TypeElement node)
+	{
+		//fields inherited from a superclass are accessed through a handle whose coordinate is the declaring class
+		TypeElement declaringType = (TypeElement) field.getEnclosingElement();
+		return declaringType.equals(node)
+			? "node"
+			: "(" + declaringType.getQualifiedName() + ") node";
+	}
+	
+	private String toSourceName(TypeMirror type)
+	{
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		if (erasure.getKind().isPrimitive())
+		{
+			return erasure.getKind().name().toLowerCase();
+		}
+		else if (erasure.getKind() == TypeKind.ARRAY)
+		{
+			return toSourceName(((ArrayType) erasure).getComponentType()) + "[]";
+		}
+		else
+		{
+			return ((TypeElement) processingEnv.getTypeUtils().asElement(erasure)).getQualifiedName().toString();
+		}
 	}
 	
 	private void processFields(TypeElement node, Writer writer) throws IOException
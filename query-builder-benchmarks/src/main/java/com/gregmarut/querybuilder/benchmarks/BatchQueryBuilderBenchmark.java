@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks;
+
+import com.gregmarut.querybuilder.benchmarks.sdn.BenchmarkMovie;
+import com.gregmarut.querybuilder.benchmarks.sdn.BenchmarkPerson;
+import com.gregmarut.querybuilder.sdn.batch.BatchLinkQuery;
+import com.gregmarut.querybuilder.sdn.batch.BatchMergeQuery;
+import com.gregmarut.querybuilder.sdn.batch.BatchOptions;
+import com.gregmarut.querybuilder.sdn.batch.BatchQueryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extraction of rows from nodes and the building of the UNWIND queries that merge and link them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BatchQueryBuilderBenchmark
+{
+	@Param({"1000", "10000", "100000"})
+	public int nodes;
+	
+	private List<BenchmarkPerson> people;
+	private List<BenchmarkMovie> movies;
+	
+	@Setup
+	public void setup()
+	{
+		people = new ArrayList<>(nodes);
+		movies = new ArrayList<>(nodes);
+		
+		for (int i = 0; i < nodes; i++)
+		{
+			final var person = new BenchmarkPerson("person-" + i, "Person " + i, 1950 + i % 50, "person" + i + "@example.com");
+			final var movie = new BenchmarkMovie("movie-" + i, "Movie " + i, 1980 + i % 40);
+			
+			//every person acted in their own movie and the next one, every movie has a director
+			person.setActedInMovies(List.of(movie, new BenchmarkMovie("movie-" + (i + 1), null, null)));
+			movie.setDirector(person);
+			
+			people.add(person);
+			movies.add(movie);
+		}
+	}
+	
+	@Benchmark
+	public List<BatchMergeQuery> buildBatchMergeQueries()
+	{
+		return BatchQueryBuilder.buildBatchMergeQueries(people);
+	}
+	
+	@Benchmark
+	public List<BatchLinkQuery> buildBatchLinkQueries()
+	{
+		return BatchQueryBuilder.buildBatchLinkQueries(people);
+	}
+	
+	@Benchmark
+	public List<BatchLinkQuery> buildBatchReplaceLinkQueries()
+	{
+		return BatchQueryBuilder.buildBatchReplaceLinkQueries(movies);
+	}
+	
+	@Benchmark
+	public List<BatchMergeQuery> buildBatchMergeQueriesInParallel()
+	{
+		return BatchQueryBuilder.buildBatchMergeQueries(people, BatchOptions.DEFAULT.inParallel());
+	}
+	
+	@Benchmark
+	public List<BatchLinkQuery> buildBatchLinkQueriesInParallel()
+	{
+		return BatchQueryBuilder.buildBatchLinkQueries(people, BatchOptions.DEFAULT.inParallel());
+	}
+}
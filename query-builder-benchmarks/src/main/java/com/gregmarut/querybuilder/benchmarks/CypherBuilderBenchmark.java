@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks;
+
+import com.gregmarut.querybuilder.benchmarks.sdn.BenchmarkMovie;
+import com.gregmarut.querybuilder.benchmarks.sdn.BenchmarkPerson;
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+import com.gregmarut.querybuilder.cypher.CypherQuery;
+import com.gregmarut.querybuilder.cypher.CypherTemplateCache;
+import com.gregmarut.querybuilder.cypher.IdentifierGenerator;
+import com.gregmarut.querybuilder.cypher.LiteralCypherString;
+import com.gregmarut.querybuilder.cypher.Merge;
+import com.gregmarut.querybuilder.cypher.OrderType;
+import com.gregmarut.querybuilder.cypher.Path;
+import com.gregmarut.querybuilder.cypher.Placeholder;
+import com.gregmarut.querybuilder.cypher.TypedCypherQuery;
+import com.gregmarut.querybuilder.cypher.Union;
+import com.gregmarut.querybuilder.cypher.Variable;
+import com.gregmarut.querybuilder.cypher.condition.AndCondition;
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.condition.GreaterThanCondition;
+import com.gregmarut.querybuilder.cypher.condition.InCondition;
+import com.gregmarut.querybuilder.cypher.function.Count;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import com.gregmarut.querybuilder.cypher.phrase.With;
+import com.gregmarut.querybuilder.sdn.model.SDNNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CypherBuilder#build()} on queries of increasing size. The builders are assembled once so that only the rendering
+ * of the query string and the collection of its parameters is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CypherBuilderBenchmark
+{
+	@Param({"200"})
+	public int ingestionPhrases;
+	
+	private CypherBuilder small;
+	private CypherBuilder complex;
+	private CypherBuilder unionA;
+	private CypherBuilder unionB;
+	private CypherBuilder ingestion;
+	private CypherTemplateCache templateCache;
+	
+	@Setup
+	public void setup()
+	{
+		templateCache = new CypherTemplateCache();
+		small = smallQuery();
+		complex = complexQuery();
+		unionA = smallQuery();
+		unionB = complexQuery();
+		ingestion = ingestionQuery(ingestionPhrases);
+	}
+	
+	@Benchmark
+	public CypherQuery small()
+	{
+		return small.build();
+	}
+	
+	/**
+	 * The small query served from a template cache so that only the value is bound on each execution
+	 *
+	 * @return
+	 */
+	@Benchmark
+	public CypherQuery smallTemplate()
+	{
+		return templateCache.get("small", CypherBuilderBenchmark::smallTemplateQuery).bind(Map.of("name", "Alice"));
+	}
+	
+	@Benchmark
+	public CypherQuery complex()
+	{
+		return complex.build();
+	}
+	
+	@Benchmark
+	public TypedCypherQuery<Object> union()
+	{
+		return Union.union(Object.class, unionA, unionB);
+	}
+	
+	@Benchmark
+	public CypherQuery ingestion()
+	{
+		return ingestion.build();
+	}
+	
+	/**
+	 * MATCH (p:Person) WHERE p.name = $_v0 RETURN p
+	 *
+	 * @return
+	 */
+	private static CypherBuilder smallQuery()
+	{
+		final var person = SDNNode.of(BenchmarkPerson.class).named(new IdentifierGenerator());
+		
+		return CypherBuilder.create()
+			.match(person)
+			.where(new EqualsCondition(person.getProperty(BenchmarkPerson.NAME), "Alice"))
+			.addReturn(person);
+	}
+	
+	/**
+	 * MATCH (p:Person) WHERE p.name = $name RETURN p
+	 *
+	 * @return
+	 */
+	private static CypherBuilder smallTemplateQuery()
+	{
+		final var person = SDNNode.of(BenchmarkPerson.class).named(new IdentifierGenerator());
+		
+		return CypherBuilder.create()
+			.match(person)
+			.where(new EqualsCondition(person.getProperty(BenchmarkPerson.NAME), Placeholder.of("name")))
+			.addReturn(person);
+	}
+	
+	/**
+	 * A multi-hop match with filters, an aggregation, a second filter on the aggregate, sorting and paging
+	 *
+	 * @return
+	 */
+	private static CypherBuilder complexQuery()
+	{
+		final var generator = new IdentifierGenerator();
+		final var person = SDNNode.of(BenchmarkPerson.class).withProperty("id", "abc123").named(generator);
+		final var movie = SDNNode.of(BenchmarkMovie.class).named(generator);
+		final var director = SDNNode.of(BenchmarkPerson.class).named(generator);
+		final var movieCount = Count.of(movie).as("movieCount");
+		
+		return CypherBuilder.create()
+			.match(Path.start(person).out(BenchmarkPerson.ACTED_IN).to(movie).build())
+			.match(Match.optional(Path.start(director).out(BenchmarkMovie.DIRECTED).to(movie).build()))
+			.where(new AndCondition(
+				new GreaterThanCondition(movie.getProperty(BenchmarkMovie.RELEASED), 2000),
+				new InCondition(movie.getProperty(BenchmarkMovie.TITLE), Variable.of(List.of("A", "B", "C", "D"))),
+				new GreaterThanCondition(person.getProperty(BenchmarkPerson.BORN), 1950)))
+			.with(new With().add(person).add(director).add(movieCount))
+			.where(new GreaterThanCondition(LiteralCypherString.of("movieCount"), 3))
+			.addReturn(person, director, movieCount)
+			.orderBy("movieCount", OrderType.DESC)
+			.skip(20)
+			.limit(10);
+	}
+	
+	/**
+	 * One MERGE per node with all of its properties bound as parameters, the shape of a typical ingestion query
+	 *
+	 * @param phrases
+	 * @return
+	 */
+	private static CypherBuilder ingestionQuery(final int phrases)
+	{
+		final var builder = CypherBuilder.create();
+		
+		for (int i = 0; i < phrases; i++)
+		{
+			final var person = SDNNode.of(BenchmarkPerson.class)
+				.withProperty("id", "person-" + i)
+				.withProperty(BenchmarkPerson.NAME, "Person " + i)
+				.withProperty(BenchmarkPerson.BORN, 1950 + i % 50)
+				.named("p" + i);
+			builder.merge(new Merge(person));
+		}
+		
+		return builder;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks;
+
+import com.gregmarut.querybuilder.DateRange;
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.Sort;
+import com.gregmarut.querybuilder.benchmarks.jpa.BenchmarkDatabase;
+import com.gregmarut.querybuilder.benchmarks.jpa.BenchmarkOrder;
+import com.gregmarut.querybuilder.jpa.JPAQuery;
+import com.gregmarut.querybuilder.predicate.DateRangePredicate;
+import com.gregmarut.querybuilder.predicate.EqualsPredicate;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import com.gregmarut.querybuilder.predicate.NotNullPredicate;
+import com.gregmarut.querybuilder.predicate.OrPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of a {@link JPAQuery} into criteria queries against the Hibernate {@link CriteriaBuilder}. No statement
+ * is executed, only the criteria tree is built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JPAQueryBenchmark
+{
+	private BenchmarkDatabase database;
+	private CriteriaBuilder criteriaBuilder;
+	private JPAQuery<BenchmarkOrder> query;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		database = new BenchmarkDatabase(0);
+		criteriaBuilder = database.getEntityManagerFactory().getCriteriaBuilder();
+		
+		final List<Predicate> predicates = List.of(
+			new InPredicate(List.of("OPEN", "PENDING", "SHIPPED"), QueryBuilder.ROOT, BenchmarkOrder.STATUS),
+			new DateRangePredicate(new DateRange<>(BenchmarkDatabase.START, BenchmarkDatabase.START.plusSeconds(86_400)), QueryBuilder.ROOT,
+				BenchmarkOrder.CREATED_ON),
+			new OrPredicate(new EqualsPredicate("NORTH", QueryBuilder.ROOT, BenchmarkOrder.REGION),
+				new EqualsPredicate("SOUTH", QueryBuilder.ROOT, BenchmarkOrder.REGION)),
+			new NotNullPredicate(QueryBuilder.ROOT, BenchmarkOrder.TOTAL));
+		
+		query = new JPAQuery<>(BenchmarkOrder.class, predicates, List.of(
+			Sort.desc(new Path(QueryBuilder.ROOT, BenchmarkOrder.CREATED_ON)),
+			Sort.asc(new Path(QueryBuilder.ROOT, BenchmarkOrder.ID))), Set.of(), Map.of());
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		database.close();
+	}
+	
+	@Benchmark
+	public CriteriaQuery<BenchmarkOrder> buildCriteriaQuery()
+	{
+		return query.buildCriteriaQuery(criteriaBuilder);
+	}
+	
+	@Benchmark
+	public CriteriaQuery<Long> buildCountQuery()
+	{
+		return query.buildCountQuery(criteriaBuilder);
+	}
+}
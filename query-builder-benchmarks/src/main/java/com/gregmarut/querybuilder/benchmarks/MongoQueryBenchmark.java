@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks;
+
+import com.gregmarut.querybuilder.DateRange;
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.Sort;
+import com.gregmarut.querybuilder.benchmarks.mongodb.BenchmarkMongoQuery;
+import com.gregmarut.querybuilder.predicate.AndPredicate;
+import com.gregmarut.querybuilder.predicate.DateRangePredicate;
+import com.gregmarut.querybuilder.predicate.EqualsPredicate;
+import com.gregmarut.querybuilder.predicate.FuzzyMatchPredicate;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import com.gregmarut.querybuilder.predicate.NotNullPredicate;
+import com.gregmarut.querybuilder.predicate.OrPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of predicates and sorts into mongo criteria
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MongoQueryBenchmark
+{
+	private BenchmarkMongoQuery query;
+	
+	@Setup
+	public void setup()
+	{
+		final var now = Instant.ofEpochSecond(1_700_000_000L);
+		
+		final List<Predicate> predicates = List.of(
+			new EqualsPredicate("OPEN", QueryBuilder.ROOT, "status"),
+			new InPredicate(List.of("NORTH", "SOUTH", "EAST"), QueryBuilder.ROOT, "address", "region"),
+			new DateRangePredicate(new DateRange<>(now, now.plusSeconds(86_400)), QueryBuilder.ROOT, "createdOn"),
+			new OrPredicate(new FuzzyMatchPredicate("smith", QueryBuilder.ROOT, "customer", "name"),
+				new AndPredicate(new NotNullPredicate(QueryBuilder.ROOT, "customer", "email"),
+					new EqualsPredicate(true, QueryBuilder.ROOT, "customer", "verified"))));
+		
+		query = new BenchmarkMongoQuery(predicates, List.of(
+			Sort.desc(new Path(QueryBuilder.ROOT, "createdOn")),
+			Sort.asc(new Path(QueryBuilder.ROOT, "customer", "name"))));
+	}
+	
+	@Benchmark
+	public Optional<Criteria> buildCriteria()
+	{
+		return query.criteria();
+	}
+	
+	@Benchmark
+	public Optional<org.springframework.data.domain.Sort> buildSort()
+	{
+		return query.sort();
+	}
+}
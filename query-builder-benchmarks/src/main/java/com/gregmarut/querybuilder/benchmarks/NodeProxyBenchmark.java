@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks;
+
+import com.gregmarut.querybuilder.benchmarks.sdn.BenchmarkPerson;
+import com.gregmarut.querybuilder.sdn.proxy.NodeProxy;
+import com.gregmarut.querybuilder.sdn.proxy.NodeProxyAccessor;
+import com.gregmarut.querybuilder.sdn.util.Diff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of change tracking proxies and the computation of their diff in both proxy modes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeProxyBenchmark
+{
+	@Param({"SNAPSHOT", "TRACKING"})
+	private NodeProxy.Mode mode;
+	
+	private BenchmarkPerson person;
+	private NodeProxyAccessor<BenchmarkPerson> accessor;
+	
+	@Setup
+	public void setup()
+	{
+		person = new BenchmarkPerson("person-1", "Greg", 1989, "greg@example.com");
+		
+		final var proxy = NodeProxy.createProxy(person, mode);
+		proxy.setName("Gregory");
+		proxy.setBorn(null);
+		accessor = NodeProxyAccessor.extract(proxy);
+	}
+	
+	@Benchmark
+	public BenchmarkPerson createProxy()
+	{
+		return NodeProxy.createProxy(person, mode);
+	}
+	
+	@Benchmark
+	public Set<Field> getChangedFields()
+	{
+		return accessor.getChangedFields();
+	}
+	
+	@Benchmark
+	public Map<Field, Diff<Object>> getDiff()
+	{
+		return accessor.getDiff();
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks;
+
+import com.gregmarut.querybuilder.DateRange;
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.Sort;
+import com.gregmarut.querybuilder.benchmarks.jpa.BenchmarkDatabase;
+import com.gregmarut.querybuilder.benchmarks.jpa.BenchmarkOrder;
+import com.gregmarut.querybuilder.jpa.JPAQuery;
+import com.gregmarut.querybuilder.predicate.AndPredicate;
+import com.gregmarut.querybuilder.predicate.DateRangePredicate;
+import com.gregmarut.querybuilder.predicate.EqualsPredicate;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import com.gregmarut.querybuilder.predicate.NotNullPredicate;
+import com.gregmarut.querybuilder.predicate.OrPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import com.gregmarut.querybuilder.predicate.PredicateOptimizer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the predicate optimizer against the translation and database time of its output. Each benchmark runs with
+ * the predicates exactly as a caller nested them and with the output of the optimizer. The redundant filters cost the database
+ * about the same either way. The execute benchmark runs the criteria query directly, so it does not show the round trip that the
+ * paginated searches save by skipping the database when the optimizer reduces the filters to a contradiction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateOptimizerBenchmark
+{
+	@Param({"redundant", "contradiction"})
+	public String scenario;
+	
+	@Param({"false", "true"})
+	public boolean optimized;
+	
+	private BenchmarkDatabase database;
+	private CriteriaBuilder criteriaBuilder;
+	private List<Predicate> raw;
+	private List<Predicate> predicates;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		database = new BenchmarkDatabase(20_000);
+		criteriaBuilder = database.getEntityManagerFactory().getCriteriaBuilder();
+		raw = "contradiction".equals(scenario) ? contradiction() : redundant();
+		predicates = optimized ? PredicateOptimizer.optimize(raw, true) : raw;
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		database.close();
+	}
+	
+	@Benchmark
+	public List<Predicate> optimize()
+	{
+		return PredicateOptimizer.optimize(raw, true);
+	}
+	
+	@Benchmark
+	public CriteriaQuery<BenchmarkOrder> translate()
+	{
+		return buildQuery().buildCriteriaQuery(criteriaBuilder);
+	}
+	
+	@Benchmark
+	public List<BenchmarkOrder> execute()
+	{
+		final var query = buildQuery();
+		return database.inTransaction(entityManager -> entityManager.createQuery(query.buildCriteriaQuery(criteriaBuilder))
+			.setMaxResults(50)
+			.getResultList());
+	}
+	
+	private JPAQuery<BenchmarkOrder> buildQuery()
+	{
+		return new JPAQuery<>(BenchmarkOrder.class, predicates,
+			List.of(Sort.desc(new Path(QueryBuilder.ROOT, BenchmarkOrder.CREATED_ON))), Set.of(), Map.of());
+	}
+	
+	/**
+	 * Filters the way a search screen typically builds them: one equality per selected checkbox, overlapping date pickers and the
+	 * same condition added by more than one component
+	 *
+	 * @return
+	 */
+	private static List<Predicate> redundant()
+	{
+		return List.of(
+			new OrPredicate(
+				new EqualsPredicate("OPEN", QueryBuilder.ROOT, BenchmarkOrder.STATUS),
+				new OrPredicate(new EqualsPredicate("PENDING", QueryBuilder.ROOT, BenchmarkOrder.STATUS),
+					new EqualsPredicate("SHIPPED", QueryBuilder.ROOT, BenchmarkOrder.STATUS)),
+				new EqualsPredicate("OPEN", QueryBuilder.ROOT, BenchmarkOrder.STATUS)),
+			new AndPredicate(
+				new DateRangePredicate(DateRange.after(BenchmarkDatabase.START.plusSeconds(60L * 1_000)), QueryBuilder.ROOT,
+					BenchmarkOrder.CREATED_ON),
+				new DateRangePredicate(new DateRange<>(BenchmarkDatabase.START, BenchmarkDatabase.START.plusSeconds(60L * 15_000)),
+					QueryBuilder.ROOT, BenchmarkOrder.CREATED_ON)),
+			new InPredicate(List.of("NORTH", "SOUTH", "EAST"), QueryBuilder.ROOT, BenchmarkOrder.REGION),
+			new InPredicate(List.of("SOUTH", "EAST", "WEST"), QueryBuilder.ROOT, BenchmarkOrder.REGION),
+			new NotNullPredicate(QueryBuilder.ROOT, BenchmarkOrder.STATUS),
+			new NotNullPredicate(QueryBuilder.ROOT, BenchmarkOrder.STATUS));
+	}
+	
+	private static List<Predicate> contradiction()
+	{
+		return List.of(
+			new EqualsPredicate("OPEN", QueryBuilder.ROOT, BenchmarkOrder.STATUS),
+			new InPredicate(List.of("NORTH", "SOUTH"), QueryBuilder.ROOT, BenchmarkOrder.REGION),
+			new EqualsPredicate("CLOSED", QueryBuilder.ROOT, BenchmarkOrder.STATUS));
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Boots an in-memory H2 database seeded with orders for the JPA benchmarks
+ */
+public final class BenchmarkDatabase implements AutoCloseable
+{
+	public static final String[] STATUSES = {"OPEN", "CLOSED", "PENDING", "SHIPPED", "CANCELLED"};
+	public static final String[] REGIONS = {"NORTH", "SOUTH", "EAST", "WEST"};
+	public static final Instant START = Instant.ofEpochSecond(1_700_000_000L);
+	
+	private final EntityManagerFactory entityManagerFactory;
+	
+	public BenchmarkDatabase(final int orders)
+	{
+		entityManagerFactory = new Configuration()
+			.addAnnotatedClass(BenchmarkOrder.class)
+			.setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:" + System.nanoTime() + ";DB_CLOSE_DELAY=-1")
+			.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+			.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "500")
+			.buildSessionFactory();
+		
+		inTransaction(entityManager -> {
+			for (long id = 1; id <= orders; id++)
+			{
+				entityManager.persist(new BenchmarkOrder(id, STATUSES[(int) (id % STATUSES.length)], (int) (id % 1000),
+					START.plusSeconds(id * 60), REGIONS[(int) (id % REGIONS.length)]));
+				
+				if (0 == id % 500)
+				{
+					entityManager.flush();
+					entityManager.clear();
+				}
+			}
+			return null;
+		});
+	}
+	
+	public EntityManagerFactory getEntityManagerFactory()
+	{
+		return entityManagerFactory;
+	}
+	
+	public <T> T inTransaction(final Function<EntityManager, T> work)
+	{
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			final T result = work.apply(entityManager);
+			entityManager.getTransaction().commit();
+			return result;
+		}
+	}
+	
+	@Override
+	public void close()
+	{
+		entityManagerFactory.close();
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.benchmarks.sdn;
+
+import com.gregmarut.querybuilder.sdn.model.BaseNode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.neo4j.core.schema.Id;
+import org.springframework.data.neo4j.core.schema.Node;
+import org.springframework.data.neo4j.core.schema.Relationship;
+
+@Getter
+@Setter
+@Node(BenchmarkMovie.LABEL)
+@NoArgsConstructor
+public class BenchmarkMovie extends BaseNode
+{
+	public static final String LABEL = "Movie";
+	public static final String TITLE = "title";
+	public static final String RELEASED = "released";
+	public static final String DIRECTED = "DIRECTED";
+	
+	@Id
+	private String id;
+	private String title;
+	private Integer released;
+	private String tagline;
+	
+	@Relationship(value = DIRECTED, direction = Relationship.Direction.INCOMING)
+	private BenchmarkPerson director;
+	
+	public BenchmarkMovie(final String id, final String title, final Integer released)
+	{
+		this.id = id;
+		this.title = title;
+		this.released = released;
+	}
+}
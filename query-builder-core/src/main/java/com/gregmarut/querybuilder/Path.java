@@ -22,7 +22,27 @@
 
 package com.gregmarut.querybuilder;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 public record Path(String root, String... path) implements Expression
 {
-
+	//records compare arrays by identity, paths are compared by their segments instead
+	@Override
+	public boolean equals(final Object o)
+	{
+		return this == o || (o instanceof Path other && Objects.equals(root, other.root) && Arrays.equals(path, other.path));
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return 31 * Objects.hashCode(root) + Arrays.hashCode(path);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "Path[root=" + root + ", path=" + Arrays.toString(path) + "]";
+	}
 }
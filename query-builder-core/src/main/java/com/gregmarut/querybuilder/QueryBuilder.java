@@ -23,6 +23,7 @@
 package com.gregmarut.querybuilder;
 
 import com.gregmarut.querybuilder.predicate.Predicate;
+import com.gregmarut.querybuilder.predicate.PredicateOptimizer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +35,8 @@ public abstract class QueryBuilder<B extends QueryBuilder<B, E>, E>
 	protected final Class<E> entityClass;
 	protected final List<Sort> sortList;
 	
+	protected boolean intersectPredicates;
+	
 	protected QueryBuilder(final Class<E> entityClass)
 	{
 		this.entityClass = entityClass;
@@ -56,16 +59,34 @@ public abstract class QueryBuilder<B extends QueryBuilder<B, E>, E>
 		return self();
 	}
 	
+	/**
+	 * Lets the {@link PredicateOptimizer} intersect the values on the same path, so that {@code a = 1 AND a = 2} becomes a condition
+	 * that matches nothing. Only use this when every filtered path is a single-valued, case-sensitive basic attribute.
+	 *
+	 * @return
+	 */
+	public B intersectPredicates()
+	{
+		this.intersectPredicates = true;
+		return self();
+	}
+	
 	public B self()
 	{
 		return (B) this;
 	}
 	
+	/**
+	 * Builds the predicates of this query and runs them through the {@link PredicateOptimizer} so that every backend translates the
+	 * simplest equivalent form
+	 *
+	 * @return
+	 */
 	protected List<Predicate> buildPredicates()
 	{
 		final List<Predicate> predicates = new ArrayList<>();
 		addPredicates(predicates);
-		return predicates;
+		return PredicateOptimizer.optimize(predicates, intersectPredicates);
 	}
 	
 	protected abstract void addPredicates(final List<Predicate> predicates);
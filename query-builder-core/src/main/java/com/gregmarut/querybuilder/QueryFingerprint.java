@@ -0,0 +1,414 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder;
+
+import com.gregmarut.querybuilder.predicate.AndPredicate;
+import com.gregmarut.querybuilder.predicate.OrPredicate;
+import com.gregmarut.querybuilder.predicate.PathPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import com.gregmarut.querybuilder.predicate.ValuePredicate;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Computes stable 64-bit fingerprints of predicates, expressions and sorts. The shape fingerprint only covers the structure of a
+ * query, the predicate classes, paths and sort directions, so that queries which only differ by their bound values share it and
+ * can share a plan. The full fingerprint also covers the values and identifies a query together with its parameters, for example as
+ * a result cache key. Fingerprints do not depend on identity hash codes and are the same from one JVM to the next, except for values
+ * of classes that are unknown to this class and whose hash code is not stable.
+ */
+public final class QueryFingerprint
+{
+	private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long PRIME = 0x100000001b3L;
+	
+	private static final long NULL = 0x9e3779b97f4a7c15L;
+	
+	//hashing the class name each time would dominate the fingerprint of small queries
+	private static final ClassValue<Long> CLASS_HASHES = new ClassValue<>()
+	{
+		@Override
+		protected Long computeValue(final Class<?> type)
+		{
+			return hashBytes(OFFSET_BASIS, type.getName().getBytes(StandardCharsets.UTF_8));
+		}
+	};
+	
+	//records do not have to be public, so their accessors are made accessible once and kept per class
+	private static final ClassValue<Method[]> RECORD_ACCESSORS = new ClassValue<>()
+	{
+		@Override
+		protected Method[] computeValue(final Class<?> type)
+		{
+			final RecordComponent[] components = type.getRecordComponents();
+			final Method[] accessors = new Method[components.length];
+			for (int i = 0; i < components.length; i++)
+			{
+				accessors[i] = components[i].getAccessor();
+				accessors[i].trySetAccessible();
+			}
+			return accessors;
+		}
+	};
+	
+	private QueryFingerprint()
+	{
+	
+	}
+	
+	public static long shape(final List<Predicate> predicates, final List<Sort> sortList)
+	{
+		return fingerprint(predicates, sortList, false);
+	}
+	
+	public static long full(final List<Predicate> predicates, final List<Sort> sortList)
+	{
+		return fingerprint(predicates, sortList, true);
+	}
+	
+	public static long shape(final Predicate predicate)
+	{
+		return mix(predicate(OFFSET_BASIS, predicate, false));
+	}
+	
+	public static long full(final Predicate predicate)
+	{
+		return mix(predicate(OFFSET_BASIS, predicate, true));
+	}
+	
+	public static long shape(final Expression expression)
+	{
+		return mix(expression(OFFSET_BASIS, expression, false));
+	}
+	
+	public static long full(final Expression expression)
+	{
+		return mix(expression(OFFSET_BASIS, expression, true));
+	}
+	
+	private static long fingerprint(final List<Predicate> predicates, final List<Sort> sortList, final boolean values)
+	{
+		long h = hashLong(OFFSET_BASIS, predicates.size());
+		for (final Predicate predicate : predicates)
+		{
+			h = predicate(h, predicate, values);
+		}
+		
+		h = hashLong(h, sortList.size());
+		for (final Sort sort : sortList)
+		{
+			h = expression(h, sort.column(), values);
+			h = hashLong(h, sort.direction().ordinal());
+		}
+		
+		return mix(h);
+	}
+	
+	private static long predicate(long h, @Nullable final Predicate predicate, final boolean values)
+	{
+		if (null == predicate)
+		{
+			return hashLong(h, NULL);
+		}
+		
+		h = hashClass(h, predicate.getClass());
+		
+		if (predicate instanceof AndPredicate p)
+		{
+			return predicates(h, p.predicates(), values);
+		}
+		else if (predicate instanceof OrPredicate p)
+		{
+			return predicates(h, p.predicates(), values);
+		}
+		else if (predicate instanceof PathPredicate p)
+		{
+			h = path(h, p.getRoot(), p.getPath());
+			
+			if (p instanceof ValuePredicate<?> v)
+			{
+				//the shape still tells null values apart since the backends translate them differently
+				h = values ? value(h, v.getValue()) : hashLong(h, null == v.getValue() ? NULL : 0);
+			}
+			
+			return h;
+		}
+		
+		//predicates that are unknown to this class are only covered by the full fingerprint
+		return values ? hashLong(h, predicate.hashCode()) : h;
+	}
+	
+	private static long predicates(long h, final Predicate[] predicates, final boolean values)
+	{
+		h = hashLong(h, predicates.length);
+		for (final Predicate predicate : predicates)
+		{
+			h = predicate(h, predicate, values);
+		}
+		return h;
+	}
+	
+	private static long expression(long h, @Nullable final Expression expression, final boolean values)
+	{
+		if (null == expression)
+		{
+			return hashLong(h, NULL);
+		}
+		
+		h = hashClass(h, expression.getClass());
+		
+		if (expression instanceof Path p)
+		{
+			return path(h, p.root(), p.path());
+		}
+		else if (expression instanceof Record record)
+		{
+			//expressions such as coalesce are records made of other expressions and values
+			for (final Method accessor : RECORD_ACCESSORS.get(record.getClass()))
+			{
+				final Object value = read(accessor, record);
+				if (value instanceof Expression e)
+				{
+					h = expression(h, e, values);
+				}
+				else if (value instanceof Class<?> type)
+				{
+					h = hashClass(h, type);
+				}
+				else if (values)
+				{
+					h = value(h, value);
+				}
+			}
+			return h;
+		}
+		
+		return values ? hashLong(h, expression.hashCode()) : h;
+	}
+	
+	private static long path(long h, @Nullable final String root, final String[] path)
+	{
+		h = string(h, root);
+		h = hashLong(h, path.length);
+		for (final String segment : path)
+		{
+			h = string(h, segment);
+		}
+		return h;
+	}
+	
+	private static long value(long h, @Nullable final Object value)
+	{
+		if (null == value)
+		{
+			return hashLong(h, NULL);
+		}
+		
+		h = hashClass(h, value.getClass());
+		
+		if (value instanceof String s)
+		{
+			return string(h, s);
+		}
+		else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+		{
+			return hashLong(h, ((Number) value).longValue());
+		}
+		else if (value instanceof Double || value instanceof Float)
+		{
+			return hashLong(h, Double.doubleToLongBits(((Number) value).doubleValue()));
+		}
+		else if (value instanceof Boolean b)
+		{
+			return hashLong(h, b ? 1 : 0);
+		}
+		else if (value instanceof Character c)
+		{
+			return hashLong(h, c);
+		}
+		else if (value instanceof BigDecimal || value instanceof BigInteger)
+		{
+			return string(h, value.toString());
+		}
+		else if (value instanceof Enum<?> e)
+		{
+			return string(h, e.name());
+		}
+		else if (value instanceof Instant instant)
+		{
+			return hashLong(hashLong(h, instant.getEpochSecond()), instant.getNano());
+		}
+		else if (value instanceof TemporalAccessor)
+		{
+			return string(h, value.toString());
+		}
+		else if (value instanceof UUID uuid)
+		{
+			return hashLong(hashLong(h, uuid.getMostSignificantBits()), uuid.getLeastSignificantBits());
+		}
+		else if (value instanceof DateRange<?> range)
+		{
+			return value(value(h, range.after()), range.before());
+		}
+		else if (value instanceof Set<?> set)
+		{
+			//sets are fingerprinted independently of their iteration order
+			long sum = 0;
+			for (final Object element : set)
+			{
+				sum += mix(value(OFFSET_BASIS, element));
+			}
+			return hashLong(hashLong(h, set.size()), sum);
+		}
+		else if (value instanceof Collection<?> collection)
+		{
+			h = hashLong(h, collection.size());
+			for (final Object element : collection)
+			{
+				h = value(h, element);
+			}
+			return h;
+		}
+		else if (value instanceof Map<?, ?> map)
+		{
+			long sum = 0;
+			for (final Map.Entry<?, ?> entry : map.entrySet())
+			{
+				sum += mix(value(value(OFFSET_BASIS, entry.getKey()), entry.getValue()));
+			}
+			return hashLong(hashLong(h, map.size()), sum);
+		}
+		else if (value.getClass().isArray())
+		{
+			final int length = Array.getLength(value);
+			h = hashLong(h, length);
+			for (int i = 0; i < length; i++)
+			{
+				h = value(h, Array.get(value, i));
+			}
+			return h;
+		}
+		else if (value instanceof Record record)
+		{
+			for (final Method accessor : RECORD_ACCESSORS.get(record.getClass()))
+			{
+				h = value(h, read(accessor, record));
+			}
+			return h;
+		}
+		
+		return hashLong(h, value.hashCode());
+	}
+	
+	private static Object read(final Method accessor, final Record record)
+	{
+		try
+		{
+			return accessor.invoke(record);
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new IllegalStateException("Unable to read " + accessor.getName() + " of " + record.getClass().getName()
+				+ ", its package must be open to " + QueryFingerprint.class.getModule(), e);
+		}
+		catch (InvocationTargetException e)
+		{
+			throw new IllegalStateException("Unable to read " + accessor.getName() + " of " + record.getClass().getName(), e);
+		}
+	}
+	
+	private static long hashClass(final long h, final Class<?> type)
+	{
+		return hashLong(h, CLASS_HASHES.get(type));
+	}
+	
+	private static long string(long h, @Nullable final String value)
+	{
+		if (null == value)
+		{
+			return hashLong(h, NULL);
+		}
+		
+		h = hashLong(h, value.length());
+		for (int i = 0; i < value.length(); i++)
+		{
+			h = (h ^ value.charAt(i)) * PRIME;
+		}
+		return h;
+	}
+	
+	private static long hashBytes(long h, final byte[] bytes)
+	{
+		for (final byte b : bytes)
+		{
+			h = (h ^ (b & 0xff)) * PRIME;
+		}
+		return h;
+	}
+	
+	/**
+	 * Folds a long into the hash one byte at a time, FNV-1a style
+	 *
+	 * @param h
+	 * @param value
+	 * @return
+	 */
+	private static long hashLong(long h, final long value)
+	{
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE)
+		{
+			h = (h ^ ((value >>> shift) & 0xff)) * PRIME;
+		}
+		return h;
+	}
+	
+	/**
+	 * Spreads the bits of the final hash so that similar queries do not end up with similar fingerprints
+	 *
+	 * @param h
+	 * @return
+	 */
+	private static long mix(long h)
+	{
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -22,6 +22,26 @@
 
 package com.gregmarut.querybuilder.predicate;
 
+import java.util.Arrays;
+
 public record AndPredicate(Predicate... predicates) implements Predicate
 {
+	//records compare arrays by identity, the predicates are compared by their elements instead
+	@Override
+	public boolean equals(final Object o)
+	{
+		return this == o || (o instanceof AndPredicate other && Arrays.equals(predicates, other.predicates));
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return 31 * AndPredicate.class.getName().hashCode() + Arrays.hashCode(predicates);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "AndPredicate" + Arrays.toString(predicates);
+	}
 }
@@ -24,6 +24,9 @@ package com.gregmarut.querybuilder.predicate;
 
 import lombok.Getter;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 @Getter
 public abstract class PathPredicate implements Predicate
 {
@@ -35,4 +38,53 @@ public abstract class PathPredicate implements Predicate
 		this.root = root;
 		this.path = path;
 	}
+	
+	/**
+	 * Compares the values of two predicates of the same class
+	 *
+	 * @param other
+	 * @return
+	 */
+	protected boolean valueEquals(final PathPredicate other)
+	{
+		return true;
+	}
+	
+	protected int valueHashCode()
+	{
+		return 0;
+	}
+	
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (null == o || getClass() != o.getClass())
+		{
+			return false;
+		}
+		
+		final PathPredicate other = (PathPredicate) o;
+		return Objects.equals(root, other.root) && Arrays.equals(path, other.path) && valueEquals(other);
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		//not cached since values such as collections and arrays can still be modified after the predicate is created
+		int h = getClass().getName().hashCode();
+		h = 31 * h + Objects.hashCode(root);
+		h = 31 * h + Arrays.hashCode(path);
+		h = 31 * h + valueHashCode();
+		return h;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "[root=" + root + ", path=" + Arrays.toString(path) + "]";
+	}
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.predicate;
+
+import com.gregmarut.querybuilder.DateRange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Rewrites a list of predicates into an equivalent but simpler list before it is translated by a backend. Nested and/or predicates
+ * are flattened, duplicates are removed and equality checks on the same path under an or are merged into in predicates. These
+ * rewrites hold for any path and any collation.
+ * <p>
+ * Intersecting is opt-in: equals/in values and date ranges on the same path under an and are intersected, and conditions that
+ * exclude each other, such as {@code a = 1 AND a = 2}, are replaced by an empty in predicate. This is only correct for
+ * single-valued, case-sensitive basic attributes. A to-many path may match both values on different elements and a
+ * case-insensitive collation may consider both values equal.
+ */
+public final class PredicateOptimizer
+{
+	private PredicateOptimizer()
+	{
+	
+	}
+	
+	/**
+	 * Optimizes a list of predicates which are combined with and, without intersecting the values on the same path
+	 *
+	 * @param predicates
+	 * @return the optimized list of predicates
+	 */
+	public static List<Predicate> optimize(final List<Predicate> predicates)
+	{
+		return optimize(predicates, false);
+	}
+	
+	/**
+	 * Optimizes a list of predicates which are combined with and
+	 *
+	 * @param predicates
+	 * @param intersect  whether the values and date ranges on the same path are intersected. Only set this when every path of the
+	 *                   predicates is a single-valued, case-sensitive basic attribute.
+	 * @return the optimized list of predicates
+	 */
+	public static List<Predicate> optimize(final List<Predicate> predicates, final boolean intersect)
+	{
+		return optimizeAnd(predicates, intersect);
+	}
+	
+	/**
+	 * Determines if the given optimized list of predicates can never match any result
+	 *
+	 * @param predicates
+	 * @return
+	 */
+	public static boolean isUnsatisfiable(final List<Predicate> predicates)
+	{
+		return predicates.stream().anyMatch(PredicateOptimizer::isEmptyIn);
+	}
+	
+	private static List<Predicate> optimizeAnd(final List<Predicate> predicates, final boolean intersect)
+	{
+		//flatten the nested and predicates and remove the duplicates
+		final Set<Predicate> conjuncts = new LinkedHashSet<>();
+		for (final Predicate predicate : predicates)
+		{
+			if (null == predicate)
+			{
+				continue;
+			}
+			
+			final Predicate simplified = simplify(predicate, intersect);
+			if (simplified instanceof AndPredicate p)
+			{
+				conjuncts.addAll(Arrays.asList(p.predicates()));
+			}
+			else
+			{
+				conjuncts.add(simplified);
+			}
+		}
+		
+		final List<Predicate> result = new ArrayList<>(conjuncts);
+		
+		//an unsatisfiable condition makes the entire conjunction unsatisfiable
+		final var contradiction = result.stream().filter(PredicateOptimizer::isEmptyIn).findFirst();
+		if (contradiction.isPresent())
+		{
+			return List.of(contradiction.get());
+		}
+		else if (!intersect)
+		{
+			return result;
+		}
+		
+		final Map<PathKey, List<Predicate>> byPath = groupByPath(result);
+		for (final Map.Entry<PathKey, List<Predicate>> entry : byPath.entrySet())
+		{
+			final PathKey path = entry.getKey();
+			final List<Predicate> group = entry.getValue();
+			
+			if (isContradiction(group))
+			{
+				return List.of(path.emptyIn());
+			}
+			
+			final List<Predicate> values = group.stream().filter(PredicateOptimizer::isMergeableValue).toList();
+			if (values.size() > 1)
+			{
+				final List<Object> intersection = intersect(values);
+				if (null != intersection)
+				{
+					if (intersection.isEmpty())
+					{
+						return List.of(path.emptyIn());
+					}
+					
+					replace(result, values, path.toValuePredicate(intersection));
+				}
+			}
+			
+			final List<Predicate> ranges = group.stream().filter(PredicateOptimizer::isMergeableRange).toList();
+			if (ranges.size() > 1)
+			{
+				final DateRange<Instant> range = intersectRanges(ranges);
+				if (null != range.after() && null != range.before() && !range.after().isBefore(range.before()))
+				{
+					return List.of(path.emptyIn());
+				}
+				
+				replace(result, ranges, new DateRangePredicate(range, path.root(), path.pathArray()));
+			}
+		}
+		
+		return result;
+	}
+	
+	private static Predicate optimizeOr(final Predicate[] predicates, final boolean intersect)
+	{
+		//an empty or is left alone since the backends do not agree on what it means
+		if (0 == predicates.length)
+		{
+			return new OrPredicate();
+		}
+		
+		//flatten the nested or predicates and remove the duplicates and the branches that can never match
+		final Set<Predicate> disjuncts = new LinkedHashSet<>();
+		Predicate contradiction = null;
+		for (final Predicate predicate : predicates)
+		{
+			final Predicate simplified = simplify(predicate, intersect);
+			final List<Predicate> children = simplified instanceof OrPredicate p ? Arrays.asList(p.predicates()) : List.of(simplified);
+			for (final Predicate child : children)
+			{
+				if (isEmptyIn(child))
+				{
+					contradiction = null == contradiction ? child : contradiction;
+				}
+				else
+				{
+					disjuncts.add(child);
+				}
+			}
+		}
+		
+		if (disjuncts.isEmpty())
+		{
+			return contradiction;
+		}
+		
+		//merge the equality checks on the same path into a single in predicate
+		final List<Predicate> result = new ArrayList<>(disjuncts);
+		for (final Map.Entry<PathKey, List<Predicate>> entry : groupByPath(result).entrySet())
+		{
+			final List<Predicate> values = entry.getValue().stream().filter(PredicateOptimizer::isMergeableValue).toList();
+			if (values.size() > 1)
+			{
+				final Set<Object> union = new LinkedHashSet<>();
+				values.forEach(value -> union.addAll(valuesOf(value)));
+				replace(result, values, entry.getKey().toValuePredicate(new ArrayList<>(union)));
+			}
+		}
+		
+		return 1 == result.size() ? result.getFirst() : new OrPredicate(result.toArray(Predicate[]::new));
+	}
+	
+	private static Predicate simplify(final Predicate predicate, final boolean intersect)
+	{
+		if (predicate instanceof AndPredicate p)
+		{
+			//an empty and is left alone since it has no path to build a contradiction on
+			if (0 == p.predicates().length)
+			{
+				return p;
+			}
+			
+			final List<Predicate> conjuncts = optimizeAnd(Arrays.asList(p.predicates()), intersect);
+			return 1 == conjuncts.size() ? conjuncts.getFirst() : new AndPredicate(conjuncts.toArray(Predicate[]::new));
+		}
+		else if (predicate instanceof OrPredicate p)
+		{
+			return optimizeOr(p.predicates(), intersect);
+		}
+		else if (predicate instanceof InPredicate p && null != p.getValue() && 1 == p.getValue().size()
+			&& null != p.getValue().iterator().next())
+		{
+			return new EqualsPredicate(p.getValue().iterator().next(), p.getRoot(), p.getPath());
+		}
+		
+		return predicate;
+	}
+	
+	/**
+	 * Checks for conditions on the same path that exclude each other without looking at their values
+	 *
+	 * @param group
+	 * @return
+	 */
+	private static boolean isContradiction(final List<Predicate> group)
+	{
+		final boolean isNull = group.stream().anyMatch(predicate -> predicate instanceof NullPredicate);
+		final boolean notNull = group.stream()
+			.anyMatch(predicate -> predicate instanceof NotNullPredicate || isMergeableValue(predicate) || isMergeableRange(predicate));
+		return isNull && notNull;
+	}
+	
+	/**
+	 * Intersects the values of equals and in predicates on the same path. Values are only compared when they are all of the same
+	 * class since the database may consider values of different classes to be equal.
+	 *
+	 * @param predicates
+	 * @return the values matched by every predicate or null if they cannot be compared
+	 */
+	private static List<Object> intersect(final List<Predicate> predicates)
+	{
+		final Set<Class<?>> classes = new LinkedHashSet<>();
+		predicates.forEach(predicate -> valuesOf(predicate).forEach(value -> classes.add(value.getClass())));
+		if (classes.size() > 1)
+		{
+			return null;
+		}
+		
+		final Set<Object> intersection = new LinkedHashSet<>(valuesOf(predicates.getFirst()));
+		predicates.stream().skip(1).forEach(predicate -> intersection.retainAll(new LinkedHashSet<>(valuesOf(predicate))));
+		return new ArrayList<>(intersection);
+	}
+	
+	private static DateRange<Instant> intersectRanges(final List<Predicate> predicates)
+	{
+		Instant after = null;
+		Instant before = null;
+		
+		for (final Predicate predicate : predicates)
+		{
+			final DateRange<Instant> range = ((DateRangePredicate) predicate).getValue();
+			if (null != range.after() && (null == after || range.after().isAfter(after)))
+			{
+				after = range.after();
+			}
+			if (null != range.before() && (null == before || range.before().isBefore(before)))
+			{
+				before = range.before();
+			}
+		}
+		
+		return new DateRange<>(after, before);
+	}
+	
+	private static Map<PathKey, List<Predicate>> groupByPath(final List<Predicate> predicates)
+	{
+		final Map<PathKey, List<Predicate>> byPath = new LinkedHashMap<>();
+		predicates.stream()
+			.filter(predicate -> predicate instanceof PathPredicate)
+			.map(PathPredicate.class::cast)
+			.forEach(predicate -> byPath.computeIfAbsent(PathKey.of(predicate), k -> new ArrayList<>()).add(predicate));
+		return byPath;
+	}
+	
+	/**
+	 * Replaces the first of the merged predicates with the merged predicate and removes the others, keeping the original order
+	 *
+	 * @param predicates
+	 * @param merged
+	 * @param replacement
+	 */
+	private static void replace(final List<Predicate> predicates, final List<Predicate> merged, final Predicate replacement)
+	{
+		final Set<Predicate> remove = Collections.newSetFromMap(new IdentityHashMap<>());
+		remove.addAll(merged);
+		
+		final int index = predicates.indexOf(merged.getFirst());
+		predicates.set(index, replacement);
+		remove.remove(merged.getFirst());
+		predicates.removeIf(remove::contains);
+	}
+	
+	private static boolean isMergeableValue(final Predicate predicate)
+	{
+		return (predicate instanceof EqualsPredicate equals && null != equals.getValue())
+			|| (predicate instanceof InPredicate in && null != in.getValue() && in.getValue().stream().allMatch(Objects::nonNull));
+	}
+	
+	private static boolean isMergeableRange(final Predicate predicate)
+	{
+		return predicate instanceof DateRangePredicate p && null != p.getValue();
+	}
+	
+	private static boolean isEmptyIn(final Predicate predicate)
+	{
+		return predicate instanceof InPredicate p && null != p.getValue() && p.getValue().isEmpty();
+	}
+	
+	private static Collection<?> valuesOf(final Predicate predicate)
+	{
+		return predicate instanceof InPredicate p ? p.getValue() : List.of(((EqualsPredicate) predicate).getValue());
+	}
+	
+	private record PathKey(String root, List<String> path)
+	{
+		private static PathKey of(final PathPredicate predicate)
+		{
+			return new PathKey(predicate.getRoot(), Arrays.asList(predicate.getPath()));
+		}
+		
+		private String[] pathArray()
+		{
+			return path.toArray(String[]::new);
+		}
+		
+		private InPredicate emptyIn()
+		{
+			return new InPredicate(List.of(), root, pathArray());
+		}
+		
+		private Predicate toValuePredicate(final List<Object> values)
+		{
+			return 1 == values.size() ? new EqualsPredicate(values.getFirst(), root, pathArray())
+				: new InPredicate(List.copyOf(values), root, pathArray());
+		}
+	}
+}
@@ -22,6 +22,9 @@
 
 package com.gregmarut.querybuilder.predicate;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 public abstract class ValuePredicate<V> extends PathPredicate
 {
 	public V value;
@@ -36,4 +39,23 @@ public abstract class ValuePredicate<V> extends PathPredicate
 	{
 		return value;
 	}
+	
+	@Override
+	protected boolean valueEquals(final PathPredicate other)
+	{
+		return Objects.deepEquals(value, ((ValuePredicate<?>) other).value);
+	}
+	
+	@Override
+	protected int valueHashCode()
+	{
+		return Arrays.deepHashCode(new Object[]{value});
+	}
+	
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "[root=" + getRoot() + ", path=" + Arrays.toString(getPath()) + ", value="
+			+ (value instanceof Object[] array ? Arrays.deepToString(array) : String.valueOf(value)) + "]";
+	}
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.result;
+
+/**
+ * Counts the results up to one more than a maximum so that the count stops early on very large searches. When the count passes the
+ * maximum, the total is returned as a lower bound equal to the maximum, so it can be shown as "maximum+".
+ */
+public final class CappedTotalCountStrategy implements TotalCountStrategy
+{
+	private final long maximum;
+	
+	CappedTotalCountStrategy(final long maximum)
+	{
+		this.maximum = maximum;
+	}
+	
+	@Override
+	public PageTotal resolve(final long pageIndex, final int pageSize, final int resultCount, final TotalCounter counter)
+	{
+		//a maximum of Long.MAX_VALUE cannot be passed, so it is counted without going over
+		final long count = counter.count(Long.MAX_VALUE == maximum ? maximum : maximum + 1);
+		return count > maximum ? PageTotal.atLeast(maximum) : PageTotal.exact(count);
+	}
+}
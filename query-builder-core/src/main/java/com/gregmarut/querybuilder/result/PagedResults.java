@@ -27,21 +27,41 @@ import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-public record PagedResults<T>(List<T> results, long pageIndex, long total)
+/**
+ * A page of results along with the total number of results across all pages. When the total was not counted exactly, it is a lower
+ * bound of the real total and {@link #totalIsExact()} is false.
+ *
+ * @param results      the results of this page
+ * @param pageIndex    the index of this page
+ * @param total        the total number of results, or a lower bound of it
+ * @param totalIsExact whether the total is the exact number of results
+ * @param <T>
+ */
+public record PagedResults<T>(List<T> results, long pageIndex, long total, boolean totalIsExact)
 {
+	public PagedResults(final List<T> results, final long pageIndex, final long total)
+	{
+		this(results, pageIndex, total, true);
+	}
+	
+	public PagedResults(final List<T> results, final long pageIndex, final PageTotal total)
+	{
+		this(results, pageIndex, total.total(), total.exact());
+	}
+	
 	public <E> PagedResults<E> transformAllResults(final Function<List<T>, List<E>> transform)
 	{
-		return new PagedResults<>(transform.apply(results), pageIndex, total);
+		return new PagedResults<>(transform.apply(results), pageIndex, total, totalIsExact);
 	}
 	
 	public <E> PagedResults<E> transformResults(final Function<T, E> transform)
 	{
-		return new PagedResults<>(results.stream().map(transform).toList(), pageIndex, total);
+		return new PagedResults<>(results.stream().map(transform).toList(), pageIndex, total, totalIsExact);
 	}
 	
 	public <E> PagedResults<E> transformStream(final Function<Stream<T>, Stream<E>> transform)
 	{
-		return new PagedResults<>(transform.apply(results.stream()).toList(), pageIndex, total);
+		return new PagedResults<>(transform.apply(results.stream()).toList(), pageIndex, total, totalIsExact);
 	}
 	
 	public <E, X extends Exception> PagedResults<E> transformThrowableResults(final ThrowableFunction<T, E, X> transform) throws X
@@ -54,6 +74,6 @@ public record PagedResults<T>(List<T> results, long pageIndex, long total)
 			results.add(transform.apply(obj));
 		}
 		
-		return new PagedResults<>(results, pageIndex, total);
+		return new PagedResults<>(results, pageIndex, total, totalIsExact);
 	}
 }
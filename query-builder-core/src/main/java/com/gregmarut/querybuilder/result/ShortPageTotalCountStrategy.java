@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.result;
+
+/**
+ * Derives the total from the page itself when the page was not full, since no more results can follow it. An empty page past the
+ * first one says nothing about the total, so it is delegated like a full page.
+ */
+public final class ShortPageTotalCountStrategy implements TotalCountStrategy
+{
+	private final TotalCountStrategy delegate;
+	
+	ShortPageTotalCountStrategy(final TotalCountStrategy delegate)
+	{
+		this.delegate = delegate;
+	}
+	
+	@Override
+	public PageTotal resolve(final long pageIndex, final int pageSize, final int resultCount, final TotalCounter counter)
+	{
+		if (resultCount < pageSize && (resultCount > 0 || 0 == pageIndex))
+		{
+			return PageTotal.exact(pageIndex * pageSize + resultCount);
+		}
+		
+		return delegate.resolve(pageIndex, pageSize, resultCount, counter);
+	}
+}
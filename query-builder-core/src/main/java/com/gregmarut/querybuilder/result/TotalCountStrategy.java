@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.result;
+
+/**
+ * Decides how the total of a paginated search is determined once the page of results is known
+ */
+public interface TotalCountStrategy
+{
+	/**
+	 * Determines the total for a page of results
+	 *
+	 * @param pageIndex   the index of the page that was loaded
+	 * @param pageSize    the requested size of the page
+	 * @param resultCount the number of results that were returned for the page
+	 * @param counter     counts the results of the search when needed
+	 * @return the total number of results
+	 */
+	PageTotal resolve(long pageIndex, int pageSize, int resultCount, TotalCounter counter);
+	
+	/**
+	 * Always counts every result
+	 *
+	 * @return
+	 */
+	static TotalCountStrategy exact()
+	{
+		return ExactTotalCountStrategy.INSTANCE;
+	}
+	
+	/**
+	 * Counts up to one more than the given maximum. When there are more results than the maximum, the total is reported as at least
+	 * the maximum.
+	 *
+	 * @param maximum
+	 * @return
+	 * @throws IllegalArgumentException if the maximum is not positive
+	 */
+	static TotalCountStrategy capped(final long maximum)
+	{
+		if (maximum <= 0)
+		{
+			throw new IllegalArgumentException("maximum must be positive: " + maximum);
+		}
+		
+		return new CappedTotalCountStrategy(maximum);
+	}
+	
+	/**
+	 * Derives the total without counting when the page is the last one, otherwise delegates to the given strategy
+	 *
+	 * @param delegate
+	 * @return
+	 */
+	static TotalCountStrategy skipOnShortPage(final TotalCountStrategy delegate)
+	{
+		return new ShortPageTotalCountStrategy(delegate);
+	}
+	
+	/**
+	 * Reuses a total that the caller already knows, typically the one that was returned with the previous page
+	 *
+	 * @param total
+	 * @param exact
+	 * @return
+	 */
+	static TotalCountStrategy provided(final long total, final boolean exact)
+	{
+		return new ProvidedTotalCountStrategy(new PageTotal(total, exact));
+	}
+}
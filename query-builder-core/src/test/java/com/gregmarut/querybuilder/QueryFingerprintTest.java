@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder;
+
+import com.gregmarut.querybuilder.predicate.AndPredicate;
+import com.gregmarut.querybuilder.predicate.DateRangePredicate;
+import com.gregmarut.querybuilder.predicate.EqualsPredicate;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import com.gregmarut.querybuilder.predicate.NullPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class QueryFingerprintTest
+{
+	private static final long FULL = 4565212694519277359L;
+	private static final long SHAPE = 2417238725671512121L;
+	
+	private static final List<Sort> SORT = List.of(Sort.desc(new Path(QueryBuilder.ROOT, "createdOn")));
+	
+	@Test
+	public void shapeIgnoresValues()
+	{
+		final long a = QueryFingerprint.shape(query("x", 1), SORT);
+		final long b = QueryFingerprint.shape(query("y", 2), SORT);
+		
+		Assertions.assertEquals(a, b);
+		Assertions.assertNotEquals(QueryFingerprint.full(query("x", 1), SORT), QueryFingerprint.full(query("y", 2), SORT));
+		Assertions.assertEquals(QueryFingerprint.full(query("x", 1), SORT), QueryFingerprint.full(query("x", 1), SORT));
+	}
+	
+	@Test
+	public void shapeCoversStructure()
+	{
+		final long shape = QueryFingerprint.shape(query("x", 1), SORT);
+		
+		Assertions.assertNotEquals(shape, QueryFingerprint.shape(query("x", 1), List.of()));
+		Assertions.assertNotEquals(shape, QueryFingerprint.shape(query("x", 1), List.of(Sort.asc(new Path(QueryBuilder.ROOT, "createdOn")))));
+		Assertions.assertNotEquals(shape, QueryFingerprint.shape(List.of(new EqualsPredicate("x", QueryBuilder.ROOT, "b")), SORT));
+		Assertions.assertNotEquals(QueryFingerprint.shape(new EqualsPredicate("x", QueryBuilder.ROOT, "a", "b")),
+			QueryFingerprint.shape(new EqualsPredicate("x", QueryBuilder.ROOT, "ab")));
+		Assertions.assertNotEquals(QueryFingerprint.shape(new EqualsPredicate("x", QueryBuilder.ROOT, "a")),
+			QueryFingerprint.shape(new EqualsPredicate(null, QueryBuilder.ROOT, "a")));
+	}
+	
+	@Test
+	public void fingerprintsAreStable()
+	{
+		//the fingerprints must not change between runs so that they can be persisted or shared between instances
+		final List<Predicate> predicates = List.of(
+			new EqualsPredicate("x", QueryBuilder.ROOT, "a"),
+			new DateRangePredicate(DateRange.after(Instant.ofEpochSecond(1_700_000_000L)), QueryBuilder.ROOT, "createdOn"),
+			new InPredicate(List.of(1L, 2L), QueryBuilder.ROOT, "b"));
+		
+		Assertions.assertEquals(FULL, QueryFingerprint.full(predicates, SORT));
+		Assertions.assertEquals(SHAPE, QueryFingerprint.shape(predicates, SORT));
+	}
+	
+	@Test
+	public void setsIgnoreIterationOrder()
+	{
+		final Set<String> forward = new LinkedHashSet<>(List.of("a", "b", "c"));
+		final Set<String> backward = new LinkedHashSet<>(List.of("c", "b", "a"));
+		
+		Assertions.assertEquals(QueryFingerprint.full(new InPredicate(forward, QueryBuilder.ROOT, "a")),
+			QueryFingerprint.full(new InPredicate(backward, QueryBuilder.ROOT, "a")));
+		Assertions.assertNotEquals(QueryFingerprint.full(new InPredicate(List.of("a", "b"), QueryBuilder.ROOT, "a")),
+			QueryFingerprint.full(new InPredicate(List.of("b", "a"), QueryBuilder.ROOT, "a")));
+	}
+	
+	private static List<Predicate> query(final String value, final int number)
+	{
+		return List.of(new AndPredicate(new EqualsPredicate(value, QueryBuilder.ROOT, "a"), new NullPredicate(QueryBuilder.ROOT, "b")),
+			new InPredicate(List.of(number, number + 1), QueryBuilder.ROOT, "c"));
+	}
+}
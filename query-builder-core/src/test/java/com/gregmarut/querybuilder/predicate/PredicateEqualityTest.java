@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.predicate;
+
+import com.gregmarut.querybuilder.DateRange;
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.QueryFingerprint;
+import com.gregmarut.querybuilder.Sort;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class PredicateEqualityTest
+{
+	@Test
+	public void pathsAreComparedBySegments()
+	{
+		Assertions.assertEquals(new Path(QueryBuilder.ROOT, "a", "b"), new Path(QueryBuilder.ROOT, "a", "b"));
+		Assertions.assertEquals(new Path(QueryBuilder.ROOT, "a", "b").hashCode(), new Path(QueryBuilder.ROOT, "a", "b").hashCode());
+		Assertions.assertNotEquals(new Path(QueryBuilder.ROOT, "a", "b"), new Path(QueryBuilder.ROOT, "a"));
+		Assertions.assertEquals(Sort.asc(new Path(QueryBuilder.ROOT, "a")), Sort.asc(new Path(QueryBuilder.ROOT, "a")));
+		Assertions.assertNotEquals(Sort.asc(new Path(QueryBuilder.ROOT, "a")), Sort.desc(new Path(QueryBuilder.ROOT, "a")));
+	}
+	
+	@Test
+	public void valuePredicatesAreComparedByValue()
+	{
+		final var instant = Instant.ofEpochSecond(1_700_000_000L);
+		
+		Assertions.assertEquals(new EqualsPredicate("x", QueryBuilder.ROOT, "a"), new EqualsPredicate("x", QueryBuilder.ROOT, "a"));
+		Assertions.assertNotEquals(new EqualsPredicate("x", QueryBuilder.ROOT, "a"), new EqualsPredicate("y", QueryBuilder.ROOT, "a"));
+		Assertions.assertNotEquals(new EqualsPredicate("x", QueryBuilder.ROOT, "a"), new NotEqualsPredicate("x", QueryBuilder.ROOT, "a"));
+		Assertions.assertEquals(new InPredicate(new Object[]{1, 2}, QueryBuilder.ROOT, "a"), new InPredicate(List.of(1, 2), QueryBuilder.ROOT, "a"));
+		Assertions.assertEquals(new DateRangePredicate(DateRange.after(instant), QueryBuilder.ROOT, "a"),
+			new DateRangePredicate(DateRange.after(instant), QueryBuilder.ROOT, "a"));
+		Assertions.assertEquals(new NullPredicate(QueryBuilder.ROOT, "a"), new NullPredicate(QueryBuilder.ROOT, "a"));
+		Assertions.assertNotEquals(new NullPredicate(QueryBuilder.ROOT, "a"), new NotNullPredicate(QueryBuilder.ROOT, "a"));
+	}
+	
+	@Test
+	public void hashCodeFollowsMutableValues()
+	{
+		final List<String> names = new ArrayList<>(List.of("a"));
+		final var predicate = new EqualsPredicate(names, QueryBuilder.ROOT, "a");
+		final var hashCode = predicate.hashCode();
+		
+		names.add("b");
+		
+		final var same = new EqualsPredicate(List.of("a", "b"), QueryBuilder.ROOT, "a");
+		Assertions.assertNotEquals(hashCode, predicate.hashCode());
+		Assertions.assertEquals(same, predicate);
+		Assertions.assertEquals(same.hashCode(), predicate.hashCode());
+	}
+	
+	@Test
+	public void fingerprintsRecordValuesThatAreNotPublic()
+	{
+		//the record is private to a package other than the one of QueryFingerprint
+		Assertions.assertEquals(QueryFingerprint.full(new EqualsPredicate(new Range(1, 2), QueryBuilder.ROOT, "a")),
+			QueryFingerprint.full(new EqualsPredicate(new Range(1, 2), QueryBuilder.ROOT, "a")));
+		Assertions.assertNotEquals(QueryFingerprint.full(new EqualsPredicate(new Range(1, 2), QueryBuilder.ROOT, "a")),
+			QueryFingerprint.full(new EqualsPredicate(new Range(1, 3), QueryBuilder.ROOT, "a")));
+	}
+	
+	@Test
+	public void compoundPredicatesAreComparedByElements()
+	{
+		final var and = new AndPredicate(new EqualsPredicate("x", QueryBuilder.ROOT, "a"), new NullPredicate(QueryBuilder.ROOT, "b"));
+		final var same = new AndPredicate(new EqualsPredicate("x", QueryBuilder.ROOT, "a"), new NullPredicate(QueryBuilder.ROOT, "b"));
+		final var or = new OrPredicate(new EqualsPredicate("x", QueryBuilder.ROOT, "a"), new NullPredicate(QueryBuilder.ROOT, "b"));
+		
+		Assertions.assertEquals(and, same);
+		Assertions.assertEquals(and.hashCode(), same.hashCode());
+		Assertions.assertNotEquals(and, or);
+		Assertions.assertEquals(1, new HashSet<>(List.of(and, same)).size());
+	}
+	
+	private record Range(int from, int to)
+	{
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.predicate;
+
+import com.gregmarut.querybuilder.DateRange;
+import com.gregmarut.querybuilder.QueryBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+public class PredicateOptimizerTest
+{
+	private static final Instant T0 = Instant.ofEpochSecond(1_700_000_000L);
+	
+	@Test
+	public void nestedAndIsFlattened()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(
+			new AndPredicate(new EqualsPredicate("a", QueryBuilder.ROOT, "x"),
+				new AndPredicate(new NotNullPredicate(QueryBuilder.ROOT, "y"))),
+			new NullPredicate(QueryBuilder.ROOT, "z")));
+		
+		Assertions.assertEquals(3, optimized.size());
+		Assertions.assertInstanceOf(EqualsPredicate.class, optimized.get(0));
+		Assertions.assertInstanceOf(NotNullPredicate.class, optimized.get(1));
+		Assertions.assertInstanceOf(NullPredicate.class, optimized.get(2));
+	}
+	
+	@Test
+	public void duplicatesAreRemoved()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(
+			new NotEqualsPredicate("a", QueryBuilder.ROOT, "x"),
+			new NotEqualsPredicate("a", QueryBuilder.ROOT, "x"),
+			new NotEqualsPredicate("a", QueryBuilder.ROOT, "y")));
+		
+		Assertions.assertEquals(2, optimized.size());
+	}
+	
+	@Test
+	public void orOfEqualsBecomesIn()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(new OrPredicate(
+			new EqualsPredicate("a", QueryBuilder.ROOT, "x"),
+			new OrPredicate(new EqualsPredicate("b", QueryBuilder.ROOT, "x"), new InPredicate(List.of("b", "c"), QueryBuilder.ROOT, "x")))));
+		
+		Assertions.assertEquals(1, optimized.size());
+		final var in = Assertions.assertInstanceOf(InPredicate.class, optimized.getFirst());
+		Assertions.assertEquals(List.of("a", "b", "c"), in.getValue());
+		Assertions.assertArrayEquals(new String[]{"x"}, in.getPath());
+	}
+	
+	@Test
+	public void orOnDifferentPathsIsKept()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(new OrPredicate(
+			new EqualsPredicate("a", QueryBuilder.ROOT, "x"),
+			new EqualsPredicate("a", QueryBuilder.ROOT, "y"))));
+		
+		final var or = Assertions.assertInstanceOf(OrPredicate.class, optimized.getFirst());
+		Assertions.assertEquals(2, or.predicates().length);
+	}
+	
+	@Test
+	public void andOfInIsIntersected()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(
+			new InPredicate(List.of(1, 2, 3), QueryBuilder.ROOT, "x"),
+			new InPredicate(List.of(2, 3, 4), QueryBuilder.ROOT, "x"),
+			new NotNullPredicate(QueryBuilder.ROOT, "y")), true);
+		
+		Assertions.assertEquals(2, optimized.size());
+		Assertions.assertEquals(List.of(2, 3), Assertions.assertInstanceOf(InPredicate.class, optimized.getFirst()).getValue());
+	}
+	
+	@Test
+	public void valuesAreNotIntersectedByDefault()
+	{
+		//a to-many path or a case-insensitive collation can match both values
+		final var optimized = PredicateOptimizer.optimize(List.of(
+			new EqualsPredicate("x", QueryBuilder.ROOT, "a"),
+			new EqualsPredicate("X", QueryBuilder.ROOT, "a"),
+			new NullPredicate(QueryBuilder.ROOT, "a")));
+		
+		Assertions.assertFalse(PredicateOptimizer.isUnsatisfiable(optimized));
+		Assertions.assertEquals(3, optimized.size());
+	}
+	
+	@Test
+	public void conflictingEqualsIsUnsatisfiable()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(
+			new EqualsPredicate(1, QueryBuilder.ROOT, "a"),
+			new NotNullPredicate(QueryBuilder.ROOT, "b"),
+			new EqualsPredicate(2, QueryBuilder.ROOT, "a")), true);
+		
+		Assertions.assertTrue(PredicateOptimizer.isUnsatisfiable(optimized));
+		Assertions.assertEquals(1, optimized.size());
+		Assertions.assertArrayEquals(new String[]{"a"}, ((InPredicate) optimized.getFirst()).getPath());
+	}
+	
+	@Test
+	public void valuesOfDifferentClassesAreNotIntersected()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(
+			new EqualsPredicate(1, QueryBuilder.ROOT, "a"),
+			new EqualsPredicate(1L, QueryBuilder.ROOT, "a")), true);
+		
+		Assertions.assertFalse(PredicateOptimizer.isUnsatisfiable(optimized));
+		Assertions.assertEquals(2, optimized.size());
+	}
+	
+	@Test
+	public void nullAndNotNullIsUnsatisfiable()
+	{
+		Assertions.assertTrue(PredicateOptimizer.isUnsatisfiable(PredicateOptimizer.optimize(List.of(
+			new NullPredicate(QueryBuilder.ROOT, "a"),
+			new EqualsPredicate("x", QueryBuilder.ROOT, "a")), true)));
+	}
+	
+	@Test
+	public void emptyInIsUnsatisfiable()
+	{
+		Assertions.assertTrue(PredicateOptimizer.isUnsatisfiable(PredicateOptimizer.optimize(List.of(
+			new EqualsPredicate("x", QueryBuilder.ROOT, "a"),
+			new AndPredicate(new InPredicate(List.of(), QueryBuilder.ROOT, "b"))))));
+	}
+	
+	@Test
+	public void unsatisfiableOrBranchIsDropped()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(new OrPredicate(
+			new AndPredicate(new EqualsPredicate(1, QueryBuilder.ROOT, "a"), new EqualsPredicate(2, QueryBuilder.ROOT, "a")),
+			new NotNullPredicate(QueryBuilder.ROOT, "b"))), true);
+		
+		Assertions.assertEquals(1, optimized.size());
+		Assertions.assertInstanceOf(NotNullPredicate.class, optimized.getFirst());
+	}
+	
+	@Test
+	public void dateRangesAreIntersected()
+	{
+		final var optimized = PredicateOptimizer.optimize(List.of(
+			new DateRangePredicate(DateRange.after(T0), QueryBuilder.ROOT, "createdOn"),
+			new DateRangePredicate(new DateRange<>(T0.plusSeconds(10), T0.plusSeconds(100)), QueryBuilder.ROOT, "createdOn"),
+			new DateRangePredicate(DateRange.before(T0.plusSeconds(50)), QueryBuilder.ROOT, "createdOn")), true);
+		
+		Assertions.assertEquals(1, optimized.size());
+		Assertions.assertEquals(new DateRange<>(T0.plusSeconds(10), T0.plusSeconds(50)),
+			((DateRangePredicate) optimized.getFirst()).getValue());
+	}
+	
+	@Test
+	public void disjointDateRangesAreUnsatisfiable()
+	{
+		Assertions.assertTrue(PredicateOptimizer.isUnsatisfiable(PredicateOptimizer.optimize(List.of(
+			new DateRangePredicate(DateRange.after(T0.plusSeconds(60)), QueryBuilder.ROOT, "createdOn"),
+			new DateRangePredicate(DateRange.before(T0.plusSeconds(60)), QueryBuilder.ROOT, "createdOn")), true)));
+	}
+}
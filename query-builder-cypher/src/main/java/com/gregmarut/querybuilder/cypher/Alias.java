@@ -26,7 +26,6 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @Getter
 @RequiredArgsConstructor
@@ -35,15 +34,15 @@ public class Alias extends CypherString
 	private final String alias;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return alias;
+		sb.append(alias);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.empty();
+	
 	}
 	
 	public static Alias of(final String alias)
@@ -26,7 +26,6 @@ import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 public class AliasedCypherString<E extends CypherString> extends ReturnableCypherString implements Identifiable
 {
@@ -66,17 +65,18 @@ public class AliasedCypherString<E extends CypherString> extends ReturnableCyphe
 	}
 
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
 		if (isBuilt(context))
 		{
-			return alias;
+			sb.append(alias);
 		}
 		else
 		{
-			final var value = cypherString.build(context) + " AS " + alias;
+			cypherString.appendTo(sb, context);
+			sb.append(" AS ");
+			sb.append(alias);
 			context.built(this);
-			return value;
 		}
 	}
 	
@@ -87,8 +87,8 @@ public class AliasedCypherString<E extends CypherString> extends ReturnableCyphe
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return cypherString.getParameterStream(context);
+		cypherString.collectParameters(context, parameters);
 	}
 }
@@ -22,29 +22,75 @@
 
 package com.gregmarut.querybuilder.cypher;
 
-import lombok.RequiredArgsConstructor;
-
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-@RequiredArgsConstructor
+/**
+ * A cypher list. When every element is a {@link Variable} the list is bound as a single list parameter instead of one
+ * parameter per element, so the query text and its cached plan do not depend on the number of elements.
+ */
 public class Array extends CypherString
 {
 	private final Collection<? extends CypherString> values;
+	private final boolean parameterList;
+	
+	public Array(final Collection<? extends CypherString> values)
+	{
+		this.values = values;
+		this.parameterList = !values.isEmpty() && values.stream().allMatch(Variable.class::isInstance);
+	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return "[" + values.stream().map(value -> value.build(context)).collect(Collectors.joining(", ")) + "]";
+		if (parameterList)
+		{
+			sb.append(CypherBuilder.VARIABLE_PREFIX);
+			sb.append(context.getVariableName(this));
+		}
+		else
+		{
+			sb.append('[');
+			
+			boolean first = true;
+			for (CypherString value : values)
+			{
+				if (!first)
+				{
+					sb.append(", ");
+				}
+				
+				value.appendTo(sb, context);
+				first = false;
+			}
+			
+			sb.append(']');
+		}
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return values.stream().flatMap(value -> value.getParameterStream(context));
+		if (parameterList)
+		{
+			//unwrap the element values into the single list parameter
+			final List<Object> list = new ArrayList<>(values.size());
+			for (CypherString value : values)
+			{
+				list.add(((Variable) value).getValue());
+			}
+			
+			parameters.put(context.getVariableName(this), list);
+		}
+		else
+		{
+			for (CypherString value : values)
+			{
+				value.collectParameters(context, parameters);
+			}
+		}
 	}
 	
 	public static Array of(final CypherString... values)
@@ -29,12 +29,13 @@ public abstract class Call extends CypherPhrase
 	private static final String CALL = "CALL";
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		final var result = CALL + " " + buildFunction(context);
+		sb.append(CALL);
+		sb.append(' ');
+		appendFunction(sb, context);
 		context.built(this);
-		return result;
 	}
 	
-	protected abstract String buildFunction(final QueryBuilderContext context);
+	protected abstract void appendFunction(final StringBuilder sb, final QueryBuilderContext context);
 }
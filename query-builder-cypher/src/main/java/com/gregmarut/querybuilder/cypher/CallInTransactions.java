@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import lombok.Getter;
+
+/**
+ * A {@code CALL { ... } IN [n CONCURRENT] TRANSACTIONS [OF n ROWS] [ON ERROR ...]} subquery. The body is committed in batches of
+ * rows instead of in one transaction, so a large import does not have to hold the state of every row on the server at once.
+ * <p>
+ * The body is written with the context of the enclosing query so that it shares its nodes and parameters. Variables of the outer
+ * query are imported with {@link #importing(Identifiable...)} or a leading WITH of the body. Neo4j only runs these subqueries in
+ * an implicit (auto-commit) transaction.
+ * </p>
+ */
+@Getter
+public class CallInTransactions extends CallSubquery
+{
+	private static final String KEYWORD_IN = "IN";
+	private static final String KEYWORD_CONCURRENT = "CONCURRENT";
+	private static final String KEYWORD_TRANSACTIONS = "TRANSACTIONS";
+	private static final String KEYWORD_OF = "OF";
+	private static final String KEYWORD_ROWS = "ROWS";
+	private static final String KEYWORD_ON_ERROR = "ON ERROR";
+	
+	private Integer rows;
+	private Integer concurrency;
+	private OnError onError;
+	
+	public CallInTransactions(final CypherBuilder body)
+	{
+		super(body);
+	}
+	
+	/**
+	 * Sets the number of rows committed in each transaction
+	 *
+	 * @param rows
+	 * @return
+	 */
+	public CallInTransactions ofRows(final int rows)
+	{
+		if (rows <= 0)
+		{
+			throw new IllegalArgumentException("rows must be positive: " + rows);
+		}
+		
+		this.rows = rows;
+		return this;
+	}
+	
+	/**
+	 * Sets the number of transactions the server may run in parallel
+	 *
+	 * @param concurrency
+	 * @return
+	 */
+	public CallInTransactions concurrent(final int concurrency)
+	{
+		if (concurrency <= 0)
+		{
+			throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+		}
+		
+		this.concurrency = concurrency;
+		return this;
+	}
+	
+	@Override
+	public CallInTransactions importing(final Identifiable... identifiables)
+	{
+		super.importing(identifiables);
+		return this;
+	}
+	
+	public CallInTransactions onError(final OnError onError)
+	{
+		this.onError = onError;
+		return this;
+	}
+	
+	@Override
+	protected void appendFunction(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		super.appendFunction(sb, context);
+		
+		sb.append(" ");
+		sb.append(KEYWORD_IN);
+		sb.append(" ");
+		
+		if (null != concurrency)
+		{
+			sb.append(concurrency);
+			sb.append(" ");
+			sb.append(KEYWORD_CONCURRENT);
+			sb.append(" ");
+		}
+		
+		sb.append(KEYWORD_TRANSACTIONS);
+		
+		if (null != rows)
+		{
+			sb.append(" ");
+			sb.append(KEYWORD_OF);
+			sb.append(" ");
+			sb.append(rows);
+			sb.append(" ");
+			sb.append(KEYWORD_ROWS);
+		}
+		
+		if (null != onError)
+		{
+			sb.append(" ");
+			sb.append(KEYWORD_ON_ERROR);
+			sb.append(" ");
+			sb.append(onError);
+		}
+	}
+	
+	public static CallInTransactions of(final CypherBuilder body)
+	{
+		return new CallInTransactions(body);
+	}
+	
+	/**
+	 * What the server does when one of the transactions fails
+	 */
+	public enum OnError
+	{
+		//skips the failed batch and carries on with the rest
+		CONTINUE,
+		//stops after the failed batch and keeps the batches that were already committed
+		BREAK,
+		//fails the query and keeps the batches that were already committed
+		FAIL
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code CALL { WITH x ... }} subquery whose body is run once for every row of the enclosing query. The variables listed by
+ * {@link #importing(Identifiable...)} are carried into the body with a leading WITH, which makes the subquery correlated, and the
+ * ORDER BY, SKIP and LIMIT of the body apply to each row separately. This is how the top N rows of every group are selected in
+ * the database instead of returning whole groups.
+ */
+@Getter
+public class CallSubquery extends Call
+{
+	private final CypherBuilder body;
+	private final List<LiteralCypherString> imports;
+	
+	public CallSubquery(final CypherBuilder body)
+	{
+		this.body = body;
+		this.imports = new ArrayList<>();
+	}
+	
+	/**
+	 * Imports the given variables of the enclosing query into the body
+	 *
+	 * @param identifiables
+	 * @return
+	 */
+	public CallSubquery importing(final Identifiable... identifiables)
+	{
+		for (Identifiable identifiable : identifiables)
+		{
+			imports.add(LiteralCypherString.of(identifiable.getRequiredIdentifier()));
+		}
+		
+		return this;
+	}
+	
+	@Override
+	protected void appendFunction(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		body.appendSubquery(sb, context, imports);
+	}
+	
+	@Override
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+	{
+		body.collectParameters(context, parameters);
+	}
+	
+	public static CallSubquery of(final CypherBuilder body)
+	{
+		return new CallSubquery(body);
+	}
+}
@@ -29,8 +29,6 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Builder
 @RequiredArgsConstructor
@@ -49,14 +47,13 @@ public class Case extends CypherString
 	private final CypherString elseReturn;
 	
 	@Override
-	public final String _build(final QueryBuilderContext context)
+	public final void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
 		if (whenThens.isEmpty())
 		{
 			throw new IllegalStateException("At least one WHEN-THEN pair is required.");
 		}
 		
-		final var sb = new StringBuilder();
 		sb.append(KEYWORD_CASE);
 		
 		if (property != null)
@@ -65,9 +62,12 @@ public class Case extends CypherString
 			sb.append(property);
 		}
 		
-		sb.append(context.getStatementSeparator());
-		sb.append(whenThens.stream().map(wt -> context.getIndentCharacter() + wt.build(context))
-			.collect(Collectors.joining(Character.toString(context.getStatementSeparator()))));
+		for (WhenThen whenThen : whenThens)
+		{
+			sb.append(context.getStatementSeparator());
+			sb.append(context.getIndentCharacter());
+			whenThen.appendTo(sb, context);
+		}
 		
 		if (null != elseReturn)
 		{
@@ -75,25 +75,24 @@ public class Case extends CypherString
 			sb.append(context.getIndentCharacter());
 			sb.append(KEYWORD_ELSE);
 			sb.append(" ");
-			sb.append(elseReturn.build(context));
+			elseReturn.appendTo(sb, context);
 		}
 		
 		sb.append(context.getStatementSeparator());
 		sb.append(KEYWORD_END);
-		
-		return sb.toString();
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		if (null != elseReturn)
+		for (WhenThen whenThen : whenThens)
 		{
-			return Stream.concat(whenThens.stream().flatMap(wt -> wt.getParameterStream(context)), elseReturn.getParameterStream(context));
+			whenThen.collectParameters(context, parameters);
 		}
-		else
+		
+		if (null != elseReturn)
 		{
-			return whenThens.stream().flatMap(wt -> wt.getParameterStream(context));
+			elseReturn.collectParameters(context, parameters);
 		}
 	}
 	
@@ -23,11 +23,13 @@
 package com.gregmarut.querybuilder.cypher;
 
 import com.gregmarut.querybuilder.cypher.condition.Condition;
+import com.gregmarut.querybuilder.cypher.function.Count;
 import com.gregmarut.querybuilder.cypher.node.Node;
 import com.gregmarut.querybuilder.cypher.phrase.CypherPhrase;
 import com.gregmarut.querybuilder.cypher.phrase.Delete;
 import com.gregmarut.querybuilder.cypher.phrase.ForEach;
 import com.gregmarut.querybuilder.cypher.phrase.Match;
+import com.gregmarut.querybuilder.cypher.phrase.MatchIn;
 import com.gregmarut.querybuilder.cypher.phrase.Remove;
 import com.gregmarut.querybuilder.cypher.phrase.Return;
 import com.gregmarut.querybuilder.cypher.phrase.SetClause;
@@ -36,6 +38,8 @@ import com.gregmarut.querybuilder.cypher.phrase.Unwind;
 import com.gregmarut.querybuilder.cypher.phrase.UsingIndex;
 import com.gregmarut.querybuilder.cypher.phrase.Where;
 import com.gregmarut.querybuilder.cypher.phrase.With;
+import com.gregmarut.querybuilder.cypher.plan.PassManager;
+import com.gregmarut.querybuilder.cypher.plan.QueryPlan;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 
@@ -45,10 +49,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 @Accessors(chain = true)
 public class CypherBuilder
@@ -56,6 +58,14 @@ public class CypherBuilder
 	public static final String KEYWORD_ORDER_BY = "ORDER BY";
 	public static final String KEYWORD_SKIP = "SKIP";
 	public static final String KEYWORD_LIMIT = "LIMIT";
+	public static final String KEYWORD_CALL = "CALL";
+	public static final String KEYWORD_WITH_ALL = "WITH *";
+	
+	//the column that holds the total number of results in a count or paginated query
+	public static final String TOTAL = "_total";
+	
+	//the parameter that bounds the number of rows read by a bounded count query
+	public static final String COUNT_LIMIT = "_countLimit";
 	
 	public static final String VARIABLE_PREFIX = "$";
 	
@@ -72,6 +82,12 @@ public class CypherBuilder
 	
 	private boolean distinct;
 	
+	@Getter
+	private Seek seek;
+	
+	@Getter
+	private PassManager passManager;
+	
 	public CypherBuilder()
 	{
 		this.cypherPhrases = new ArrayList<>();
@@ -113,6 +129,21 @@ public class CypherBuilder
 		return match(new Match(node));
 	}
 	
+	/**
+	 * Matches the nodes whose property is one of the given values, bound as a single list parameter
+	 *
+	 * @param node
+	 * @param propertyName
+	 * @param values
+	 * @return
+	 */
+	public CypherBuilder matchIn(final Node node, final String propertyName, final Collection<?> values)
+	{
+		final var matchIn = MatchIn.of(node, propertyName, values);
+		this.cypherPhrases.add(() -> matchIn);
+		return this;
+	}
+	
 	public CypherBuilder usingIndex(final UsingIndex usingIndex)
 	{
 		this.cypherPhrases.add(() -> usingIndex);
@@ -289,6 +320,33 @@ public class CypherBuilder
 		return this;
 	}
 	
+	/**
+	 * Pages through the results with keyset pagination. The id of the seek is added to the order by as a tie breaker and, once the
+	 * seek has a last row, only the rows after it are matched. Deep pages then no longer scan and discard every row of the previous
+	 * pages. Cannot be combined with {@link #skip(Integer)} and every order by entry has to be a {@link Property}, since the guard is
+	 * written before the RETURN where its aliases are not defined.
+	 *
+	 * @param seek
+	 * @return
+	 */
+	public CypherBuilder seek(final Seek seek)
+	{
+		this.seek = seek;
+		return this;
+	}
+	
+	/**
+	 * Sets the passes that rewrite the phrases of this builder each time it is written
+	 *
+	 * @param passManager
+	 * @return
+	 */
+	public CypherBuilder optimize(final PassManager passManager)
+	{
+		this.passManager = passManager;
+		return this;
+	}
+	
 	public <T> TypedCypherQuery<T> build(final Class<T> resultClass)
 	{
 		return new TypedCypherQuery<>(build(QueryBuilderContext.createDefault()), resultClass);
@@ -299,6 +357,16 @@ public class CypherBuilder
 		return new TypedCypherQuery<>(build(context), resultClass);
 	}
 	
+	/**
+	 * Renders this builder once into a template whose {@link Placeholder} slots are bound on every execution
+	 *
+	 * @return
+	 */
+	public CypherTemplate buildTemplate()
+	{
+		return CypherTemplate.of(this);
+	}
+	
 	public CypherQuery build()
 	{
 		return build(QueryBuilderContext.createDefault());
@@ -306,17 +374,302 @@ public class CypherBuilder
 	
 	public CypherQuery build(final QueryBuilderContext context)
 	{
+		//check to see if this query must be free of hazards before it is built
+		if (null != context.getStrictSeverity())
+		{
+			CypherQueryAnalyzer.verify(this, context.getStrictSeverity());
+		}
+		
 		final var sb = new StringBuilder();
+		final Map<String, Object> params = new HashMap<>();
+		
+		appendTo(sb, context, params);
+		
+		return new CypherQuery(sb.toString(), params);
+	}
+	
+	/**
+	 * Writes this builder into a query that is being built, such as the body of a subquery
+	 *
+	 * @param sb
+	 * @param context
+	 * @param params
+	 */
+	void appendTo(final StringBuilder sb, final QueryBuilderContext context, final Map<String, Object> params)
+	{
+		appendPhrases(sb, context, params, true);
+		appendProjection(sb, context, params, returnValues, skip, limit);
+	}
+	
+	/**
+	 * Writes this builder in braces as the body of a subquery. The body shares the context of the enclosing query, so the nodes
+	 * it matched can be referenced by identifier and the parameters of both are named from the same counter. The parameters are
+	 * gathered separately by {@link #collectParameters(QueryBuilderContext, Map)}.
+	 *
+	 * @param sb
+	 * @param context
+	 * @param imports the variables of the enclosing query that are imported with a leading WITH, if any
+	 */
+	public void appendSubquery(final StringBuilder sb, final QueryBuilderContext context, final List<? extends CypherString> imports)
+	{
+		sb.append("{");
+		sb.append(context.getStatementSeparator());
+		
+		//the variables bound inside of the body are not visible after it, unless it returns them
+		final var bindings = context.getBindings();
+		
+		if (!imports.isEmpty())
+		{
+			new With(imports).appendTo(sb, context);
+			sb.append(context.getStatementSeparator());
+		}
+		
+		appendTo(sb, context, new HashMap<>());
 		
+		//the body already ends with a separator unless its last phrase wrote nothing after itself
+		if (sb.charAt(sb.length() - 1) != context.getStatementSeparator())
+		{
+			sb.append(context.getStatementSeparator());
+		}
+		
+		context.restoreBindings(bindings);
+		sb.append("}");
+	}
+	
+	/**
+	 * Collects the parameters that {@link #appendTo(StringBuilder, QueryBuilderContext, Map)} writes without writing the query
+	 * again, since the nodes and relationships of a context can only be written once
+	 *
+	 * @param context
+	 * @param params
+	 */
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> params)
+	{
+		final var resolved = resolvePhrases(context);
+		final var phrases = resolved.phrases();
+		
+		for (int i = 0; i < phrases.size(); i++)
+		{
+			phrases.get(i).collectParameters(context, params);
+		}
+		
+		if (null != resolved.seekCondition())
+		{
+			resolved.seekCondition().collectParameters(context, params);
+		}
+		
+		for (int i = 0; i < returnValues.size(); i++)
+		{
+			returnValues.get(i).collectParameters(context, params);
+		}
+	}
+	
+	public CypherQuery buildCountQuery()
+	{
+		return buildCountQuery(QueryBuilderContext.createDefault());
+	}
+	
+	/**
+	 * Builds a query that counts the rows returned by this builder. The phrases are written without the seek guard, and the return
+	 * values, order by, skip and limit are replaced with the count. A distinct builder counts its distinct return values, so any
+	 * expression among them has to be aliased the same as it would in a WITH.
+	 *
+	 * @param context
+	 * @return
+	 */
+	public CypherQuery buildCountQuery(final QueryBuilderContext context)
+	{
+		return buildCountQueries(context).count();
+	}
+	
+	/**
+	 * Builds a query that counts at most as many rows as are bound to the {@link #COUNT_LIMIT} parameter. The rows are limited
+	 * before they are counted, so a capped total stops reading rows once the limit is reached.
+	 *
+	 * @return
+	 */
+	public CypherQuery buildBoundedCountQuery()
+	{
+		return buildCountQueries(QueryBuilderContext.createDefault()).bounded();
+	}
+	
+	/**
+	 * Builds the count query along with its bounded variant. Both share the phrases, only the bounded one limits the rows ahead of
+	 * the count.
+	 *
+	 * @param context
+	 * @return
+	 */
+	private CountQueries buildCountQueries(final QueryBuilderContext context)
+	{
+		final var separator = context.getStatementSeparator();
+		final var sb = new StringBuilder();
+		final Map<String, Object> params = new HashMap<>();
+		
+		appendPhrases(sb, context, params, false);
+		
+		if (distinct && !returnValues.isEmpty())
+		{
+			//the distinct rows have to be projected before they can be counted
+			final var with = new With(returnValues).distinct();
+			
+			addIfNeeded(sb, context.getStatementSeparator());
+			with.appendTo(sb, context);
+			with.collectParameters(context, params);
+		}
+		
+		addIfNeeded(sb, separator);
+		final var body = sb.toString();
+		
+		sb.setLength(0);
+		new Return(List.of(Count.of(LiteralCypherString.of("*")).as(TOTAL)), false).appendTo(sb, context);
+		final var countReturn = sb.toString();
+		
+		final var bounded = body + KEYWORD_WITH_ALL + ' ' + KEYWORD_LIMIT + ' ' + VARIABLE_PREFIX + COUNT_LIMIT + separator + countReturn;
+		return new CountQueries(new CypherQuery(body + countReturn, params), new CypherQuery(bounded, params));
+	}
+	
+	/**
+	 * Builds the query for one page of the results along with a separate query that counts all of them. When a seek is set it
+	 * locates the page and the page index is only reported back with the results.
+	 *
+	 * @param resultClass
+	 * @param pageIndex
+	 * @param pageSize
+	 * @param <T>
+	 * @return
+	 */
+	public <T> PaginatedCypherQuery<T> buildPaginated(final Class<T> resultClass, final int pageIndex, final int pageSize)
+	{
+		final var context = QueryBuilderContext.createDefault();
+		final var sb = new StringBuilder();
 		final Map<String, Object> params = new HashMap<>();
 		
+		appendPhrases(sb, context, params, true);
+		appendProjection(sb, context, params, returnValues, getPageSkip(pageIndex, pageSize), pageSize);
+		
+		final var pageQuery = new TypedCypherQuery<>(new CypherQuery(sb.toString(), params), resultClass);
+		final var countQueries = buildCountQueries(QueryBuilderContext.createDefault());
+		return new PaginatedCypherQuery<>(pageQuery, countQueries.count(), pageIndex, pageSize, false, countQueries.bounded());
+	}
+	
+	/**
+	 * Builds the query for one page of the results that also returns the total in a {@link #TOTAL} column, so the page and the
+	 * total are read in one round trip. The total is counted in a CALL subquery ahead of the page. The separate count query is still
+	 * included for an empty page, since it has no rows to carry the total.
+	 *
+	 * @param resultClass
+	 * @param pageIndex
+	 * @param pageSize
+	 * @param <T>
+	 * @return
+	 */
+	public <T> PaginatedCypherQuery<T> buildPaginatedWithTotal(final Class<T> resultClass, final int pageIndex, final int pageSize)
+	{
+		final var context = QueryBuilderContext.createDefault();
+		final var separator = context.getStatementSeparator();
+		final var sb = new StringBuilder();
+		final Map<String, Object> params = new HashMap<>();
+		
+		//the count shares the context of the page so that every parameter is named from the same counter. The variables of the
+		//subquery are not visible after it, so the nodes it wrote are forgotten and the page writes them again with their labels
+		final var built = context.getBuilt();
+		final var bindings = context.getBindings();
+		final var countQueries = buildCountQueries(context);
+		final var countQuery = countQueries.count();
+		context.restoreBuilt(built);
+		context.restoreBindings(bindings);
+		
+		sb.append(KEYWORD_CALL);
+		sb.append(" {");
+		sb.append(separator);
+		sb.append(countQuery.getQuery());
+		sb.append(separator);
+		sb.append('}');
+		sb.append(separator);
+		params.putAll(countQuery.getParams());
+		
+		final List<ReturnableCypherString> pageReturnValues = new ArrayList<>(returnValues);
+		pageReturnValues.add(LiteralCypherString.of(TOTAL));
+		
+		appendPhrases(sb, context, params, true);
+		appendProjection(sb, context, params, pageReturnValues, getPageSkip(pageIndex, pageSize), pageSize);
+		
+		final var pageQuery = new TypedCypherQuery<>(new CypherQuery(sb.toString(), params), resultClass);
+		return new PaginatedCypherQuery<>(pageQuery, countQuery, pageIndex, pageSize, true, countQueries.bounded());
+	}
+	
+	private Integer getPageSkip(final int pageIndex, final int pageSize)
+	{
+		if (pageIndex < 0 || pageSize <= 0)
+		{
+			throw new IllegalArgumentException("Invalid page index " + pageIndex + " or page size " + pageSize);
+		}
+		
+		//a seek locates the page by itself
+		return null != seek ? null : Math.multiplyExact(pageIndex, pageSize);
+	}
+	
+	private void appendPhrases(final StringBuilder sb, final QueryBuilderContext context, final Map<String, Object> params,
+		final boolean applySeek)
+	{
+		final var resolved = resolvePhrases(context);
+		final var phrases = resolved.phrases();
+		final Condition seekCondition = applySeek ? resolved.seekCondition() : null;
+		boolean seekApplied = false;
+		CypherPhrase previousPhrase = null;
+		
 		//for each of the groups
-		cypherPhrases.stream().map(Supplier::get).filter(Objects::nonNull).forEach(cypherPhrase -> {
-			sb.append(cypherPhrase.build(context));
+		for (int i = 0; i < phrases.size(); i++)
+		{
+			CypherPhrase cypherPhrase = phrases.get(i);
+			
+			//the seek guard joins a trailing where unless that where belongs to an optional match, which it would not filter
+			if (null != seekCondition && i == phrases.size() - 1 && cypherPhrase instanceof Where where
+				&& !(previousPhrase instanceof Match match && match.isOptional()))
+			{
+				final List<Condition> conditions = new ArrayList<>(where.getConditions());
+				conditions.add(seekCondition);
+				cypherPhrase = new Where(conditions);
+				seekApplied = true;
+			}
+			
+			cypherPhrase.appendTo(sb, context);
 			addIfNeeded(sb, context.getStatementSeparator());
 			
-			cypherPhrase.getParameterStream(context).forEach(e -> params.put(e.getKey(), e.getValue()));
-		});
+			cypherPhrase.collectParameters(context, params);
+			previousPhrase = cypherPhrase;
+		}
+		
+		if (null != seekCondition && !seekApplied)
+		{
+			//a where can only follow a match directly if the match has none of its own, anything else needs a WITH to attach it to
+			if (!(previousPhrase instanceof Match match && !match.isOptional() && !match.hasWhere()))
+			{
+				sb.append(KEYWORD_WITH_ALL);
+				addIfNeeded(sb, context.getStatementSeparator());
+			}
+			
+			final var where = new Where(seekCondition);
+			where.appendTo(sb, context);
+			addIfNeeded(sb, context.getStatementSeparator());
+			where.collectParameters(context, params);
+		}
+	}
+	
+	private void appendProjection(final StringBuilder sb, final QueryBuilderContext context, final Map<String, Object> params,
+		final List<ReturnableCypherString> returnValues, final Integer skip, final Integer limit)
+	{
+		if (null != seek && null != skip)
+		{
+			throw new IllegalStateException("A seek cannot be combined with a skip.");
+		}
+		
+		//the first page has no guard yet, but the following pages would
+		if (null != seek)
+		{
+			seek.checkOrderBy(orderByList);
+		}
 		
 		if (!returnValues.isEmpty())
 		{
@@ -324,18 +677,37 @@ public class CypherBuilder
 			
 			final var returnPhrase = new Return(returnValues, distinct);
 			
-			sb.append(returnPhrase.build(context));
-			returnPhrase.getParameterStream(context).forEach(e -> params.put(e.getKey(), e.getValue()));
+			returnPhrase.appendTo(sb, context);
+			returnPhrase.collectParameters(context, params);
 		}
 		
 		//check to see if there is an order by set
-		if (!orderByList.isEmpty())
+		if (!orderByList.isEmpty() || null != seek)
 		{
 			addIfNeeded(sb, context.getStatementSeparator());
 			sb.append(KEYWORD_ORDER_BY);
 			sb.append(" ");
 			
-			sb.append(orderByList.stream().map(OrderBy::toString).collect(Collectors.joining(", ")));
+			for (int i = 0; i < orderByList.size(); i++)
+			{
+				if (i > 0)
+				{
+					sb.append(", ");
+				}
+				
+				orderByList.get(i).appendTo(sb, context);
+			}
+			
+			//the id of the seek breaks the ties between rows with the same order by values
+			if (null != seek)
+			{
+				if (!orderByList.isEmpty())
+				{
+					sb.append(", ");
+				}
+				
+				new OrderBy(seek.getIdProperty(), OrderType.ASC).appendTo(sb, context);
+			}
 		}
 		
 		//check to see if there is a skip
@@ -355,8 +727,47 @@ public class CypherBuilder
 			sb.append(" ");
 			sb.append(limit);
 		}
+	}
+	
+	/**
+	 * Resolves the phrases of this builder from their suppliers and runs the passes over them, if any are set. The phrases are
+	 * resolved once per context, so writing them and collecting their parameters use the same instances.
+	 *
+	 * @param context
+	 * @return
+	 */
+	private ResolvedPhrases resolvePhrases(final QueryBuilderContext context)
+	{
+		return context.resolvePhrases(this, () -> {
+			final var seekCondition = null != seek && seek.hasLastRow() ? seek.toCondition(orderByList) : null;
+			return new ResolvedPhrases(resolveSuppliers(context), seekCondition);
+		});
+	}
+	
+	private List<CypherPhrase> resolveSuppliers(final QueryBuilderContext context)
+	{
+		final List<CypherPhrase> phrases = new ArrayList<>(cypherPhrases.size());
+		
+		for (int i = 0; i < cypherPhrases.size(); i++)
+		{
+			final var cypherPhrase = cypherPhrases.get(i).get();
+			
+			if (null != cypherPhrase)
+			{
+				phrases.add(cypherPhrase);
+			}
+		}
 		
-		return new CypherQuery(sb.toString(), params);
+		if (null != passManager)
+		{
+			final var plan = passManager.run(new QueryPlan(phrases));
+			plan.applyTo(context);
+			return plan.getPhrases();
+		}
+		else
+		{
+			return phrases;
+		}
 	}
 	
 	/**
@@ -372,6 +783,20 @@ public class CypherBuilder
 		}
 	}
 	
+	/**
+	 * The phrases of a builder as they are written into one context along with the seek condition, if there is a last row
+	 *
+	 * @param phrases
+	 * @param seekCondition
+	 */
+	private record CountQueries(CypherQuery count, CypherQuery bounded)
+	{
+	}
+	
+	record ResolvedPhrases(List<CypherPhrase> phrases, Condition seekCondition)
+	{
+	}
+	
 	public static CypherBuilder create()
 	{
 		return new CypherBuilder();
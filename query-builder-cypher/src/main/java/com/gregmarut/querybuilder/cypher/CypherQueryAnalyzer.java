@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.node.LabeledNode;
+import com.gregmarut.querybuilder.cypher.node.Node;
+import com.gregmarut.querybuilder.cypher.phrase.CypherPhrase;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import com.gregmarut.querybuilder.cypher.phrase.MatchIn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Walks the phrases of a {@link CypherBuilder} without writing the query and reports the patterns that are likely to be expensive
+ * to execute: matches that form a Cartesian product with the matches before them, variable length relationships without an
+ * upper bound and matches that have to scan every node since they have no label to start from.
+ */
+public class CypherQueryAnalyzer
+{
+	private final List<QueryHazard> hazards;
+	
+	//the nodes that have been matched so far, by both instance and identifier
+	private final Set<Node> boundNodes;
+	private final Set<String> boundIdentifiers;
+	
+	private CypherQueryAnalyzer()
+	{
+		this.hazards = new ArrayList<>();
+		this.boundNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		this.boundIdentifiers = new HashSet<>();
+	}
+	
+	/**
+	 * Returns the hazards of the query of the given builder, in the order of the phrases they were found in
+	 *
+	 * @param cypherBuilder
+	 * @return
+	 */
+	public static List<QueryHazard> analyze(final CypherBuilder cypherBuilder)
+	{
+		final var analyzer = new CypherQueryAnalyzer();
+		final var cypherPhrases = cypherBuilder.getCypherPhrases();
+		
+		for (int i = 0; i < cypherPhrases.size(); i++)
+		{
+			analyzer.analyzePhrase(cypherPhrases.get(i).get(), i);
+		}
+		
+		return List.copyOf(analyzer.hazards);
+	}
+	
+	/**
+	 * Ensures that the query of the given builder has no hazards of at least the given severity
+	 *
+	 * @param cypherBuilder
+	 * @param threshold
+	 */
+	public static void verify(final CypherBuilder cypherBuilder, final QueryHazard.Severity threshold)
+	{
+		final var hazards = analyze(cypherBuilder).stream()
+			.filter(hazard -> hazard.isAtLeast(threshold))
+			.toList();
+		
+		if (!hazards.isEmpty())
+		{
+			throw new IllegalStateException("Query has " + hazards.size() + " hazard(s): " + hazards.stream()
+				.map(QueryHazard::toString)
+				.collect(Collectors.joining("; ")));
+		}
+	}
+	
+	private void analyzePhrase(final CypherPhrase cypherPhrase, final int phraseIndex)
+	{
+		if (cypherPhrase instanceof Match match)
+		{
+			analyzeMatch(match.getPath(), phraseIndex);
+		}
+		else if (cypherPhrase instanceof MatchIn matchIn)
+		{
+			analyzeMatch(matchIn.getMatch().getPath(), phraseIndex);
+		}
+		else if (cypherPhrase instanceof Merge merge)
+		{
+			//a merge cannot form a cartesian product of its own but the nodes it binds can be matched against later on
+			bind(merge.getPath());
+		}
+		else if (cypherPhrase instanceof CallSubquery callSubquery)
+		{
+			//the body runs against the rows of the enclosing query so it is walked with the nodes that are bound so far
+			final var cypherPhrases = callSubquery.getBody().getCypherPhrases();
+			
+			for (int i = 0; i < cypherPhrases.size(); i++)
+			{
+				analyzePhrase(cypherPhrases.get(i).get(), phraseIndex);
+			}
+		}
+	}
+	
+	private void analyzeMatch(final Path path, final int phraseIndex)
+	{
+		for (PartialPattern pp : path.getPartialPatterns())
+		{
+			final var relationship = pp.getRelationship();
+			
+			if (relationship.isUnbounded())
+			{
+				hazards.add(new QueryHazard(QueryHazard.Kind.UNBOUNDED_PATH, QueryHazard.Severity.ERROR, phraseIndex,
+					"relationship " + describe(relationship) + " has no upper bound on the number of hops"));
+			}
+		}
+		
+		//check to see if this match starts from a node that is already known
+		if (!isConnected(path))
+		{
+			if (!boundNodes.isEmpty() || !boundIdentifiers.isEmpty())
+			{
+				hazards.add(new QueryHazard(QueryHazard.Kind.CARTESIAN_PRODUCT, QueryHazard.Severity.WARNING, phraseIndex,
+					"match starting at " + describe(path.getStartNode()) + " shares no node with the previous matches"));
+			}
+			
+			if (!isLabeled(path))
+			{
+				hazards.add(new QueryHazard(QueryHazard.Kind.LABEL_LESS_SCAN, QueryHazard.Severity.WARNING, phraseIndex,
+					"match starting at " + describe(path.getStartNode()) + " has no label to start from"));
+			}
+		}
+		
+		bind(path);
+	}
+	
+	private boolean isConnected(final Path path)
+	{
+		if (isBound(path.getStartNode()))
+		{
+			return true;
+		}
+		
+		for (PartialPattern pp : path.getPartialPatterns())
+		{
+			if (isBound(pp.getEndNode()))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private boolean isBound(final Node node)
+	{
+		return node.getNodeType() == NodeType.YIELDED_NODE || boundNodes.contains(node)
+			|| (null != node.getIdentifier() && boundIdentifiers.contains(node.getIdentifier()));
+	}
+	
+	private boolean isLabeled(final Path path)
+	{
+		if (path.getStartNode() instanceof LabeledNode)
+		{
+			return true;
+		}
+		
+		for (PartialPattern pp : path.getPartialPatterns())
+		{
+			if (pp.getEndNode() instanceof LabeledNode)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private void bind(final Path path)
+	{
+		bind(path.getStartNode());
+		path.getPartialPatterns().forEach(pp -> bind(pp.getEndNode()));
+	}
+	
+	private void bind(final Node node)
+	{
+		boundNodes.add(node);
+		
+		if (null != node.getIdentifier())
+		{
+			boundIdentifiers.add(node.getIdentifier());
+		}
+	}
+	
+	private String describe(final Node node)
+	{
+		final var sb = new StringBuilder("(");
+		
+		if (null != node.getIdentifier())
+		{
+			sb.append(node.getIdentifier());
+		}
+		
+		if (node instanceof LabeledNode<?> labeledNode)
+		{
+			sb.append(":");
+			sb.append(labeledNode.getLabel());
+		}
+		
+		return sb.append(")").toString();
+	}
+	
+	private String describe(final Relationship relationship)
+	{
+		final var sb = new StringBuilder("[");
+		
+		if (null != relationship.getIdentifier())
+		{
+			sb.append(relationship.getIdentifier());
+		}
+		
+		if (null != relationship.getRelationshipType())
+		{
+			sb.append(":");
+			sb.append(relationship.getRelationshipType());
+		}
+		
+		return sb.append(Relationship.WILDCARD).append("]").toString();
+	}
+}
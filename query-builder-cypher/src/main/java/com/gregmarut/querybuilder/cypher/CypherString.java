@@ -22,8 +22,6 @@
 
 package com.gregmarut.querybuilder.cypher;
 
-import java.util.Collections;
-import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -33,25 +31,67 @@ public abstract class CypherString implements Parameterized
 {
 	public final String build(final QueryBuilderContext context)
 	{
-		return build(context, Collections.emptySet());
+		final var sb = new StringBuilder();
+		appendTo(sb, context);
+		return sb.toString();
 	}
 	
+	/**
+	 * Builds this cypher string with the given flags enabled for this cypher string and everything nested inside of it
+	 *
+	 * @param context
+	 * @param flags
+	 * @return
+	 * @deprecated use {@link #appendTo(StringBuilder, QueryBuilderContext, String)} which appends into the parent's builder
+	 */
+	@Deprecated
 	public final String build(final QueryBuilderContext context, final Set<String> flags)
 	{
-		//if there are any flags, add them to the context
-		Optional.ofNullable(flags).ifPresent(f -> context.getFlags().addAll(f));
+		if (null != flags)
+		{
+			flags.forEach(context::enableFlag);
+		}
 		
-		context.pushBuildStack(getClass());
-		final var result = _build(context);
-		context.popBuildStack(getClass());
+		final var result = build(context);
 		
-		//if any flags were added, remove them now that this context has finished
-		Optional.ofNullable(flags).ifPresent(f -> context.getFlags().removeAll(f));
+		if (null != flags)
+		{
+			flags.forEach(context::disableFlag);
+		}
 		
 		return result;
 	}
 	
-	protected abstract String _build(QueryBuilderContext context);
+	/**
+	 * Writes this cypher string into the given builder. Nested cypher strings append to the same builder so that rendering a
+	 * full query only ever grows a single buffer instead of allocating an intermediate string per phrase.
+	 *
+	 * @param sb
+	 * @param context
+	 */
+	public final void appendTo(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		context.pushBuildStack(getClass());
+		_appendTo(sb, context);
+		context.popBuildStack(getClass());
+	}
+	
+	/**
+	 * Writes this cypher string into the given builder with the flag enabled for this cypher string and everything nested
+	 * inside of it.
+	 *
+	 * @param sb
+	 * @param context
+	 * @param flag
+	 */
+	public final void appendTo(final StringBuilder sb, final QueryBuilderContext context, final String flag)
+	{
+		context.enableFlag(flag);
+		appendTo(sb, context);
+		context.disableFlag(flag);
+	}
+	
+	protected abstract void _appendTo(StringBuilder sb, QueryBuilderContext context);
 	
 	public boolean isBuilt(final QueryBuilderContext context)
 	{
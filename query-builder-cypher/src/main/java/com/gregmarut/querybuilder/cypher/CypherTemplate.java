@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cypher query that has been rendered once with {@link Placeholder} slots in place of the values that change between executions.
+ * Binding a template only assembles the parameter map, the query text is shared by every bound query. Templates are immutable and
+ * may be shared between threads.
+ */
+@Getter
+public class CypherTemplate
+{
+	private final String query;
+	
+	//the parameters that were bound while the template was built and are the same for every execution
+	private final Map<String, Object> fixedParams;
+	private final Set<String> slots;
+	
+	private CypherTemplate(final CypherQuery cypherQuery, final Set<String> slots)
+	{
+		//make sure a slot does not shadow a parameter that was generated while building
+		for (String slot : slots)
+		{
+			if (cypherQuery.getParams().containsKey(slot))
+			{
+				throw new IllegalStateException("The placeholder " + slot + " collides with a generated parameter name.");
+			}
+		}
+		
+		this.query = cypherQuery.getQuery();
+		//copied since the template outlives the query it was built from, Map.copyOf would reject null parameter values
+		this.fixedParams = Collections.unmodifiableMap(new HashMap<>(cypherQuery.getParams()));
+		this.slots = slots;
+	}
+	
+	/**
+	 * Creates a new query by binding a value to every slot of this template
+	 *
+	 * @param values the values keyed by placeholder name
+	 * @return
+	 * @throws IllegalArgumentException if a slot has no value or a value does not match a slot
+	 */
+	public CypherQuery bind(final Map<String, ?> values)
+	{
+		if (values.size() != slots.size() || !slots.containsAll(values.keySet()))
+		{
+			throw new IllegalArgumentException("Expected values for the placeholders " + slots + " but received " + values.keySet());
+		}
+		
+		final Map<String, Object> params = new HashMap<>(fixedParams.size() + values.size(), 1f);
+		params.putAll(fixedParams);
+		params.putAll(values);
+		
+		return new CypherQuery(query, params);
+	}
+	
+	public <T> TypedCypherQuery<T> bind(final Map<String, ?> values, final Class<T> resultClass)
+	{
+		return new TypedCypherQuery<>(bind(values), resultClass);
+	}
+	
+	public static CypherTemplate of(final CypherBuilder cypherBuilder)
+	{
+		//templates are rendered on a single line since the text is shared by every execution
+		final var context = QueryBuilderContext.createCanonical();
+		final var cypherQuery = cypherBuilder.build(context);
+		return new CypherTemplate(cypherQuery, context.getSlots());
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches {@link CypherTemplate}s by the shape of the query so that a CypherBuilder which only differs by its values is rendered once.
+ * The shape is chosen by the caller and must identify everything about the query except the values bound to its placeholders.
+ */
+public class CypherTemplateCache
+{
+	public static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+	
+	private final Map<String, Entry> entries;
+	private final Lock lock;
+	
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder savedNanos;
+	
+	public CypherTemplateCache()
+	{
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+	
+	public CypherTemplateCache(final int maximumSize)
+	{
+		this.lock = new ReentrantLock();
+		
+		//an access ordered map evicts the shape that was used the longest time ago once the cache is full
+		this.entries = new LinkedHashMap<>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest)
+			{
+				return size() > maximumSize;
+			}
+		};
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.savedNanos = new LongAdder();
+	}
+	
+	/**
+	 * Returns the cached template for the given shape or renders a new one. Once the cache is full, new shapes are still rendered but
+	 * are no longer retained.
+	 *
+	 * @param shape
+	 * @param builder
+	 * @return
+	 */
+	public CypherTemplate get(final String shape, final Supplier<CypherBuilder> builder)
+	{
+		//a lookup moves the shape to the end of the access order, so it is guarded like a write
+		final Entry cached;
+		lock.lock();
+		try
+		{
+			cached = entries.get(shape);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		
+		if (null != cached)
+		{
+			hits.increment();
+			savedNanos.add(cached.buildNanos());
+			return cached.template();
+		}
+		
+		misses.increment();
+		
+		//render the template and record how long it took
+		final long start = System.nanoTime();
+		final var template = CypherTemplate.of(builder.get());
+		final var entry = new Entry(template, System.nanoTime() - start);
+		
+		lock.lock();
+		try
+		{
+			entries.putIfAbsent(shape, entry);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		
+		return template;
+	}
+	
+	public CypherTemplateCacheStats getStats()
+	{
+		lock.lock();
+		try
+		{
+			return new CypherTemplateCacheStats(hits.sum(), misses.sum(), savedNanos.sum(), entries.size());
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	public void clear()
+	{
+		lock.lock();
+		try
+		{
+			entries.clear();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	private record Entry(CypherTemplate template, long buildNanos)
+	{
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.node.TypedNode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code CALL} of one of the index procedures, which looks up the nodes or relationships that match a full-text query or are
+ * nearest to a vector. Unlike {@code CONTAINS} or a non-prefix {@code STARTS WITH}, this does not scan the label. The matched
+ * entity and its score are yielded as {@code YIELD node AS alias, score AS alias_score}, and {@link #getAsNode(Class)} lets the
+ * rest of the query match from the yielded node. The index name and the query are passed as parameters.
+ */
+@Getter
+public class IndexQuery extends Call
+{
+	public static final String PROCEDURE_FULLTEXT_NODES = "db.index.fulltext.queryNodes";
+	public static final String PROCEDURE_FULLTEXT_RELATIONSHIPS = "db.index.fulltext.queryRelationships";
+	public static final String PROCEDURE_VECTOR_NODES = "db.index.vector.queryNodes";
+	
+	private static final String KEYWORD_YIELD = "YIELD";
+	private static final String YIELD_NODE = "node";
+	private static final String YIELD_RELATIONSHIP = "relationship";
+	private static final String YIELD_SCORE = "score";
+	private static final String SCORE_SUFFIX = "_score";
+	
+	//the characters that have a meaning in the lucene query syntax
+	private static final String LUCENE_SPECIAL_CHARACTERS = "+-&|!(){}[]^\"~*?:\\/";
+	
+	private final String procedure;
+	private final String yield;
+	private final List<Variable> arguments;
+	private final String alias;
+	private String scoreAlias;
+	private Variable limit;
+	
+	private IndexQuery(final String procedure, final String yield, final List<Variable> arguments, final String alias)
+	{
+		//validate that the alias is valid
+		if (!alias.matches(CypherConstants.IDENTIFIER_REGEX))
+		{
+			throw new IllegalArgumentException("Invalid identifier: " + alias);
+		}
+		
+		this.procedure = procedure;
+		this.yield = yield;
+		this.arguments = arguments;
+		this.alias = alias;
+		this.scoreAlias = alias + SCORE_SUFFIX;
+	}
+	
+	/**
+	 * Sets the name the score is yielded as, which defaults to the alias followed by {@value #SCORE_SUFFIX}
+	 *
+	 * @param scoreAlias
+	 * @return
+	 */
+	public IndexQuery scoreAs(final String scoreAlias)
+	{
+		//validate that the alias is valid
+		if (!scoreAlias.matches(CypherConstants.IDENTIFIER_REGEX))
+		{
+			throw new IllegalArgumentException("Invalid identifier: " + scoreAlias);
+		}
+		
+		this.scoreAlias = scoreAlias;
+		return this;
+	}
+	
+	/**
+	 * Limits the number of results of a full-text query, so the index does not have to return every hit. Vector queries are
+	 * limited by the number of neighbors they were created with.
+	 *
+	 * @param limit
+	 * @return
+	 */
+	public IndexQuery limit(final int limit)
+	{
+		if (PROCEDURE_VECTOR_NODES.equals(procedure))
+		{
+			throw new IllegalStateException("A vector query is limited by its number of neighbors.");
+		}
+		else if (limit <= 0)
+		{
+			throw new IllegalArgumentException("limit must be positive: " + limit);
+		}
+		
+		this.limit = Variable.of(limit);
+		return this;
+	}
+	
+	/**
+	 * Returns the yielded node, which can be used by the phrases that follow this call
+	 *
+	 * @param nodeClass
+	 * @param <N>
+	 * @return
+	 */
+	public <N> TypedNode<N> getAsNode(final Class<N> nodeClass)
+	{
+		if (!YIELD_NODE.equals(yield))
+		{
+			throw new IllegalStateException(procedure + " does not yield nodes.");
+		}
+		
+		return new TypedNode<>(nodeClass, NodeType.YIELDED_NODE, alias)
+		{
+			@Override
+			public boolean isBuilt(final QueryBuilderContext context)
+			{
+				return context.isBuilt(IndexQuery.this);
+			}
+		};
+	}
+	
+	/**
+	 * Returns the yielded entity by its alias
+	 *
+	 * @return
+	 */
+	public LiteralCypherString getResult()
+	{
+		return LiteralCypherString.of(alias);
+	}
+	
+	/**
+	 * Returns the yielded score by its alias, such as for ordering by relevance
+	 *
+	 * @return
+	 */
+	public LiteralCypherString getScore()
+	{
+		return LiteralCypherString.of(scoreAlias);
+	}
+	
+	@Override
+	protected void appendFunction(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		sb.append(procedure);
+		sb.append("(");
+		
+		for (int i = 0; i < arguments.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(", ");
+			}
+			
+			arguments.get(i).appendTo(sb, context);
+		}
+		
+		if (null != limit)
+		{
+			sb.append(", {limit: ");
+			limit.appendTo(sb, context);
+			sb.append("}");
+		}
+		
+		sb.append(") ");
+		sb.append(KEYWORD_YIELD);
+		sb.append(" ");
+		sb.append(yield);
+		sb.append(" AS ");
+		sb.append(alias);
+		sb.append(", ");
+		sb.append(YIELD_SCORE);
+		sb.append(" AS ");
+		sb.append(scoreAlias);
+	}
+	
+	@Override
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+	{
+		for (int i = 0; i < arguments.size(); i++)
+		{
+			arguments.get(i).collectParameters(context, parameters);
+		}
+		
+		if (null != limit)
+		{
+			limit.collectParameters(context, parameters);
+		}
+	}
+	
+	/**
+	 * Queries the nodes of a full-text index with the given lucene query
+	 *
+	 * @param indexName
+	 * @param query
+	 * @param alias
+	 * @return
+	 */
+	public static IndexQuery fulltextNodes(final String indexName, final String query, final String alias)
+	{
+		return new IndexQuery(PROCEDURE_FULLTEXT_NODES, YIELD_NODE, List.of(Variable.of(indexName), Variable.of(query)), alias);
+	}
+	
+	/**
+	 * Queries the relationships of a full-text index with the given lucene query
+	 *
+	 * @param indexName
+	 * @param query
+	 * @param alias
+	 * @return
+	 */
+	public static IndexQuery fulltextRelationships(final String indexName, final String query, final String alias)
+	{
+		return new IndexQuery(PROCEDURE_FULLTEXT_RELATIONSHIPS, YIELD_RELATIONSHIP,
+			List.of(Variable.of(indexName), Variable.of(query)), alias);
+	}
+	
+	/**
+	 * Queries the given number of nodes of a vector index that are nearest to the given vector
+	 *
+	 * @param indexName
+	 * @param neighbors
+	 * @param vector
+	 * @param alias
+	 * @return
+	 */
+	public static IndexQuery vectorNodes(final String indexName, final int neighbors, final List<? extends Number> vector,
+		final String alias)
+	{
+		if (neighbors <= 0)
+		{
+			throw new IllegalArgumentException("neighbors must be positive: " + neighbors);
+		}
+		
+		return new IndexQuery(PROCEDURE_VECTOR_NODES, YIELD_NODE,
+			List.of(Variable.of(indexName), Variable.of(neighbors), Variable.of(new ArrayList<>(vector))), alias);
+	}
+	
+	/**
+	 * Escapes the characters of the given text that have a meaning in the lucene query syntax, so that user input is searched
+	 * for as typed
+	 *
+	 * @param text
+	 * @return
+	 */
+	public static String escape(final String text)
+	{
+		final var sb = new StringBuilder(text.length());
+		
+		for (int i = 0; i < text.length(); i++)
+		{
+			final char c = text.charAt(i);
+			
+			if (LUCENE_SPECIAL_CHARACTERS.indexOf(c) >= 0)
+			{
+				sb.append('\\');
+			}
+			
+			sb.append(c);
+		}
+		
+		return sb.toString();
+	}
+}
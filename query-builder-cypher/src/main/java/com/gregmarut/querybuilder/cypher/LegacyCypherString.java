@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+/**
+ * A base class for cypher strings written against the api before cypher strings appended into a shared builder. The string
+ * returned by {@link #_build(QueryBuilderContext)} is appended to the builder of the parent.
+ *
+ * @deprecated extend {@link CypherString} and implement {@link #_appendTo(StringBuilder, QueryBuilderContext)} instead
+ */
+@Deprecated
+public abstract class LegacyCypherString extends CypherString
+{
+	@Override
+	protected final void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		sb.append(_build(context));
+	}
+	
+	protected abstract String _build(QueryBuilderContext context);
+}
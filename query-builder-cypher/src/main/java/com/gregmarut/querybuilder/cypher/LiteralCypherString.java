@@ -25,7 +25,6 @@ package com.gregmarut.querybuilder.cypher;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class LiteralCypherString extends ReturnableCypherString
@@ -35,15 +34,15 @@ public class LiteralCypherString extends ReturnableCypherString
 	private final String string;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return string;
+		sb.append(string);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.empty();
+	
 	}
 	
 	public static LiteralCypherString of(final Identifiable identifiable)
@@ -24,16 +24,17 @@ package com.gregmarut.querybuilder.cypher;
 
 import com.gregmarut.querybuilder.cypher.node.Node;
 import com.gregmarut.querybuilder.cypher.phrase.CypherPhrase;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Merge extends CypherPhrase
 {
 	private static final String KEYWORD_MERGE = "MERGE";
 	
+	@Getter
 	private final Path path;
 	
 	public Merge(final Node node)
@@ -42,14 +43,16 @@ public class Merge extends CypherPhrase
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return path.getParameterStream(context);
+		path.collectParameters(context, parameters);
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_MERGE + " " + path.build(context);
+		sb.append(KEYWORD_MERGE);
+		sb.append(" ");
+		path.appendTo(sb, context);
 	}
 }
@@ -22,9 +22,11 @@
 
 package com.gregmarut.querybuilder.cypher;
 
+import lombok.Getter;
+
 import java.util.Map;
-import java.util.stream.Stream;
 
+@Getter
 public final class OrderBy extends CypherString
 {
 	private final CypherString value;
@@ -43,14 +45,16 @@ public final class OrderBy extends CypherString
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return value.build(context) + " " + type;
+		value.appendTo(sb, context);
+		sb.append(" ");
+		sb.append(type);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return value.getParameterStream(context);
+		value.collectParameters(context, parameters);
 	}
 }
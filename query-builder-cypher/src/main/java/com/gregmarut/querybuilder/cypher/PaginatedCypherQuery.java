@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import javax.annotation.Nullable;
+
+/**
+ * The queries for one page of a paginated search
+ *
+ * @param pageQuery         the query for the rows of the page
+ * @param countQuery        the query that counts every row of the search
+ * @param pageIndex         the index of the page
+ * @param pageSize          the maximum number of rows of the page
+ * @param totalInline       whether the page query also returns the total in the {@link CypherBuilder#TOTAL} column of every row
+ * @param boundedCountQuery the query that counts at most the number of rows bound to {@link CypherBuilder#COUNT_LIMIT}, or null
+ *                          when only the full count is available
+ * @param <T>
+ */
+public record PaginatedCypherQuery<T>(TypedCypherQuery<T> pageQuery, CypherQuery countQuery, int pageIndex, int pageSize,
+	boolean totalInline, @Nullable CypherQuery boundedCountQuery)
+{
+	public PaginatedCypherQuery(final TypedCypherQuery<T> pageQuery, final CypherQuery countQuery, final int pageIndex,
+		final int pageSize, final boolean totalInline)
+	{
+		this(pageQuery, countQuery, pageIndex, pageSize, totalInline, null);
+	}
+}
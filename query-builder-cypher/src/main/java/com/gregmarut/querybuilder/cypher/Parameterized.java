@@ -22,15 +22,37 @@
 
 package com.gregmarut.querybuilder.cypher;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Stream;
 
 public interface Parameterized
 {
-	Stream<Map.Entry<String, Object>> getParameterStream(QueryBuilderContext context);
+	/**
+	 * Writes the parameters referenced by this cypher string directly into the target map
+	 *
+	 * @param context
+	 * @param parameters
+	 */
+	void collectParameters(QueryBuilderContext context, Map<String, Object> parameters);
+	
+	default Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	{
+		final Map<String, Object> parameters = new LinkedHashMap<>();
+		collectParameters(context, parameters);
+		return parameters.entrySet().stream();
+	}
 	
 	default String buildVariable(final QueryBuilderContext context, final String propertyName)
 	{
 		return context.getVariableName(this) + "_" + propertyName;
 	}
+	
+	default void appendVariable(final StringBuilder sb, final QueryBuilderContext context, final String propertyName)
+	{
+		sb.append(CypherBuilder.VARIABLE_PREFIX);
+		sb.append(context.getVariableName(this));
+		sb.append('_');
+		sb.append(propertyName);
+	}
 }
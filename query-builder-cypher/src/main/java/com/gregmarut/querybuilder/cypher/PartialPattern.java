@@ -29,7 +29,6 @@ import lombok.RequiredArgsConstructor;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
 @Getter
 @RequiredArgsConstructor
@@ -45,18 +44,19 @@ public class PartialPattern extends CypherString
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return getDirection().getStart() +
-			   getRelationship().build(context) +
-			   getDirection().getEnd() +
-			   getEndNode().build(context);
+		sb.append(getDirection().getStart());
+		getRelationship().appendTo(sb, context);
+		sb.append(getDirection().getEnd());
+		getEndNode().appendTo(sb, context);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.of(relationship.getParameterStream(context), endNode.getParameterStream(context)).flatMap(s -> s);
+		relationship.collectParameters(context, parameters);
+		endNode.collectParameters(context, parameters);
 	}
 	
 	@Override
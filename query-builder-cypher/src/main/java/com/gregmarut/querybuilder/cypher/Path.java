@@ -27,11 +27,8 @@ import com.gregmarut.querybuilder.cypher.node.Node;
 import lombok.Getter;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Stream;
 
 @Getter
 public class Path extends Condition
@@ -72,51 +69,68 @@ public class Path extends Condition
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		//track both instances and identifiers so we catch both the common case (same Node reused) and
-		//the case where two distinct Java objects share an identifier (which would still produce a cycle
-		//in the rendered cypher)
-		final Set<Node> processedNodes = new HashSet<>();
-		final Set<String> processedIdentifiers = new HashSet<>();
-
-		final var sb = new StringBuilder();
-		sb.append(startNode.build(context));
-		processedNodes.add(startNode);
-		if (null != startNode.getIdentifier())
-		{
-			processedIdentifiers.add(startNode.getIdentifier());
-		}
+		startNode.appendTo(sb, context);
 
 		//for each of the partial patterns
-		for (PartialPattern pp : partialPatterns)
+		for (int i = 0; i < partialPatterns.size(); i++)
 		{
-			final var endNode = pp.getEndNode();
-			final var endIdentifier = endNode.getIdentifier();
-
-			final var newInstance = processedNodes.add(endNode);
-			final var newIdentifier = (null == endIdentifier) || processedIdentifiers.add(endIdentifier);
+			final var pp = partialPatterns.get(i);
 
 			//make sure this node was not already processed by either instance identity or by identifier
-			if (newInstance && newIdentifier)
-			{
-				sb.append(pp.build(context));
-			}
-			else
+			if (isProcessed(pp.getEndNode(), i))
 			{
 				//cyclical reference
 				throw new RuntimeException("Cyclical reference detected. Unable to build path.");
 			}
+
+			pp.appendTo(sb, context);
+		}
+	}
+
+	/**
+	 * Determines if the node was already written by this path before the partial pattern at the given index. Both instances and
+	 * identifiers are compared so we catch both the common case (same Node reused) and the case where two distinct Java objects
+	 * share an identifier (which would still produce a cycle in the rendered cypher). Paths are short so a linear scan avoids
+	 * allocating a set on every build.
+	 *
+	 * @param node
+	 * @param index
+	 * @return
+	 */
+	private boolean isProcessed(final Node node, final int index)
+	{
+		if (isSameNode(node, startNode))
+		{
+			return true;
+		}
+
+		for (int i = 0; i < index; i++)
+		{
+			if (isSameNode(node, partialPatterns.get(i).getEndNode()))
+			{
+				return true;
+			}
 		}
 
-		return sb.toString();
+		return false;
+	}
+
+	private boolean isSameNode(final Node node, final Node other)
+	{
+		return node == other || (null != node.getIdentifier() && node.getIdentifier().equals(other.getIdentifier()));
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.of(startNode.getParameterStream(context), partialPatterns.stream().flatMap(pp -> pp.getParameterStream(context)))
-			.flatMap(s -> s);
+		startNode.collectParameters(context, parameters);
+
+		for (int i = 0; i < partialPatterns.size(); i++)
+		{
+			partialPatterns.get(i).collectParameters(context, parameters);
+		}
 	}
 	
 	public static PathBuilder start(final Node startNode)
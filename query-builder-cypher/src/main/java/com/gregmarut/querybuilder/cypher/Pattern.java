@@ -28,7 +28,6 @@ import lombok.Getter;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
 @Getter
 public class Pattern extends PartialPattern
@@ -48,15 +47,17 @@ public class Pattern extends PartialPattern
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return getStartNode().build(context) + super._build(context);
+		getStartNode().appendTo(sb, context);
+		super._appendTo(sb, context);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.of(startNode.getParameterStream(context), super.getParameterStream(context)).flatMap(s -> s);
+		startNode.collectParameters(context, parameters);
+		super.collectParameters(context, parameters);
 	}
 	
 	@Override
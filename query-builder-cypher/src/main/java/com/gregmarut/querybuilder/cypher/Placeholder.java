@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+
+/**
+ * A named value slot in a {@link CypherTemplate}. A placeholder renders as {@code $name} and does not bind a value itself, the value
+ * is supplied each time the template is bound.
+ */
+@Getter
+public class Placeholder extends ReturnableCypherString
+{
+	private final String name;
+	
+	public Placeholder(final String name)
+	{
+		if (StringUtils.isBlank(name) || !name.matches(CypherConstants.IDENTIFIER_REGEX))
+		{
+			throw new IllegalArgumentException("Invalid placeholder name: " + name);
+		}
+		
+		this.name = name;
+	}
+	
+	@Override
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		context.addSlot(name);
+		sb.append(CypherBuilder.VARIABLE_PREFIX);
+		sb.append(name);
+	}
+	
+	@Override
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+	{
+	
+	}
+	
+	public static Placeholder of(final String name)
+	{
+		return new Placeholder(name);
+	}
+}
@@ -26,11 +26,12 @@ import lombok.Getter;
 
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Stream;
 
 public class Property extends AliasableCypherString<Property>
 {
 	public static final String REGEX = "^[a-zA-Z][a-zA-Z0-9_]*$";
+	
+	@Getter
 	private final Identifiable item;
 	
 	@Getter
@@ -48,9 +49,11 @@ public class Property extends AliasableCypherString<Property>
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return item.getRequiredIdentifier() + "." + propertyName;
+		sb.append(item.getRequiredIdentifier());
+		sb.append('.');
+		sb.append(propertyName);
 	}
 	
 	public String buildVariable(final QueryBuilderContext context)
@@ -78,15 +81,17 @@ public class Property extends AliasableCypherString<Property>
 		return new CypherString()
 		{
 			@Override
-			public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+			public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 			{
-				return Property.this.getParameterStream(context);
+				Property.this.collectParameters(context, parameters);
 			}
 
 			@Override
-			protected String _build(final QueryBuilderContext context)
+			protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 			{
-				return Property.this._build(context) + "." + subPropertyName;
+				Property.this._appendTo(sb, context);
+				sb.append('.');
+				sb.append(subPropertyName);
 			}
 		};
 	}
@@ -98,9 +103,9 @@ public class Property extends AliasableCypherString<Property>
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.empty();
+	
 	}
 	
 	@Override
@@ -22,17 +22,30 @@
 
 package com.gregmarut.querybuilder.cypher;
 
+import com.gregmarut.querybuilder.cypher.node.Node;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 
+import javax.annotation.Nullable;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Getter
 @Setter
@@ -42,23 +55,64 @@ public class QueryBuilderContext
 {
 	public static boolean defaultPrettyPrint = false;
 	
+	//the number of values above which a MatchIn is written as UNWIND + MATCH rather than MATCH + WHERE IN
+	public static int defaultUnwindThreshold = 1000;
+	
+	//when set, building a query fails if the CypherQueryAnalyzer finds a hazard of at least this severity
+	public static QueryHazard.Severity defaultStrictSeverity = null;
+	
 	private final Set<CypherString> builtQueryPhrases;
 	private final Map<Object, String> variableNameMap;
-	private final Set<String> flags;
-	private final Stack<Class<? extends CypherString>> buildStack;
+	
+	//active flags are kept as a stack so that nested cypher strings can enable the same flag without clearing it for their parent
+	@Getter(AccessLevel.NONE)
+	private final List<String> flags;
+	
+	@Getter(AccessLevel.NONE)
+	private final Deque<Class<? extends CypherString>> buildStack;
+	
+	//the label each node identifier was first written with, null for a node without a label
+	@Getter(AccessLevel.NONE)
+	private final Map<String, String> boundLabels;
+	
+	//the names of the placeholders that were written, created on first use since most queries have none
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private Set<String> slots;
+	
+	//the properties a pass wrote into the inline map of a node without changing the node itself, created on first use
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private Map<Node, Map<String, Object>> inlineProperties;
+	
+	//the phrases each builder resolved for this context, so a subquery collects its parameters from the instances it wrote
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private Map<CypherBuilder, CypherBuilder.ResolvedPhrases> resolvedPhrases;
 	
 	private AtomicInteger variableCounter;
 	private boolean prettyPrint;
+	private int unwindThreshold;
+	private QueryHazard.Severity strictSeverity;
+	
+	//whether variables with equal values are written as a single parameter
+	private boolean shareParameters;
+	
+	//whether a node whose identifier was already written with the same label is written by its identifier only
+	private boolean omitBoundLabels;
 	
 	public QueryBuilderContext()
 	{
 		this.builtQueryPhrases = new HashSet<>();
 		this.variableNameMap = new HashMap<>();
-		this.flags = new HashSet<>();
-		this.buildStack = new Stack<>();
+		this.flags = new ArrayList<>();
+		this.buildStack = new ArrayDeque<>();
+		this.boundLabels = new HashMap<>();
 		
 		this.variableCounter = new AtomicInteger();
 		this.prettyPrint = defaultPrettyPrint;
+		this.unwindThreshold = defaultUnwindThreshold;
+		this.strictSeverity = defaultStrictSeverity;
 	}
 	
 	public void built(final CypherString cypherString)
@@ -71,9 +125,245 @@ public class QueryBuilderContext
 		return builtQueryPhrases.contains(cypherString);
 	}
 	
+	/**
+	 * Returns a copy of the cypher strings that were written, so that a scope whose variables are not visible after it can be
+	 * forgotten with {@link #restoreBuilt(Set)} once it is closed
+	 *
+	 * @return
+	 */
+	public Set<CypherString> getBuilt()
+	{
+		return new HashSet<>(builtQueryPhrases);
+	}
+	
+	public void restoreBuilt(final Set<CypherString> built)
+	{
+		builtQueryPhrases.clear();
+		builtQueryPhrases.addAll(built);
+	}
+	
+	/**
+	 * Records that a node with the given identifier and label was written
+	 *
+	 * @param identifier
+	 * @param label
+	 */
+	public void bind(final String identifier, @Nullable final String label)
+	{
+		boundLabels.putIfAbsent(identifier, label);
+	}
+	
+	/**
+	 * Determines if a node with the given identifier was already written with the given label, or with any label if the given
+	 * one is null
+	 *
+	 * @param identifier
+	 * @param label
+	 * @return
+	 */
+	public boolean isBound(final String identifier, @Nullable final String label)
+	{
+		return boundLabels.containsKey(identifier) && (null == label || label.equals(boundLabels.get(identifier)));
+	}
+	
+	/**
+	 * Returns the phrases the given builder resolved for this context, resolving them on first use. A builder is resolved only once
+	 * per context since its suppliers and passes may create new instances, and a new instance is given a new parameter name.
+	 *
+	 * @param builder
+	 * @param resolver
+	 * @return
+	 */
+	CypherBuilder.ResolvedPhrases resolvePhrases(final CypherBuilder builder, final Supplier<CypherBuilder.ResolvedPhrases> resolver)
+	{
+		if (null == resolvedPhrases)
+		{
+			resolvedPhrases = new IdentityHashMap<>();
+		}
+		
+		//the resolver is not run inside computeIfAbsent since resolving one builder may resolve others
+		var resolved = resolvedPhrases.get(builder);
+		if (null == resolved)
+		{
+			resolved = resolver.get();
+			resolvedPhrases.put(builder, resolved);
+		}
+		
+		return resolved;
+	}
+	
+	/**
+	 * Writes the given properties into the inline property map of the given node in addition to its own properties
+	 *
+	 * @param node
+	 * @param properties
+	 */
+	public void addInlineProperties(final Node node, final Map<String, Object> properties)
+	{
+		if (null == inlineProperties)
+		{
+			inlineProperties = new IdentityHashMap<>();
+		}
+		
+		inlineProperties.computeIfAbsent(node, k -> new HashMap<>()).putAll(properties);
+	}
+	
+	/**
+	 * Returns the properties that were added to the inline property map of the given node by
+	 * {@link #addInlineProperties(Node, Map)}
+	 *
+	 * @param node
+	 * @return
+	 */
+	public Map<String, Object> getInlineProperties(final Node node)
+	{
+		return null == inlineProperties ? Map.of() : inlineProperties.getOrDefault(node, Map.of());
+	}
+	
+	/**
+	 * Forgets the identifiers that are not in the given set, since a WITH only carries the variables it projects into the rest of
+	 * the query
+	 *
+	 * @param identifiers
+	 */
+	public void retainBindings(final Set<String> identifiers)
+	{
+		boundLabels.keySet().retainAll(identifiers);
+	}
+	
+	/**
+	 * Returns a copy of the bound identifiers, so that the bindings made inside of a nested scope can be dropped with
+	 * {@link #restoreBindings(Map)} once it is closed
+	 *
+	 * @return
+	 */
+	public Map<String, String> getBindings()
+	{
+		return new HashMap<>(boundLabels);
+	}
+	
+	public void restoreBindings(final Map<String, String> bindings)
+	{
+		boundLabels.clear();
+		boundLabels.putAll(bindings);
+	}
+	
 	public String getVariableName(final Object key)
 	{
-		return variableNameMap.computeIfAbsent(key, k -> "_v" + variableCounter.getAndIncrement());
+		final var variableName = variableNameMap.get(key);
+		
+		if (null != variableName)
+		{
+			return variableName;
+		}
+		else
+		{
+			final var newVariableName = "_v" + variableCounter.getAndIncrement();
+			variableNameMap.put(key, newVariableName);
+			return newVariableName;
+		}
+	}
+	
+	public void enableFlag(final String flag)
+	{
+		flags.add(flag);
+	}
+	
+	public void disableFlag(final String flag)
+	{
+		final var index = flags.lastIndexOf(flag);
+		
+		if (index < 0)
+		{
+			throw new IllegalStateException("The flag " + flag + " is not enabled.");
+		}
+		
+		flags.remove(index);
+	}
+	
+	public void addSlot(final String name)
+	{
+		if (null == slots)
+		{
+			slots = new LinkedHashSet<>();
+		}
+		
+		slots.add(name);
+	}
+	
+	public Set<String> getSlots()
+	{
+		return null == slots ? Set.of() : Set.copyOf(slots);
+	}
+	
+	public boolean hasFlag(final String flag)
+	{
+		return flags.contains(flag);
+	}
+	
+	/**
+	 * Returns a live view of the currently enabled flags. Adding a flag enables it and removing a flag disables it.
+	 *
+	 * @return
+	 * @deprecated use {@link #enableFlag(String)}, {@link #disableFlag(String)} and {@link #hasFlag(String)}
+	 */
+	@Deprecated
+	public Set<String> getFlags()
+	{
+		return new AbstractSet<>()
+		{
+			@Override
+			public boolean add(final String flag)
+			{
+				if (hasFlag(flag))
+				{
+					return false;
+				}
+				else
+				{
+					enableFlag(flag);
+					return true;
+				}
+			}
+			
+			@Override
+			public boolean remove(final Object flag)
+			{
+				return flags.removeIf(f -> f.equals(flag));
+			}
+			
+			@Override
+			public boolean contains(final Object flag)
+			{
+				return flags.contains(flag);
+			}
+			
+			@Override
+			public Iterator<String> iterator()
+			{
+				return new LinkedHashSet<>(flags).iterator();
+			}
+			
+			@Override
+			public int size()
+			{
+				return new HashSet<>(flags).size();
+			}
+		};
+	}
+	
+	/**
+	 * Returns a snapshot of the build stack with the current class on top
+	 *
+	 * @return
+	 * @deprecated use {@link #getParentFromStack()} to look at the enclosing cypher string
+	 */
+	@Deprecated
+	public Stack<Class<? extends CypherString>> getBuildStack()
+	{
+		final Stack<Class<? extends CypherString>> stack = new Stack<>();
+		buildStack.descendingIterator().forEachRemaining(stack::push);
+		return stack;
 	}
 	
 	public void pushBuildStack(final Class<? extends CypherString> clazz)
@@ -101,7 +391,11 @@ public class QueryBuilderContext
 	{
 		if (buildStack.size() >= 2)
 		{
-			return buildStack.get(buildStack.size() - 2);
+			//temporarily pop the current class to peek at its parent without allocating an iterator
+			final var current = buildStack.pop();
+			final var parent = buildStack.peek();
+			buildStack.push(current);
+			return parent;
 		}
 		else
 		{
@@ -114,6 +408,22 @@ public class QueryBuilderContext
 		return new QueryBuilderContext();
 	}
 	
+	/**
+	 * Creates a context that always writes a query on a single line regardless of {@link #defaultPrettyPrint}. Properties and SET
+	 * assignments are written in sorted order by every context, so this only removes the whitespace from the differences between
+	 * two builders.
+	 * <p>
+	 * Parameter names are not canonicalized: they are {@code _vN} from the same counter as any other context, numbered in the order
+	 * the variables are first written. Builders written the same way get the same names, but a builder that writes one variable
+	 * twice binds a single parameter where a builder with two equal variables binds two, so their text differs.
+	 *
+	 * @return
+	 */
+	public static QueryBuilderContext createCanonical()
+	{
+		return new QueryBuilderContext().setPrettyPrint(false);
+	}
+	
 	public char getStatementSeparator()
 	{
 		return prettyPrint ? '\n' : ' ';
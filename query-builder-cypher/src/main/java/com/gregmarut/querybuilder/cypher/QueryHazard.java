@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+/**
+ * A pattern in a query that is likely to be expensive to execute, as reported by the {@link CypherQueryAnalyzer}
+ *
+ * @param kind        the kind of hazard
+ * @param severity    how likely the hazard is to hurt the query
+ * @param phraseIndex the index of the phrase of the {@link CypherBuilder} that the hazard was found in
+ * @param message     a description of the hazard
+ */
+public record QueryHazard(Kind kind, Severity severity, int phraseIndex, String message)
+{
+	public boolean isAtLeast(final Severity threshold)
+	{
+		return severity.compareTo(threshold) >= 0;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return severity + " " + kind + " at phrase " + phraseIndex + ": " + message;
+	}
+	
+	public enum Kind
+	{
+		//a match that shares no node with the nodes matched before it, so every row is paired with every other row
+		CARTESIAN_PRODUCT,
+		//a variable length relationship without an upper bound on the number of hops
+		UNBOUNDED_PATH,
+		//a match that has to scan every node in the graph since none of its nodes have a label or are already bound
+		LABEL_LESS_SCAN,
+	}
+	
+	public enum Severity
+	{
+		INFO,
+		WARNING,
+		ERROR,
+	}
+}
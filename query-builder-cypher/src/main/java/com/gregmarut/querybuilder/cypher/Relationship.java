@@ -25,38 +25,41 @@ package com.gregmarut.querybuilder.cypher;
 import lombok.Getter;
 
 import javax.annotation.Nullable;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.TreeMap;
 
 @Getter
 public class Relationship extends ReturnableCypherString implements Identifiable
 {
 	public static final String WILDCARD = "*";
+	public static final String RANGE = "..";
 	
+	//properties are kept sorted so that the inline map renders the same regardless of the order they were added in
 	private final Map<String, Object> properties;
 	private final String relationshipType;
 	private String identifier;
 	private boolean recursive;
 	
+	//the hop bounds of a recursive relationship, either of which may be left open
+	private Integer minHops;
+	private Integer maxHops;
+	
 	public Relationship(final String relationshipType)
 	{
 		this.relationshipType = relationshipType;
-		this.properties = new HashMap<>();
+		this.properties = new TreeMap<>();
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
 		final var inBuildableContext = isInBuildableContext(context);
 		
 		//check to see if this node is in a buildable context
 		if (inBuildableContext)
 		{
-			final var sb = new StringBuilder();
 			sb.append("[");
 			
 			//check to see if there is an identifier
@@ -77,6 +80,7 @@ public class Relationship extends ReturnableCypherString implements Identifiable
 				if (null == relationshipType)
 				{
 					sb.append(WILDCARD);
+					appendHops(sb);
 				}
 				else
 				{
@@ -87,31 +91,25 @@ public class Relationship extends ReturnableCypherString implements Identifiable
 					if (recursive)
 					{
 						sb.append(WILDCARD);
+						appendHops(sb);
 					}
 				}
 				
-				//decide which properties to use
-				final var props = context.getFlags().contains(CypherConstants.FLAG_ID_PROPERTY_ONLY) ?
-					Collections.<String, Object>emptyMap() :
-					properties;
-				
-				//check to see if there are any properties
-				if (!props.isEmpty())
+				//check to see if there are any properties to write
+				if (!properties.isEmpty() && !context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY))
 				{
-					addInlineProperties(context, sb, props);
+					addInlineProperties(context, sb);
 				}
 				
 				context.built(this);
 			}
 			
 			sb.append("]");
-			
-			return sb.toString();
 		}
 		//ensure that this relationship has previously been built
 		else if (isBuilt(context))
 		{
-			return getRequiredIdentifier();
+			sb.append(getRequiredIdentifier());
 		}
 		else
 		{
@@ -154,7 +152,81 @@ public class Relationship extends ReturnableCypherString implements Identifiable
 		return this;
 	}
 	
-	private void addInlineProperties(final QueryBuilderContext context, final StringBuilder sb, final Map<String, Object> properties)
+	/**
+	 * Makes this relationship recursive with the given hop bounds, written as {@code *min..max}. Either bound may be null to
+	 * leave that side open.
+	 *
+	 * @param minHops
+	 * @param maxHops
+	 * @return
+	 */
+	public Relationship recursive(@Nullable final Integer minHops, @Nullable final Integer maxHops)
+	{
+		if (null != minHops && minHops < 0)
+		{
+			throw new IllegalArgumentException("minHops cannot be negative.");
+		}
+		else if (null != maxHops && maxHops < 1)
+		{
+			throw new IllegalArgumentException("maxHops must be greater than 0.");
+		}
+		else if (null != minHops && null != maxHops && minHops > maxHops)
+		{
+			throw new IllegalArgumentException("minHops cannot be greater than maxHops.");
+		}
+		
+		this.recursive = true;
+		this.minHops = minHops;
+		this.maxHops = maxHops;
+		return this;
+	}
+	
+	/**
+	 * Makes this relationship recursive up to the given number of hops, written as {@code *1..max}
+	 *
+	 * @param maxHops
+	 * @return
+	 */
+	public Relationship recursive(final int maxHops)
+	{
+		return recursive(1, maxHops);
+	}
+	
+	/**
+	 * Determines if this relationship matches paths of any length, which is the case for a recursive or wildcard relationship
+	 * without an upper bound
+	 *
+	 * @return
+	 */
+	public boolean isUnbounded()
+	{
+		return (recursive || null == relationshipType) && null == maxHops;
+	}
+	
+	private void appendHops(final StringBuilder sb)
+	{
+		//check to see if the number of hops is bounded
+		if (null != minHops && minHops.equals(maxHops))
+		{
+			sb.append(minHops);
+		}
+		else if (null != minHops || null != maxHops)
+		{
+			if (null != minHops)
+			{
+				sb.append(minHops);
+			}
+			
+			sb.append(RANGE);
+			
+			if (null != maxHops)
+			{
+				sb.append(maxHops);
+			}
+		}
+	}
+	
+	private void addInlineProperties(final QueryBuilderContext context, final StringBuilder sb)
 	{
 		sb.append("{");
 		
@@ -169,8 +241,7 @@ public class Relationship extends ReturnableCypherString implements Identifiable
 			
 			sb.append(propertyName);
 			sb.append(": ");
-			sb.append(CypherBuilder.VARIABLE_PREFIX);
-			sb.append(buildVariable(context, propertyName));
+			appendVariable(sb, context, propertyName);
 			
 			first = false;
 		}
@@ -193,19 +264,19 @@ public class Relationship extends ReturnableCypherString implements Identifiable
 	
 	public Map<Property, Object> getMappedProperties()
 	{
-		return properties.entrySet()
-			.stream()
-			.collect(Collectors.toMap(
-				k -> getProperty(k.getKey()),
-				Map.Entry::getValue
-			));
+		final var props = new LinkedHashMap<Property, Object>();
+		this.properties.forEach((key, value) -> props.put(getProperty(key), value));
+		
+		return props;
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return properties.entrySet().stream()
-			.map(e -> Map.entry(buildVariable(context, e.getKey()), e.getValue()));
+		for (Map.Entry<String, Object> entry : properties.entrySet())
+		{
+			parameters.put(buildVariable(context, entry.getKey()), entry.getValue());
+		}
 	}
 	
 	public static Relationship of(final String relationshipType)
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.condition.AndCondition;
+import com.gregmarut.querybuilder.cypher.condition.Condition;
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.condition.GreaterThanCondition;
+import com.gregmarut.querybuilder.cypher.condition.LessThanCondition;
+import com.gregmarut.querybuilder.cypher.condition.OrCondition;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The position of the last row of a page for keyset pagination. Instead of skipping the rows of the previous pages, the next page
+ * is found with a guard on the order by values of the last row. The id is used as a final tie breaker so that rows with equal
+ * order by values are neither repeated nor skipped.
+ */
+@Getter
+public class Seek
+{
+	private final List<?> lastValues;
+	private final Property idProperty;
+	private final Object lastId;
+	
+	//the variables are created once so the guard is given the same parameter names every time it is written
+	@Getter(AccessLevel.NONE)
+	private final List<Variable> lastValueVariables;
+	@Getter(AccessLevel.NONE)
+	private final Variable lastIdVariable;
+	
+	/**
+	 * @param lastValues the values of the last row for each of the order by entries, in the same order
+	 * @param idProperty the unique property used as the tie breaker
+	 * @param lastId     the id of the last row or null for the first page
+	 */
+	public Seek(final List<?> lastValues, final Property idProperty, @Nullable final Object lastId)
+	{
+		if (null == idProperty)
+		{
+			throw new IllegalArgumentException("The id property is required.");
+		}
+		
+		if (lastValues.stream().anyMatch(Objects::isNull))
+		{
+			throw new IllegalArgumentException("The last values cannot contain null since null cannot be compared.");
+		}
+		
+		this.lastValues = lastValues;
+		this.idProperty = idProperty;
+		this.lastId = lastId;
+		this.lastValueVariables = lastValues.stream().map(Variable::of).toList();
+		this.lastIdVariable = Variable.of(lastId);
+	}
+	
+	/**
+	 * Returns true if this seek continues after a previous page
+	 *
+	 * @return
+	 */
+	public boolean hasLastRow()
+	{
+		return null != lastId;
+	}
+	
+	/**
+	 * Builds the guard that matches the rows after the last row. For order by entries a, b and the id this is
+	 * {@code a > $a OR (a = $a AND b > $b) OR (a = $a AND b = $b AND id > $id)}, where descending entries compare with less than.
+	 *
+	 * @param orderByList
+	 * @return
+	 */
+	public Condition toCondition(final List<OrderBy> orderByList)
+	{
+		if (!hasLastRow())
+		{
+			throw new IllegalStateException("The first page has no last row to seek after.");
+		}
+		
+		checkOrderBy(orderByList);
+		
+		if (orderByList.size() != lastValues.size())
+		{
+			throw new IllegalArgumentException(
+				"Expected " + orderByList.size() + " last values to match the order by entries but found " + lastValues.size());
+		}
+		
+		//the id is always the last key and is ordered ascending
+		final List<CypherString> keys = new ArrayList<>(orderByList.size() + 1);
+		final List<OrderType> types = new ArrayList<>(orderByList.size() + 1);
+		final List<Variable> values = new ArrayList<>(orderByList.size() + 1);
+		for (int i = 0; i < orderByList.size(); i++)
+		{
+			keys.add(orderByList.get(i).getValue());
+			types.add(orderByList.get(i).getType());
+			values.add(lastValueVariables.get(i));
+		}
+		
+		keys.add(idProperty);
+		types.add(OrderType.ASC);
+		values.add(lastIdVariable);
+		
+		final List<Condition> branches = new ArrayList<>(keys.size());
+		for (int i = 0; i < keys.size(); i++)
+		{
+			//every key before this one is equal to the last row and this one is past it
+			final List<Condition> conditions = new ArrayList<>(i + 1);
+			for (int j = 0; j < i; j++)
+			{
+				conditions.add(new EqualsCondition(keys.get(j), values.get(j)));
+			}
+			
+			if (types.get(i) == OrderType.DESC)
+			{
+				conditions.add(new LessThanCondition(keys.get(i), values.get(i)));
+			}
+			else
+			{
+				conditions.add(new GreaterThanCondition(keys.get(i), values.get(i)));
+			}
+			
+			branches.add(conditions.size() == 1 ? conditions.get(0) : new AndCondition(conditions));
+		}
+		
+		return branches.size() == 1 ? branches.get(0) : new OrCondition(branches);
+	}
+	
+	/**
+	 * Makes sure that every order by entry can be guarded. The guard is written before the RETURN, so an entry written as a string may
+	 * name a RETURN alias or a projected expression that is not defined yet. Only properties are known to be in scope.
+	 *
+	 * @param orderByList
+	 */
+	void checkOrderBy(final List<OrderBy> orderByList)
+	{
+		for (OrderBy orderBy : orderByList)
+		{
+			if (!(orderBy.getValue() instanceof Property))
+			{
+				throw new IllegalStateException(
+					"A seek can only order by properties, the RETURN alias or expression cannot be guarded: " + orderBy.getValue());
+			}
+		}
+	}
+	
+	/**
+	 * Starts at the first page, ordered with the id as the tie breaker
+	 *
+	 * @param idProperty
+	 * @return
+	 */
+	public static Seek first(final Property idProperty)
+	{
+		return new Seek(List.of(), idProperty, null);
+	}
+	
+	public static Seek after(final List<?> lastValues, final Property idProperty, final Object lastId)
+	{
+		return new Seek(lastValues, idProperty, lastId);
+	}
+	
+	public static Seek after(final Property idProperty, final Object lastId)
+	{
+		return new Seek(List.of(), idProperty, lastId);
+	}
+}
@@ -28,7 +28,6 @@ import com.gregmarut.querybuilder.cypher.phrase.SetClause;
 
 import javax.annotation.Nullable;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -61,33 +60,27 @@ public class Upsert extends CypherPhrase
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		if (null == set)
-		{
-			return merge.getParameterStream(context);
-		}
-		else
+		merge.collectParameters(context, parameters);
+		
+		if (null != set)
 		{
-			return Stream.concat(merge.getParameterStream(context), set.getParameterStream(context));
+			set.collectParameters(context, parameters);
 		}
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		StringBuilder sb = new StringBuilder();
-		
 		//write the merge statement but when writing this node, only include the id property
-		sb.append(this.merge.build(context, Set.of(CypherConstants.FLAG_ID_PROPERTY_ONLY)));
+		this.merge.appendTo(sb, context, CypherConstants.FLAG_ID_PROPERTY_ONLY);
 		
 		if (null != this.set)
 		{
 			sb.append(context.getStatementSeparator());
-			sb.append(this.set.build(context));
+			this.set.appendTo(sb, context);
 		}
-		
-		return sb.toString();
 	}
 	
 	@Nullable
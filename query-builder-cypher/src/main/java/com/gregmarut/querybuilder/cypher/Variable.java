@@ -22,30 +22,42 @@
 
 package com.gregmarut.querybuilder.cypher;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
+@Getter
 @RequiredArgsConstructor
 public class Variable extends CypherString
 {
 	private final Object value;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return CypherBuilder.VARIABLE_PREFIX + context.getVariableName(this);
+		sb.append(CypherBuilder.VARIABLE_PREFIX);
+		sb.append(context.getVariableName(getKey(context)));
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Map.of(context.getVariableName(this), value).entrySet().stream();
+		parameters.put(context.getVariableName(getKey(context)), value);
+	}
+	
+	private Object getKey(final QueryBuilderContext context)
+	{
+		//equal values share a single parameter when the context allows it
+		return context.isShareParameters() ? new SharedValue(value) : this;
 	}
 	
 	public static Variable of(final Object value)
 	{
 		return new Variable(value);
 	}
+	
+	private record SharedValue(Object value)
+	{
+	}
 }
@@ -26,7 +26,6 @@ import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @Builder
 @RequiredArgsConstructor
@@ -39,20 +38,21 @@ public class WhenThen extends CypherString
 	private final CypherString then;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_WHEN
-			   + " "
-			   + when.build(context)
-			   + " "
-			   + KEYWORD_THEN
-			   + " "
-			   + then.build(context);
+		sb.append(KEYWORD_WHEN);
+		sb.append(" ");
+		when.appendTo(sb, context);
+		sb.append(" ");
+		sb.append(KEYWORD_THEN);
+		sb.append(" ");
+		then.appendTo(sb, context);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.of(when.getParameterStream(context), then.getParameterStream(context)).flatMap(s -> s);
+		when.collectParameters(context, parameters);
+		then.collectParameters(context, parameters);
 	}
 }
@@ -29,7 +29,6 @@ import lombok.NonNull;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.stream.Stream;
 
 public class AnyInCondition extends Condition
 {
@@ -52,19 +51,18 @@ public class AnyInCondition extends Condition
 	}
 
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		//use a context-generated name so it is unique within this query and consistent across _build and getParameterStream
+		//use a context-generated name so it is unique within this query and consistent across _appendTo and collectParameters
 		final var element = context.getVariableName(this);
 
-		final var sb = new StringBuilder();
 		sb.append(KEYWORD_ANY);
 		sb.append("(");
 		sb.append(element);
 		sb.append(" ");
 		sb.append(KEYWORD_IN);
 		sb.append(" ");
-		sb.append(value1.build(context));
+		value1.appendTo(sb, context);
 		sb.append(" ");
 		sb.append(KEYWORD_WHERE);
 		sb.append(" ");
@@ -72,16 +70,14 @@ public class AnyInCondition extends Condition
 		sb.append(" ");
 		sb.append(KEYWORD_IN);
 		sb.append(" ");
-		sb.append(value2.build(context));
+		value2.appendTo(sb, context);
 		sb.append(")");
-
-		return sb.toString();
 	}
 
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.of(value1.getParameterStream(context), value2.getParameterStream(context))
-			.flatMap(s -> s);
+		value1.collectParameters(context, parameters);
+		value2.collectParameters(context, parameters);
 	}
 }
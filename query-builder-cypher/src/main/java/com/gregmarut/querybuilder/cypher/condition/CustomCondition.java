@@ -27,7 +27,6 @@ import com.gregmarut.querybuilder.cypher.Property;
 import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 public class CustomCondition
 {
@@ -36,16 +35,19 @@ public class CustomCondition
 		return new Condition()
 		{
 			@Override
-			protected String _build(final QueryBuilderContext context)
+			protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 			{
-				return property.build(context) + " >= datetime() - duration(" + CypherBuilder.VARIABLE_PREFIX + context.getVariableName(this) + ")";
+				property.appendTo(sb, context);
+				sb.append(" >= datetime() - duration(");
+				sb.append(CypherBuilder.VARIABLE_PREFIX);
+				sb.append(context.getVariableName(this));
+				sb.append(")");
 			}
 			
 			@Override
-			public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+			public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 			{
-				final Object value = "P" + days + "D";
-				return Map.of(context.getVariableName(this), value).entrySet().stream();
+				parameters.put(context.getVariableName(this), "P" + days + "D");
 			}
 		};
 	}
@@ -55,16 +57,19 @@ public class CustomCondition
 		return new Condition()
 		{
 			@Override
-			protected String _build(final QueryBuilderContext context)
+			protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 			{
-				return property.build(context) + " >= datetime() - duration(" + CypherBuilder.VARIABLE_PREFIX + context.getVariableName(this) + ")";
+				property.appendTo(sb, context);
+				sb.append(" >= datetime() - duration(");
+				sb.append(CypherBuilder.VARIABLE_PREFIX);
+				sb.append(context.getVariableName(this));
+				sb.append(")");
 			}
 			
 			@Override
-			public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+			public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 			{
-				final Object value = "P" + months + "M";
-				return Map.of(context.getVariableName(this), value).entrySet().stream();
+				parameters.put(context.getVariableName(this), "P" + months + "M");
 			}
 		};
 	}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.condition;
+
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@code EXISTS { ... }} subquery which is true when the body finds at least one row. The body can reference the nodes of the
+ * enclosing query and may filter them with its own WHERE, which a plain pattern predicate cannot do. The server stops reading
+ * as soon as the first row is found.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ExistsSubquery extends Condition
+{
+	private static final String KEYWORD_EXISTS = "EXISTS";
+	
+	private final CypherBuilder body;
+	
+	@Override
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		sb.append(KEYWORD_EXISTS);
+		sb.append(" ");
+		body.appendSubquery(sb, context, List.of());
+	}
+	
+	@Override
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+	{
+		body.collectParameters(context, parameters);
+	}
+	
+	public static ExistsSubquery of(final CypherBuilder body)
+	{
+		return new ExistsSubquery(body);
+	}
+}
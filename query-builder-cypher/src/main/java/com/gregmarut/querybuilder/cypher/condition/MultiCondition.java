@@ -24,10 +24,7 @@ package com.gregmarut.querybuilder.cypher.condition;
 
 import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 
-import java.util.Arrays;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public abstract class MultiCondition extends Condition
 {
@@ -41,16 +38,31 @@ public abstract class MultiCondition extends Condition
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return "(" +
-			   Arrays.stream(conditions).map(c -> c.build(context)).collect(Collectors.joining(" " + operator + " ")) +
-			   ")";
+		sb.append("(");
+		
+		for (int i = 0; i < conditions.length; i++)
+		{
+			if (i > 0)
+			{
+				sb.append(" ");
+				sb.append(operator);
+				sb.append(" ");
+			}
+			
+			conditions[i].appendTo(sb, context);
+		}
+		
+		sb.append(")");
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Arrays.stream(conditions).flatMap(c -> c.getParameterStream(context));
+		for (Condition condition : conditions)
+		{
+			condition.collectParameters(context, parameters);
+		}
 	}
 }
@@ -26,7 +26,6 @@ import com.gregmarut.querybuilder.cypher.Path;
 import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 public class NotPathCondition extends Condition
 {
@@ -40,14 +39,16 @@ public class NotPathCondition extends Condition
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return NOT + " " + path.build(context);
+		sb.append(NOT);
+		sb.append(" ");
+		path.appendTo(sb, context);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return path.getParameterStream(context);
+		path.collectParameters(context, parameters);
 	}
 }
@@ -29,7 +29,6 @@ import lombok.Getter;
 import lombok.NonNull;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @Getter
 public abstract class OperatorCondition extends Condition
@@ -60,22 +59,19 @@ public abstract class OperatorCondition extends Condition
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.concat(value1.getParameterStream(context), value2.getParameterStream(context));
+		value1.collectParameters(context, parameters);
+		value2.collectParameters(context, parameters);
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		final var sb = new StringBuilder();
-		
-		sb.append(value1.build(context));
+		value1.appendTo(sb, context);
 		sb.append(" ");
 		sb.append(operator);
 		sb.append(" ");
-		sb.append(value2.build(context));
-		
-		return sb.toString();
+		value2.appendTo(sb, context);
 	}
 }
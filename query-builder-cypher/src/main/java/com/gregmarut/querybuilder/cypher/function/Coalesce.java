@@ -30,7 +30,6 @@ import com.gregmarut.querybuilder.cypher.node.TypedNode;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Coalesce extends AliasableCypherString<Coalesce>
@@ -41,15 +40,21 @@ public class Coalesce extends AliasableCypherString<Coalesce>
 	private final CypherString defaultValue;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_COALESCE + "(" + cypherString.build(context) + ", " + defaultValue.build(context) + ")";
+		sb.append(KEYWORD_COALESCE);
+		sb.append("(");
+		cypherString.appendTo(sb, context);
+		sb.append(", ");
+		defaultValue.appendTo(sb, context);
+		sb.append(")");
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.concat(cypherString.getParameterStream(context), defaultValue.getParameterStream(context));
+		cypherString.collectParameters(context, parameters);
+		defaultValue.collectParameters(context, parameters);
 	}
 	
 	public <N> TypedNode<N> getAsNode(final Class<N> nodeClass, final String identifier)
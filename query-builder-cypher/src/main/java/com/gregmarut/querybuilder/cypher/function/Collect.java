@@ -28,7 +28,6 @@ import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Collect<E extends CypherString> extends AliasableCypherString<Collect<E>>
@@ -40,9 +39,8 @@ public class Collect<E extends CypherString> extends AliasableCypherString<Colle
 	private final boolean distinct;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		final var sb = new StringBuilder();
 		sb.append(KEYWORD_COLLECT);
 		sb.append("(");
 		
@@ -52,17 +50,15 @@ public class Collect<E extends CypherString> extends AliasableCypherString<Colle
 			sb.append(" ");
 		}
 		
-		sb.append(cypherString.build(context));
+		cypherString.appendTo(sb, context);
 		
 		sb.append(")");
-		
-		return sb.toString();
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return cypherString.getParameterStream(context);
+		cypherString.collectParameters(context, parameters);
 	}
 	
 	@Override
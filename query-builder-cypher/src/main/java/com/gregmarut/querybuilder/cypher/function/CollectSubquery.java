@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.function;
+
+import com.gregmarut.querybuilder.cypher.AliasableCypherString;
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code COLLECT { ... }} subquery which gathers the single column returned by the body into a list for every row of the
+ * enclosing query. Since the body has its own ORDER BY and LIMIT, this returns the top N of every group without returning the
+ * rest of it.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CollectSubquery extends AliasableCypherString<CollectSubquery>
+{
+	private static final String KEYWORD_COLLECT = "COLLECT";
+	
+	private final CypherBuilder body;
+	
+	@Override
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		sb.append(KEYWORD_COLLECT);
+		sb.append(" ");
+		body.appendSubquery(sb, context, List.of());
+	}
+	
+	@Override
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+	{
+		body.collectParameters(context, parameters);
+	}
+	
+	@Override
+	protected CollectSubquery getThis()
+	{
+		return this;
+	}
+	
+	public static CollectSubquery of(final CypherBuilder body)
+	{
+		return new CollectSubquery(body);
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.function;
+
+import com.gregmarut.querybuilder.cypher.AliasableCypherString;
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code COUNT { ... }} subquery which counts the rows of the body for every row of the enclosing query, without adding a row
+ * for every match the way {@code OPTIONAL MATCH} followed by {@code count()} does
+ */
+@Getter
+@RequiredArgsConstructor
+public class CountSubquery extends AliasableCypherString<CountSubquery>
+{
+	private static final String KEYWORD_COUNT = "COUNT";
+	
+	private final CypherBuilder body;
+	
+	@Override
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		sb.append(KEYWORD_COUNT);
+		sb.append(" ");
+		body.appendSubquery(sb, context, List.of());
+	}
+	
+	@Override
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+	{
+		body.collectParameters(context, parameters);
+	}
+	
+	@Override
+	protected CountSubquery getThis()
+	{
+		return this;
+	}
+	
+	public static CountSubquery of(final CypherBuilder body)
+	{
+		return new CountSubquery(body);
+	}
+}
@@ -31,7 +31,6 @@ import lombok.NoArgsConstructor;
 import javax.annotation.Nullable;
 import java.time.LocalDate;
 import java.util.Map;
-import java.util.stream.Stream;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,28 +40,24 @@ public class Date extends CypherString
 	private CypherString param;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
+		sb.append("date(");
+		
 		if (null != param)
 		{
-			return "date(" + param.build(context) + ")";
-		}
-		else
-		{
-			return "date()";
+			param.appendTo(sb, context);
 		}
+		
+		sb.append(")");
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
 		if (null != param)
 		{
-			return param.getParameterStream(context);
-		}
-		else
-		{
-			return Stream.empty();
+			param.collectParameters(context, parameters);
 		}
 	}
 	
@@ -31,7 +31,6 @@ import lombok.NoArgsConstructor;
 import javax.annotation.Nullable;
 import java.time.Instant;
 import java.util.Map;
-import java.util.stream.Stream;
 
 /**
  * Renders the cypher {@code datetime()} function. The no-arg constructor renders {@code datetime()},
@@ -46,28 +45,24 @@ public class DateTime extends CypherString
 	private CypherString param;
 
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
+		sb.append("datetime(");
+		
 		if (null != param)
 		{
-			return "datetime(" + param.build(context) + ")";
-		}
-		else
-		{
-			return "datetime()";
+			param.appendTo(sb, context);
 		}
+		
+		sb.append(")");
 	}
 
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
 		if (null != param)
 		{
-			return param.getParameterStream(context);
-		}
-		else
-		{
-			return Stream.empty();
+			param.collectParameters(context, parameters);
 		}
 	}
 
@@ -29,35 +29,56 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Duration extends AliasableCypherString<Duration>
 {
 	private static final String DURATION = "duration";
+	private static final Unit[] UNITS = Unit.values();
 	
 	private final Map<Unit, CypherString> map;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		final var sb = new StringBuilder();
 		sb.append(DURATION);
 		sb.append("({");
 		
-		//build the comma separated parameters
-		final var params = map.entrySet().stream().map(entry -> entry.getKey().getKey() + ": " + entry.getValue().build(context)).toList();
-		sb.append(String.join(", ", params));
+		//write the comma separated parameters in unit order so the output does not depend on the map implementation
+		boolean first = true;
+		for (Unit unit : UNITS)
+		{
+			final var value = map.get(unit);
+			
+			if (null != value)
+			{
+				if (!first)
+				{
+					sb.append(", ");
+				}
+				
+				sb.append(unit.getKey());
+				sb.append(": ");
+				value.appendTo(sb, context);
+				first = false;
+			}
+		}
 		
 		sb.append("})");
-		
-		return sb.toString();
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return map.values().stream().flatMap(value -> value.getParameterStream(context));
+		for (Unit unit : UNITS)
+		{
+			final var value = map.get(unit);
+			
+			if (null != value)
+			{
+				value.collectParameters(context, parameters);
+			}
+		}
 	}
 	
 	@Override
@@ -28,7 +28,6 @@ import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Max extends AliasableCypherString<Max>
@@ -38,15 +37,18 @@ public class Max extends AliasableCypherString<Max>
 	private final CypherString cypherString;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_MAX + "(" + cypherString.build(context) + ")";
+		sb.append(KEYWORD_MAX);
+		sb.append("(");
+		cypherString.appendTo(sb, context);
+		sb.append(")");
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return cypherString.getParameterStream(context);
+		cypherString.collectParameters(context, parameters);
 	}
 	
 	@Override
@@ -28,7 +28,6 @@ import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Range extends AliasableCypherString<Range>
@@ -39,25 +38,23 @@ public class Range extends AliasableCypherString<Range>
 	private final CypherString cypherString2;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		final var sb = new StringBuilder();
 		sb.append(RANGE);
 		sb.append("(");
 		
-		sb.append(cypherString1.build(context));
+		cypherString1.appendTo(sb, context);
 		sb.append(", ");
-		sb.append(cypherString2.build(context));
+		cypherString2.appendTo(sb, context);
 		
 		sb.append(")");
-		
-		return sb.toString();
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.of(cypherString1.getParameterStream(context), cypherString2.getParameterStream(context)).flatMap(s -> s);
+		cypherString1.collectParameters(context, parameters);
+		cypherString2.collectParameters(context, parameters);
 	}
 	
 	@Override
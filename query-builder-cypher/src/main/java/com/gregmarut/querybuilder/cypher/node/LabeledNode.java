@@ -43,4 +43,10 @@ public class LabeledNode<N> extends TypedNode<N>
 		sb.append(":");
 		sb.append(label);
 	}
+	
+	@Override
+	protected String getLabelName()
+	{
+		return label;
+	}
 }
@@ -22,7 +22,6 @@
 
 package com.gregmarut.querybuilder.cypher.node;
 
-import com.gregmarut.querybuilder.cypher.CypherBuilder;
 import com.gregmarut.querybuilder.cypher.CypherConstants;
 import com.gregmarut.querybuilder.cypher.CypherString;
 import com.gregmarut.querybuilder.cypher.IdentifierGenerator;
@@ -30,14 +29,15 @@ import com.gregmarut.querybuilder.cypher.Property;
 import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 import lombok.Getter;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.TreeMap;
 
 @Getter
 public class MutableNode<N> extends LabeledNode<N>
 {
+	//properties are kept sorted so that the inline map renders the same regardless of the order they were added in
 	private final Map<String, Object> properties;
 	
 	@Getter
@@ -46,7 +46,7 @@ public class MutableNode<N> extends LabeledNode<N>
 	public MutableNode(final Class<N> nodeClass, final String label)
 	{
 		super(nodeClass, label);
-		properties = new HashMap<>();
+		properties = new TreeMap<>();
 	}
 	
 	public MutableNode<N> named(final String identifier)
@@ -81,22 +81,51 @@ public class MutableNode<N> extends LabeledNode<N>
 	
 	public Map<Property, Object> getMappedProperties()
 	{
-		final var props = new HashMap<Property, Object>();
+		final var props = new LinkedHashMap<Property, Object>();
 		this.properties.forEach((key, value) -> props.put(getProperty(key), value));
 		
 		return props;
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return properties.entrySet()
-			.stream()
-			//make sure the value is not null
-			.filter(e -> null != e.getValue())
-			//do not include cypher string objects
-			.filter(e -> !(e.getValue() instanceof CypherString))
-			.map(e -> Map.entry(buildVariable(context, e.getKey()), e.getValue()));
+		for (Map.Entry<String, Object> entry : getProperties(context).entrySet())
+		{
+			//null values are not written and cypher string objects are rendered inline rather than as parameters
+			if (null != entry.getValue() && !(entry.getValue() instanceof CypherString))
+			{
+				parameters.put(buildVariable(context, entry.getKey()), entry.getValue());
+			}
+		}
+	}
+	
+	@Override
+	protected boolean hasInlineProperties(final QueryBuilderContext context)
+	{
+		return !getProperties(context).isEmpty() || context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY);
+	}
+	
+	/**
+	 * Returns the properties of this node along with any that a pass added to its inline property map for the given context
+	 *
+	 * @param context
+	 * @return
+	 */
+	private Map<String, Object> getProperties(final QueryBuilderContext context)
+	{
+		final var added = context.getInlineProperties(this);
+		
+		if (added.isEmpty())
+		{
+			return properties;
+		}
+		else
+		{
+			final Map<String, Object> merged = new TreeMap<>(properties);
+			merged.putAll(added);
+			return merged;
+		}
 	}
 	
 	@Override
@@ -105,50 +134,55 @@ public class MutableNode<N> extends LabeledNode<N>
 		super.buildNode(context, sb);
 		
 		//decide which properties to use
-		final var props = context.getFlags().contains(CypherConstants.FLAG_ID_PROPERTY_ONLY) ?
-			Map.of(idField, Objects.requireNonNull(properties.get(idField), "ID field is not set.")) :
-			properties;
-		
+		if (context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY))
+		{
+			final var id = Objects.requireNonNull(properties.get(idField), "ID field is not set.");
+			
+			sb.append("{");
+			addInlineProperty(context, sb, idField, id);
+			sb.append("}");
+		}
 		//check to see if there are any properties
-		if (!props.isEmpty())
+		else if (hasInlineProperties(context))
 		{
-			addInlineProperties(context, sb, props);
+			addInlineProperties(context, sb);
 		}
 	}
 	
-	private void addInlineProperties(final QueryBuilderContext context, final StringBuilder sb, final Map<String, Object> properties)
+	private void addInlineProperties(final QueryBuilderContext context, final StringBuilder sb)
 	{
 		sb.append("{");
 		
-		final var nonNullProperties = properties.entrySet()
-			.stream()
-			.filter(e -> null != e.getValue())
-			.toList();
-		
-		//for all of the property keys
+		//for all of the non-null properties
 		boolean first = true;
-		for (var entry : nonNullProperties)
+		for (var entry : getProperties(context).entrySet())
 		{
-			if (!first)
-			{
-				sb.append(", ");
-			}
-			
-			sb.append(entry.getKey());
-			sb.append(": ");
-			
-			if (entry.getValue() instanceof CypherString cs)
-			{
-				sb.append(cs.build(context));
-			}
-			else
+			if (null != entry.getValue())
 			{
-				sb.append(CypherBuilder.VARIABLE_PREFIX);
-				sb.append(buildVariable(context, entry.getKey()));
+				if (!first)
+				{
+					sb.append(", ");
+				}
+				
+				addInlineProperty(context, sb, entry.getKey(), entry.getValue());
+				first = false;
 			}
-			
-			first = false;
 		}
 		sb.append("}");
 	}
+	
+	private void addInlineProperty(final QueryBuilderContext context, final StringBuilder sb, final String key, final Object value)
+	{
+		sb.append(key);
+		sb.append(": ");
+		
+		if (value instanceof CypherString cs)
+		{
+			cs.appendTo(sb, context);
+		}
+		else
+		{
+			appendVariable(sb, context, key);
+		}
+	}
 }
@@ -35,7 +35,6 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @Getter
 @RequiredArgsConstructor
@@ -46,12 +45,11 @@ public class Node extends ReturnableCypherString implements Identifiable
 	protected String identifier;
 	
 	@Override
-	protected final String _build(final QueryBuilderContext context)
+	protected final void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
 		//check to see if this node is in a buildable context
 		if (isInBuildableContext(context))
 		{
-			final var sb = new StringBuilder();
 			sb.append("(");
 			
 			//check to see if this node has already been built
@@ -60,12 +58,20 @@ public class Node extends ReturnableCypherString implements Identifiable
 				//reference this node going forward with the identifier only
 				sb.append(getRequiredIdentifier());
 			}
+			//check to see if another node already declared this identifier with the same label
+			else if (context.isOmitBoundLabels() && !hasInlineProperties(context) && null != getIdentifier()
+				&& context.isBound(getIdentifier(), getLabelName()))
+			{
+				sb.append(getIdentifier());
+				context.built(this);
+			}
 			else
 			{
 				//check to see if there is an identifier
 				if (null != getIdentifier())
 				{
 					sb.append(getIdentifier());
+					context.bind(getIdentifier(), getLabelName());
 				}
 				
 				buildNode(context, sb);
@@ -73,12 +79,11 @@ public class Node extends ReturnableCypherString implements Identifiable
 			}
 			
 			sb.append(")");
-			return sb.toString();
 		}
 		//ensure that this node has previously been built
 		else if (nodeType == NodeType.YIELDED_NODE || isBuilt(context))
 		{
-			return getRequiredIdentifier();
+			sb.append(getRequiredIdentifier());
 		}
 		else
 		{
@@ -91,6 +96,27 @@ public class Node extends ReturnableCypherString implements Identifiable
 	
 	}
 	
+	/**
+	 * Returns the label that {@link #buildNode(QueryBuilderContext, StringBuilder)} writes, if any
+	 *
+	 * @return
+	 */
+	protected String getLabelName()
+	{
+		return null;
+	}
+	
+	/**
+	 * Determines if {@link #buildNode(QueryBuilderContext, StringBuilder)} writes an inline property map in the given context
+	 *
+	 * @param context
+	 * @return
+	 */
+	protected boolean hasInlineProperties(final QueryBuilderContext context)
+	{
+		return false;
+	}
+	
 	/**
 	 * Determines if this node is currently in a "buildable" context.
 	 *
@@ -105,9 +131,9 @@ public class Node extends ReturnableCypherString implements Identifiable
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.empty();
+	
 	}
 	
 	public static Node identifiedAs(final IdentifierGenerator generator)
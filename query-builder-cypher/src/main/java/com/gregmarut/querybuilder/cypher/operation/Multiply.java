@@ -27,7 +27,6 @@ import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Multiply extends CypherString
@@ -38,15 +37,20 @@ public class Multiply extends CypherString
 	private final CypherString right;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return left.build(context) + " " + MULTIPLY + " " + right.build(context);
+		left.appendTo(sb, context);
+		sb.append(" ");
+		sb.append(MULTIPLY);
+		sb.append(" ");
+		right.appendTo(sb, context);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.concat(left.getParameterStream(context), right.getParameterStream(context));
+		left.collectParameters(context, parameters);
+		right.collectParameters(context, parameters);
 	}
 	
 	public static Multiply of(final CypherString left, final CypherString right)
@@ -28,8 +28,6 @@ import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Delete extends CypherPhrase
@@ -52,10 +50,8 @@ public class Delete extends CypherPhrase
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		final var sb = new StringBuilder();
-		
 		if (detach)
 		{
 			sb.append(KEYWORD_DETACH);
@@ -65,15 +61,21 @@ public class Delete extends CypherPhrase
 		sb.append(KEYWORD_DELETE);
 		sb.append(" ");
 		
-		sb.append(identifiables.stream().map(Identifiable::getRequiredIdentifier).collect(Collectors.joining(", ")));
-		
-		return sb.toString();
+		for (int i = 0; i < identifiables.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(", ");
+			}
+			
+			sb.append(identifiables.get(i).getRequiredIdentifier());
+		}
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.empty();
+	
 	}
 	
 	public static Delete delete(final Identifiable... identifiables)
@@ -28,7 +28,6 @@ import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 /**
  * Renders a Cypher FOREACH clause:
@@ -55,14 +54,27 @@ public class ForEach extends CypherPhrase
 	private final CypherPhrase innerClause;
 
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_FOREACH + " (" + variable.getRequiredIdentifier() + " IN " + collection.build(context) + " | " + innerClause.build(context) + ")";
+		sb.append(KEYWORD_FOREACH);
+		sb.append(" (");
+		sb.append(variable.getRequiredIdentifier());
+		sb.append(" IN ");
+		collection.appendTo(sb, context);
+		sb.append(" | ");
+		
+		//the nodes written by the inner clause are not visible after the FOREACH
+		final var bindings = context.getBindings();
+		innerClause.appendTo(sb, context);
+		context.restoreBindings(bindings);
+		
+		sb.append(")");
 	}
 
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.concat(collection.getParameterStream(context), innerClause.getParameterStream(context));
+		collection.collectParameters(context, parameters);
+		innerClause.collectParameters(context, parameters);
 	}
 }
@@ -31,7 +31,6 @@ import lombok.Getter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
 
 public class Match extends CypherPhrase
 {
@@ -40,6 +39,7 @@ public class Match extends CypherPhrase
 
 	@Getter
 	private final Path path;
+	@Getter
 	private final List<Where> whereClauses;
 	
 	@Getter
@@ -85,19 +85,25 @@ public class Match extends CypherPhrase
 		return where(new Where(condition));
 	}
 	
+	public boolean hasWhere()
+	{
+		return !whereClauses.isEmpty();
+	}
+	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.of(path.getParameterStream(context),
-				whereClauses.stream().flatMap(w -> w.getParameterStream(context)))
-			.flatMap(s -> s);
+		path.collectParameters(context, parameters);
+		
+		for (Where where : whereClauses)
+		{
+			where.collectParameters(context, parameters);
+		}
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		final var sb = new StringBuilder();
-
 		if (optional)
 		{
 			sb.append(KEYWORD_OPTIONAL);
@@ -106,21 +112,21 @@ public class Match extends CypherPhrase
 
 		sb.append(KEYWORD_MATCH);
 		sb.append(" ");
-		sb.append(path.build(context));
+		path.appendTo(sb, context);
 
 		if (!whereClauses.isEmpty())
 		{
 			//flatten all conditions from every attached Where clause into a single Where so we emit
 			//"WHERE a AND b" rather than "WHERE WHERE a AND WHERE b" — Where.build() already emits the keyword
-			final var allConditions = whereClauses.stream()
-				.flatMap(w -> w.getConditions().stream())
-				.toList();
+			final List<Condition> allConditions = new ArrayList<>();
+			for (Where where : whereClauses)
+			{
+				allConditions.addAll(where.getConditions());
+			}
 
 			sb.append(" ");
-			sb.append(new Where(allConditions).build(context));
+			new Where(allConditions).appendTo(sb, context);
 		}
-
-		return sb.toString();
 	}
 	
 	public static Match of(final Node node)
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.phrase;
+
+import com.gregmarut.querybuilder.cypher.LiteralCypherString;
+import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import com.gregmarut.querybuilder.cypher.Variable;
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.condition.InCondition;
+import com.gregmarut.querybuilder.cypher.node.Node;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Matches the nodes whose property is one of the given values. The values are bound as a single list parameter, so the query
+ * text does not grow with the number of values. Once the list is larger than the {@code unwindThreshold} of the context
+ * the phrase is written as {@code UNWIND $list AS x MATCH (n) WHERE n.property = x} instead, which lets the planner seek the
+ * index once per value.
+ */
+public class MatchIn extends CypherPhrase
+{
+	private final int size;
+	private final Match inMatch;
+	private final Unwind<Variable> unwind;
+	private final Match unwindMatch;
+	
+	public MatchIn(final Node node, final String propertyName, final Collection<?> values)
+	{
+		//duplicates are removed so that the unwound form returns each node once, the same as IN
+		final var distinctValues = new ArrayList<Object>(new LinkedHashSet<>(values));
+		final var list = Variable.of(distinctValues);
+		final var property = node.getProperty(propertyName);
+		final var alias = node.getRequiredIdentifier() + "_" + propertyName;
+		
+		this.size = distinctValues.size();
+		this.inMatch = new Match(node).where(new InCondition(property, list));
+		this.unwind = new Unwind<>(list, alias);
+		this.unwindMatch = new Match(node).where(new EqualsCondition(property, LiteralCypherString.of(alias)));
+	}
+	
+	@Override
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
+	{
+		if (isUnwound(context))
+		{
+			unwind.appendTo(sb, context);
+			sb.append(context.getStatementSeparator());
+			unwindMatch.appendTo(sb, context);
+		}
+		else
+		{
+			inMatch.appendTo(sb, context);
+		}
+	}
+	
+	@Override
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+	{
+		if (isUnwound(context))
+		{
+			unwind.collectParameters(context, parameters);
+			unwindMatch.collectParameters(context, parameters);
+		}
+		else
+		{
+			inMatch.collectParameters(context, parameters);
+		}
+	}
+	
+	/**
+	 * Returns the match of this phrase, which is the same pattern in both of the forms it can be written as
+	 *
+	 * @return
+	 */
+	public Match getMatch()
+	{
+		return inMatch;
+	}
+	
+	private boolean isUnwound(final QueryBuilderContext context)
+	{
+		return size > context.getUnwindThreshold();
+	}
+	
+	public static MatchIn of(final Node node, final String propertyName, final Collection<?> values)
+	{
+		return new MatchIn(node, propertyName, values);
+	}
+}
@@ -28,8 +28,6 @@ import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Remove extends CypherPhrase
@@ -39,15 +37,29 @@ public class Remove extends CypherPhrase
 	private final List<Property> properties;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_REMOVE + " " + properties.stream().map(p -> p.build(context)).collect(Collectors.joining(", "));
+		sb.append(KEYWORD_REMOVE);
+		sb.append(" ");
+		
+		for (int i = 0; i < properties.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(", ");
+			}
+			
+			properties.get(i).appendTo(sb, context);
+		}
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return properties.stream().flatMap(p -> p.getParameterStream(context));
+		for (Property property : properties)
+		{
+			property.collectParameters(context, parameters);
+		}
 	}
 	
 	public static Remove of(final Property... properties)
@@ -28,8 +28,6 @@ import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class Return extends CypherPhrase
@@ -41,14 +39,13 @@ public class Return extends CypherPhrase
 	private final boolean distinct;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
 		if (returnValues.isEmpty())
 		{
 			throw new IllegalArgumentException("At least one return value must be specified.");
 		}
 		
-		final var sb = new StringBuilder();
 		sb.append(KEYWORD_RETURN);
 		sb.append(" ");
 		
@@ -58,14 +55,23 @@ public class Return extends CypherPhrase
 			sb.append(" ");
 		}
 		
-		sb.append(returnValues.stream().map(r -> r.build(context)).collect(Collectors.joining(", ")));
-		
-		return sb.toString();
+		for (int i = 0; i < returnValues.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(", ");
+			}
+			
+			returnValues.get(i).appendTo(sb, context);
+		}
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return returnValues.stream().flatMap(r -> r.getParameterStream(context));
+		for (int i = 0; i < returnValues.size(); i++)
+		{
+			returnValues.get(i).collectParameters(context, parameters);
+		}
 	}
 }
@@ -26,14 +26,13 @@ import com.gregmarut.querybuilder.cypher.CypherString;
 import com.gregmarut.querybuilder.cypher.Property;
 import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Renders a SET clause that assigns property values, e.g. {@code SET n.name = $_v0, n.age = $_v1}.
- * Property assignments are emitted in alphabetical order by property name for deterministic output.
+ * Property assignments are emitted in alphabetical order by property name, then by identifier, for deterministic output.
  *
  * Named SetClause (rather than Set) to avoid colliding with {@link java.util.Set} at every call site.
  */
@@ -41,6 +40,10 @@ public class SetClause extends CypherPhrase
 {
 	private static final String KEYWORD_SET = "SET";
 
+	private static final Comparator<Map.Entry<Property, CypherString>> ASSIGNMENT_ORDER = Comparator
+		.<Map.Entry<Property, CypherString>, String>comparing(e -> e.getKey().getPropertyName())
+		.thenComparing(e -> e.getKey().getItem().getRequiredIdentifier());
+
 	private final Map<Property, CypherString> properties;
 
 	/**
@@ -60,28 +63,44 @@ public class SetClause extends CypherPhrase
 	}
 
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return properties.values().stream().flatMap(p -> p.getParameterStream(context));
+		for (CypherString value : properties.values())
+		{
+			value.collectParameters(context, parameters);
+		}
 	}
 
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return SetClause.KEYWORD_SET + " " + getWritePropertySet(context);
+		sb.append(SetClause.KEYWORD_SET);
+		sb.append(" ");
+		appendWritePropertySet(sb, context);
 	}
 
 	/**
-	 * Renders the comma-separated property assignments, sorted alphabetically by property name.
+	 * Writes the comma-separated property assignments, sorted alphabetically by property name.
 	 *
+	 * @param sb      the builder to write to
 	 * @param context the build context
-	 * @return a string like {@code n.born = $_v0, n.name = $_v1}
 	 */
-	private String getWritePropertySet(final QueryBuilderContext context)
+	private void appendWritePropertySet(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return this.properties.entrySet().stream()
-			.sorted(Comparator.comparing(e -> e.getKey().getPropertyName()))
-			.map(e -> e.getKey().build(context) + " = " + e.getValue().build(context))
-			.collect(Collectors.joining(", "));
+		final var sorted = new ArrayList<>(this.properties.entrySet());
+		sorted.sort(ASSIGNMENT_ORDER);
+		
+		for (int i = 0; i < sorted.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(", ");
+			}
+			
+			final var entry = sorted.get(i);
+			entry.getKey().appendTo(sb, context);
+			sb.append(" = ");
+			entry.getValue().appendTo(sb, context);
+		}
 	}
 }
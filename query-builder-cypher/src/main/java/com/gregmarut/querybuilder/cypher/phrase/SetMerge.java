@@ -28,7 +28,6 @@ import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 /**
  * Renders a SET map-merge clause: {@code SET identifier += mapExpression}
@@ -45,14 +44,18 @@ public class SetMerge extends CypherPhrase
 	private final CypherString mapExpression;
 
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_SET + " " + target.getRequiredIdentifier() + " += " + mapExpression.build(context);
+		sb.append(KEYWORD_SET);
+		sb.append(" ");
+		sb.append(target.getRequiredIdentifier());
+		sb.append(" += ");
+		mapExpression.appendTo(sb, context);
 	}
 
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return mapExpression.getParameterStream(context);
+		mapExpression.collectParameters(context, parameters);
 	}
 }
@@ -38,8 +38,6 @@ import lombok.Getter;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Getter
 public class Unwind<E extends CypherString> extends CypherPhrase
@@ -62,16 +60,32 @@ public class Unwind<E extends CypherString> extends CypherPhrase
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_UNWIND + " " + cypherStrings.stream().map(c -> c.build(context)).collect(Collectors.joining(" + ")) + " AS " +
-			   alias.build(context);
+		sb.append(KEYWORD_UNWIND);
+		sb.append(" ");
+		
+		for (int i = 0; i < cypherStrings.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(" + ");
+			}
+			
+			cypherStrings.get(i).appendTo(sb, context);
+		}
+		
+		sb.append(" AS ");
+		alias.appendTo(sb, context);
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return cypherStrings.stream().flatMap(c -> c.getParameterStream(context));
+		for (int i = 0; i < cypherStrings.size(); i++)
+		{
+			cypherStrings.get(i).collectParameters(context, parameters);
+		}
 	}
 	
 	public <N> TypedNode<N> getAsNode(final Class<N> nodeClass)
@@ -27,7 +27,6 @@ import com.gregmarut.querybuilder.cypher.node.LabeledNode;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class UsingIndex extends CypherPhrase
@@ -38,14 +37,21 @@ public class UsingIndex extends CypherPhrase
 	private final String propertyName;
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		return KEYWORD_USING_INDEX + " " + node.getRequiredIdentifier() + ":" + node.getLabel() + "(" + propertyName + ")";
+		sb.append(KEYWORD_USING_INDEX);
+		sb.append(" ");
+		sb.append(node.getRequiredIdentifier());
+		sb.append(":");
+		sb.append(node.getLabel());
+		sb.append("(");
+		sb.append(propertyName);
+		sb.append(")");
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return Stream.empty();
+	
 	}
 }
@@ -33,7 +33,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 public class Where extends CypherPhrase
 {
@@ -59,15 +58,13 @@ public class Where extends CypherPhrase
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
 		if (conditions.isEmpty())
 		{
 			throw new IllegalStateException("No conditions have been added to this where clause.");
 		}
 		
-		final var sb = new StringBuilder();
-		
 		sb.append(KEYWORD_WHERE);
 		sb.append(" ");
 		
@@ -79,16 +76,17 @@ public class Where extends CypherPhrase
 				sb.append(" AND ");
 			}
 			
-			sb.append(conditions.get(i).build(context));
+			conditions.get(i).appendTo(sb, context);
 		}
-		
-		return sb.toString();
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return conditions.stream().flatMap(c -> c.getParameterStream(context));
+		for (int i = 0; i < conditions.size(); i++)
+		{
+			conditions.get(i).collectParameters(context, parameters);
+		}
 	}
 	
 	public static Where and(final Condition... conditions)
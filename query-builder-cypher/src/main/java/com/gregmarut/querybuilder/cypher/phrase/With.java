@@ -23,21 +23,23 @@
 package com.gregmarut.querybuilder.cypher.phrase;
 
 import com.gregmarut.querybuilder.cypher.AliasedCypherString;
+import com.gregmarut.querybuilder.cypher.CypherConstants;
 import com.gregmarut.querybuilder.cypher.CypherString;
 import com.gregmarut.querybuilder.cypher.Identifiable;
 import com.gregmarut.querybuilder.cypher.LiteralCypherString;
 import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
 
 public class With extends CypherPhrase
 {
 	private static final String KEYWORD_WITH = "WITH";
 	private static final String KEYWORD_DISTINCT = "DISTINCT";
+	private static final String ALL = "*";
 	
 	private final List<CypherString> cypherStrings;
 	
@@ -48,6 +50,11 @@ public class With extends CypherPhrase
 		cypherStrings = new ArrayList<>();
 	}
 	
+	public With(final List<? extends CypherString> cypherStrings)
+	{
+		this.cypherStrings = new ArrayList<>(cypherStrings);
+	}
+	
 	public With distinct()
 	{
 		distinct = true;
@@ -107,9 +114,8 @@ public class With extends CypherPhrase
 	}
 	
 	@Override
-	protected String _build(final QueryBuilderContext context)
+	protected void _appendTo(final StringBuilder sb, final QueryBuilderContext context)
 	{
-		StringBuilder sb = new StringBuilder();
 		sb.append(KEYWORD_WITH);
 		sb.append(" ");
 		
@@ -119,14 +125,43 @@ public class With extends CypherPhrase
 			sb.append(" ");
 		}
 		
-		sb.append(cypherStrings.stream().map(cs -> cs.build(context)).collect(Collectors.joining(", ")));
+		//only the variables projected by their own name keep their binding past this WITH
+		final Set<String> carried = new HashSet<>();
+		boolean carriesAll = false;
+		
+		for (int i = 0; i < cypherStrings.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(", ");
+			}
+			
+			final int start = sb.length();
+			cypherStrings.get(i).appendTo(sb, context);
+			
+			final var projected = sb.substring(start);
+			if (ALL.equals(projected))
+			{
+				carriesAll = true;
+			}
+			else if (projected.matches(CypherConstants.IDENTIFIER_REGEX))
+			{
+				carried.add(projected);
+			}
+		}
 		
-		return sb.toString();
+		if (!carriesAll)
+		{
+			context.retainBindings(carried);
+		}
 	}
 	
 	@Override
-	public Stream<Map.Entry<String, Object>> getParameterStream(final QueryBuilderContext context)
+	public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
 	{
-		return cypherStrings.stream().flatMap(cs -> cs.getParameterStream(context));
+		for (int i = 0; i < cypherStrings.size(); i++)
+		{
+			cypherStrings.get(i).collectParameters(context, parameters);
+		}
 	}
 }
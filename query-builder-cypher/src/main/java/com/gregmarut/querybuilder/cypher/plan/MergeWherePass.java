@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.plan;
+
+import com.gregmarut.querybuilder.cypher.condition.Condition;
+import com.gregmarut.querybuilder.cypher.phrase.CypherPhrase;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import com.gregmarut.querybuilder.cypher.phrase.Where;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges a where into the where or match directly before it. A where always belongs to the clause before it, so
+ * {@code MATCH (n) WHERE a} followed by {@code WHERE b} is the same as {@code MATCH (n) WHERE a AND b}, which is written as one
+ * clause instead of two wheres in a row.
+ */
+public class MergeWherePass implements PlanPass
+{
+	@Override
+	public void apply(final QueryPlan plan)
+	{
+		final var phrases = plan.getPhrases();
+		final List<CypherPhrase> merged = new ArrayList<>(phrases.size());
+		
+		for (CypherPhrase phrase : phrases)
+		{
+			final var previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+			
+			if (phrase instanceof Where where && previous instanceof Where previousWhere)
+			{
+				final List<Condition> conditions = new ArrayList<>(previousWhere.getConditions());
+				conditions.addAll(where.getConditions());
+				merged.set(merged.size() - 1, new Where(conditions));
+			}
+			else if (phrase instanceof Where where && previous instanceof Match match)
+			{
+				final var conditions = QueryPlan.getConditions(match);
+				conditions.addAll(where.getConditions());
+				merged.set(merged.size() - 1, QueryPlan.copy(match, match.getPath(), conditions));
+			}
+			else
+			{
+				merged.add(phrase);
+			}
+		}
+		
+		phrases.clear();
+		phrases.addAll(merged);
+	}
+}
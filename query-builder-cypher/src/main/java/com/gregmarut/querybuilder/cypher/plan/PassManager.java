@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.plan;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a list of {@link PlanPass}es over a {@link QueryPlan} in order
+ */
+@Getter
+public class PassManager
+{
+	private final List<PlanPass> passes;
+	
+	public PassManager()
+	{
+		this.passes = new ArrayList<>();
+	}
+	
+	public PassManager add(final PlanPass pass)
+	{
+		passes.add(pass);
+		return this;
+	}
+	
+	public QueryPlan run(final QueryPlan plan)
+	{
+		for (int i = 0; i < passes.size(); i++)
+		{
+			passes.get(i).apply(plan);
+		}
+		
+		return plan;
+	}
+	
+	public static PassManager of(final PlanPass... passes)
+	{
+		final var passManager = new PassManager();
+		
+		for (PlanPass pass : passes)
+		{
+			passManager.add(pass);
+		}
+		
+		return passManager;
+	}
+	
+	/**
+	 * Returns a pass manager with the passes of this package that never change the results of a query. The wheres are merged first
+	 * so that the conditions of a standalone where can be pushed into the match before it. The {@link RedundantLabelPass} is left
+	 * out since it relies on the scope of every variable being tracked, and has to be added explicitly.
+	 *
+	 * @return
+	 */
+	public static PassManager defaults()
+	{
+		return of(new MergeWherePass(), new PredicatePushdownPass(), new ShareParametersPass());
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.plan;
+
+import com.gregmarut.querybuilder.cypher.Merge;
+import com.gregmarut.querybuilder.cypher.PartialPattern;
+import com.gregmarut.querybuilder.cypher.Path;
+import com.gregmarut.querybuilder.cypher.Property;
+import com.gregmarut.querybuilder.cypher.Variable;
+import com.gregmarut.querybuilder.cypher.condition.Condition;
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.node.MutableNode;
+import com.gregmarut.querybuilder.cypher.node.Node;
+import com.gregmarut.querybuilder.cypher.phrase.CypherPhrase;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import com.gregmarut.querybuilder.cypher.phrase.MatchIn;
+import com.gregmarut.querybuilder.cypher.phrase.Unwind;
+import com.gregmarut.querybuilder.cypher.phrase.UsingIndex;
+import com.gregmarut.querybuilder.cypher.phrase.Where;
+import com.gregmarut.querybuilder.cypher.phrase.With;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Moves the conditions of a match that compare a property of one of its nodes to a parameter into the inline property map of
+ * that node, so {@code MATCH (p:Person) WHERE p.name = $v} is written as {@code MATCH (p:Person{name: $v})}. A node is only
+ * written with its properties where it is first matched, so a condition is only moved for a node that is declared by the match.
+ * <p>
+ * The property is recorded in the {@link QueryPlan} rather than on the node, since the node belongs to the caller and may be
+ * shared with other builders.
+ * </p>
+ */
+public class PredicatePushdownPass implements PlanPass
+{
+	@Override
+	public void apply(final QueryPlan plan)
+	{
+		final var phrases = plan.getPhrases();
+		final Set<Node> declared = Collections.newSetFromMap(new IdentityHashMap<>());
+		
+		for (int i = 0; i < phrases.size(); i++)
+		{
+			final var phrase = phrases.get(i);
+			
+			if (phrase instanceof Match match)
+			{
+				phrases.set(i, pushDown(plan, match, declared));
+				addNodes(match.getPath(), declared);
+			}
+			else if (phrase instanceof MatchIn matchIn)
+			{
+				addNodes(matchIn.getMatch().getPath(), declared);
+			}
+			else if (phrase instanceof Merge merge)
+			{
+				addNodes(merge.getPath(), declared);
+			}
+			else if (!isWithoutNodes(phrase))
+			{
+				//any other phrase may declare nodes this pass cannot see, so the matches after it are left as they are
+				break;
+			}
+		}
+	}
+	
+	private Match pushDown(final QueryPlan plan, final Match match, final Set<Node> declared)
+	{
+		final var conditions = QueryPlan.getConditions(match);
+		final List<Condition> remaining = new ArrayList<>(conditions.size());
+		
+		for (Condition condition : conditions)
+		{
+			if (!pushDown(plan, condition, match.getPath(), declared))
+			{
+				remaining.add(condition);
+			}
+		}
+		
+		return remaining.size() == conditions.size() ? match : QueryPlan.copy(match, match.getPath(), remaining);
+	}
+	
+	private boolean pushDown(final QueryPlan plan, final Condition condition, final Path path, final Set<Node> declared)
+	{
+		if (condition instanceof EqualsCondition equals)
+		{
+			//the property may be on either side of the comparison
+			if (equals.getValue1() instanceof Property property && equals.getValue2() instanceof Variable variable)
+			{
+				return pushDown(plan, property, variable, path, declared);
+			}
+			else if (equals.getValue2() instanceof Property property && equals.getValue1() instanceof Variable variable)
+			{
+				return pushDown(plan, property, variable, path, declared);
+			}
+		}
+		
+		return false;
+	}
+	
+	private boolean pushDown(final QueryPlan plan, final Property property, final Variable variable, final Path path,
+		final Set<Node> declared)
+	{
+		if (property.getItem() instanceof MutableNode<?> node && !declared.contains(node) && isInPath(node, path)
+			&& null != variable.getValue())
+		{
+			final var properties = plan.getInlineProperties(node);
+			
+			//a different value for the same property is left to the where
+			if (!properties.containsKey(property.getPropertyName()))
+			{
+				plan.addInlineProperty(node, property.getPropertyName(), variable.getValue());
+				return true;
+			}
+			else
+			{
+				return Objects.equals(properties.get(property.getPropertyName()), variable.getValue());
+			}
+		}
+		else
+		{
+			return false;
+		}
+	}
+	
+	private boolean isInPath(final Node node, final Path path)
+	{
+		if (node == path.getStartNode())
+		{
+			return true;
+		}
+		
+		for (PartialPattern pp : path.getPartialPatterns())
+		{
+			if (node == pp.getEndNode())
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private void addNodes(final Path path, final Set<Node> declared)
+	{
+		declared.add(path.getStartNode());
+		path.getPartialPatterns().forEach(pp -> declared.add(pp.getEndNode()));
+	}
+	
+	private boolean isWithoutNodes(final CypherPhrase phrase)
+	{
+		return phrase instanceof Where || phrase instanceof With || phrase instanceof Unwind || phrase instanceof UsingIndex;
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.plan;
+
+import com.gregmarut.querybuilder.cypher.Path;
+import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import com.gregmarut.querybuilder.cypher.condition.Condition;
+import com.gregmarut.querybuilder.cypher.node.MutableNode;
+import com.gregmarut.querybuilder.cypher.node.Node;
+import com.gregmarut.querybuilder.cypher.phrase.CypherPhrase;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import com.gregmarut.querybuilder.cypher.phrase.Where;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The intermediate representation of a {@link com.gregmarut.querybuilder.cypher.CypherBuilder} that the {@link PlanPass}es
+ * rewrite before it is written. It holds the phrases of the builder, resolved from their suppliers, along with the options the
+ * passes choose for the context the phrases are written with.
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class QueryPlan
+{
+	private final List<CypherPhrase> phrases;
+	
+	//the properties moved into the inline map of a node, kept here since the nodes of the builder are never changed
+	@Getter(AccessLevel.NONE)
+	private final Map<Node, Map<String, Object>> inlineProperties;
+	
+	private boolean shareParameters;
+	private boolean omitBoundLabels;
+	
+	public QueryPlan(final List<? extends CypherPhrase> phrases)
+	{
+		this.phrases = new ArrayList<>(phrases);
+		this.inlineProperties = new IdentityHashMap<>();
+	}
+	
+	/**
+	 * Returns the properties the given node is written with, including the ones added by a pass
+	 *
+	 * @param node
+	 * @return
+	 */
+	public Map<String, Object> getInlineProperties(final MutableNode<?> node)
+	{
+		final var added = inlineProperties.get(node);
+		
+		if (null == added)
+		{
+			return node.getProperties();
+		}
+		else
+		{
+			final Map<String, Object> properties = new HashMap<>(node.getProperties());
+			properties.putAll(added);
+			return properties;
+		}
+	}
+	
+	/**
+	 * Writes the given property into the inline property map of the given node when the plan is written
+	 *
+	 * @param node
+	 * @param property
+	 * @param value
+	 */
+	public void addInlineProperty(final Node node, final String property, final Object value)
+	{
+		inlineProperties.computeIfAbsent(node, k -> new HashMap<>()).put(property, value);
+	}
+	
+	/**
+	 * Enables the options of this plan on the context it is written with. Options that are already enabled on the context stay
+	 * enabled.
+	 *
+	 * @param context
+	 */
+	public void applyTo(final QueryBuilderContext context)
+	{
+		if (shareParameters)
+		{
+			context.setShareParameters(true);
+		}
+		
+		if (omitBoundLabels)
+		{
+			context.setOmitBoundLabels(true);
+		}
+		
+		inlineProperties.forEach(context::addInlineProperties);
+	}
+	
+	/**
+	 * Creates a copy of the given match with the given conditions in place of its where clauses. The phrases of the builder are
+	 * never changed by a pass, only replaced in the plan.
+	 *
+	 * @param match
+	 * @param path
+	 * @param conditions
+	 * @return
+	 */
+	static Match copy(final Match match, final Path path, final List<Condition> conditions)
+	{
+		final var copy = new Match(path, match.isOptional());
+		
+		if (!conditions.isEmpty())
+		{
+			copy.where(new Where(new ArrayList<>(conditions)));
+		}
+		
+		return copy;
+	}
+	
+	/**
+	 * Returns all of the conditions of the where clauses of the given match
+	 *
+	 * @param match
+	 * @return
+	 */
+	static List<Condition> getConditions(final Match match)
+	{
+		final List<Condition> conditions = new ArrayList<>();
+		
+		for (Where where : match.getWhereClauses())
+		{
+			conditions.addAll(where.getConditions());
+		}
+		
+		return conditions;
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.plan;
+
+/**
+ * Writes a node that repeats the identifier and label of a node written before it, without inline properties of its own, as
+ * {@code (b)} instead of {@code (b:Label)}. Nodes are tracked by instance, so without this pass two node instances for the same
+ * variable both write the label, which Neo4j reports as a redundant label. The nodes cannot be swapped in the plan since the other
+ * phrases refer to them by instance, so the pass enables {@code omitBoundLabels} on the
+ * {@link com.gregmarut.querybuilder.cypher.QueryBuilderContext} instead.
+ * <p>
+ * A variable is only considered bound while it is in scope. A WITH keeps the variables it projects by name, and the variables
+ * bound inside a subquery or a FOREACH are dropped when it is closed.
+ * </p>
+ */
+public class RedundantLabelPass implements PlanPass
+{
+	@Override
+	public void apply(final QueryPlan plan)
+	{
+		plan.setOmitBoundLabels(true);
+	}
+}
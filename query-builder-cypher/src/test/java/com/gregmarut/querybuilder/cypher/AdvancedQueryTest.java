@@ -225,11 +225,9 @@ public class AdvancedQueryTest
 
 		Assertions.assertEquals("""
 			MATCH (m:Movie)
-			WHERE m.title IN [$_v0, $_v1, $_v2]
+			WHERE m.title IN $_v0
 			RETURN m""", query.getQuery());
-		Assertions.assertEquals("Matrix", query.getParams().get("_v0"));
-		Assertions.assertEquals("Inception", query.getParams().get("_v1"));
-		Assertions.assertEquals("Dune", query.getParams().get("_v2"));
+		Assertions.assertEquals(List.of("Matrix", "Inception", "Dune"), query.getParams().get("_v0"));
 	}
 
 	@Test
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import com.gregmarut.querybuilder.cypher.phrase.Unwind;
+import com.gregmarut.querybuilder.cypher.phrase.With;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class CallInTransactionsTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@Test
+	public void bodySharesParametersWithOuterQuery()
+	{
+		final var unwind = new Unwind<>(Variable.of(List.of("a", "b")), "id");
+		final var personNode = new PersonNode().named("p").withProperty(PersonNode.NAME, "Alice");
+		
+		final var body = CypherBuilder.create()
+			.with(new With(List.of(unwind.getAlias())))
+			.merge(new Merge(personNode));
+		
+		final var query = CypherBuilder.create()
+			.unwind(unwind)
+			.call(CallInTransactions.of(body).ofRows(100))
+			.build();
+		
+		Assertions.assertEquals("""
+			UNWIND $_v0 AS id
+			CALL {
+			WITH id
+			MERGE (p:Person{name: $_v1_name})
+			} IN TRANSACTIONS OF 100 ROWS""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", List.of("a", "b"), "_v1_name", "Alice"), query.getParams());
+	}
+	
+	@Test
+	public void concurrencyAndErrorHandlingAreOptional()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var body = CypherBuilder.create().merge(new Merge(personNode));
+		
+		Assertions.assertEquals("CALL { MERGE (p:Person) } IN TRANSACTIONS",
+			CypherBuilder.create().call(CallInTransactions.of(body)).build(QueryBuilderContext.createCanonical()).getQuery());
+		Assertions.assertEquals("CALL { MERGE (p:Person) } IN 2 CONCURRENT TRANSACTIONS OF 10 ROWS ON ERROR BREAK",
+			CypherBuilder.create()
+				.call(CallInTransactions.of(body).ofRows(10).concurrent(2).onError(CallInTransactions.OnError.BREAK))
+				.build(QueryBuilderContext.createCanonical())
+				.getQuery());
+	}
+	
+	@Test
+	public void rowsAndConcurrencyMustBePositive()
+	{
+		final var call = CallInTransactions.of(CypherBuilder.create());
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> call.ofRows(0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> call.concurrent(-1));
+	}
+}
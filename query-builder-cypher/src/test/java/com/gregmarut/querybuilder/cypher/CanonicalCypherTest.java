@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.model.MovieNode;
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import com.gregmarut.querybuilder.cypher.model.Relationships;
+import com.gregmarut.querybuilder.cypher.phrase.SetClause;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+
+public class CanonicalCypherTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@AfterEach
+	void tearDown()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	private static CypherQuery buildCanonical(final CypherBuilder builder)
+	{
+		return builder.build(QueryBuilderContext.createCanonical());
+	}
+	
+	@Test
+	public void nodePropertiesAreOrderIndependent()
+	{
+		//"Aa" and "BB" share a hash code so a hash based map could order them either way
+		final var first = new PersonNode().named("p")
+			.withProperty("BB", 1)
+			.withProperty("name", "Alice")
+			.withProperty("Aa", 2);
+		final var second = new PersonNode().named("p")
+			.withProperty("Aa", 2)
+			.withProperty("BB", 1)
+			.withProperty("name", "Alice");
+		
+		final var firstQuery = buildCanonical(CypherBuilder.create().match(first).addReturn(first));
+		final var secondQuery = buildCanonical(CypherBuilder.create().match(second).addReturn(second));
+		
+		Assertions.assertEquals("MATCH (p:Person{Aa: $_v0_Aa, BB: $_v0_BB, name: $_v0_name}) RETURN p", firstQuery.getQuery());
+		Assertions.assertEquals(firstQuery.getQuery(), secondQuery.getQuery());
+		Assertions.assertEquals(firstQuery.getParams(), secondQuery.getParams());
+	}
+	
+	@Test
+	public void upsertIsOrderIndependent()
+	{
+		final var first = new PersonNode().withId("abc123").named("p")
+			.withProperty("name", "Alice")
+			.withProperty("born", 1980);
+		final var second = new PersonNode().withId("abc123").named("p")
+			.withProperty("born", 1980)
+			.withProperty("name", "Alice");
+		
+		final var firstQuery = buildCanonical(CypherBuilder.create().upsert(new Upsert(first)).addReturn(first));
+		final var secondQuery = buildCanonical(CypherBuilder.create().upsert(new Upsert(second)).addReturn(second));
+		
+		Assertions.assertEquals(firstQuery.getQuery(), secondQuery.getQuery());
+		Assertions.assertEquals(firstQuery.getParams(), secondQuery.getParams());
+	}
+	
+	@Test
+	public void relationshipPropertiesAreOrderIndependent()
+	{
+		final var first = Relationship.of(Relationships.ACTED_IN, "r")
+			.withProperty("role", "Neo")
+			.withProperty("billing", 1);
+		final var second = Relationship.of(Relationships.ACTED_IN, "r")
+			.withProperty("billing", 1)
+			.withProperty("role", "Neo");
+		
+		final var firstQuery = buildCanonical(CypherBuilder.create()
+			.match(Path.start(new PersonNode().named("p")).out(first).to(new MovieNode().named("m")).build()));
+		final var secondQuery = buildCanonical(CypherBuilder.create()
+			.match(Path.start(new PersonNode().named("p")).out(second).to(new MovieNode().named("m")).build()));
+		
+		Assertions.assertTrue(firstQuery.getQuery().contains("{billing: $_v0_billing, role: $_v0_role}"), firstQuery.getQuery());
+		Assertions.assertEquals(firstQuery.getQuery(), secondQuery.getQuery());
+		Assertions.assertEquals(firstQuery.getParams(), secondQuery.getParams());
+	}
+	
+	@Test
+	public void setClauseOrdersByPropertyThenIdentifier()
+	{
+		final var person = new PersonNode().named("p");
+		final var other = new PersonNode().named("o");
+		
+		final var first = new LinkedHashMap<Property, CypherString>();
+		first.put(person.getProperty(PersonNode.NAME), Variable.of("Alice"));
+		first.put(other.getProperty(PersonNode.NAME), Variable.of("Bob"));
+		first.put(person.getProperty(PersonNode.BORN), Variable.of(1980));
+		
+		final var second = new LinkedHashMap<Property, CypherString>();
+		second.put(person.getProperty(PersonNode.BORN), Variable.of(1980));
+		second.put(person.getProperty(PersonNode.NAME), Variable.of("Alice"));
+		second.put(other.getProperty(PersonNode.NAME), Variable.of("Bob"));
+		
+		final var firstQuery = buildCanonical(CypherBuilder.create().match(person).match(other).set(new SetClause(first)));
+		final var secondQuery = buildCanonical(CypherBuilder.create().match(person).match(other).set(new SetClause(second)));
+		
+		Assertions.assertEquals("MATCH (p:Person) MATCH (o:Person) SET p.born = $_v0, o.name = $_v1, p.name = $_v2",
+			firstQuery.getQuery());
+		Assertions.assertEquals(firstQuery.getQuery(), secondQuery.getQuery());
+		Assertions.assertEquals(firstQuery.getParams(), secondQuery.getParams());
+	}
+	
+	@Test
+	public void canonicalIgnoresPrettyPrint()
+	{
+		final var person = new PersonNode().withName("Alice").named("p");
+		final var builder = CypherBuilder.create().match(person).addReturn(person);
+		
+		final var pretty = buildCanonical(builder).getQuery();
+		QueryBuilderContext.defaultPrettyPrint = false;
+		final var compact = buildCanonical(builder).getQuery();
+		
+		Assertions.assertEquals("MATCH (p:Person{name: $_v0_name}) RETURN p", pretty);
+		Assertions.assertEquals(pretty, compact);
+	}
+}
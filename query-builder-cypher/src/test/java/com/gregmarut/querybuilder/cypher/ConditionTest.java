@@ -41,6 +41,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 
 public class ConditionTest
 {
@@ -85,11 +86,30 @@ public class ConditionTest
 
 		Assertions.assertEquals("""
 			MATCH (p:Person)
-			WHERE p.name IN [$_v0, $_v1, $_v2]
+			WHERE p.name IN $_v0
 			RETURN p""", query.getQuery());
-		Assertions.assertEquals("Alice", query.getParams().get("_v0"));
-		Assertions.assertEquals("Bob", query.getParams().get("_v1"));
-		Assertions.assertEquals("Carol", query.getParams().get("_v2"));
+		Assertions.assertEquals(Map.of("_v0", List.of("Alice", "Bob", "Carol")), query.getParams());
+	}
+
+	@Test
+	public void inConditionWithMixedCollectionKeepsLiteralList()
+	{
+		final var identifierGenerator = new IdentifierGenerator();
+		final var personNode = new PersonNode().named(identifierGenerator);
+
+		//a list containing anything other than variables cannot be bound as a single parameter
+		final var values = List.of(Variable.of("Alice"), LiteralCypherString.of("'Bob'"));
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.where(new InCondition(personNode.getProperty(PersonNode.NAME), values))
+			.addReturn(personNode)
+			.build();
+
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WHERE p.name IN [$_v0, 'Bob']
+			RETURN p""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", "Alice"), query.getParams());
 	}
 
 	@Test
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.model.MovieNode;
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import com.gregmarut.querybuilder.cypher.model.Relationships;
+import com.gregmarut.querybuilder.cypher.node.Node;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class CypherQueryAnalyzerTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@Test
+	public void connectedMatchesHaveNoHazards()
+	{
+		final var identifierGenerator = new IdentifierGenerator();
+		final var personNode = new PersonNode().named(identifierGenerator);
+		final var movieNode = new MovieNode().named(identifierGenerator);
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(personNode)
+			.match(Path.start(personNode).out(Relationship.of(Relationships.ACTED_IN).recursive(1, 2)).to(movieNode).build())
+			.addReturn(personNode, movieNode);
+		
+		Assertions.assertTrue(CypherQueryAnalyzer.analyze(cypherBuilder).isEmpty());
+	}
+	
+	@Test
+	public void disconnectedMatchIsCartesianProduct()
+	{
+		final var identifierGenerator = new IdentifierGenerator();
+		final var personNode = new PersonNode().named(identifierGenerator);
+		final var movieNode = new MovieNode().named(identifierGenerator);
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(personNode)
+			.match(movieNode)
+			.addReturn(personNode, movieNode);
+		
+		final var hazards = CypherQueryAnalyzer.analyze(cypherBuilder);
+		
+		Assertions.assertEquals(1, hazards.size());
+		Assertions.assertEquals(QueryHazard.Kind.CARTESIAN_PRODUCT, hazards.get(0).kind());
+		Assertions.assertEquals(QueryHazard.Severity.WARNING, hazards.get(0).severity());
+		Assertions.assertEquals(1, hazards.get(0).phraseIndex());
+	}
+	
+	@Test
+	public void matchOnSameIdentifierIsConnected()
+	{
+		final var cypherBuilder = CypherBuilder.create()
+			.match(new PersonNode().named("p"))
+			.match(Path.start(new PersonNode().named("p")).out(Relationships.ACTED_IN).to(new MovieNode().named("m")).build())
+			.addReturn("p", "m");
+		
+		Assertions.assertTrue(CypherQueryAnalyzer.analyze(cypherBuilder).isEmpty());
+	}
+	
+	@Test
+	public void unboundedPaths()
+	{
+		final var identifierGenerator = new IdentifierGenerator();
+		final var personNode = new PersonNode().named(identifierGenerator);
+		final var otherNode = new PersonNode().named(identifierGenerator);
+		final var movieNode = new MovieNode().named(identifierGenerator);
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(Path.start(personNode)
+				.out(Relationship.of(Relationships.FOLLOWS).recursive()).to(otherNode)
+				.out(Relationship.any()).to(movieNode)
+				.build())
+			.addReturn(personNode, otherNode, movieNode);
+		
+		final var hazards = CypherQueryAnalyzer.analyze(cypherBuilder);
+		
+		Assertions.assertEquals(List.of(QueryHazard.Kind.UNBOUNDED_PATH, QueryHazard.Kind.UNBOUNDED_PATH),
+			hazards.stream().map(QueryHazard::kind).toList());
+		Assertions.assertTrue(hazards.stream().allMatch(hazard -> hazard.severity() == QueryHazard.Severity.ERROR));
+	}
+	
+	@Test
+	public void labelLessScan()
+	{
+		final var node = new Node(NodeType.NODE, "n");
+		
+		final var hazards = CypherQueryAnalyzer.analyze(CypherBuilder.create().match(node).addReturn(node));
+		
+		Assertions.assertEquals(1, hazards.size());
+		Assertions.assertEquals(QueryHazard.Kind.LABEL_LESS_SCAN, hazards.get(0).kind());
+	}
+	
+	@Test
+	public void labelLessStartNodeWithLabeledEndNode()
+	{
+		final var node = new Node(NodeType.NODE, "n");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(Match.of(Path.start(node).out(Relationships.ACTED_IN).to(movieNode).build()))
+			.addReturn(node, movieNode);
+		
+		Assertions.assertTrue(CypherQueryAnalyzer.analyze(cypherBuilder).isEmpty());
+	}
+	
+	@Test
+	public void strictModeRejectsHazards()
+	{
+		final var identifierGenerator = new IdentifierGenerator();
+		final var personNode = new PersonNode().named(identifierGenerator);
+		final var movieNode = new MovieNode().named(identifierGenerator);
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(personNode)
+			.match(movieNode)
+			.addReturn(personNode, movieNode);
+		
+		final var strict = QueryBuilderContext.createDefault().setStrictSeverity(QueryHazard.Severity.WARNING);
+		final var exception = Assertions.assertThrows(IllegalStateException.class, () -> cypherBuilder.build(strict));
+		Assertions.assertTrue(exception.getMessage().contains("CARTESIAN_PRODUCT"));
+		
+		//errors only, so the cartesian product is let through
+		final var lenient = QueryBuilderContext.createDefault().setStrictSeverity(QueryHazard.Severity.ERROR);
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			MATCH (m:Movie)
+			RETURN p, m""", cypherBuilder.build(lenient).getQuery());
+	}
+}
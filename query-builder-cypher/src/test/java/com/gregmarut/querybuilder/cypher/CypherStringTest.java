@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+public class CypherStringTest
+{
+	@Test
+	@SuppressWarnings("deprecation")
+	public void legacyBuildIsAppended()
+	{
+		final var legacy = new OldStyleCypherString();
+		final var context = QueryBuilderContext.createDefault();
+		
+		Assertions.assertEquals("legacy", legacy.build(context));
+		Assertions.assertEquals("legacy[" + CypherConstants.FLAG_ID_PROPERTY_ONLY + "]",
+			legacy.build(context, Set.of(CypherConstants.FLAG_ID_PROPERTY_ONLY)));
+		Assertions.assertFalse(context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY));
+	}
+	
+	@Test
+	@SuppressWarnings("deprecation")
+	public void legacyFlagsWriteThrough()
+	{
+		final var context = QueryBuilderContext.createDefault();
+		
+		context.getFlags().add(CypherConstants.FLAG_ID_PROPERTY_ONLY);
+		Assertions.assertTrue(context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY));
+		Assertions.assertEquals(Set.of(CypherConstants.FLAG_ID_PROPERTY_ONLY), context.getFlags());
+		
+		context.getFlags().remove(CypherConstants.FLAG_ID_PROPERTY_ONLY);
+		Assertions.assertFalse(context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY));
+		Assertions.assertTrue(context.getFlags().isEmpty());
+	}
+	
+	@Test
+	@SuppressWarnings("deprecation")
+	public void legacyCallIsAppended()
+	{
+		Assertions.assertEquals("CALL db.labels()", new OldStyleCall().build(QueryBuilderContext.createDefault()));
+	}
+	
+	@Test
+	@SuppressWarnings("deprecation")
+	public void buildStackSnapshotKeepsTheCurrentClassOnTop()
+	{
+		final var context = QueryBuilderContext.createDefault();
+		context.pushBuildStack(Call.class);
+		context.pushBuildStack(OldStyleCall.class);
+		
+		final var stack = context.getBuildStack();
+		Assertions.assertEquals(OldStyleCall.class, stack.peek());
+		Assertions.assertEquals(Call.class, stack.getFirst());
+		Assertions.assertEquals(Call.class, context.getParentFromStack());
+	}
+	
+	//written against the api before cypher strings appended into a shared builder
+	@SuppressWarnings("deprecation")
+	private static class OldStyleCypherString extends LegacyCypherString
+	{
+		@Override
+		protected String _build(final QueryBuilderContext context)
+		{
+			return context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY) ? "legacy[" + CypherConstants.FLAG_ID_PROPERTY_ONLY + "]" : "legacy";
+		}
+		
+		@Override
+		public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+		{
+		
+		}
+	}
+	
+	@SuppressWarnings("deprecation")
+	private static class OldStyleCall extends LegacyCall
+	{
+		@Override
+		protected String buildFunction(final QueryBuilderContext context)
+		{
+			return "db.labels()";
+		}
+		
+		@Override
+		public void collectParameters(final QueryBuilderContext context, final Map<String, Object> parameters)
+		{
+		
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.condition.AndCondition;
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.condition.GreaterThanCondition;
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+public class CypherTemplateTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	private static CypherBuilder personByName()
+	{
+		final var personNode = new PersonNode().named(new IdentifierGenerator());
+		
+		return CypherBuilder.create()
+			.match(personNode)
+			.where(new AndCondition(
+				new EqualsCondition(personNode.getProperty(PersonNode.NAME), Placeholder.of("name")),
+				new GreaterThanCondition(personNode.getProperty(PersonNode.BORN), Variable.of(1950))))
+			.addReturn(personNode);
+	}
+	
+	@Test
+	public void bindReusesRenderedText()
+	{
+		final var template = personByName().buildTemplate();
+		
+		Assertions.assertEquals("MATCH (p:Person) WHERE (p.name = $name AND p.born > $_v0) RETURN p", template.getQuery());
+		Assertions.assertEquals(Set.of("name"), template.getSlots());
+		
+		final var alice = template.bind(Map.of("name", "Alice"));
+		final var bob = template.bind(Map.of("name", "Bob"));
+		
+		Assertions.assertSame(alice.getQuery(), bob.getQuery());
+		Assertions.assertEquals(Map.of("name", "Alice", "_v0", 1950), alice.getParams());
+		Assertions.assertEquals(Map.of("name", "Bob", "_v0", 1950), bob.getParams());
+	}
+	
+	@Test
+	public void fixedParamsCannotBeModified()
+	{
+		final var template = personByName().buildTemplate();
+		
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> template.getFixedParams().put("_v0", 2000));
+		Assertions.assertEquals(Map.of("name", "Alice", "_v0", 1950), template.bind(Map.of("name", "Alice")).getParams());
+	}
+	
+	@Test
+	public void bindRequiresEverySlot()
+	{
+		final var template = personByName().buildTemplate();
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> template.bind(Map.of()));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> template.bind(Map.of("name", "Alice", "email", "a@b.c")));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> template.bind(Map.of("email", "a@b.c")));
+	}
+	
+	@Test
+	public void placeholderCannotShadowGeneratedParameter()
+	{
+		final var personNode = new PersonNode().named(new IdentifierGenerator());
+		final var builder = CypherBuilder.create()
+			.match(personNode)
+			.where(new AndCondition(
+				new EqualsCondition(personNode.getProperty(PersonNode.NAME), Placeholder.of("_v0")),
+				new EqualsCondition(personNode.getProperty(PersonNode.EMAIL), Variable.of("a@b.c"))))
+			.addReturn(personNode);
+		
+		Assertions.assertThrows(IllegalStateException.class, builder::buildTemplate);
+	}
+	
+	@Test
+	public void invalidPlaceholderName()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Placeholder.of("not valid"));
+	}
+	
+	@Test
+	public void cacheRendersEachShapeOnce()
+	{
+		final var cache = new CypherTemplateCache();
+		
+		final var first = cache.get("personByName", CypherTemplateTest::personByName);
+		final var second = cache.get("personByName", CypherTemplateTest::personByName);
+		cache.get("other", CypherTemplateTest::personByName);
+		
+		Assertions.assertSame(first, second);
+		
+		final var stats = cache.getStats();
+		Assertions.assertEquals(1, stats.hits());
+		Assertions.assertEquals(2, stats.misses());
+		Assertions.assertEquals(2, stats.size());
+		Assertions.assertEquals(1 / 3d, stats.hitRatio(), 0.0001);
+	}
+	
+	@Test
+	public void fullCacheEvictsTheLeastRecentlyUsedShape()
+	{
+		final var cache = new CypherTemplateCache(2);
+		
+		cache.get("a", CypherTemplateTest::personByName);
+		cache.get("b", CypherTemplateTest::personByName);
+		
+		//using a makes b the least recently used shape
+		cache.get("a", CypherTemplateTest::personByName);
+		final var c = cache.get("c", CypherTemplateTest::personByName);
+		
+		Assertions.assertEquals("Alice", c.bind(Map.of("name", "Alice")).getParams().get("name"));
+		Assertions.assertEquals(2, cache.getStats().size());
+		
+		cache.get("a", CypherTemplateTest::personByName);
+		cache.get("c", CypherTemplateTest::personByName);
+		Assertions.assertEquals(3, cache.getStats().hits());
+		
+		cache.get("b", CypherTemplateTest::personByName);
+		Assertions.assertEquals(4, cache.getStats().misses());
+	}
+}
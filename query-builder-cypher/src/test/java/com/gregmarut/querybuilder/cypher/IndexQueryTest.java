@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.model.Movie;
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import com.gregmarut.querybuilder.cypher.model.Relationships;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class IndexQueryTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@Test
+	public void fulltextNodesYieldNode()
+	{
+		final var indexQuery = IndexQuery.fulltextNodes("movie_fulltext", "matrix~", "m").limit(10);
+		final var movieNode = indexQuery.getAsNode(Movie.class);
+		final var personNode = new PersonNode().named("p");
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.call(indexQuery)
+			.match(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+			.addReturn(movieNode, personNode)
+			.orderBy(indexQuery.getScoreAlias(), OrderType.DESC);
+		
+		final var query = cypherBuilder.build();
+		
+		Assertions.assertEquals("""
+			CALL db.index.fulltext.queryNodes($_v0, $_v1, {limit: $_v2}) YIELD node AS m, score AS m_score
+			MATCH (p:Person)-[:ACTED_IN]->(m)
+			RETURN m, p
+			ORDER BY m_score DESC""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", "movie_fulltext", "_v1", "matrix~", "_v2", 10), query.getParams());
+		
+		//the yielded node is bound, so matching from it is neither a scan nor a cartesian product
+		Assertions.assertTrue(CypherQueryAnalyzer.analyze(cypherBuilder).isEmpty());
+	}
+	
+	@Test
+	public void fulltextRelationships()
+	{
+		final var indexQuery = IndexQuery.fulltextRelationships("review_fulltext", "great", "r").scoreAs("relevance");
+		
+		final var query = CypherBuilder.create()
+			.call(indexQuery)
+			.addReturn(indexQuery.getResult(), indexQuery.getScore())
+			.build();
+		
+		Assertions.assertEquals("""
+			CALL db.index.fulltext.queryRelationships($_v0, $_v1) YIELD relationship AS r, score AS relevance
+			RETURN r, relevance""", query.getQuery());
+		Assertions.assertThrows(IllegalStateException.class, () -> indexQuery.getAsNode(Movie.class));
+	}
+	
+	@Test
+	public void vectorNodes()
+	{
+		final var indexQuery = IndexQuery.vectorNodes("movie_embedding_vector", 5, List.of(0.5, 0.25), "m");
+		
+		final var query = CypherBuilder.create()
+			.call(indexQuery)
+			.addReturn(indexQuery.getAsNode(Movie.class), indexQuery.getScore())
+			.build();
+		
+		Assertions.assertEquals("""
+			CALL db.index.vector.queryNodes($_v0, $_v1, $_v2) YIELD node AS m, score AS m_score
+			RETURN m, m_score""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", "movie_embedding_vector", "_v1", 5, "_v2", List.of(0.5, 0.25)), query.getParams());
+		Assertions.assertThrows(IllegalStateException.class, () -> indexQuery.limit(3));
+	}
+	
+	@Test
+	public void escape()
+	{
+		Assertions.assertEquals("AC\\/DC \\(live\\)\\!", IndexQuery.escape("AC/DC (live)!"));
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class MatchInTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@Test
+	public void smallListUsesInWithOneParameter()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var query = CypherBuilder.create()
+			.matchIn(personNode, PersonNode.ID, List.of("a", "b", "a"))
+			.addReturn(personNode)
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person) WHERE p.id IN $_v0
+			RETURN p""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", List.of("a", "b")), query.getParams());
+	}
+	
+	@Test
+	public void largeListIsUnwound()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var query = CypherBuilder.create()
+			.matchIn(personNode, PersonNode.ID, List.of("a", "b", "c"))
+			.addReturn(personNode)
+			.build(new QueryBuilderContext().setUnwindThreshold(2));
+		
+		Assertions.assertEquals("""
+			UNWIND $_v0 AS p_id
+			MATCH (p:Person) WHERE p.id = p_id
+			RETURN p""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", List.of("a", "b", "c")), query.getParams());
+	}
+	
+	@Test
+	public void queryTextDoesNotDependOnListSize()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var small = CypherBuilder.create()
+			.matchIn(personNode, PersonNode.ID, List.of("a"))
+			.addReturn(personNode)
+			.build();
+		final var large = CypherBuilder.create()
+			.matchIn(personNode, PersonNode.ID, List.of("a", "b", "c", "d", "e"))
+			.addReturn(personNode)
+			.build();
+		
+		Assertions.assertEquals(small.getQuery(), large.getQuery());
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.condition.GreaterThanCondition;
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PaginationTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@Test
+	public void firstSeekPageOrdersByIdAsTieBreaker()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.orderBy(personNode.getProperty(PersonNode.NAME))
+			.seek(Seek.first(personNode.getProperty(PersonNode.ID)))
+			.addReturn(personNode)
+			.limit(10)
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			RETURN p
+			ORDER BY p.name ASC, p.id ASC
+			LIMIT 10""", query.getQuery());
+		Assertions.assertTrue(query.getParams().isEmpty());
+	}
+	
+	@Test
+	public void seekAfterLastRowFollowsMatch()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.orderBy(personNode.getProperty(PersonNode.NAME))
+			.seek(Seek.after(List.of("Alice"), personNode.getProperty(PersonNode.ID), "abc123"))
+			.addReturn(personNode)
+			.limit(10)
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WHERE (p.name > $_v0 OR (p.name = $_v0 AND p.id > $_v1))
+			RETURN p
+			ORDER BY p.name ASC, p.id ASC
+			LIMIT 10""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", "Alice", "_v1", "abc123"), query.getParams());
+	}
+	
+	@Test
+	public void seekJoinsTrailingWhereAndComparesDescendingWithLessThan()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.where(new GreaterThanCondition(personNode.getProperty(PersonNode.BORN), 1950))
+			.orderBy(personNode.getProperty(PersonNode.BORN), OrderType.DESC)
+			.seek(Seek.after(List.of(1980), personNode.getProperty(PersonNode.ID), "abc123"))
+			.addReturn(personNode)
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WHERE p.born > 1950 AND (p.born < $_v0 OR (p.born = $_v0 AND p.id > $_v1))
+			RETURN p
+			ORDER BY p.born DESC, p.id ASC""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", 1980, "_v1", "abc123"), query.getParams());
+	}
+	
+	@Test
+	public void seekValuesMustMatchOrderBy()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var builder = CypherBuilder.create()
+			.match(personNode)
+			.seek(Seek.after(List.of("Alice"), personNode.getProperty(PersonNode.ID), "abc123"))
+			.addReturn(personNode);
+		
+		Assertions.assertThrows(IllegalArgumentException.class, builder::build);
+	}
+	
+	@Test
+	public void seekCannotGuardAnAliasedOrderBy()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var first = CypherBuilder.create()
+			.match(personNode)
+			.orderBy("name")
+			.seek(Seek.first(personNode.getProperty(PersonNode.ID)))
+			.addReturn(new AliasedCypherString<>(personNode.getProperty(PersonNode.NAME), "name"));
+		
+		final var next = CypherBuilder.create()
+			.match(personNode)
+			.orderBy("name")
+			.seek(Seek.after(List.of("Alice"), personNode.getProperty(PersonNode.ID), "abc123"))
+			.addReturn(new AliasedCypherString<>(personNode.getProperty(PersonNode.NAME), "name"));
+		
+		//the guard would be written before the RETURN that defines name
+		Assertions.assertThrows(IllegalStateException.class, first::build);
+		Assertions.assertThrows(IllegalStateException.class, next::build);
+	}
+	
+	@Test
+	public void seekCannotBeCombinedWithSkip()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var builder = CypherBuilder.create()
+			.match(personNode)
+			.seek(Seek.first(personNode.getProperty(PersonNode.ID)))
+			.addReturn(personNode)
+			.skip(10);
+		
+		Assertions.assertThrows(IllegalStateException.class, builder::build);
+	}
+	
+	@Test
+	public void countQueryStripsProjection()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.where(new GreaterThanCondition(personNode.getProperty(PersonNode.BORN), Variable.of(1950)))
+			.addReturn(personNode)
+			.orderBy(personNode.getProperty(PersonNode.NAME))
+			.skip(20)
+			.limit(10)
+			.buildCountQuery();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WHERE p.born > $_v0
+			RETURN COUNT(*) AS _total""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", 1950), query.getParams());
+	}
+	
+	@Test
+	public void distinctCountQueryProjectsBeforeCounting()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.addReturn(personNode)
+			.distinct()
+			.buildCountQuery();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WITH DISTINCT p
+			RETURN COUNT(*) AS _total""", query.getQuery());
+	}
+	
+	@Test
+	public void paginatedQuerySkipsToPage()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var paginated = CypherBuilder.create()
+			.match(personNode)
+			.addReturn(personNode)
+			.orderBy(personNode.getProperty(PersonNode.NAME))
+			.buildPaginated(PersonNode.class, 2, 10);
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			RETURN p
+			ORDER BY p.name ASC
+			SKIP 20
+			LIMIT 10""", paginated.pageQuery().getQuery());
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			RETURN COUNT(*) AS _total""", paginated.countQuery().getQuery());
+		Assertions.assertFalse(paginated.totalInline());
+		
+		//a capped total limits the rows before counting them
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WITH * LIMIT $_countLimit
+			RETURN COUNT(*) AS _total""", paginated.boundedCountQuery().getQuery());
+	}
+	
+	@Test
+	public void paginatedQueryWithTotalCountsInSubquery()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		final var paginated = CypherBuilder.create()
+			.match(personNode)
+			.where(new GreaterThanCondition(personNode.getProperty(PersonNode.BORN), Variable.of(1950)))
+			.addReturn(personNode)
+			.orderBy(personNode.getProperty(PersonNode.NAME))
+			.buildPaginatedWithTotal(PersonNode.class, 0, 10);
+		
+		Assertions.assertEquals("""
+			CALL {
+			MATCH (p:Person)
+			WHERE p.born > $_v0
+			RETURN COUNT(*) AS _total
+			}
+			MATCH (p:Person)
+			WHERE p.born > $_v0
+			RETURN p, _total
+			ORDER BY p.name ASC
+			SKIP 0
+			LIMIT 10""", paginated.pageQuery().getQuery());
+		Assertions.assertEquals(Map.of("_v0", 1950), paginated.pageQuery().getParams());
+		Assertions.assertTrue(paginated.totalInline());
+	}
+	
+	@Test
+	public void pageWithTotalResolvesItsPhrasesOnce()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var resolved = new AtomicInteger();
+		
+		final var paginated = CypherBuilder.create()
+			.match(() -> {
+				resolved.incrementAndGet();
+				return Match.of(personNode).where(new EqualsCondition(personNode.getProperty(PersonNode.NAME), "Greg"));
+			})
+			.addReturn(personNode)
+			.buildPaginatedWithTotal(PersonNode.class, 0, 10);
+		
+		//the count and the page are written with one context, so they share the resolved phrases and their parameter names
+		Assertions.assertEquals(1, resolved.get());
+		Assertions.assertEquals("""
+			CALL {
+			MATCH (p:Person) WHERE p.name = $_v0
+			RETURN COUNT(*) AS _total
+			}
+			MATCH (p:Person) WHERE p.name = $_v0
+			RETURN p, _total
+			SKIP 0
+			LIMIT 10""", paginated.pageQuery().getQuery());
+		Assertions.assertEquals(Map.of("_v0", "Greg"), paginated.pageQuery().getParams());
+		Assertions.assertEquals(Map.of("_v0", "Greg"), paginated.countQuery().getParams());
+	}
+}
@@ -158,6 +158,28 @@ public class PathTest
 		Assertions.assertTrue(query.getParams().isEmpty());
 	}
 
+	@Test
+	public void boundedRecursiveRelationship()
+	{
+		final var identifierGenerator = new IdentifierGenerator();
+		final var person1 = new PersonNode().named(identifierGenerator);
+		final var person2 = new PersonNode().named(identifierGenerator);
+		final var person3 = new PersonNode().named(identifierGenerator);
+
+		final var query = CypherBuilder.create()
+			.match(Path.start(person1)
+				.out(Relationship.of(Relationships.FOLLOWS).recursive(3)).to(person2)
+				.out(Relationship.of(Relationships.FOLLOWS).recursive(2, null)).to(person3)
+				.build())
+			.addReturn(person1, person2, person3)
+			.build();
+
+		Assertions.assertEquals("""
+			MATCH (p:Person)-[:FOLLOWS*1..3]->(pe:Person)-[:FOLLOWS*2..]->(per:Person)
+			RETURN p, pe, per""", query.getQuery());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Relationship.of(Relationships.FOLLOWS).recursive(3, 2));
+	}
+
 	@Test
 	public void anyRelationshipRendersAsWildcard()
 	{
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class QueryBuilderContextTest
+{
+	@Test
+	public void nestedFlagRemainsEnabledForParent()
+	{
+		final var context = QueryBuilderContext.createDefault();
+		
+		context.enableFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY);
+		context.enableFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY);
+		context.disableFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY);
+		
+		//the outer enable is still active after the nested one is disabled
+		Assertions.assertTrue(context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY));
+		
+		context.disableFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY);
+		Assertions.assertFalse(context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY));
+	}
+	
+	@Test
+	public void disablingFlagThatIsNotEnabledThrows()
+	{
+		final var context = QueryBuilderContext.createDefault();
+		Assertions.assertThrows(IllegalStateException.class, () -> context.disableFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY));
+	}
+	
+	@Test
+	public void parentFromStack()
+	{
+		final var context = QueryBuilderContext.createDefault();
+		Assertions.assertNull(context.getParentFromStack());
+		
+		context.pushBuildStack(Path.class);
+		Assertions.assertNull(context.getParentFromStack());
+		
+		context.pushBuildStack(PartialPattern.class);
+		context.pushBuildStack(Relationship.class);
+		Assertions.assertEquals(PartialPattern.class, context.getParentFromStack());
+		
+		//peeking at the parent leaves the stack untouched
+		context.popBuildStack(Relationship.class);
+		Assertions.assertEquals(Path.class, context.getParentFromStack());
+	}
+	
+	@Test
+	public void appendToWritesIntoExistingBuilder()
+	{
+		final var context = QueryBuilderContext.createDefault();
+		final var person = new PersonNode().withId("abc123").withName("Alice").named("p");
+		final var merge = new Merge(person);
+		
+		final var sb = new StringBuilder("// ingest\n");
+		merge.appendTo(sb, context, CypherConstants.FLAG_ID_PROPERTY_ONLY);
+		
+		Assertions.assertEquals("// ingest\nMERGE (p:Person{id: $_v0_id})", sb.toString());
+		Assertions.assertFalse(context.hasFlag(CypherConstants.FLAG_ID_PROPERTY_ONLY));
+		Assertions.assertTrue(context.getBuildStack().isEmpty());
+		
+		final Map<String, Object> parameters = new HashMap<>();
+		merge.collectParameters(context, parameters);
+		
+		//the flag only limits what is written inline, every property is still collected
+		Assertions.assertEquals(Map.of("_v0_id", "abc123", "_v0_name", "Alice"), parameters);
+	}
+}
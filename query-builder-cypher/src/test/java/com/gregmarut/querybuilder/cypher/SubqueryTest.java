@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher;
+
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.condition.ExistsSubquery;
+import com.gregmarut.querybuilder.cypher.condition.GreaterThanCondition;
+import com.gregmarut.querybuilder.cypher.function.CollectSubquery;
+import com.gregmarut.querybuilder.cypher.function.CountSubquery;
+import com.gregmarut.querybuilder.cypher.model.MovieNode;
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import com.gregmarut.querybuilder.cypher.model.Relationships;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class SubqueryTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@Test
+	public void existsSubquery()
+	{
+		final var personNode = new PersonNode().withName("Keanu Reeves").named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var body = CypherBuilder.create()
+			.match(Match.of(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+				.where(new GreaterThanCondition(movieNode.getProperty(MovieNode.RELEASED), Variable.of(2000))));
+		
+		final var query = CypherBuilder.create()
+			.match(Match.of(personNode).where(ExistsSubquery.of(body)))
+			.addReturn(personNode)
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person{name: $_v0_name}) WHERE EXISTS {
+			MATCH (p)-[:ACTED_IN]->(m:Movie) WHERE m.released > $_v1
+			}
+			RETURN p""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0_name", "Keanu Reeves", "_v1", 2000), query.getParams());
+	}
+	
+	@Test
+	public void subqueryParametersMatchTheirPlaceholders()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		//the supplier creates a new condition every time it is called
+		final var body = CypherBuilder.create()
+			.match(() -> Match.of(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+				.where(new EqualsCondition(movieNode.getProperty(MovieNode.TITLE), "Matrix")));
+		
+		final var query = CypherBuilder.create()
+			.match(Match.of(personNode).where(ExistsSubquery.of(body)))
+			.addReturn(personNode)
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person) WHERE EXISTS {
+			MATCH (p)-[:ACTED_IN]->(m:Movie) WHERE m.title = $_v0
+			}
+			RETURN p""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", "Matrix"), query.getParams());
+		assertPlaceholdersMatchParameters(query);
+	}
+	
+	@Test
+	public void countSubquery()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var movieCount = CountSubquery.of(CypherBuilder.create()
+			.match(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build()));
+		
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.addReturn(personNode, movieCount.as("movieCount"))
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			RETURN p, COUNT {
+			MATCH (p)-[:ACTED_IN]->(m:Movie)
+			} AS movieCount""", query.getQuery());
+	}
+	
+	@Test
+	public void collectSubqueryLimitsEachGroup()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var latestTitles = CollectSubquery.of(CypherBuilder.create()
+			.match(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+			.addReturn(movieNode.getProperty(MovieNode.TITLE))
+			.orderBy(movieNode.getProperty(MovieNode.RELEASED), OrderType.DESC)
+			.limit(3));
+		
+		final var query = CypherBuilder.create()
+			.match(personNode)
+			.addReturn(personNode, latestTitles.as("titles"))
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			RETURN p, COLLECT {
+			MATCH (p)-[:ACTED_IN]->(m:Movie)
+			RETURN m.title
+			ORDER BY m.released DESC
+			LIMIT 3
+			} AS titles""", query.getQuery());
+	}
+	
+	@Test
+	public void correlatedCallSubquery()
+	{
+		final var personNode = new PersonNode().withName("Keanu Reeves").named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var body = CypherBuilder.create()
+			.match(Match.of(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+				.where(new GreaterThanCondition(movieNode.getProperty(MovieNode.RELEASED), Variable.of(2000))))
+			.addReturn(movieNode)
+			.orderBy(movieNode.getProperty(MovieNode.RELEASED), OrderType.DESC)
+			.limit(3);
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(personNode)
+			.call(CallSubquery.of(body).importing(personNode))
+			.addReturn(personNode, movieNode);
+		
+		final var query = cypherBuilder.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person{name: $_v0_name})
+			CALL {
+			WITH p
+			MATCH (p)-[:ACTED_IN]->(m:Movie) WHERE m.released > $_v1
+			RETURN m
+			ORDER BY m.released DESC
+			LIMIT 3
+			}
+			RETURN p, m""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0_name", "Keanu Reeves", "_v1", 2000), query.getParams());
+		
+		//the nodes matched by the body are bound for the rest of the query
+		Assertions.assertTrue(CypherQueryAnalyzer.analyze(cypherBuilder).isEmpty());
+	}
+	
+	//every $name written in the query has to be bound and every bound parameter has to be written
+	private static void assertPlaceholdersMatchParameters(final CypherQuery query)
+	{
+		final var placeholders = Pattern.compile("\\$(\\w+)").matcher(query.getQuery()).results()
+			.map(result -> result.group(1))
+			.collect(Collectors.toSet());
+		Assertions.assertEquals(placeholders, query.getParams().keySet());
+	}
+}
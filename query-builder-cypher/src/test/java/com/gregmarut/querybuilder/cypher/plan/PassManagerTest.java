@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.cypher.plan;
+
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+import com.gregmarut.querybuilder.cypher.Path;
+import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import com.gregmarut.querybuilder.cypher.Variable;
+import com.gregmarut.querybuilder.cypher.condition.EqualsCondition;
+import com.gregmarut.querybuilder.cypher.condition.GreaterThanCondition;
+import com.gregmarut.querybuilder.cypher.model.MovieNode;
+import com.gregmarut.querybuilder.cypher.model.PersonNode;
+import com.gregmarut.querybuilder.cypher.model.Relationships;
+import com.gregmarut.querybuilder.cypher.phrase.Match;
+import com.gregmarut.querybuilder.cypher.phrase.With;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class PassManagerTest
+{
+	@BeforeAll
+	static void setUp()
+	{
+		QueryBuilderContext.defaultPrettyPrint = true;
+	}
+	
+	@Test
+	public void mergeWherePass()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+			.where(new GreaterThanCondition(movieNode.getProperty(MovieNode.RELEASED), 2000))
+			.where(new GreaterThanCondition(personNode.getProperty(PersonNode.BORN), 1960))
+			.addReturn(personNode, movieNode);
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)-[:ACTED_IN]->(m:Movie)
+			WHERE m.released > 2000
+			WHERE p.born > 1960
+			RETURN p, m""", cypherBuilder.build().getQuery());
+		
+		cypherBuilder.optimize(PassManager.of(new MergeWherePass()));
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)-[:ACTED_IN]->(m:Movie) WHERE m.released > 2000 AND p.born > 1960
+			RETURN p, m""", cypherBuilder.build().getQuery());
+	}
+	
+	@Test
+	public void predicatePushdownPass()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(Match.of(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+				.where(new EqualsCondition(personNode.getProperty(PersonNode.NAME), "Keanu Reeves"))
+				.where(new GreaterThanCondition(movieNode.getProperty(MovieNode.RELEASED), 2000)))
+			.addReturn(movieNode);
+		
+		final var before = cypherBuilder.build();
+		Assertions.assertEquals("""
+			MATCH (p:Person)-[:ACTED_IN]->(m:Movie) WHERE p.name = $_v0 AND m.released > 2000
+			RETURN m""", before.getQuery());
+		Assertions.assertEquals(Map.of("_v0", "Keanu Reeves"), before.getParams());
+		
+		cypherBuilder.optimize(PassManager.of(new PredicatePushdownPass()));
+		
+		final var after = cypherBuilder.build();
+		Assertions.assertEquals("""
+			MATCH (p:Person{name: $_v0_name})-[:ACTED_IN]->(m:Movie) WHERE m.released > 2000
+			RETURN m""", after.getQuery());
+		Assertions.assertEquals(Map.of("_v0_name", "Keanu Reeves"), after.getParams());
+		
+		//the pass is stable when the builder is written again
+		Assertions.assertEquals(after, cypherBuilder.build());
+	}
+	
+	@Test
+	public void predicatePushdownLeavesTheNodeAlone()
+	{
+		final var personNode = new PersonNode().named("p");
+		
+		CypherBuilder.create()
+			.match(Match.of(personNode).where(new EqualsCondition(personNode.getProperty(PersonNode.NAME), "Keanu Reeves")))
+			.addReturn(personNode)
+			.optimize(PassManager.of(new PredicatePushdownPass()))
+			.build();
+		
+		//another builder that shares the node must not see the pushed down property
+		Assertions.assertTrue(personNode.getProperties().isEmpty());
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			RETURN p""", CypherBuilder.create().match(personNode).addReturn(personNode).build().getQuery());
+	}
+	
+	@Test
+	public void predicatePushdownSkipsDeclaredNodes()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(personNode)
+			.match(Match.of(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+				.where(new EqualsCondition(personNode.getProperty(PersonNode.NAME), "Keanu Reeves")))
+			.addReturn(movieNode)
+			.optimize(PassManager.of(new PredicatePushdownPass()));
+		
+		//p is written in full by the first match, so the condition on it has to stay in the where
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			MATCH (p)-[:ACTED_IN]->(m:Movie) WHERE p.name = $_v0
+			RETURN m""", cypherBuilder.build().getQuery());
+	}
+	
+	@Test
+	public void redundantLabelPass()
+	{
+		final var cypherBuilder = CypherBuilder.create()
+			.match(new MovieNode().named("m"))
+			.match(Path.start(new PersonNode().named("p")).out(Relationships.ACTED_IN).to(new MovieNode().named("m")).build())
+			.addReturn("p", "m");
+		
+		Assertions.assertEquals("""
+			MATCH (m:Movie)
+			MATCH (p:Person)-[:ACTED_IN]->(m:Movie)
+			RETURN p, m""", cypherBuilder.build().getQuery());
+		
+		cypherBuilder.optimize(PassManager.of(new RedundantLabelPass()));
+		
+		Assertions.assertEquals("""
+			MATCH (m:Movie)
+			MATCH (p:Person)-[:ACTED_IN]->(m)
+			RETURN p, m""", cypherBuilder.build().getQuery());
+	}
+	
+	@Test
+	public void redundantLabelPassForgetsVariablesDroppedByWith()
+	{
+		final var cypherBuilder = CypherBuilder.create()
+			.match(new PersonNode().named("p"))
+			.with(new With().add("count(p)", "total"))
+			.match(new PersonNode().named("p"))
+			.addReturn("p", "total")
+			.optimize(PassManager.of(new RedundantLabelPass()));
+		
+		//p is out of scope after the WITH, so the second match has to write its label again
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WITH count(p) AS total
+			MATCH (p:Person)
+			RETURN p, total""", cypherBuilder.build().getQuery());
+	}
+	
+	@Test
+	public void redundantLabelPassKeepsVariablesCarriedByWith()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var cypherBuilder = CypherBuilder.create()
+			.match(personNode)
+			.with(new With().add(personNode).add("count(*)", "total"))
+			.match(Path.start(new PersonNode().named("p")).out(Relationships.ACTED_IN).to(new MovieNode().named("m")).build())
+			.addReturn("m", "total")
+			.optimize(PassManager.of(new RedundantLabelPass()));
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)
+			WITH p, count(*) AS total
+			MATCH (p)-[:ACTED_IN]->(m:Movie)
+			RETURN m, total""", cypherBuilder.build().getQuery());
+	}
+	
+	@Test
+	public void shareParametersPass()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var cypherBuilder = CypherBuilder.create()
+			.match(Match.of(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+				.where(new GreaterThanCondition(movieNode.getProperty(MovieNode.RELEASED), Variable.of(2000)))
+				.where(new GreaterThanCondition(personNode.getProperty(PersonNode.BORN), Variable.of(1960))))
+			.where(new GreaterThanCondition(movieNode.getProperty("updated"), Variable.of(2000)))
+			.addReturn(movieNode);
+		
+		Assertions.assertEquals(Map.of("_v0", 2000, "_v1", 1960, "_v2", 2000), cypherBuilder.build().getParams());
+		
+		cypherBuilder.optimize(PassManager.of(new ShareParametersPass()));
+		
+		final var query = cypherBuilder.build();
+		Assertions.assertEquals("""
+			MATCH (p:Person)-[:ACTED_IN]->(m:Movie) WHERE m.released > $_v0 AND p.born > $_v1
+			WHERE m.updated > $_v0
+			RETURN m""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", 2000, "_v1", 1960), query.getParams());
+	}
+	
+	@Test
+	public void defaultPasses()
+	{
+		final var personNode = new PersonNode().named("p");
+		final var movieNode = new MovieNode().named("m");
+		
+		final var query = CypherBuilder.create()
+			.match(Path.start(personNode).out(Relationships.ACTED_IN).to(movieNode).build())
+			.where(new EqualsCondition(movieNode.getProperty(MovieNode.TITLE), "The Matrix"))
+			.where(new GreaterThanCondition(personNode.getProperty(PersonNode.BORN), 1960))
+			.addReturn(personNode)
+			.optimize(PassManager.defaults())
+			.build();
+		
+		Assertions.assertEquals("""
+			MATCH (p:Person)-[:ACTED_IN]->(m:Movie{title: $_v0_title}) WHERE p.born > 1960
+			RETURN p""", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0_title", "The Matrix"), query.getParams());
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.Expression;
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.jpa.expression.Coalesce;
+import com.gregmarut.querybuilder.jpa.expression.Greatest;
+import com.gregmarut.querybuilder.predicate.AndPredicate;
+import com.gregmarut.querybuilder.predicate.OrPredicate;
+import com.gregmarut.querybuilder.predicate.PathPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import jakarta.persistence.criteria.JoinType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides which of the joins of a query need to be built. LEFT joins that are not referenced by a predicate, a sort, a fetch or
+ * another required join cannot change which root rows are returned and are skipped. Inner and right joins always filter the rows
+ * so they are always kept.
+ */
+final class JPAJoinPlanner
+{
+	private final Map<String, JPAJoin> joinMap;
+	
+	JPAJoinPlanner(final Map<String, JPAJoin> joinMap)
+	{
+		this.joinMap = joinMap;
+	}
+	
+	/**
+	 * Determines the aliases that must be joined in order to evaluate the given predicates, expressions and fetches
+	 *
+	 * @param predicates  the predicates of the query
+	 * @param expressions the expressions that are selected or sorted on
+	 * @param fetches     the fetches of the query
+	 * @return the required aliases in the order of the join map
+	 */
+	Set<String> findRequiredAliases(final Collection<Predicate> predicates, final Collection<Expression> expressions,
+		final Collection<JPAJoin> fetches)
+	{
+		final Set<String> referenced = new HashSet<>();
+		predicates.forEach(predicate -> addRoots(referenced, predicate));
+		expressions.forEach(expression -> addRoots(referenced, expression));
+		fetches.forEach(fetch -> addRoot(referenced, fetch.getFrom()));
+		
+		//joins that are not LEFT joins filter the rows of the query
+		joinMap.forEach((alias, join) -> {
+			if (JoinType.LEFT != join.getJoinType())
+			{
+				referenced.add(alias);
+			}
+		});
+		
+		//keep adding the aliases that the required joins depend on until nothing changes
+		int size;
+		do
+		{
+			size = referenced.size();
+			joinMap.forEach((alias, join) -> {
+				if (referenced.contains(alias))
+				{
+					addRoot(referenced, join.getFrom());
+					if (null != join.getPredicates())
+					{
+						Arrays.stream(join.getPredicates()).forEach(predicate -> addRoots(referenced, predicate));
+					}
+				}
+			});
+		}
+		while (size != referenced.size());
+		
+		//return the required aliases in the order they need to be joined
+		final Set<String> required = new LinkedHashSet<>();
+		joinMap.keySet().stream().filter(referenced::contains).forEach(required::add);
+		return required;
+	}
+	
+	/**
+	 * Finds the fetch that loads the same association as the given join. A join with an "ON" clause can never be fetched since the
+	 * fetched collection would only be partially loaded.
+	 *
+	 * @param join
+	 * @param fetches
+	 * @return the matching fetch or null if there is none
+	 */
+	static JPAJoin findMatchingFetch(final JPAJoin join, final Collection<JPAJoin> fetches)
+	{
+		if (null != join.getPredicates())
+		{
+			return null;
+		}
+		
+		return fetches.stream()
+			.filter(fetch -> Objects.equals(join.getFrom(), fetch.getFrom()))
+			.filter(fetch -> Objects.equals(join.getColumn(), fetch.getColumn()))
+			.filter(fetch -> join.getJoinType() == fetch.getJoinType())
+			.findFirst()
+			.orElse(null);
+	}
+	
+	/**
+	 * Finds the aliases that are referenced by the given predicates
+	 *
+	 * @param predicates
+	 * @return
+	 */
+	static Set<String> findFilteredAliases(final Collection<Predicate> predicates)
+	{
+		final Set<String> filtered = new HashSet<>();
+		predicates.forEach(predicate -> addRoots(filtered, predicate));
+		return filtered;
+	}
+	
+	static void addRoots(final Set<String> roots, final Predicate predicate)
+	{
+		if (predicate instanceof PathPredicate p)
+		{
+			addRoot(roots, p.getRoot());
+		}
+		else if (predicate instanceof OrPredicate p)
+		{
+			Arrays.stream(p.predicates()).forEach(subPredicate -> addRoots(roots, subPredicate));
+		}
+		else if (predicate instanceof AndPredicate p)
+		{
+			Arrays.stream(p.predicates()).forEach(subPredicate -> addRoots(roots, subPredicate));
+		}
+	}
+	
+	static void addRoots(final Set<String> roots, final Expression expression)
+	{
+		if (expression instanceof Path e)
+		{
+			addRoot(roots, e.root());
+		}
+		else if (expression instanceof Coalesce<?> e)
+		{
+			addRoots(roots, e.expression());
+		}
+		else if (expression instanceof Greatest<?> e)
+		{
+			addRoots(roots, e.expression1());
+			addRoots(roots, e.expression2());
+		}
+	}
+	
+	private static void addRoot(final Set<String> roots, final String root)
+	{
+		if (!QueryBuilder.ROOT.equals(root))
+		{
+			roots.add(root);
+		}
+	}
+}
@@ -24,6 +24,12 @@ package com.gregmarut.querybuilder.jpa;
 
 import com.gregmarut.querybuilder.Sort;
 import com.gregmarut.querybuilder.predicate.Predicate;
+import com.gregmarut.querybuilder.result.PageTotal;
+import com.gregmarut.querybuilder.result.PagedResults;
+import com.gregmarut.querybuilder.result.TotalCountStrategy;
+import com.gregmarut.querybuilder.result.TotalCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import lombok.Getter;
 
 import java.util.List;
@@ -45,4 +51,122 @@ public final class JPAPaginatedSearchQuery<E> extends JPAQuery<E>
 		this.pageIndex = pageIndex;
 		this.pageSize = pageSize;
 	}
+	
+	/**
+	 * Runs this search and returns the requested page along with the exact total number of results
+	 *
+	 * @param entityManager
+	 * @return
+	 */
+	public PagedResults<E> run(final EntityManager entityManager)
+	{
+		return run(entityManager, TotalCountStrategy.exact());
+	}
+	
+	/**
+	 * Runs this search and returns the requested page along with the total determined by the given strategy. The page is loaded
+	 * first so that the strategy can skip the count when the page itself reveals the total. When the query fetches a collection,
+	 * the page is loaded in two phases: the ids of the page are selected with the limit and offset applied by the database, then the
+	 * entities for those ids are loaded with their fetches. This keeps the database from returning every matching row just so the
+	 * page can be sliced in memory.
+	 *
+	 * @param entityManager
+	 * @param totalCountStrategy
+	 * @return
+	 */
+	public PagedResults<E> run(final EntityManager entityManager, final TotalCountStrategy totalCountStrategy)
+	{
+		//the predicates can never match so there is no need to query the database
+		if (isUnsatisfiable())
+		{
+			return new PagedResults<>(List.of(), pageIndex, 0);
+		}
+		
+		//a fetched collection repeats the root rows, fetches of single associations can be limited by the database
+		final boolean twoPhase = hasCollectionFetch(entityManager.getMetamodel());
+		
+		//the window count is only available when the entities are selected in a single phase
+		if (totalCountStrategy instanceof JPAWindowCountStrategy windowCountStrategy && !twoPhase)
+		{
+			return runWindowCount(entityManager, windowCountStrategy);
+		}
+		
+		final List<E> results = twoPhase ? runTwoPhase(entityManager) : runSinglePhase(entityManager);
+		final PageTotal total = totalCountStrategy.resolve(pageIndex, pageSize, results.size(), limit -> count(entityManager, limit));
+		
+		return new PagedResults<>(results, pageIndex, total);
+	}
+	
+	private PagedResults<E> runWindowCount(final EntityManager entityManager, final JPAWindowCountStrategy windowCountStrategy)
+	{
+		final var criteriaBuilder = entityManager.getCriteriaBuilder();
+		
+		final List<Tuple> tuples = entityManager
+			.createQuery(buildWindowCountQuery(criteriaBuilder, windowCountStrategy.getFunctionName()))
+			.setFirstResult(pageIndex * pageSize)
+			.setMaxResults(pageSize)
+			.getResultList();
+		
+		final List<E> results = tuples.stream().map(tuple -> tuple.get(0, getEntityClass())).toList();
+		
+		//every row carries the total, an empty page has to fall back to a count query
+		final TotalCounter counter = tuples.isEmpty() ? limit -> count(entityManager, limit) : limit -> tuples.get(0).get(1, Long.class);
+		final PageTotal total = windowCountStrategy.resolve(pageIndex, pageSize, results.size(), counter);
+		
+		return new PagedResults<>(results, pageIndex, total);
+	}
+	
+	/**
+	 * Counts the results of this search. JPA cannot count over a limited subquery, so a limited count selects at most that many
+	 * rows of the literal 1, or of distinct ids when a joined collection repeats the rows, instead of counting every row.
+	 *
+	 * @param entityManager
+	 * @param limit
+	 * @return
+	 */
+	private long count(final EntityManager entityManager, final Long limit)
+	{
+		final var criteriaBuilder = entityManager.getCriteriaBuilder();
+		
+		if (null == limit)
+		{
+			return entityManager.createQuery(buildCountQuery(criteriaBuilder)).getSingleResult();
+		}
+		
+		return entityManager.createQuery(buildIdQuery(criteriaBuilder, false))
+			.setMaxResults((int) Math.min(limit, Integer.MAX_VALUE))
+			.getResultList()
+			.size();
+	}
+	
+	private List<E> runSinglePhase(final EntityManager entityManager)
+	{
+		return entityManager.createQuery(buildCriteriaQuery(entityManager.getCriteriaBuilder()))
+			.setFirstResult(pageIndex * pageSize)
+			.setMaxResults(pageSize)
+			.getResultList();
+	}
+	
+	private List<E> runTwoPhase(final EntityManager entityManager)
+	{
+		final var criteriaBuilder = entityManager.getCriteriaBuilder();
+		
+		//select the ids of the requested page, every id is selected once so the database fills the page
+		final List<Object> ids = entityManager.createQuery(buildIdQuery(criteriaBuilder))
+			.setFirstResult(pageIndex * pageSize)
+			.setMaxResults(pageSize)
+			.getResultList()
+			.stream()
+			.map(tuple -> tuple.get(0))
+			.toList();
+		
+		if (ids.isEmpty())
+		{
+			return List.of();
+		}
+		
+		//load the entities with their fetches and put them back in the order of the page
+		final List<E> entities = entityManager.createQuery(buildFetchByIdQuery(criteriaBuilder, ids)).getResultList();
+		return sortByIds(entityManager.getEntityManagerFactory().getPersistenceUnitUtil(), entities, ids);
+	}
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import jakarta.persistence.Parameter;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.List;
+
+/**
+ * A criteria query whose values are held in {@link ParameterExpression}s along with the values that need to be bound to them before
+ * the query is executed. The criteria query may be shared with other queries of the same shape so it must not be modified.
+ *
+ * @param query      the criteria query
+ * @param parameters the parameters of the criteria query in the order they were created
+ * @param values     the values to bind to each of the parameters
+ * @param <T>
+ */
+public record JPAParameterizedQuery<T>(CriteriaQuery<T> query, List<ParameterExpression<?>> parameters, List<Object> values)
+{
+	public JPAParameterizedQuery
+	{
+		if (parameters.size() != values.size())
+		{
+			throw new IllegalStateException("Expected " + parameters.size() + " parameter values but found " + values.size());
+		}
+	}
+	
+	/**
+	 * Binds the values of this query to the given query created from {@link #query()}
+	 *
+	 * @param query
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <Q extends Query> Q bind(final Q query)
+	{
+		for (int i = 0; i < parameters.size(); i++)
+		{
+			query.setParameter((Parameter<Object>) parameters.get(i), values.get(i));
+		}
+		
+		return query;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the {@link ParameterExpression}s and their values, in order, while a parameterized criteria query is being built
+ */
+public final class JPAParameters
+{
+	private final List<ParameterExpression<?>> parameters;
+	private final List<Object> values;
+	
+	public JPAParameters()
+	{
+		this.parameters = new ArrayList<>();
+		this.values = new ArrayList<>();
+	}
+	
+	/**
+	 * Creates a new parameter of the given type and records the value that is bound to it
+	 *
+	 * @param criteriaBuilder
+	 * @param type
+	 * @param value
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> ParameterExpression<T> add(final CriteriaBuilder criteriaBuilder, final Class<?> type, final Object value)
+	{
+		final var parameter = criteriaBuilder.parameter((Class<T>) type, "p" + parameters.size());
+		parameters.add(parameter);
+		values.add(value);
+		return parameter;
+	}
+	
+	public List<ParameterExpression<?>> getParameters()
+	{
+		return Collections.unmodifiableList(parameters);
+	}
+	
+	public List<Object> getValues()
+	{
+		return Collections.unmodifiableList(values);
+	}
+}
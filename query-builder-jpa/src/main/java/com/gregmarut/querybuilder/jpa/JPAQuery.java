@@ -29,6 +29,7 @@ import com.gregmarut.querybuilder.jpa.expression.Coalesce;
 import com.gregmarut.querybuilder.jpa.expression.Greatest;
 import com.gregmarut.querybuilder.jpa.function.GreatestFunction;
 import com.gregmarut.querybuilder.jpa.util.DateRangeUtil;
+import com.gregmarut.querybuilder.jpa.util.EntityUtil;
 import com.gregmarut.querybuilder.jpa.util.PredicateUtil;
 import com.gregmarut.querybuilder.predicate.AndPredicate;
 import com.gregmarut.querybuilder.predicate.DateRangePredicate;
@@ -40,7 +41,12 @@ import com.gregmarut.querybuilder.predicate.NotInPredicate;
 import com.gregmarut.querybuilder.predicate.NotNullPredicate;
 import com.gregmarut.querybuilder.predicate.NullPredicate;
 import com.gregmarut.querybuilder.predicate.OrPredicate;
+import com.gregmarut.querybuilder.predicate.PathPredicate;
 import com.gregmarut.querybuilder.predicate.Predicate;
+import com.gregmarut.querybuilder.predicate.PredicateOptimizer;
+import com.gregmarut.querybuilder.predicate.ValuePredicate;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.From;
@@ -48,21 +54,37 @@ import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
 
+import javax.annotation.Nullable;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 public class JPAQuery<E>
 {
+	private static final String RESULTS_SHAPE = "results";
+	private static final String COUNT_SHAPE = "count";
+	
 	private final Class<E> entityClass;
 	private final Map<String, JPAJoin> joinMap;
 	private final Set<JPAJoin> fetchSet;
 	private final List<Predicate> predicates;
 	private final List<Sort> sortList;
+	private final JPAJoinPlanner joinPlanner;
 	
 	public JPAQuery(final Class<E> entityClass, final List<Predicate> predicates, final List<Sort> sortList, final Set<JPAJoin> fetchSet,
 		final Map<String, JPAJoin> joinMap)
@@ -72,6 +94,34 @@ public class JPAQuery<E>
 		this.fetchSet = fetchSet;
 		this.predicates = predicates;
 		this.sortList = sortList;
+		this.joinPlanner = new JPAJoinPlanner(joinMap);
+	}
+	
+	protected Class<E> getEntityClass()
+	{
+		return entityClass;
+	}
+	
+	/**
+	 * Determines if the predicates of this query can never match any result so that the database does not need to be queried. This
+	 * is the case for an empty in, which the caller passed or the optimizer produced from conflicting values it was allowed to
+	 * intersect.
+	 *
+	 * @return
+	 */
+	public boolean isUnsatisfiable()
+	{
+		return PredicateOptimizer.isUnsatisfiable(predicates);
+	}
+	
+	protected List<Sort> getSortList()
+	{
+		return sortList;
+	}
+	
+	protected Set<JPAJoin> getFetchSet()
+	{
+		return fetchSet;
 	}
 	
 	/**
@@ -82,7 +132,63 @@ public class JPAQuery<E>
 	 */
 	public CriteriaQuery<E> buildCriteriaQuery(final CriteriaBuilder criteriaBuilder)
 	{
-		final CriteriaQuery<E> query = criteriaBuilder.createQuery(entityClass);
+		return buildCriteriaQuery(criteriaBuilder, null);
+	}
+	
+	/**
+	 * Builds a query that returns count of all of the results matching the query
+	 *
+	 * @param criteriaBuilder
+	 * @return
+	 */
+	public CriteriaQuery<Long> buildCountQuery(final CriteriaBuilder criteriaBuilder)
+	{
+		return buildCountQuery(criteriaBuilder, null);
+	}
+	
+	/**
+	 * Builds the first phase of a two-phase query which selects only the ids of the root entities along with the sort columns. No
+	 * fetches are applied so that the database can limit the rows of this query before any collection is joined. When a sort goes
+	 * through a joined collection, the rows are grouped by id and each id is ordered by the smallest value of an ascending column or
+	 * the largest value of a descending column, so that every id is returned once.
+	 *
+	 * @param criteriaBuilder
+	 * @return
+	 */
+	public CriteriaQuery<Tuple> buildIdQuery(final CriteriaBuilder criteriaBuilder)
+	{
+		return buildIdQuery(criteriaBuilder, true);
+	}
+	
+	/**
+	 * Builds a query that returns each entity of the results along with the total number of results, computed by the database in
+	 * the same query by the given function. The function must be registered with the persistence provider and render as a window
+	 * function such as {@code count(*) over()}.
+	 *
+	 * @param criteriaBuilder
+	 * @param functionName
+	 * @return
+	 */
+	public CriteriaQuery<Tuple> buildWindowCountQuery(final CriteriaBuilder criteriaBuilder, final String functionName)
+	{
+		final CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+		final Root<E> root = buildResultsQuery(query, criteriaBuilder, null);
+		query.select(criteriaBuilder.tuple(root, criteriaBuilder.function(functionName, Long.class)));
+		return query;
+	}
+	
+	/**
+	 * Builds the id query, optionally without the sort when only the number of rows matters. An unsorted query selects the literal
+	 * 1 instead of the id unless a join to a collection repeats the root rows, so that counting its rows transfers as little as
+	 * possible.
+	 *
+	 * @param criteriaBuilder
+	 * @param sorted
+	 * @return
+	 */
+	protected CriteriaQuery<Tuple> buildIdQuery(final CriteriaBuilder criteriaBuilder, final boolean sorted)
+	{
+		final CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
 		final Root<E> root = query.from(entityClass);
 		
 		//build the root map and add the root object
@@ -90,34 +196,237 @@ public class JPAQuery<E>
 		fromMap.put(QueryBuilder.ROOT, root);
 		
 		//build the joins for the query
-		buildJoins(fromMap, criteriaBuilder);
+		final var sorts = sorted ? sortList : List.<Sort>of();
+		final var aliases = joinPlanner.findRequiredAliases(predicates, sorts.stream().map(Sort::column).toList(), List.of());
+		buildJoins(fromMap, criteriaBuilder, null, aliases, List.of(), Set.of());
+		
+		final boolean collectionJoin = hasCollectionJoin(fromMap, aliases);
+		final var id = root.get(EntityUtil.getIdAttributeName(root.getModel()));
+		final List<Selection<?>> selections = new ArrayList<>();
+		List<Order> orders = sorts.stream().flatMap(sort -> buildOrders(criteriaBuilder, fromMap, sort).stream()).toList();
 		
-		//build the fetches
-		buildFetches(fromMap);
+		if (!sorted && !collectionJoin)
+		{
+			//every row is a distinct result, so nothing has to be selected to tell them apart
+			selections.add(criteriaBuilder.literal(1));
+		}
+		else if (sorted && collectionJoin)
+		{
+			//a sort through a collection has a value per element, so each id is ordered by its first value in the sort direction
+			orders = orders.stream().map(order -> aggregate(criteriaBuilder, order)).toList();
+			selections.add(id);
+			orders.forEach(order -> selections.add(order.getExpression()));
+			query.groupBy(id);
+		}
+		else
+		{
+			//select the id first followed by the ordered columns so that the rows can be made distinct without breaking the order by
+			selections.add(id);
+			orders.forEach(order -> selections.add(order.getExpression()));
+			
+			//joins may repeat the root rows
+			query.distinct(!aliases.isEmpty());
+		}
+		
+		query.select(criteriaBuilder.tuple(selections.toArray(Selection[]::new)));
 		
 		//build the predicates for this search
-		final List<jakarta.persistence.criteria.Predicate> predicates = buildJPAPredicates(criteriaBuilder, fromMap);
+		final List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>(buildJPAPredicates(criteriaBuilder, fromMap, null));
+		buildPagePredicate(criteriaBuilder, fromMap, null).ifPresent(predicates::add);
 		if (!predicates.isEmpty())
 		{
 			query.where(predicates.toArray(jakarta.persistence.criteria.Predicate[]::new));
 		}
 		
 		//check to see if there is a sort list
-		if (!sortList.isEmpty())
+		if (!orders.isEmpty())
 		{
-			query.orderBy(sortList.stream().map(sort -> toOrder(criteriaBuilder, fromMap, sort)).toList());
+			query.orderBy(orders);
 		}
 		
 		return query;
 	}
 	
 	/**
-	 * Builds a query that returns count of all of the results matching the query
+	 * Builds the second phase of a two-phase query which loads the entities with the given ids along with all of their fetches. The
+	 * results are in no particular order and should be passed to {@link #sortByIds(PersistenceUnitUtil, List, List)}.
 	 *
 	 * @param criteriaBuilder
+	 * @param ids
 	 * @return
 	 */
-	public CriteriaQuery<Long> buildCountQuery(final CriteriaBuilder criteriaBuilder)
+	public CriteriaQuery<E> buildFetchByIdQuery(final CriteriaBuilder criteriaBuilder, final Collection<?> ids)
+	{
+		final CriteriaQuery<E> query = criteriaBuilder.createQuery(entityClass);
+		final Root<E> root = query.from(entityClass);
+		
+		//build the root map and add the root object
+		final Map<String, From<?, ?>> fromMap = new HashMap<>();
+		fromMap.put(QueryBuilder.ROOT, root);
+		
+		//build the joins needed by the fetches and the fetches that were not merged into them
+		final var aliases = joinPlanner.findRequiredAliases(List.of(), List.of(), fetchSet);
+		final var fetched = buildJoins(fromMap, criteriaBuilder, null, aliases, fetchSet, Set.of());
+		buildFetches(fromMap, fetched);
+		
+		//the predicates were already applied when the ids were selected
+		query.where(root.get(EntityUtil.getIdAttributeName(root.getModel())).in(ids));
+		
+		return query;
+	}
+	
+	/**
+	 * Determines whether any of the fetches of this query loads a collection. A fetched collection repeats the root rows, so the
+	 * database cannot apply a limit to the entities of such a query.
+	 *
+	 * @param metamodel
+	 * @return true if a fetch loads a collection or an association that cannot be found in the metamodel
+	 */
+	public boolean hasCollectionFetch(final Metamodel metamodel)
+	{
+		return fetchSet.stream().anyMatch(fetch -> EntityUtil.isCollectionAttribute(resolveType(metamodel, fetch.getFrom()),
+			fetch.getColumn()));
+	}
+	
+	/**
+	 * Finds the managed type of the given alias by following its joins back to the root
+	 *
+	 * @param metamodel
+	 * @param alias
+	 * @return the managed type or null if it cannot be resolved
+	 */
+	@Nullable
+	private ManagedType<?> resolveType(final Metamodel metamodel, final String alias)
+	{
+		if (QueryBuilder.ROOT.equals(alias))
+		{
+			return metamodel.entity(entityClass);
+		}
+		else
+		{
+			final var join = joinMap.get(alias);
+			return null == join ? null : EntityUtil.getTargetType(resolveType(metamodel, join.getFrom()), join.getColumn());
+		}
+	}
+	
+	/**
+	 * Orders the given entities by the position of their ids in the given list of ids
+	 *
+	 * @param persistenceUnitUtil the util used to read the id of each entity
+	 * @param entities
+	 * @param ids
+	 * @return
+	 */
+	public List<E> sortByIds(final PersistenceUnitUtil persistenceUnitUtil, final List<E> entities, final List<?> ids)
+	{
+		//index each of the entities by their id
+		final Map<Object, E> entityMap = new HashMap<>();
+		entities.forEach(entity -> entityMap.putIfAbsent(persistenceUnitUtil.getIdentifier(entity), entity));
+		
+		return ids.stream()
+			.map(entityMap::get)
+			.filter(Objects::nonNull)
+			.toList();
+	}
+	
+	/**
+	 * Builds the {@link CriteriaQuery} to return the results of the query where every value is held in a parameter. If a cache is
+	 * given, the criteria query is reused for every query with the same shape and only the values are collected.
+	 *
+	 * @param criteriaBuilder
+	 * @param cache
+	 * @return
+	 */
+	public JPAParameterizedQuery<E> buildParameterizedQuery(final CriteriaBuilder criteriaBuilder, @Nullable final JPAQueryCache cache)
+	{
+		if (null == cache)
+		{
+			return buildParameterizedQuery(parameters -> buildCriteriaQuery(criteriaBuilder, parameters));
+		}
+		
+		final var entry = cache.get(buildShape(RESULTS_SHAPE, true),
+			() -> buildParameterizedQuery(parameters -> buildCriteriaQuery(criteriaBuilder, parameters)));
+		return new JPAParameterizedQuery<>(entry.query(), entry.parameters(), collectParameterValues(true));
+	}
+	
+	/**
+	 * Builds a parameterized query that returns count of all of the results matching the query
+	 *
+	 * @param criteriaBuilder
+	 * @param cache
+	 * @return
+	 * @see #buildParameterizedQuery(CriteriaBuilder, JPAQueryCache)
+	 */
+	public JPAParameterizedQuery<Long> buildParameterizedCountQuery(final CriteriaBuilder criteriaBuilder,
+		@Nullable final JPAQueryCache cache)
+	{
+		if (null == cache)
+		{
+			return buildParameterizedQuery(parameters -> buildCountQuery(criteriaBuilder, parameters));
+		}
+		
+		final var entry = cache.get(buildShape(COUNT_SHAPE, false),
+			() -> buildParameterizedQuery(parameters -> buildCountQuery(criteriaBuilder, parameters)));
+		return new JPAParameterizedQuery<>(entry.query(), entry.parameters(), collectParameterValues(false));
+	}
+	
+	private <T> JPAParameterizedQuery<T> buildParameterizedQuery(final Function<JPAParameters, CriteriaQuery<T>> builder)
+	{
+		final var parameters = new JPAParameters();
+		final var query = builder.apply(parameters);
+		return new JPAParameterizedQuery<>(query, parameters.getParameters(), parameters.getValues());
+	}
+	
+	private CriteriaQuery<E> buildCriteriaQuery(final CriteriaBuilder criteriaBuilder, @Nullable final JPAParameters parameters)
+	{
+		final CriteriaQuery<E> query = criteriaBuilder.createQuery(entityClass);
+		buildResultsQuery(query, criteriaBuilder, parameters);
+		return query;
+	}
+	
+	/**
+	 * Builds the from, joins, fetches, predicates and sort of the results query into the given query
+	 *
+	 * @param query
+	 * @param criteriaBuilder
+	 * @param parameters
+	 * @return the root of the query
+	 */
+	private Root<E> buildResultsQuery(final CriteriaQuery<?> query, final CriteriaBuilder criteriaBuilder,
+		@Nullable final JPAParameters parameters)
+	{
+		final Root<E> root = query.from(entityClass);
+		
+		//build the root map and add the root object
+		final Map<String, From<?, ?>> fromMap = new HashMap<>();
+		fromMap.put(QueryBuilder.ROOT, root);
+		
+		//build the joins for the query, merging the fetches of the same associations into them
+		final var fetched = buildJoins(fromMap, criteriaBuilder, parameters, findRequiredAliases(true), fetchSet,
+			JPAJoinPlanner.findFilteredAliases(predicates));
+		
+		//build the remaining fetches
+		buildFetches(fromMap, fetched);
+		
+		//build the predicates for this search
+		final List<jakarta.persistence.criteria.Predicate> predicates =
+			new ArrayList<>(buildJPAPredicates(criteriaBuilder, fromMap, parameters));
+		buildPagePredicate(criteriaBuilder, fromMap, parameters).ifPresent(predicates::add);
+		if (!predicates.isEmpty())
+		{
+			query.where(predicates.toArray(jakarta.persistence.criteria.Predicate[]::new));
+		}
+		
+		//check to see if there is a sort list
+		if (!sortList.isEmpty())
+		{
+			query.orderBy(sortList.stream().flatMap(sort -> buildOrders(criteriaBuilder, fromMap, sort).stream()).toList());
+		}
+		
+		return root;
+	}
+	
+	private CriteriaQuery<Long> buildCountQuery(final CriteriaBuilder criteriaBuilder, @Nullable final JPAParameters parameters)
 	{
 		//create the query that will count the total results
 		final CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
@@ -127,14 +436,15 @@ public class JPAQuery<E>
 		final Map<String, From<?, ?>> fromMap = new HashMap<>();
 		fromMap.put(QueryBuilder.ROOT, root);
 		
-		//build the joins for the query
-		buildJoins(fromMap, criteriaBuilder);
+		//build only the joins that can change which root rows match, fetches are never part of a count
+		final var aliases = findRequiredAliases(false);
+		buildJoins(fromMap, criteriaBuilder, parameters, aliases, List.of(), Set.of());
 		
-		//select the count of the root object
-		countQuery.select(criteriaBuilder.count(root));
+		//select the count of the root object, a join to a collection repeats the root rows so they have to be counted once
+		countQuery.select(hasCollectionJoin(fromMap, aliases) ? criteriaBuilder.countDistinct(root) : criteriaBuilder.count(root));
 		
 		//build the predicates for this search
-		final List<jakarta.persistence.criteria.Predicate> predicates = buildJPAPredicates(criteriaBuilder, fromMap);
+		final List<jakarta.persistence.criteria.Predicate> predicates = buildJPAPredicates(criteriaBuilder, fromMap, parameters);
 		if (!predicates.isEmpty())
 		{
 			countQuery.where(predicates.toArray(jakarta.persistence.criteria.Predicate[]::new));
@@ -144,14 +454,56 @@ public class JPAQuery<E>
 	}
 	
 	/**
-	 * Builds the joins for this query with the given map of from objects
+	 * Determines which of the joins are built for the results query or the count query
+	 *
+	 * @param results
+	 * @return
+	 */
+	private Set<String> findRequiredAliases(final boolean results)
+	{
+		return results ? joinPlanner.findRequiredAliases(predicates, getSortExpressions(), fetchSet)
+			: joinPlanner.findRequiredAliases(predicates, List.of(), List.of());
+	}
+	
+	/**
+	 * Determines whether any of the given joins is to a collection
 	 *
 	 * @param fromMap
+	 * @param aliases
 	 * @return
 	 */
-	private void buildJoins(final Map<String, From<?, ?>> fromMap, final CriteriaBuilder criteriaBuilder)
+	private boolean hasCollectionJoin(final Map<String, From<?, ?>> fromMap, final Set<String> aliases)
 	{
-		final Map<JPAJoin, Join<?, ?>> joinFromMap = new HashMap<>();
+		return aliases.stream()
+			.map(joinMap::get)
+			.anyMatch(join -> EntityUtil.isCollectionAttribute(fromMap.get(join.getFrom()), join.getColumn()));
+	}
+	
+	private List<Expression> getSortExpressions()
+	{
+		return sortList.stream().map(Sort::column).toList();
+	}
+	
+	/**
+	 * Builds the joins for the given aliases with the given map of from objects. When one of the fetches loads the same association as
+	 * a join, the join is built as a fetch join so that the association is only joined once. Collections that are filtered by a
+	 * predicate are never merged since the fetched collection would only contain the matching elements.
+	 *
+	 * @param fromMap
+	 * @param criteriaBuilder
+	 * @param parameters
+	 * @param aliases
+	 * @param fetches
+	 * @param filteredAliases
+	 * @return the fetches that were merged into a join
+	 */
+	private Set<JPAJoin> buildJoins(final Map<String, From<?, ?>> fromMap, final CriteriaBuilder criteriaBuilder,
+		@Nullable final JPAParameters parameters, final Set<String> aliases, final Collection<JPAJoin> fetches,
+		final Set<String> filteredAliases)
+	{
+		//a linked map keeps the order of the "ON" clauses stable so that parameters are always created in the same order
+		final Map<JPAJoin, Join<?, ?>> joinFromMap = new LinkedHashMap<>();
+		final Set<JPAJoin> fetched = Collections.newSetFromMap(new IdentityHashMap<>());
 		
 		//for each of the joins
 		for (final var entry : joinMap.entrySet())
@@ -159,6 +511,12 @@ public class JPAQuery<E>
 			final var alias = entry.getKey();
 			final var join = entry.getValue();
 			
+			//skip the joins that are not needed by this query
+			if (!aliases.contains(alias))
+			{
+				continue;
+			}
+			
 			//find the from object for this join
 			final var from = fromMap.get(join.getFrom());
 			if (null == from)
@@ -166,8 +524,22 @@ public class JPAQuery<E>
 				throw new IllegalStateException("Unable to find the from object for join: " + join.getFrom());
 			}
 			
-			//build this join and add it to the map
-			final var j = from.join(join.getColumn(), join.getJoinType());
+			//build this join as a fetch join if the same association is fetched and it is safe to do so
+			final var fetch = JPAJoinPlanner.findMatchingFetch(join, fetches);
+			final boolean mergeable = null != fetch
+				&& !(filteredAliases.contains(alias) && EntityUtil.isCollectionAttribute(from, join.getColumn()));
+			
+			final Join<?, ?> j;
+			if (mergeable && from.fetch(join.getColumn(), join.getJoinType()) instanceof Join<?, ?> fetchJoin)
+			{
+				j = fetchJoin;
+				fetched.add(fetch);
+			}
+			else
+			{
+				j = from.join(join.getColumn(), join.getJoinType());
+			}
+			
 			fromMap.put(alias, j);
 			joinFromMap.put(join, j);
 		}
@@ -181,19 +553,32 @@ public class JPAQuery<E>
 			.forEach(entry -> {
 				//convert the predicates to JPA criteria predicates
 				final var predicates = Arrays.stream(entry.getKey().getPredicates())
-					.map(predicate -> toPredicate(criteriaBuilder, fromMap, predicate))
+					.map(predicate -> toPredicate(criteriaBuilder, fromMap, predicate, parameters))
 					.toArray(jakarta.persistence.criteria.Predicate[]::new);
 				
 				//set the "ON" clause for the join
 				entry.getValue().on(predicates);
 			});
+		
+		return fetched;
 	}
 	
-	private void buildFetches(final Map<String, From<?, ?>> fromMap)
+	/**
+	 * Builds each of the fetches that have not already been built as part of a join
+	 *
+	 * @param fromMap
+	 * @param fetched
+	 */
+	private void buildFetches(final Map<String, From<?, ?>> fromMap, final Set<JPAJoin> fetched)
 	{
 		//for each of the fetches
 		for (final var fetch : fetchSet)
 		{
+			if (fetched.contains(fetch))
+			{
+				continue;
+			}
+			
 			//find the from object for this join
 			final var from = fromMap.get(fetch.getFrom());
 			if (null == from)
@@ -210,50 +595,91 @@ public class JPAQuery<E>
 	 *
 	 * @param criteriaBuilder
 	 * @param fromMap
+	 * @param parameters
 	 * @return
 	 */
 	private List<jakarta.persistence.criteria.Predicate> buildJPAPredicates(final CriteriaBuilder criteriaBuilder,
-		final Map<String, From<?, ?>> fromMap)
+		final Map<String, From<?, ?>> fromMap, @Nullable final JPAParameters parameters)
 	{
 		return predicates.stream()
-			.map(predicate -> toPredicate(criteriaBuilder, fromMap, predicate))
+			.map(predicate -> toPredicate(criteriaBuilder, fromMap, predicate, parameters))
 			.toList();
 	}
 	
 	/**
-	 * Converts a {@link Predicate} to a JPA {@link jakarta.persistence.criteria.Predicate}
+	 * Builds an additional predicate that restricts the results to the requested page. This predicate is only applied to the
+	 * results query and never to the count query. When parameters are given, every value must be held in a parameter and
+	 * {@link #appendPageShape(StringBuilder)} and {@link #collectPageParameterValues(List)} must describe the same predicate.
+	 *
+	 * @param criteriaBuilder
+	 * @param fromMap
+	 * @param parameters
+	 * @return
+	 */
+	protected Optional<jakarta.persistence.criteria.Predicate> buildPagePredicate(final CriteriaBuilder criteriaBuilder,
+		final Map<String, From<?, ?>> fromMap, @Nullable final JPAParameters parameters)
+	{
+		return Optional.empty();
+	}
+	
+	/**
+	 * Appends the structure of the page predicate to the shape of this query
+	 *
+	 * @param shape
+	 */
+	protected void appendPageShape(final StringBuilder shape)
+	{
+	}
+	
+	/**
+	 * Collects the values of the page predicate in the same order as their parameters are created
+	 *
+	 * @param values
+	 */
+	protected void collectPageParameterValues(final List<Object> values)
+	{
+	}
+	
+	/**
+	 * Converts a {@link Predicate} to a JPA {@link jakarta.persistence.criteria.Predicate}. When parameters are given, each value is
+	 * bound through a parameter instead of being passed directly to the criteria builder.
 	 *
 	 * @param fromMap
 	 * @param criteriaBuilder
 	 * @param predicate
+	 * @param parameters
 	 * @return
 	 */
 	private jakarta.persistence.criteria.Predicate toPredicate(final CriteriaBuilder criteriaBuilder, final Map<String, From<?, ?>> fromMap,
-		final Predicate predicate)
+		final Predicate predicate, @Nullable final JPAParameters parameters)
 	{
 		if (predicate instanceof EqualsPredicate p)
 		{
 			final var from = fromMap.get(p.getRoot());
 			final var path = walk(from, p.getPath());
-			return criteriaBuilder.equal(path, p.getValue());
+			return null == parameters ? criteriaBuilder.equal(path, p.getValue())
+				: criteriaBuilder.equal(path, parameters.add(criteriaBuilder, path.getJavaType(), p.getValue()));
 		}
 		else if (predicate instanceof NotEqualsPredicate p)
 		{
 			final var from = fromMap.get(p.getRoot());
 			final var path = walk(from, p.getPath());
-			return criteriaBuilder.notEqual(path, p.getValue());
+			return null == parameters ? criteriaBuilder.notEqual(path, p.getValue())
+				: criteriaBuilder.notEqual(path, parameters.add(criteriaBuilder, path.getJavaType(), p.getValue()));
 		}
 		else if (predicate instanceof InPredicate p)
 		{
 			final var from = fromMap.get(p.getRoot());
 			final var path = walk(from, p.getPath());
-			return path.in(p.getValue());
+			return null == parameters ? path.in(p.getValue())
+				: path.in(parameters.<Collection<?>>add(criteriaBuilder, Collection.class, p.getValue()));
 		}
 		else if (predicate instanceof NotInPredicate p)
 		{
 			final var from = fromMap.get(p.getRoot());
 			final var path = walk(from, p.getPath());
-			return path.in(p.getValue()).not();
+			return null == parameters ? path.in(p.getValue()).not()
+				: path.in(parameters.<Collection<?>>add(criteriaBuilder, Collection.class, p.getValue())).not();
 		}
 		else if (predicate instanceof NullPredicate p)
 		{
@@ -271,24 +697,35 @@ public class JPAQuery<E>
 		{
 			final var from = fromMap.get(p.getRoot());
 			final var path = (Path<String>) walk(from, p.getPath());
-			return criteriaBuilder.like(path, PredicateUtil.wildcard(p.getValue()));
+			return null == parameters ? criteriaBuilder.like(path, PredicateUtil.wildcard(p.getValue()))
+				: criteriaBuilder.like(path, parameters.<String>add(criteriaBuilder, String.class, PredicateUtil.wildcard(p.getValue())));
 		}
 		else if (predicate instanceof DateRangePredicate p)
 		{
 			final var from = fromMap.get(p.getRoot());
 			final var path = (Path<Instant>) walk(from, p.getPath());
-			return DateRangeUtil.toCriteria(p.getValue(), path, criteriaBuilder);
+			if (null == parameters)
+			{
+				return DateRangeUtil.toCriteria(p.getValue(), path, criteriaBuilder);
+			}
+			
+			//the bounds are created in the same order as they are collected in collectParameterValues
+			final var after = Optional.ofNullable(p.getValue()).map(dr -> dr.after())
+				.map(value -> parameters.<Instant>add(criteriaBuilder, Instant.class, value)).orElse(null);
+			final var before = Optional.ofNullable(p.getValue()).map(dr -> dr.before())
+				.map(value -> parameters.<Instant>add(criteriaBuilder, Instant.class, value)).orElse(null);
+			return DateRangeUtil.toCriteria(after, before, path, criteriaBuilder);
 		}
 		else if (predicate instanceof OrPredicate p)
 		{
 			return criteriaBuilder.or(Arrays.stream(p.predicates())
-				.map(subPredicate -> toPredicate(criteriaBuilder, fromMap, subPredicate))
+				.map(subPredicate -> toPredicate(criteriaBuilder, fromMap, subPredicate, parameters))
 				.toArray(jakarta.persistence.criteria.Predicate[]::new));
 		}
 		else if (predicate instanceof AndPredicate p)
 		{
 			return criteriaBuilder.and(Arrays.stream(p.predicates())
-				.map(subPredicate -> toPredicate(criteriaBuilder, fromMap, subPredicate))
+				.map(subPredicate -> toPredicate(criteriaBuilder, fromMap, subPredicate, parameters))
 				.toArray(jakarta.persistence.criteria.Predicate[]::new));
 		}
 		else
@@ -297,8 +734,173 @@ public class JPAQuery<E>
 		}
 	}
 	
-	private jakarta.persistence.criteria.Expression<?> toExpression(final CriteriaBuilder criteriaBuilder, final Map<String, From<?, ?>> fromMap,
-		final Expression expression)
+	/**
+	 * Builds a description of the structure of this query that ignores the values of the predicates. Two queries with the same shape
+	 * produce the same parameterized criteria query.
+	 *
+	 * @param type
+	 * @param includePage
+	 * @return
+	 */
+	private String buildShape(final String type, final boolean includePage)
+	{
+		final StringBuilder shape = new StringBuilder(type).append('|').append(entityClass.getName());
+		
+		//append the joins in the order they are built
+		for (final var entry : joinMap.entrySet())
+		{
+			final var join = entry.getValue();
+			shape.append("|join:").append(entry.getKey()).append('=').append(join.getFrom()).append('.').append(join.getColumn())
+				.append(':').append(join.getJoinType());
+			
+			if (null != join.getPredicates())
+			{
+				shape.append(":on");
+				Arrays.stream(join.getPredicates()).forEach(predicate -> appendShape(shape, predicate));
+			}
+		}
+		
+		//fetches are only part of the results query and are sorted since the set has no defined order
+		if (includePage)
+		{
+			fetchSet.stream()
+				.map(fetch -> fetch.getFrom() + '.' + fetch.getColumn() + ':' + fetch.getJoinType())
+				.sorted()
+				.forEach(fetch -> shape.append("|fetch:").append(fetch));
+		}
+		
+		shape.append("|where");
+		predicates.forEach(predicate -> appendShape(shape, predicate));
+		
+		if (includePage)
+		{
+			shape.append("|page");
+			appendPageShape(shape);
+			
+			shape.append("|sort");
+			sortList.forEach(sort -> {
+				appendShape(shape, sort.column());
+				shape.append(':').append(sort.direction());
+			});
+		}
+		
+		return shape.toString();
+	}
+	
+	private void appendShape(final StringBuilder shape, final Predicate predicate)
+	{
+		shape.append('(').append(predicate.getClass().getName());
+		
+		if (predicate instanceof PathPredicate p)
+		{
+			shape.append(' ').append(p.getRoot()).append(':').append(String.join(".", p.getPath()));
+			
+			//only the bounds that are set are part of the structure of a date range
+			if (predicate instanceof DateRangePredicate d)
+			{
+				final var dateRange = d.getValue();
+				shape.append(null != dateRange && null != dateRange.after() ? " after" : "")
+					.append(null != dateRange && null != dateRange.before() ? " before" : "");
+			}
+		}
+		else if (predicate instanceof OrPredicate p)
+		{
+			Arrays.stream(p.predicates()).forEach(subPredicate -> appendShape(shape, subPredicate));
+		}
+		else if (predicate instanceof AndPredicate p)
+		{
+			Arrays.stream(p.predicates()).forEach(subPredicate -> appendShape(shape, subPredicate));
+		}
+		else
+		{
+			throw new IllegalStateException("Unknown predicate type: " + predicate.getClass().getName());
+		}
+		
+		shape.append(')');
+	}
+	
+	private void appendShape(final StringBuilder shape, final Expression expression)
+	{
+		if (expression instanceof com.gregmarut.querybuilder.Path e)
+		{
+			shape.append(e.root()).append(':').append(String.join(".", e.path()));
+		}
+		else if (expression instanceof Coalesce<?> e)
+		{
+			//the coalesce value is passed to the query as a literal so it is part of the shape
+			shape.append("coalesce(");
+			appendShape(shape, e.expression());
+			shape.append(',').append(e.value()).append(')');
+		}
+		else if (expression instanceof Greatest<?> e)
+		{
+			shape.append("greatest(");
+			appendShape(shape, e.expression1());
+			shape.append(',');
+			appendShape(shape, e.expression2());
+			shape.append(',').append(e.clazz().getName()).append(')');
+		}
+		else
+		{
+			throw new IllegalStateException("Unknown expression type: " + expression.getClass().getName());
+		}
+	}
+	
+	/**
+	 * Collects the values of every parameter in the same order as they are created when the query is built
+	 *
+	 * @param includePage
+	 * @return
+	 */
+	private List<Object> collectParameterValues(final boolean includePage)
+	{
+		final List<Object> values = new ArrayList<>();
+		
+		final var aliases = findRequiredAliases(includePage);
+		joinMap.entrySet().stream()
+			.filter(entry -> aliases.contains(entry.getKey()))
+			.map(Map.Entry::getValue)
+			.filter(join -> null != join.getPredicates())
+			.forEach(join -> Arrays.stream(join.getPredicates()).forEach(predicate -> collectParameterValues(values, predicate)));
+		
+		predicates.forEach(predicate -> collectParameterValues(values, predicate));
+		
+		if (includePage)
+		{
+			collectPageParameterValues(values);
+		}
+		
+		return values;
+	}
+	
+	private void collectParameterValues(final List<Object> values, final Predicate predicate)
+	{
+		if (predicate instanceof FuzzyMatchPredicate p)
+		{
+			values.add(PredicateUtil.wildcard(p.getValue()));
+		}
+		else if (predicate instanceof DateRangePredicate p)
+		{
+			Optional.ofNullable(p.getValue()).map(dr -> dr.after()).ifPresent(values::add);
+			Optional.ofNullable(p.getValue()).map(dr -> dr.before()).ifPresent(values::add);
+		}
+		else if (predicate instanceof EqualsPredicate || predicate instanceof NotEqualsPredicate || predicate instanceof InPredicate
+			|| predicate instanceof NotInPredicate)
+		{
+			values.add(((ValuePredicate<?>) predicate).getValue());
+		}
+		else if (predicate instanceof OrPredicate p)
+		{
+			Arrays.stream(p.predicates()).forEach(subPredicate -> collectParameterValues(values, subPredicate));
+		}
+		else if (predicate instanceof AndPredicate p)
+		{
+			Arrays.stream(p.predicates()).forEach(subPredicate -> collectParameterValues(values, subPredicate));
+		}
+	}
+	
+	protected jakarta.persistence.criteria.Expression<?> toExpression(final CriteriaBuilder criteriaBuilder,
+		final Map<String, From<?, ?>> fromMap, final Expression expression)
 	{
 		if (expression instanceof com.gregmarut.querybuilder.Path e)
 		{
@@ -334,12 +936,43 @@ public class JPAQuery<E>
 		return Arrays.stream(paths).reduce(start, Path::get, (p1, p2) -> p2);
 	}
 	
-	private Order toOrder(final CriteriaBuilder criteriaBuilder, final Map<String, From<?, ?>> fromMap, final Sort sort)
+	/**
+	 * Builds the orders for the given sort. Subclasses that need to control where nulls are placed may order by additional
+	 * expressions.
+	 *
+	 * @param criteriaBuilder
+	 * @param fromMap
+	 * @param sort
+	 * @return
+	 */
+	protected List<Order> buildOrders(final CriteriaBuilder criteriaBuilder, final Map<String, From<?, ?>> fromMap, final Sort sort)
+	{
+		return List.of(toOrder(criteriaBuilder, sort, toExpression(criteriaBuilder, fromMap, sort.column())));
+	}
+	
+	/**
+	 * Replaces the expression of the given order with its smallest value for an ascending order or its largest value for a
+	 * descending order, so that the rows of one entity can be grouped into a single row
+	 *
+	 * @param criteriaBuilder
+	 * @param order
+	 * @return
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Order aggregate(final CriteriaBuilder criteriaBuilder, final Order order)
+	{
+		final var expression = (jakarta.persistence.criteria.Expression<Comparable>) order.getExpression();
+		return order.isAscending() ? criteriaBuilder.asc(criteriaBuilder.least(expression))
+			: criteriaBuilder.desc(criteriaBuilder.greatest(expression));
+	}
+	
+	protected Order toOrder(final CriteriaBuilder criteriaBuilder, final Sort sort,
+		final jakarta.persistence.criteria.Expression<?> expression)
 	{
 		return switch (sort.direction())
 		{
-			case ASC -> criteriaBuilder.asc(toExpression(criteriaBuilder, fromMap, sort.column()));
-			case DESC -> criteriaBuilder.desc(toExpression(criteriaBuilder, fromMap, sort.column()));
+			case ASC -> criteriaBuilder.asc(expression);
+			case DESC -> criteriaBuilder.desc(expression);
 		};
 	}
 }
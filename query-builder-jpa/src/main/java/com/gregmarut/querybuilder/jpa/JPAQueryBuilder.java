@@ -23,6 +23,7 @@
 package com.gregmarut.querybuilder.jpa;
 
 import com.gregmarut.querybuilder.QueryBuilder;
+import jakarta.persistence.metamodel.Metamodel;
 import lombok.NonNull;
 
 import javax.annotation.Nullable;
@@ -80,6 +81,25 @@ public abstract class JPAQueryBuilder<B extends JPAQueryBuilder<B, E>, E> extend
 			Optional.ofNullable(pageSize).orElse(JPAPaginatedSearchQuery.DEFAULT_PAGE_SIZE));
 	}
 	
+	/**
+	 * Builds a keyset paginated {@link JPASeekQuery} that returns the page following the given cursor. A null cursor returns the first
+	 * page. The id of the entity is automatically appended to the sort as a tie-breaker so that every row has a unique position.
+	 *
+	 * @param metamodel the metamodel used to find the id and the nullable sort columns of the entity
+	 * @param cursor
+	 * @param pageSize
+	 * @return
+	 */
+	public JPASeekQuery<E> buildSeek(final Metamodel metamodel, @Nullable final JPASeekCursor cursor,
+		@Nullable final Integer pageSize)
+	{
+		//determine which sort to use
+		final var sort = sortList.isEmpty() ? getDefaultSort() : sortList;
+		
+		return new JPASeekQuery<E>(metamodel, entityClass, buildPredicates(), sort, buildFetchSet(), joinMap, cursor,
+			Optional.ofNullable(pageSize).orElse(JPAPaginatedSearchQuery.DEFAULT_PAGE_SIZE));
+	}
+	
 	protected String alias(final String alias)
 	{
 		//check to see if this root has not already loaded into the join map
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches parameterized criteria queries by their structural shape so that queries which only differ by their values are built once.
+ * Criteria queries are bound to the {@link jakarta.persistence.criteria.CriteriaBuilder} that created them, so a cache must only be
+ * shared by queries built against the same entity manager factory.
+ */
+public class JPAQueryCache
+{
+	public static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+	
+	private final Map<String, Entry<?>> entries;
+	private final Lock lock;
+	
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder savedNanos;
+	
+	public JPAQueryCache()
+	{
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+	
+	public JPAQueryCache(final int maximumSize)
+	{
+		this.lock = new ReentrantLock();
+		
+		//an access ordered map evicts the shape that was used the longest time ago once the cache is full
+		this.entries = new LinkedHashMap<>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry<?>> eldest)
+			{
+				return size() > maximumSize;
+			}
+		};
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.savedNanos = new LongAdder();
+	}
+	
+	/**
+	 * Returns the cached entry for the given shape or builds a new one. Once the cache is full, the least recently used shape is
+	 * evicted to make room for the new one.
+	 *
+	 * @param shape
+	 * @param builder
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	<T> Entry<T> get(final String shape, final Supplier<JPAParameterizedQuery<T>> builder)
+	{
+		//a lookup moves the shape to the end of the access order, so it is guarded like a write
+		final Entry<T> cached;
+		lock.lock();
+		try
+		{
+			cached = (Entry<T>) entries.get(shape);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		
+		if (null != cached)
+		{
+			hits.increment();
+			savedNanos.add(cached.buildNanos());
+			return cached;
+		}
+		
+		misses.increment();
+		
+		//build the query and record how long it took
+		final long start = System.nanoTime();
+		final var query = builder.get();
+		final var entry = new Entry<>(query.query(), query.parameters(), System.nanoTime() - start);
+		
+		lock.lock();
+		try
+		{
+			entries.putIfAbsent(shape, entry);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		
+		return entry;
+	}
+	
+	public JPAQueryCacheStats getStats()
+	{
+		lock.lock();
+		try
+		{
+			return new JPAQueryCacheStats(hits.sum(), misses.sum(), savedNanos.sum(), entries.size());
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	public void clear()
+	{
+		lock.lock();
+		try
+		{
+			entries.clear();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	record Entry<T>(CriteriaQuery<T> query, List<ParameterExpression<?>> parameters, long buildNanos)
+	{
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import lombok.EqualsAndHashCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Represents the position of the last row of a page in a keyset (seek) paginated search. The cursor is opaque: it is obtained from
+ * the results of a {@link JPASeekQuery} and handed to the next page either as is or as the URL-safe token returned by
+ * {@link #encode()}. The sort values it holds are the ones of the query that produced it, including the trailing id tie-breaker.
+ */
+@EqualsAndHashCode
+public final class JPASeekCursor implements Serializable
+{
+	private static final String NULL = "null";
+	private static final String ENUM = "enum:";
+	
+	//the sort value types that can be written to a token, enums are handled separately
+	private static final Map<String, Function<String, Serializable>> PARSERS = Map.ofEntries(
+		Map.entry(String.class.getName(), value -> value),
+		Map.entry(Long.class.getName(), Long::valueOf),
+		Map.entry(Integer.class.getName(), Integer::valueOf),
+		Map.entry(Short.class.getName(), Short::valueOf),
+		Map.entry(Byte.class.getName(), Byte::valueOf),
+		Map.entry(Double.class.getName(), Double::valueOf),
+		Map.entry(Float.class.getName(), Float::valueOf),
+		Map.entry(Boolean.class.getName(), Boolean::valueOf),
+		Map.entry(Character.class.getName(), value -> value.charAt(0)),
+		Map.entry(BigDecimal.class.getName(), BigDecimal::new),
+		Map.entry(BigInteger.class.getName(), BigInteger::new),
+		Map.entry(UUID.class.getName(), UUID::fromString),
+		Map.entry(Instant.class.getName(), Instant::parse),
+		Map.entry(LocalDate.class.getName(), LocalDate::parse),
+		Map.entry(LocalDateTime.class.getName(), LocalDateTime::parse),
+		Map.entry(LocalTime.class.getName(), LocalTime::parse),
+		Map.entry(OffsetDateTime.class.getName(), OffsetDateTime::parse),
+		Map.entry(ZonedDateTime.class.getName(), ZonedDateTime::parse),
+		Map.entry(Date.class.getName(), value -> new Date(Long.parseLong(value))),
+		Map.entry(Timestamp.class.getName(), value -> Timestamp.from(Instant.parse(value))));
+	
+	private final List<Serializable> values;
+	
+	JPASeekCursor(final List<Serializable> values)
+	{
+		//nulls are allowed as sort values so an unmodifiable copy is used instead of List.copyOf
+		this.values = Collections.unmodifiableList(new ArrayList<>(values));
+	}
+	
+	List<Serializable> values()
+	{
+		return values;
+	}
+	
+	/**
+	 * Encodes this cursor into a URL-safe token that can be handed to a client and turned back into a cursor with
+	 * {@link #decode(String)}
+	 *
+	 * @return
+	 */
+	public String encode()
+	{
+		final var bytes = new ByteArrayOutputStream();
+		try (final var out = new DataOutputStream(bytes))
+		{
+			out.writeInt(values.size());
+			
+			//each value is written as its type followed by its text form
+			for (Serializable value : values)
+			{
+				out.writeUTF(typeOf(value));
+				if (null != value)
+				{
+					out.writeUTF(format(value));
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+	
+	/**
+	 * Decodes a token created by {@link #encode()}
+	 *
+	 * @param token
+	 * @return
+	 * @throws IllegalArgumentException if the token is not a valid cursor
+	 */
+	public static JPASeekCursor decode(final String token)
+	{
+		try (final var in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token))))
+		{
+			final int size = in.readInt();
+			final List<Serializable> values = new ArrayList<>();
+			
+			for (int i = 0; i < size; i++)
+			{
+				final String type = in.readUTF();
+				values.add(NULL.equals(type) ? null : parse(type, in.readUTF()));
+			}
+			
+			if (in.available() > 0)
+			{
+				throw new IllegalArgumentException("Unexpected data after the cursor values");
+			}
+			
+			return new JPASeekCursor(values);
+		}
+		catch (IOException | ClassNotFoundException | RuntimeException e)
+		{
+			throw new IllegalArgumentException("Invalid seek cursor: " + token, e);
+		}
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "JPASeekCursor[" + encode() + "]";
+	}
+	
+	private static String typeOf(final Serializable value)
+	{
+		if (null == value)
+		{
+			return NULL;
+		}
+		else if (value instanceof Enum<?> e)
+		{
+			return ENUM + e.getDeclaringClass().getName();
+		}
+		else if (PARSERS.containsKey(value.getClass().getName()))
+		{
+			return value.getClass().getName();
+		}
+		else
+		{
+			throw new IllegalStateException("Unable to encode a seek value of type: " + value.getClass().getName());
+		}
+	}
+	
+	private static String format(final Serializable value)
+	{
+		if (value instanceof Enum<?> e)
+		{
+			return e.name();
+		}
+		else if (value instanceof Timestamp t)
+		{
+			//keep the nanoseconds of the timestamp
+			return t.toInstant().toString();
+		}
+		else if (value instanceof Date d)
+		{
+			return String.valueOf(d.getTime());
+		}
+		else
+		{
+			return value.toString();
+		}
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Serializable parse(final String type, final String value) throws ClassNotFoundException
+	{
+		if (type.startsWith(ENUM))
+		{
+			//only load the class without initializing it until it is known to be an enum
+			final Class<?> enumClass = Class.forName(type.substring(ENUM.length()), false, Thread.currentThread().getContextClassLoader());
+			if (!enumClass.isEnum())
+			{
+				throw new IllegalArgumentException("Not an enum: " + enumClass.getName());
+			}
+			
+			return Enum.valueOf((Class<? extends Enum>) enumClass, value);
+		}
+		
+		final var parser = PARSERS.get(type);
+		if (null == parser)
+		{
+			throw new IllegalArgumentException("Unsupported seek value type: " + type);
+		}
+		
+		return parser.apply(value);
+	}
+}
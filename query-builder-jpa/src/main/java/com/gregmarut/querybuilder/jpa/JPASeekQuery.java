@@ -0,0 +1,305 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.Sort;
+import com.gregmarut.querybuilder.jpa.util.EntityUtil;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.metamodel.Metamodel;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A keyset (seek) paginated query. Instead of skipping over the rows of the previous pages, the sort values of the last row of the
+ * previous page are turned into a predicate of the form {@code (a > ?) OR (a = ? AND b > ?)} so that every page costs the same
+ * regardless of how deep it is. The sort list always ends with the id of the entity so that the ordering is unique.
+ * <p>
+ * Nulls are ordered as if they were larger than any other value, so they come last in an ascending sort and first in a descending
+ * sort. Since databases disagree on where nulls belong by default, every nullable sort column is preceded in the order by with an
+ * explicit {@code CASE WHEN column IS NULL THEN 1 ELSE 0 END} so that the order and the seek predicate always agree.
+ *
+ * @param <E>
+ */
+@Getter
+public final class JPASeekQuery<E> extends JPAQuery<E>
+{
+	@Getter(AccessLevel.NONE)
+	private final Metamodel metamodel;
+	
+	@Nullable
+	private final JPASeekCursor cursor;
+	private final int pageSize;
+	
+	public JPASeekQuery(final Metamodel metamodel, final Class<E> entityClass, final List<Predicate> predicates,
+		final List<Sort> sortList, final Set<JPAJoin> fetchSet, final Map<String, JPAJoin> joinMap,
+		@Nullable final JPASeekCursor cursor, final int pageSize)
+	{
+		super(entityClass, predicates, withTieBreaker(metamodel, entityClass, sortList), fetchSet, joinMap);
+		this.metamodel = metamodel;
+		this.cursor = cursor;
+		this.pageSize = pageSize;
+		
+		//make sure the cursor lines up with the sort list
+		if (null != cursor && cursor.values().size() != getSortList().size())
+		{
+			throw new IllegalArgumentException(
+				"Cursor has " + cursor.values().size() + " values but the query is sorted by " + getSortList().size() + " columns");
+		}
+	}
+	
+	/**
+	 * Runs this query and returns the page along with the cursor of the next page
+	 *
+	 * @param entityManager
+	 * @return
+	 */
+	public JPASeekResults<E> run(final EntityManager entityManager)
+	{
+		return run(entityManager, null);
+	}
+	
+	/**
+	 * Runs this query and returns the page along with the cursor of the next page. If a cache is given, every page after the first
+	 * reuses the same criteria query since only the values of the cursor change.
+	 *
+	 * @param entityManager
+	 * @param cache
+	 * @return
+	 */
+	public JPASeekResults<E> run(final EntityManager entityManager, @Nullable final JPAQueryCache cache)
+	{
+		final var query = buildParameterizedQuery(entityManager.getCriteriaBuilder(), cache);
+		final List<E> results = query.bind(entityManager.createQuery(query.query()))
+			.setMaxResults(pageSize)
+			.getResultList();
+		
+		return new JPASeekResults<>(results, nextCursor(results));
+	}
+	
+	/**
+	 * Builds the cursor that points to the page following the given page of results. If the page was not full, there are no more
+	 * results and null is returned.
+	 *
+	 * @param results the results of this query
+	 * @return the cursor for the next page or null if this was the last page
+	 */
+	@Nullable
+	private JPASeekCursor nextCursor(final List<E> results)
+	{
+		if (results.size() < pageSize || results.isEmpty())
+		{
+			return null;
+		}
+		
+		final E last = results.getLast();
+		final List<Serializable> values = new ArrayList<>(getSortList().size());
+		
+		//read each of the sort values from the last row
+		for (Sort sort : getSortList())
+		{
+			if (sort.column() instanceof Path p && QueryBuilder.ROOT.equals(p.root()))
+			{
+				values.add((Serializable) EntityUtil.getAttributeValue(metamodel, last, p.path()));
+			}
+			else
+			{
+				throw new IllegalStateException("Unable to read the seek value of sort column: " + sort.column());
+			}
+		}
+		
+		return new JPASeekCursor(values);
+	}
+	
+	@Override
+	protected List<Order> buildOrders(final CriteriaBuilder criteriaBuilder, final Map<String, From<?, ?>> fromMap, final Sort sort)
+	{
+		final var expression = toExpression(criteriaBuilder, fromMap, sort.column());
+		
+		//check to see if the nulls of this column have to be placed explicitly
+		if (isNullable(sort))
+		{
+			final Expression<Integer> nullsLast = criteriaBuilder.<Integer>selectCase()
+				.when(criteriaBuilder.isNull(expression), 1)
+				.otherwise(0);
+			return List.of(toOrder(criteriaBuilder, sort, nullsLast), toOrder(criteriaBuilder, sort, expression));
+		}
+		else
+		{
+			return List.of(toOrder(criteriaBuilder, sort, expression));
+		}
+	}
+	
+	@Override
+	protected Optional<jakarta.persistence.criteria.Predicate> buildPagePredicate(final CriteriaBuilder criteriaBuilder,
+		final Map<String, From<?, ?>> fromMap, @Nullable final JPAParameters parameters)
+	{
+		//the first page has no restriction
+		if (null == cursor)
+		{
+			return Optional.empty();
+		}
+		
+		final List<jakarta.persistence.criteria.Predicate> disjunction = new ArrayList<>();
+		final List<jakarta.persistence.criteria.Predicate> equalities = new ArrayList<>();
+		
+		//for each of the sort columns, build (previous columns equal AND this column after the cursor)
+		for (int i = 0; i < getSortList().size(); i++)
+		{
+			final var sort = getSortList().get(i);
+			final var expression = toExpression(criteriaBuilder, fromMap, sort.column());
+			final var value = cursor.values().get(i);
+			
+			final jakarta.persistence.criteria.Predicate after;
+			if (null != value)
+			{
+				//a single parameter is shared by the comparison and the equality of this column
+				final Expression<?> bound =
+					null == parameters ? criteriaBuilder.literal(value) : parameters.add(criteriaBuilder, value.getClass(), value);
+				
+				after = after(criteriaBuilder, sort, expression, bound);
+				equalities.add(criteriaBuilder.equal(expression, bound));
+			}
+			else
+			{
+				//every value comes before the nulls in an ascending sort and after them in a descending sort
+				after = switch (sort.direction())
+				{
+					case ASC -> null;
+					case DESC -> criteriaBuilder.isNotNull(expression);
+				};
+				equalities.add(criteriaBuilder.isNull(expression));
+			}
+			
+			if (null != after)
+			{
+				final List<jakarta.persistence.criteria.Predicate> conjunction =
+					new ArrayList<>(equalities.subList(0, equalities.size() - 1));
+				conjunction.add(after);
+				disjunction.add(criteriaBuilder.and(conjunction.toArray(jakarta.persistence.criteria.Predicate[]::new)));
+			}
+		}
+		
+		return Optional.of(disjunction.isEmpty() ? criteriaBuilder.disjunction()
+			: criteriaBuilder.or(disjunction.toArray(jakarta.persistence.criteria.Predicate[]::new)));
+	}
+	
+	@Override
+	protected void appendPageShape(final StringBuilder shape)
+	{
+		//the structure of the seek predicate depends on which of the cursor values are null
+		if (null != cursor)
+		{
+			cursor.values().forEach(value -> shape.append(null == value ? "null" : value.getClass().getName()).append(','));
+		}
+	}
+	
+	@Override
+	protected void collectPageParameterValues(final List<Object> values)
+	{
+		if (null != cursor)
+		{
+			cursor.values().stream().filter(Objects::nonNull).forEach(values::add);
+		}
+	}
+	
+	/**
+	 * Builds the predicate that matches the rows after the given non-null value. The nulls of an ascending sort come after every
+	 * value, while the nulls of a descending sort were already passed.
+	 *
+	 * @param criteriaBuilder
+	 * @param sort
+	 * @param expression
+	 * @param value
+	 * @return
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private jakarta.persistence.criteria.Predicate after(final CriteriaBuilder criteriaBuilder, final Sort sort,
+		final Expression<?> expression, final Expression<?> value)
+	{
+		final var comparable = (Expression<Comparable>) expression;
+		final var bound = (Expression<Comparable>) value;
+		return switch (sort.direction())
+		{
+			case ASC -> isNullable(sort)
+				? criteriaBuilder.or(criteriaBuilder.greaterThan(comparable, bound), criteriaBuilder.isNull(expression))
+				: criteriaBuilder.greaterThan(comparable, bound);
+			case DESC -> criteriaBuilder.lessThan(comparable, bound);
+		};
+	}
+	
+	/**
+	 * Determines whether the given sort column may hold nulls. Only the attributes of the root entity can be looked up in the
+	 * metamodel, every other column is assumed to be nullable.
+	 *
+	 * @param sort
+	 * @return
+	 */
+	private boolean isNullable(final Sort sort)
+	{
+		return !(sort.column() instanceof Path p && QueryBuilder.ROOT.equals(p.root())
+			&& !EntityUtil.isNullable(metamodel, getEntityClass(), p.path()));
+	}
+	
+	/**
+	 * Appends the id of the entity to the sort list unless the sort list already ends with it
+	 *
+	 * @param metamodel
+	 * @param entityClass
+	 * @param sortList
+	 * @return
+	 */
+	private static List<Sort> withTieBreaker(final Metamodel metamodel, final Class<?> entityClass, final List<Sort> sortList)
+	{
+		final var idAttribute = EntityUtil.getIdAttributeName(metamodel, entityClass);
+		final var sorted = new ArrayList<>(sortList);
+		
+		//check to see if the id is already part of the sort
+		final boolean containsId = sortList.stream()
+			.map(Sort::column)
+			.anyMatch(column -> column instanceof Path p && QueryBuilder.ROOT.equals(p.root())
+				&& p.path().length == 1 && idAttribute.equals(p.path()[0]));
+		
+		if (!containsId)
+		{
+			sorted.add(Sort.asc(new Path(QueryBuilder.ROOT, idAttribute)));
+		}
+		
+		return sorted;
+	}
+}
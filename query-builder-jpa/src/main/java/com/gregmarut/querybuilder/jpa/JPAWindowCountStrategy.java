@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.result.PageTotal;
+import com.gregmarut.querybuilder.result.TotalCountStrategy;
+import com.gregmarut.querybuilder.result.TotalCounter;
+import lombok.Getter;
+
+/**
+ * Computes the exact total in the same query as the page by selecting a window function alongside each entity. The function renders
+ * as {@code count(*) over()} and is registered with Hibernate by
+ * {@link com.gregmarut.querybuilder.jpa.function.CountOverFunctionContributor}. When the page is empty, or the query fetches a
+ * collection, the total falls back to a separate count query.
+ */
+@Getter
+public final class JPAWindowCountStrategy implements TotalCountStrategy
+{
+	public static final String DEFAULT_FUNCTION_NAME = "count_over";
+	
+	private final String functionName;
+	
+	public JPAWindowCountStrategy()
+	{
+		this(DEFAULT_FUNCTION_NAME);
+	}
+	
+	public JPAWindowCountStrategy(final String functionName)
+	{
+		this.functionName = functionName;
+	}
+	
+	@Override
+	public PageTotal resolve(final long pageIndex, final int pageSize, final int resultCount, final TotalCounter counter)
+	{
+		return PageTotal.exact(counter.count(null));
+	}
+}
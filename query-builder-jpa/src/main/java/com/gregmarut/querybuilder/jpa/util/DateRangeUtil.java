@@ -25,8 +25,10 @@ package com.gregmarut.querybuilder.jpa.util;
 import com.gregmarut.querybuilder.DateRange;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import javax.annotation.Nullable;
 import java.time.Instant;
 import java.util.Optional;
 
@@ -67,4 +69,39 @@ public class DateRangeUtil
 			throw new IllegalArgumentException("Invalid date range: " + dateRange);
 		}
 	}
+	
+	/**
+	 * Converts the bounds of a date range into a Predicate criteria for searching a Path of Instant values. This is used when the
+	 * bounds are held in parameters rather than passed as values.
+	 *
+	 * @param after           the inclusive lower bound or null if there is none
+	 * @param before          the exclusive upper bound or null if there is none
+	 * @param field           the Path of Instant values to apply the criteria on
+	 * @param criteriaBuilder the CriteriaBuilder used to create the criteria
+	 * @return the Predicate criteria representing the date range search
+	 * @throws IllegalArgumentException if both bounds are null
+	 */
+	public static Predicate toCriteria(@Nullable final Expression<Instant> after, @Nullable final Expression<Instant> before,
+		final Path<Instant> field, final CriteriaBuilder criteriaBuilder)
+	{
+		if (null != before && null != after)
+		{
+			return criteriaBuilder.and(
+				criteriaBuilder.lessThan(field, before),
+				criteriaBuilder.greaterThanOrEqualTo(field, after)
+			);
+		}
+		else if (null != before)
+		{
+			return criteriaBuilder.lessThan(field, before);
+		}
+		else if (null != after)
+		{
+			return criteriaBuilder.greaterThanOrEqualTo(field, after);
+		}
+		else
+		{
+			throw new IllegalArgumentException("Invalid date range: no bounds");
+		}
+	}
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa.util;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+/**
+ * Looks up the attributes of entities through the JPA metamodel, so that ids and attributes mapped on getters, mapped super
+ * classes and embeddables are found the same way the persistence provider finds them
+ */
+public class EntityUtil
+{
+	private EntityUtil()
+	{
+	
+	}
+	
+	/**
+	 * Finds the name of the id attribute of the given entity type
+	 *
+	 * @param type the entity type to inspect
+	 * @return the name of the id attribute
+	 * @throws IllegalArgumentException if the entity does not have a single id attribute
+	 */
+	public static String getIdAttributeName(final IdentifiableType<?> type)
+	{
+		if (type.hasSingleIdAttribute())
+		{
+			for (SingularAttribute<?, ?> attribute : type.getSingularAttributes())
+			{
+				if (attribute.isId())
+				{
+					return attribute.getName();
+				}
+			}
+		}
+		
+		throw new IllegalArgumentException("No single id attribute found on " + type.getJavaType().getName());
+	}
+	
+	public static String getIdAttributeName(final Metamodel metamodel, final Class<?> entityClass)
+	{
+		return getIdAttributeName(metamodel.entity(entityClass));
+	}
+	
+	/**
+	 * Determines whether the given attribute of the type joined by the given from object holds a collection or a map of values
+	 *
+	 * @param from      the root or join that declares the attribute
+	 * @param attribute the name of the attribute
+	 * @return true if the attribute is collection valued or cannot be found, false otherwise
+	 */
+	public static boolean isCollectionAttribute(final From<?, ?> from, final String attribute)
+	{
+		return isCollectionAttribute(getManagedType(from), attribute);
+	}
+	
+	/**
+	 * Determines whether the given attribute of the given type holds a collection or a map of values
+	 *
+	 * @param type      the type that declares the attribute or null if it is not managed
+	 * @param attribute the name of the attribute
+	 * @return true if the attribute is collection valued or cannot be found, false otherwise
+	 */
+	public static boolean isCollectionAttribute(@Nullable final ManagedType<?> type, final String attribute)
+	{
+		final var found = null == type ? null : findAttribute(type, attribute);
+		
+		//assume the worst when the attribute is not part of the metamodel
+		return null == found || found.isCollection();
+	}
+	
+	/**
+	 * Finds the managed type reached through the given attribute of the given type. A collection attribute reaches the type of its
+	 * elements.
+	 *
+	 * @param type      the type that declares the attribute or null if it is not managed
+	 * @param attribute the name of the attribute
+	 * @return the managed type or null if the attribute cannot be found or does not reach a managed type
+	 */
+	@Nullable
+	public static ManagedType<?> getTargetType(@Nullable final ManagedType<?> type, final String attribute)
+	{
+		final var found = null == type ? null : findAttribute(type, attribute);
+		return null == found ? null : getTargetType(found);
+	}
+	
+	/**
+	 * Determines whether the value at the end of the given attribute path may be null. Associations and embeddables along the way
+	 * are nullable unless they are mapped as required.
+	 *
+	 * @param metamodel
+	 * @param entityClass
+	 * @param path
+	 * @return true if any attribute along the path is optional or cannot be found
+	 */
+	public static boolean isNullable(final Metamodel metamodel, final Class<?> entityClass, final String... path)
+	{
+		ManagedType<?> type = metamodel.managedType(entityClass);
+		
+		//for each of the attributes in the path
+		for (String name : path)
+		{
+			final var attribute = null == type ? null : findAttribute(type, name);
+			if (!(attribute instanceof SingularAttribute<?, ?> singular) || singular.isOptional())
+			{
+				return true;
+			}
+			
+			type = singular.getType() instanceof ManagedType<?> managed ? managed : null;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Reads the value at the end of the given attribute path. Getters are preferred over direct field access so that lazy
+	 * proxies are initialized correctly.
+	 *
+	 * @param metamodel the metamodel that maps the entity
+	 * @param entity    the entity to read from
+	 * @param path      the names of the attributes to walk
+	 * @return the value at the end of the path or null if any attribute along the way is null
+	 */
+	public static Object getAttributeValue(final Metamodel metamodel, final Object entity, final String... path)
+	{
+		Object current = entity;
+		
+		//for each of the attributes in the path
+		for (String name : path)
+		{
+			if (null == current)
+			{
+				return null;
+			}
+			
+			current = readAttribute(current, getAttribute(metamodel, current.getClass(), name));
+		}
+		
+		return current;
+	}
+	
+	@Nullable
+	private static ManagedType<?> getManagedType(final From<?, ?> from)
+	{
+		if (from instanceof Root<?> root)
+		{
+			return root.getModel();
+		}
+		else if (from instanceof Join<?, ?> join)
+		{
+			return getTargetType(join.getAttribute());
+		}
+		else
+		{
+			return null;
+		}
+	}
+	
+	@Nullable
+	private static ManagedType<?> getTargetType(final Attribute<?, ?> attribute)
+	{
+		//a collection is typed by its elements
+		final Type<?> type = attribute instanceof PluralAttribute<?, ?, ?> plural ? plural.getElementType()
+			: attribute instanceof SingularAttribute<?, ?> singular ? singular.getType() : null;
+		return type instanceof ManagedType<?> managed ? managed : null;
+	}
+	
+	/**
+	 * Finds the attribute with the given name on the managed type of the given class. Lazy proxies subclass their entity, so the
+	 * class hierarchy is walked until a managed type is found.
+	 *
+	 * @param metamodel
+	 * @param clazz
+	 * @param name
+	 * @return
+	 */
+	private static Attribute<?, ?> getAttribute(final Metamodel metamodel, final Class<?> clazz, final String name)
+	{
+		for (Class<?> c = clazz; null != c && !Object.class.equals(c); c = c.getSuperclass())
+		{
+			final var type = findManagedType(metamodel, c);
+			if (null != type)
+			{
+				final var attribute = findAttribute(type, name);
+				if (null != attribute)
+				{
+					return attribute;
+				}
+				else
+				{
+					throw new IllegalArgumentException("No attribute " + name + " found on " + c.getName());
+				}
+			}
+		}
+		
+		throw new IllegalArgumentException(clazz.getName() + " is not a managed type");
+	}
+	
+	@Nullable
+	private static ManagedType<?> findManagedType(final Metamodel metamodel, final Class<?> clazz)
+	{
+		try
+		{
+			return metamodel.managedType(clazz);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+	
+	@Nullable
+	private static Attribute<?, ?> findAttribute(final ManagedType<?> type, final String name)
+	{
+		try
+		{
+			return type.getAttribute(name);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+	
+	private static Object readAttribute(final Object obj, final Attribute<?, ?> attribute)
+	{
+		try
+		{
+			final Member member = attribute.getJavaMember();
+			
+			//a field mapped attribute is still read through its getter when there is one
+			final var getter = member instanceof Method method ? method : findGetter(obj.getClass(), attribute.getName());
+			if (null != getter)
+			{
+				return getter.invoke(obj);
+			}
+			else if (member instanceof Field field)
+			{
+				field.setAccessible(true);
+				return field.get(obj);
+			}
+			else
+			{
+				throw new IllegalStateException("Attribute " + attribute.getName() + " is not backed by a field or method");
+			}
+		}
+		catch (IllegalAccessException | InvocationTargetException e)
+		{
+			throw new IllegalStateException("Unable to read attribute " + attribute.getName() + " from " + obj.getClass().getName(), e);
+		}
+	}
+	
+	@Nullable
+	private static Method findGetter(final Class<?> clazz, final String attribute)
+	{
+		final var suffix = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+		for (String name : new String[]{"get" + suffix, "is" + suffix})
+		{
+			try
+			{
+				return clazz.getMethod(name);
+			}
+			catch (NoSuchMethodException e)
+			{
+				//try the next candidate
+			}
+		}
+		
+		return null;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.jpa.model.OrderLine;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrderQueryBuilder;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class JPACountQueryTest extends JPATestSupport
+{
+	@Test
+	public void unreferencedJoinsAreDropped()
+	{
+		final long total = count(new PurchaseOrderQueryBuilder().joinLines().fetchLines().fetchCustomer().status("OPEN"));
+		
+		Assertions.assertEquals(15, total);
+		Assertions.assertEquals(0, countJoins(statements.getFirst()));
+		Assertions.assertFalse(statements.getFirst().contains("distinct"));
+	}
+	
+	@Test
+	public void singularJoinIsNotDistinct()
+	{
+		final long total = count(new PurchaseOrderQueryBuilder().customerName("Customer 2"));
+		
+		Assertions.assertEquals(ORDERS_PER_CUSTOMER, total);
+		Assertions.assertEquals(1, countJoins(statements.getFirst()));
+		Assertions.assertFalse(statements.getFirst().contains("distinct"));
+	}
+	
+	@Test
+	public void collectionJoinIsCountedDistinct()
+	{
+		final long total = count(new PurchaseOrderQueryBuilder()
+			.where(new InPredicate(List.of("SKU-0", "SKU-1"), PurchaseOrderQueryBuilder.LINES, OrderLine.SKU))
+			.joinLines());
+		
+		//every order has both skus, each order must only be counted once
+		Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, total);
+		Assertions.assertEquals(1, countJoins(statements.getFirst()));
+		Assertions.assertTrue(statements.getFirst().contains("distinct"));
+	}
+	
+	@Test
+	public void parameterizedCountUsesTheSamePlan()
+	{
+		final var query = new PurchaseOrderQueryBuilder().joinLines().status("CLOSED").buildQuery()
+			.buildParameterizedCountQuery(entityManagerFactory.getCriteriaBuilder(), new JPAQueryCache());
+		
+		final Long total = inTransaction(entityManager -> query.bind(entityManager.createQuery(query.query())).getSingleResult());
+		
+		Assertions.assertEquals(List.of("CLOSED"), query.values());
+		Assertions.assertEquals(15L, total);
+		Assertions.assertEquals(0, countJoins(statements.getFirst()));
+	}
+	
+	private static long count(final PurchaseOrderQueryBuilder builder)
+	{
+		return inTransaction(entityManager ->
+			entityManager.createQuery(builder.buildQuery().buildCountQuery(entityManager.getCriteriaBuilder())).getSingleResult());
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrder;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrderQueryBuilder;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class JPAJoinPlannerTest extends JPATestSupport
+{
+	@Test
+	public void joinAndFetchOfTheSameAssociationAreMerged()
+	{
+		final List<PurchaseOrder> orders = inTransaction(entityManager -> {
+			final var query = new PurchaseOrderQueryBuilder().customerName("Customer 1").fetchCustomer().buildQuery();
+			final var results = entityManager.createQuery(query.buildCriteriaQuery(entityManager.getCriteriaBuilder())).getResultList();
+			Assertions.assertTrue(results.stream().allMatch(order -> Hibernate.isInitialized(order.getCustomer())));
+			return results;
+		});
+		
+		Assertions.assertEquals(ORDERS_PER_CUSTOMER, orders.size());
+		Assertions.assertEquals(1, statements.size());
+		Assertions.assertEquals(1, countJoins(statements.getFirst()));
+	}
+	
+	@Test
+	public void unusedLeftJoinIsSkipped()
+	{
+		final List<PurchaseOrder> orders = inTransaction(entityManager -> {
+			final var query = new PurchaseOrderQueryBuilder().joinLines().status("OPEN").buildQuery();
+			return entityManager.createQuery(query.buildCriteriaQuery(entityManager.getCriteriaBuilder())).getResultList();
+		});
+		
+		Assertions.assertEquals(15, orders.size());
+		Assertions.assertEquals(0, countJoins(statements.getFirst()));
+	}
+	
+	@Test
+	public void unfilteredCollectionFetchIsMerged()
+	{
+		inTransaction(entityManager -> {
+			final var query = new PurchaseOrderQueryBuilder().joinLines().fetchLines().buildQuery();
+			return entityManager.createQuery(query.buildCriteriaQuery(entityManager.getCriteriaBuilder())).getResultList();
+		});
+		
+		Assertions.assertEquals(1, countJoins(statements.getFirst()));
+	}
+	
+	@Test
+	public void filteredCollectionFetchIsNotMerged()
+	{
+		final List<PurchaseOrder> orders = inTransaction(entityManager -> {
+			final var query = new PurchaseOrderQueryBuilder().sku("SKU-1").fetchLines().buildQuery();
+			final var results = entityManager.createQuery(query.buildCriteriaQuery(entityManager.getCriteriaBuilder())).getResultList();
+			
+			//the fetched collections must hold every line, not only the ones that matched the filter
+			Assertions.assertTrue(results.stream().allMatch(order -> LINES_PER_ORDER == order.getLines().size()));
+			return results;
+		});
+		
+		Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, orders.size());
+		Assertions.assertEquals(2, countJoins(statements.getFirst()));
+	}
+	
+	@Test
+	public void twoPhaseFetchQueryOnlyJoinsTheFetches()
+	{
+		inTransaction(entityManager -> new PurchaseOrderQueryBuilder()
+			.customerName("Customer 3")
+			.fetchLines()
+			.buildSearch(0, 5)
+			.run(entityManager));
+		
+		//count query and id query each join the customer once, the fetch query only joins the lines
+		Assertions.assertEquals(3, statements.size());
+		statements.forEach(sql -> Assertions.assertEquals(1, countJoins(sql), sql));
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.Sort;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrder;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrderQueryBuilder;
+import com.gregmarut.querybuilder.predicate.EqualsPredicate;
+import com.gregmarut.querybuilder.predicate.OrPredicate;
+import com.gregmarut.querybuilder.result.TotalCountStrategy;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class JPAPaginatedSearchQueryTest extends JPATestSupport
+{
+	@Test
+	public void pageWithoutFetches()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").buildSearch(1, 4).run(entityManager));
+		
+		Assertions.assertEquals(15, page.total());
+		Assertions.assertEquals(4, page.results().size());
+		Assertions.assertTrue(page.results().stream().allMatch(order -> "OPEN".equals(order.getStatus())));
+		
+		//a single page query plus the count query
+		Assertions.assertEquals(2, statements.size());
+	}
+	
+	@Test
+	public void collectionFetchIsPagedInTheDatabase()
+	{
+		final var pageSize = 7;
+		
+		final var page = inTransaction(entityManager -> {
+			final var results = new PurchaseOrderQueryBuilder().fetchLines().orderByCreatedOnThenId().buildSearch(2, pageSize)
+				.run(entityManager);
+			
+			//the collection was loaded by the fetch query
+			Assertions.assertTrue(results.results().stream().allMatch(order -> Hibernate.isInitialized(order.getLines())));
+			Assertions.assertTrue(results.results().stream().allMatch(order -> LINES_PER_ORDER == order.getLines().size()));
+			return results;
+		});
+		
+		Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, page.total());
+		Assertions.assertEquals(pageSize, page.results().size());
+		
+		//id query with the limit applied by the database, the fetch query and the count query
+		Assertions.assertEquals(3, statements.size());
+		Assertions.assertTrue(statements.get(0).contains("offset"));
+		Assertions.assertTrue(statements.get(1).contains(" in "));
+		
+		//the page is returned in the same order as the single phase query returns it
+		final List<Long> expected = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().orderByCreatedOnThenId()
+				.buildSearch(2, pageSize).run(entityManager))
+			.results().stream().map(PurchaseOrder::getId).toList();
+		Assertions.assertEquals(expected, page.results().stream().map(PurchaseOrder::getId).toList());
+		
+		Assertions.assertEquals(page.results().stream().sorted(Comparator.comparing(PurchaseOrder::getCreatedOn).reversed()).toList(),
+			page.results());
+	}
+	
+	@Test
+	public void singleAssociationFetchIsPagedInOneQuery()
+	{
+		final var page = inTransaction(entityManager -> {
+			final var results = new PurchaseOrderQueryBuilder().fetchCustomer().buildSearch(1, 4).run(entityManager);
+			
+			Assertions.assertTrue(results.results().stream().allMatch(order -> Hibernate.isInitialized(order.getCustomer())));
+			return results;
+		});
+		
+		Assertions.assertEquals(4, page.results().size());
+		
+		//the fetch does not repeat the rows, so the page query and the count query are enough
+		Assertions.assertEquals(2, statements.size());
+	}
+	
+	@Test
+	public void repeatedIdsAreLoadedOnce()
+	{
+		//every order has a line per sku, so the ids repeat once the first sku is used up
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder()
+			.fetchLines()
+			.orderByLineSku()
+			.buildSearch(0, CUSTOMERS * ORDERS_PER_CUSTOMER + 5)
+			.run(entityManager));
+		
+		Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, page.results().size());
+		Assertions.assertEquals(page.results().size(), page.results().stream().map(PurchaseOrder::getId).distinct().count());
+	}
+	
+	@Test
+	public void collectionSortFillsEveryPage()
+	{
+		final List<Long> ids = new ArrayList<>();
+		final int pageSize = 4;
+		final int pages = (CUSTOMERS * ORDERS_PER_CUSTOMER + pageSize - 1) / pageSize;
+		
+		for (int pageIndex = 0; pageIndex < pages; pageIndex++)
+		{
+			final int index = pageIndex;
+			final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder()
+				.fetchLines()
+				.orderByLineSku()
+				.addSort(Sort.desc(new Path(QueryBuilder.ROOT, PurchaseOrder.ID)))
+				.buildSearch(index, pageSize)
+				.run(entityManager, TotalCountStrategy.skipOnShortPage(TotalCountStrategy.exact())));
+			
+			//only the last page may be short, and its size alone has to give the right total
+			if (index < pages - 1)
+			{
+				Assertions.assertEquals(pageSize, page.results().size());
+			}
+			else
+			{
+				Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, page.total());
+			}
+			
+			page.results().forEach(order -> ids.add(order.getId()));
+		}
+		
+		Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, ids.size());
+		Assertions.assertEquals(ids.size(), ids.stream().distinct().count());
+	}
+	
+	@Test
+	public void collectionFetchWithJoinFilter()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder()
+			.sku("SKU-1")
+			.customerName("Customer 2")
+			.fetchLines()
+			.buildSearch(0, 4)
+			.run(entityManager));
+		
+		Assertions.assertEquals(4, page.results().size());
+		Assertions.assertEquals(4, page.results().stream().map(PurchaseOrder::getId).distinct().count());
+		Assertions.assertTrue(page.results().stream().allMatch(order -> 2L == order.getCustomer().getId()));
+	}
+	
+	@Test
+	public void emptyPage()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("NONE").fetchLines().buildSearch(0, 10)
+			.run(entityManager));
+		
+		Assertions.assertEquals(0, page.total());
+		Assertions.assertTrue(page.results().isEmpty());
+	}
+	
+	@Test
+	public void conflictingEqualsStillQueryTheDatabase()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").status("CLOSED").buildSearch(0, 10)
+			.run(entityManager));
+		
+		Assertions.assertEquals(0, page.total());
+		Assertions.assertTrue(page.results().isEmpty());
+		Assertions.assertFalse(statements.isEmpty());
+	}
+	
+	@Test
+	public void intersectedContradictionSkipsTheDatabase()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").status("CLOSED")
+			.intersectPredicates()
+			.buildSearch(0, 10)
+			.run(entityManager));
+		
+		Assertions.assertEquals(0, page.total());
+		Assertions.assertTrue(page.results().isEmpty());
+		Assertions.assertTrue(statements.isEmpty());
+	}
+	
+	@Test
+	public void emptyInSkipsTheDatabase()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().statuses(List.of()).fetchLines().buildSearch(0, 10)
+			.run(entityManager));
+		
+		Assertions.assertEquals(0, page.total());
+		Assertions.assertTrue(page.results().isEmpty());
+		Assertions.assertTrue(statements.isEmpty());
+	}
+	
+	@Test
+	public void mergedEqualsReturnSameResults()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder()
+			.where(new OrPredicate(new EqualsPredicate("OPEN", QueryBuilder.ROOT, PurchaseOrder.STATUS),
+				new EqualsPredicate("CLOSED", QueryBuilder.ROOT, PurchaseOrder.STATUS)))
+			.buildSearch(0, 10)
+			.run(entityManager));
+		
+		Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, page.total());
+		Assertions.assertTrue(statements.getFirst().contains(" in "));
+	}
+}
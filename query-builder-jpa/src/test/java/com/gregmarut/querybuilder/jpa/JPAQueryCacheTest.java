@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.DateRange;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrder;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrderQueryBuilder;
+import com.gregmarut.querybuilder.predicate.DateRangePredicate;
+import com.gregmarut.querybuilder.predicate.FuzzyMatchPredicate;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import com.gregmarut.querybuilder.predicate.OrPredicate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+public class JPAQueryCacheTest extends JPATestSupport
+{
+	@Test
+	public void sameShapeIsBuiltOnce()
+	{
+		final var cache = new JPAQueryCache();
+		final var criteriaBuilder = entityManagerFactory.getCriteriaBuilder();
+		
+		final var open = new PurchaseOrderQueryBuilder().status("OPEN").buildQuery().buildParameterizedQuery(criteriaBuilder, cache);
+		final var closed = new PurchaseOrderQueryBuilder().status("CLOSED").buildQuery().buildParameterizedQuery(criteriaBuilder, cache);
+		
+		Assertions.assertSame(open.query(), closed.query());
+		Assertions.assertEquals(List.of("OPEN"), open.values());
+		Assertions.assertEquals(List.of("CLOSED"), closed.values());
+		
+		final var stats = cache.getStats();
+		Assertions.assertEquals(1, stats.hits());
+		Assertions.assertEquals(1, stats.misses());
+		Assertions.assertEquals(1, stats.size());
+		Assertions.assertTrue(stats.savedNanos() > 0);
+		
+		//both queries return the rows for their own values
+		Assertions.assertEquals(15, execute(open).size());
+		Assertions.assertTrue(execute(closed).stream().allMatch(order -> "CLOSED".equals(order.getStatus())));
+	}
+	
+	@Test
+	public void differentShapesAreBuiltSeparately()
+	{
+		final var cache = new JPAQueryCache();
+		final var criteriaBuilder = entityManagerFactory.getCriteriaBuilder();
+		
+		final var byStatus = new PurchaseOrderQueryBuilder().status("OPEN").buildQuery().buildParameterizedQuery(criteriaBuilder, cache);
+		final var byCustomer = new PurchaseOrderQueryBuilder().customerName("Customer 1").buildQuery()
+			.buildParameterizedQuery(criteriaBuilder, cache);
+		final var count = new PurchaseOrderQueryBuilder().status("OPEN").buildQuery().buildParameterizedCountQuery(criteriaBuilder, cache);
+		
+		Assertions.assertNotSame(byStatus.query(), byCustomer.query());
+		Assertions.assertEquals(0, cache.getStats().hits());
+		Assertions.assertEquals(3, cache.getStats().misses());
+		
+		Assertions.assertEquals(10, execute(byCustomer).size());
+		final Long total = inTransaction(entityManager -> count.bind(entityManager.createQuery(count.query())).getSingleResult());
+		Assertions.assertEquals(15L, total);
+	}
+	
+	@Test
+	public void fullCacheEvictsTheLeastRecentlyUsedShape()
+	{
+		final var cache = new JPAQueryCache(2);
+		final var criteriaBuilder = entityManagerFactory.getCriteriaBuilder();
+		
+		final var byStatus = new PurchaseOrderQueryBuilder().status("OPEN").buildQuery();
+		final var byCustomer = new PurchaseOrderQueryBuilder().customerName("Customer 1").buildQuery();
+		final var bySku = new PurchaseOrderQueryBuilder().sku("SKU-1").buildQuery();
+		
+		byStatus.buildParameterizedQuery(criteriaBuilder, cache);
+		byCustomer.buildParameterizedQuery(criteriaBuilder, cache);
+		
+		//using the status shape makes the customer shape the least recently used one
+		byStatus.buildParameterizedQuery(criteriaBuilder, cache);
+		bySku.buildParameterizedQuery(criteriaBuilder, cache);
+		Assertions.assertEquals(2, cache.getStats().size());
+		
+		byStatus.buildParameterizedQuery(criteriaBuilder, cache);
+		bySku.buildParameterizedQuery(criteriaBuilder, cache);
+		Assertions.assertEquals(3, cache.getStats().hits());
+		
+		byCustomer.buildParameterizedQuery(criteriaBuilder, cache);
+		Assertions.assertEquals(4, cache.getStats().misses());
+	}
+	
+	@Test
+	public void everyValueIsParameterized()
+	{
+		final var criteriaBuilder = entityManagerFactory.getCriteriaBuilder();
+		
+		final var query = new PurchaseOrderQueryBuilder()
+			.where(new InPredicate(List.of(1L, 2L, 3L, 4L), QueryBuilder.ROOT, PurchaseOrder.ID))
+			.where(new OrPredicate(
+				new FuzzyMatchPredicate("PEN", QueryBuilder.ROOT, PurchaseOrder.STATUS),
+				new DateRangePredicate(DateRange.after(Instant.ofEpochSecond(1_700_000_000L)), QueryBuilder.ROOT, PurchaseOrder.CREATED_ON)))
+			.buildQuery()
+			.buildParameterizedQuery(criteriaBuilder, new JPAQueryCache());
+		
+		Assertions.assertEquals(3, query.parameters().size());
+		Assertions.assertEquals(List.of(List.of(1L, 2L, 3L, 4L), "%PEN%", Instant.ofEpochSecond(1_700_000_000L)), query.values());
+		Assertions.assertEquals(4, execute(query).size());
+		
+		//no literal values end up in the generated SQL
+		Assertions.assertTrue(statements.stream().noneMatch(sql -> sql.contains("PEN")));
+	}
+	
+	@Test
+	public void seekPagesShareTheirShape()
+	{
+		final var cache = new JPAQueryCache();
+		
+		JPASeekCursor cursor = null;
+		int pages = 0;
+		int rows = 0;
+		
+		do
+		{
+			final var seek = new PurchaseOrderQueryBuilder().buildSeek(entityManagerFactory.getMetamodel(), cursor, 7);
+			final var page = inTransaction(entityManager -> seek.run(entityManager, cache));
+			cursor = page.nextCursor();
+			rows += page.results().size();
+			pages++;
+		}
+		while (null != cursor);
+		
+		Assertions.assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, rows);
+		Assertions.assertEquals(5, pages);
+		
+		//the first page has no cursor, every following page has the same shape
+		Assertions.assertEquals(2, cache.getStats().misses());
+		Assertions.assertEquals(3, cache.getStats().hits());
+	}
+	
+	private static List<PurchaseOrder> execute(final JPAParameterizedQuery<PurchaseOrder> query)
+	{
+		return inTransaction(entityManager -> query.bind(entityManager.createQuery(query.query())).getResultList());
+	}
+}
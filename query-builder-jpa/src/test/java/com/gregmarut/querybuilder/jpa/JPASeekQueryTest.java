@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.SortDirectionType;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrder;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrderQueryBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class JPASeekQueryTest extends JPATestSupport
+{
+	private static final int PAGE_SIZE = 4;
+	
+	@BeforeAll
+	static void addOrdersWithNulls()
+	{
+		inTransaction(entityManager -> {
+			//a run of orders without a status and a run without a creation date that overlap each other
+			for (long id = 31; id <= 40; id++)
+			{
+				final String status = id <= 35 ? null : "OPEN";
+				final Instant createdOn = id >= 33 ? null : Instant.ofEpochSecond(1_700_000_000L);
+				entityManager.persist(new PurchaseOrder(id, status, 0, createdOn, null));
+			}
+			
+			return null;
+		});
+	}
+	
+	@Test
+	public void ascendingSeekReachesTheNullsLast()
+	{
+		final var ids = seekAll(() -> new PurchaseOrderQueryBuilder().addSort(PurchaseOrder.STATUS, SortDirectionType.ASC));
+		
+		Assertions.assertEquals(
+			expectedIds(Comparator.comparing(PurchaseOrder::getStatus, Comparator.nullsLast(Comparator.<String>naturalOrder()))), ids);
+	}
+	
+	@Test
+	public void descendingSeekStartsWithTheNulls()
+	{
+		final var ids = seekAll(() -> new PurchaseOrderQueryBuilder().addSort(PurchaseOrder.CREATED_ON, SortDirectionType.DESC));
+		
+		final Comparator<PurchaseOrder> comparator =
+			Comparator.comparing(PurchaseOrder::getCreatedOn, Comparator.nullsLast(Comparator.<Instant>naturalOrder()).reversed());
+		Assertions.assertEquals(expectedIds(comparator), ids);
+	}
+	
+	@Test
+	public void seekThroughNullsOfSeveralColumns()
+	{
+		final var ids = seekAll(() -> new PurchaseOrderQueryBuilder()
+			.addSort(PurchaseOrder.STATUS, SortDirectionType.DESC)
+			.addSort(PurchaseOrder.CREATED_ON, SortDirectionType.ASC));
+		
+		final Comparator<PurchaseOrder> comparator =
+			Comparator.comparing(PurchaseOrder::getStatus, Comparator.nullsLast(Comparator.<String>naturalOrder()).reversed())
+				.thenComparing(PurchaseOrder::getCreatedOn, Comparator.nullsLast(Comparator.naturalOrder()));
+		Assertions.assertEquals(expectedIds(comparator), ids);
+	}
+	
+	@Test
+	public void requiredColumnsAreOrderedWithoutCase()
+	{
+		final var ids = seekAll(() -> new PurchaseOrderQueryBuilder().addSort(PurchaseOrder.TOTAL, SortDirectionType.ASC));
+		
+		Assertions.assertEquals(expectedIds(Comparator.comparingInt(PurchaseOrder::getTotal)), ids);
+		Assertions.assertTrue(statements.stream().noneMatch(sql -> sql.toLowerCase().contains("case")));
+	}
+	
+	@Test
+	public void cursorTokenRoundTrips()
+	{
+		final var cursor = new JPASeekCursor(Arrays.asList(null, "OPEN", 7, Instant.ofEpochSecond(1_700_000_000L, 5), SortDirectionType.DESC));
+		
+		Assertions.assertEquals(cursor, JPASeekCursor.decode(cursor.encode()));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JPASeekCursor.decode("not a cursor"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JPASeekCursor.decode(cursor.encode() + "AAAA"));
+	}
+	
+	/**
+	 * Pages through every order with the query built by the given builder
+	 *
+	 * @param builder
+	 * @return the ids of the orders in the order they were returned
+	 */
+	private static List<Long> seekAll(final Supplier<PurchaseOrderQueryBuilder> builder)
+	{
+		final List<Long> ids = new ArrayList<>();
+		JPASeekCursor cursor = null;
+		
+		do
+		{
+			final var seek = builder.get().buildSeek(entityManagerFactory.getMetamodel(), cursor, PAGE_SIZE);
+			final var page = inTransaction(seek::run);
+			
+			page.results().forEach(order -> ids.add(order.getId()));
+			
+			//hand the cursor over as a token the way a client would
+			cursor = page.hasNext() ? JPASeekCursor.decode(page.nextCursor().encode()) : null;
+		}
+		while (null != cursor);
+		
+		return ids;
+	}
+	
+	private static List<Long> expectedIds(final Comparator<PurchaseOrder> comparator)
+	{
+		final List<PurchaseOrder> orders = inTransaction(entityManager -> entityManager
+			.createQuery("select o from PurchaseOrder o", PurchaseOrder.class)
+			.getResultList());
+		
+		return orders.stream()
+			.sorted(comparator.thenComparing(PurchaseOrder::getId))
+			.map(PurchaseOrder::getId)
+			.toList();
+	}
+}
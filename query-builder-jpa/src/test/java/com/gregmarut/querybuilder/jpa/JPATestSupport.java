@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.jpa.model.Customer;
+import com.gregmarut.querybuilder.jpa.model.OrderLine;
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Boots an in-memory H2 database with a small order model and records every SQL statement that is executed against it
+ */
+public abstract class JPATestSupport
+{
+	public static final int CUSTOMERS = 3;
+	public static final int ORDERS_PER_CUSTOMER = 10;
+	public static final int LINES_PER_ORDER = 3;
+	
+	protected static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+	protected static EntityManagerFactory entityManagerFactory;
+	
+	@BeforeAll
+	static void startDatabase()
+	{
+		entityManagerFactory = new Configuration()
+			.addAnnotatedClass(Customer.class)
+			.addAnnotatedClass(PurchaseOrder.class)
+			.addAnnotatedClass(OrderLine.class)
+			.setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:" + System.nanoTime() + ";DB_CLOSE_DELAY=-1")
+			.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+			.setStatementInspector((StatementInspector) sql -> {
+				statements.add(sql);
+				return sql;
+			})
+			.buildSessionFactory();
+		
+		inTransaction(entityManager -> {
+			long orderId = 0;
+			long lineId = 0;
+			
+			for (long c = 1; c <= CUSTOMERS; c++)
+			{
+				final var customer = new Customer(c, "Customer " + c);
+				entityManager.persist(customer);
+				
+				for (int o = 0; o < ORDERS_PER_CUSTOMER; o++)
+				{
+					orderId++;
+					final var order = new PurchaseOrder(orderId, 0 == orderId % 2 ? "OPEN" : "CLOSED", (int) (orderId % 7) * 10,
+						Instant.ofEpochSecond(1_700_000_000L + orderId % 11 * 60), customer);
+					entityManager.persist(order);
+					
+					for (int l = 0; l < LINES_PER_ORDER; l++)
+					{
+						entityManager.persist(new OrderLine(++lineId, "SKU-" + l, l + 1, order));
+					}
+				}
+			}
+			
+			return null;
+		});
+	}
+	
+	@AfterAll
+	static void stopDatabase()
+	{
+		entityManagerFactory.close();
+	}
+	
+	@BeforeEach
+	void clearStatements()
+	{
+		statements.clear();
+	}
+	
+	protected static <T> T inTransaction(final Function<EntityManager, T> work)
+	{
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			final T result = work.apply(entityManager);
+			entityManager.getTransaction().commit();
+			return result;
+		}
+	}
+	
+	/**
+	 * Counts the number of joins in the given SQL statement
+	 *
+	 * @param sql
+	 * @return
+	 */
+	protected static int countJoins(final String sql)
+	{
+		return sql.toLowerCase().split("\\bjoin\\b", -1).length - 1;
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa;
+
+import com.gregmarut.querybuilder.jpa.model.PurchaseOrderQueryBuilder;
+import com.gregmarut.querybuilder.result.PagedResults;
+import com.gregmarut.querybuilder.result.TotalCountStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JPATotalCountStrategyTest extends JPATestSupport
+{
+	@Test
+	public void shortPageSkipsTheCount()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").buildSearch(1, 10)
+			.run(entityManager, TotalCountStrategy.skipOnShortPage(TotalCountStrategy.exact())));
+		
+		Assertions.assertEquals(15, page.total());
+		Assertions.assertTrue(page.totalIsExact());
+		Assertions.assertEquals(1, statements.size());
+	}
+	
+	@Test
+	public void fullPageIsCounted()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").buildSearch(0, 10)
+			.run(entityManager, TotalCountStrategy.skipOnShortPage(TotalCountStrategy.exact())));
+		
+		Assertions.assertEquals(15, page.total());
+		Assertions.assertTrue(page.totalIsExact());
+		Assertions.assertEquals(2, statements.size());
+	}
+	
+	@Test
+	public void cappedCountIsALowerBound()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().buildSearch(0, 5)
+			.run(entityManager, TotalCountStrategy.capped(12)));
+		
+		//the count stops after one more than the maximum but never reports more than the maximum
+		Assertions.assertEquals(12, page.total());
+		Assertions.assertFalse(page.totalIsExact());
+		Assertions.assertTrue(statements.get(1).contains("fetch first"));
+		Assertions.assertFalse(statements.get(1).contains("order by"));
+		
+		//only a constant is read for each counted row
+		Assertions.assertTrue(statements.get(1).startsWith("select 1 "), statements.get(1));
+	}
+	
+	@Test
+	public void cappedCountAtTheLargestMaximumDoesNotOverflow()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").buildSearch(0, 5)
+			.run(entityManager, TotalCountStrategy.capped(Long.MAX_VALUE)));
+		
+		Assertions.assertEquals(15, page.total());
+		Assertions.assertTrue(page.totalIsExact());
+	}
+	
+	@Test
+	public void cappedMaximumMustBePositive()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> TotalCountStrategy.capped(0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> TotalCountStrategy.capped(-1));
+	}
+	
+	@Test
+	public void cappedCountBelowTheMaximumIsExact()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").buildSearch(0, 5)
+			.run(entityManager, TotalCountStrategy.capped(100)));
+		
+		Assertions.assertEquals(15, page.total());
+		Assertions.assertTrue(page.totalIsExact());
+	}
+	
+	@Test
+	public void providedTotalIsReused()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().buildSearch(1, 5)
+			.run(entityManager, TotalCountStrategy.provided(30, true)));
+		
+		Assertions.assertEquals(30, page.total());
+		Assertions.assertEquals(1, statements.size());
+	}
+	
+	@Test
+	public void windowCountIsComputedWithThePage()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("CLOSED").orderByCreatedOnThenId()
+			.buildSearch(1, 4).run(entityManager, new JPAWindowCountStrategy()));
+		
+		Assertions.assertEquals(15, page.total());
+		Assertions.assertEquals(4, page.results().size());
+		Assertions.assertEquals(1, statements.size());
+		Assertions.assertTrue(statements.getFirst().contains("over"));
+		
+		//the page matches the one loaded without the window function
+		final PagedResults<?> expected = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("CLOSED")
+			.orderByCreatedOnThenId().buildSearch(1, 4).run(entityManager));
+		Assertions.assertEquals(expected.results().size(), page.results().size());
+	}
+	
+	@Test
+	public void windowCountFallsBackOnAnEmptyPage()
+	{
+		final var page = inTransaction(entityManager -> new PurchaseOrderQueryBuilder().status("OPEN").buildSearch(5, 10)
+			.run(entityManager, new JPAWindowCountStrategy()));
+		
+		Assertions.assertEquals(15, page.total());
+		Assertions.assertTrue(page.results().isEmpty());
+		Assertions.assertEquals(2, statements.size());
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class PurchaseOrder
+{
+	public static final String ID = "id";
+	public static final String STATUS = "status";
+	public static final String TOTAL = "total";
+	public static final String CREATED_ON = "createdOn";
+	public static final String CUSTOMER = "customer";
+	public static final String LINES = "lines";
+	
+	@Id
+	private Long id;
+	
+	private String status;
+	
+	private int total;
+	
+	private Instant createdOn;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	private Customer customer;
+	
+	@OneToMany(mappedBy = "order")
+	private List<OrderLine> lines = new ArrayList<>();
+	
+	public PurchaseOrder(final Long id, final String status, final int total, final Instant createdOn, final Customer customer)
+	{
+		this.id = id;
+		this.status = status;
+		this.total = total;
+		this.createdOn = createdOn;
+		this.customer = customer;
+	}
+}
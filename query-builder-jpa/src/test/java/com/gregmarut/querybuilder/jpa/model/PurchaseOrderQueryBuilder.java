@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.jpa.model;
+
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.Sort;
+import com.gregmarut.querybuilder.SortDirectionType;
+import com.gregmarut.querybuilder.jpa.JPAJoin;
+import com.gregmarut.querybuilder.jpa.JPAQueryBuilder;
+import com.gregmarut.querybuilder.predicate.EqualsPredicate;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import jakarta.persistence.criteria.JoinType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class PurchaseOrderQueryBuilder extends JPAQueryBuilder<PurchaseOrderQueryBuilder, PurchaseOrder>
+{
+	public static final String CUSTOMER = "customer";
+	public static final String LINES = "lines";
+	
+	private final List<Predicate> predicates;
+	private final Set<JPAJoin> fetchSet;
+	
+	public PurchaseOrderQueryBuilder()
+	{
+		super(PurchaseOrder.class);
+		this.predicates = new ArrayList<>();
+		this.fetchSet = new HashSet<>();
+	}
+	
+	public PurchaseOrderQueryBuilder status(final String status)
+	{
+		predicates.add(new EqualsPredicate(status, ROOT, PurchaseOrder.STATUS));
+		return self();
+	}
+	
+	public PurchaseOrderQueryBuilder statuses(final Collection<String> statuses)
+	{
+		predicates.add(new InPredicate(statuses, ROOT, PurchaseOrder.STATUS));
+		return self();
+	}
+	
+	public PurchaseOrderQueryBuilder customerName(final String name)
+	{
+		predicates.add(new EqualsPredicate(name, alias(CUSTOMER), Customer.NAME));
+		return self();
+	}
+	
+	public PurchaseOrderQueryBuilder sku(final String sku)
+	{
+		predicates.add(new EqualsPredicate(sku, alias(LINES), OrderLine.SKU));
+		return self();
+	}
+	
+	public PurchaseOrderQueryBuilder orderByCreatedOnThenId()
+	{
+		return addSort(PurchaseOrder.CREATED_ON, SortDirectionType.DESC).addSort(PurchaseOrder.ID, SortDirectionType.ASC);
+	}
+	
+	public PurchaseOrderQueryBuilder orderByLineSku()
+	{
+		return addSort(Sort.asc(new Path(alias(LINES), OrderLine.SKU)));
+	}
+	
+	public PurchaseOrderQueryBuilder where(final Predicate predicate)
+	{
+		predicates.add(predicate);
+		return self();
+	}
+	
+	public PurchaseOrderQueryBuilder joinLines()
+	{
+		alias(LINES);
+		return self();
+	}
+	
+	public PurchaseOrderQueryBuilder fetchCustomer()
+	{
+		fetchSet.add(new JPAJoin(ROOT, PurchaseOrder.CUSTOMER, JoinType.LEFT));
+		return self();
+	}
+	
+	public PurchaseOrderQueryBuilder fetchLines()
+	{
+		fetchSet.add(new JPAJoin(ROOT, PurchaseOrder.LINES, JoinType.LEFT));
+		return self();
+	}
+	
+	@Override
+	protected JPAJoin defineAlias(final String alias)
+	{
+		return switch (alias)
+		{
+			case CUSTOMER -> new JPAJoin(ROOT, PurchaseOrder.CUSTOMER, JoinType.LEFT);
+			case LINES -> new JPAJoin(ROOT, PurchaseOrder.LINES, JoinType.LEFT);
+			default -> super.defineAlias(alias);
+		};
+	}
+	
+	@Override
+	protected Set<JPAJoin> buildFetchSet()
+	{
+		return fetchSet;
+	}
+	
+	@Override
+	protected void addPredicates(final List<Predicate> predicates)
+	{
+		predicates.addAll(this.predicates);
+	}
+	
+	@Override
+	protected List<Sort> getDefaultSort()
+	{
+		return List.of(Sort.desc(new Path(ROOT, PurchaseOrder.CREATED_ON)));
+	}
+}
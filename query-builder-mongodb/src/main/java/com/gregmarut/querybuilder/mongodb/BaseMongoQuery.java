@@ -38,6 +38,7 @@ import com.gregmarut.querybuilder.predicate.NotNullPredicate;
 import com.gregmarut.querybuilder.predicate.NullPredicate;
 import com.gregmarut.querybuilder.predicate.OrPredicate;
 import com.gregmarut.querybuilder.predicate.Predicate;
+import com.gregmarut.querybuilder.predicate.PredicateOptimizer;
 import org.springframework.data.mongodb.core.query.Criteria;
 
 import java.util.Arrays;
@@ -58,6 +59,16 @@ public abstract class BaseMongoQuery
 		this.sortList = sortList;
 	}
 	
+	/**
+	 * Determines if the predicates of this query can never match any document so that the collection does not need to be queried
+	 *
+	 * @return
+	 */
+	public boolean isUnsatisfiable()
+	{
+		return PredicateOptimizer.isUnsatisfiable(predicates);
+	}
+	
 	protected Optional<Criteria> buildCriteria()
 	{
 		//convert the list of predicates to criteria
@@ -129,7 +140,7 @@ public abstract class BaseMongoQuery
 		else if (predicate instanceof NotNullPredicate p)
 		{
 			final var path = joinPath(p.getPath());
-			return Criteria.where(path).not().isNull();
+			return Criteria.where(path).ne(null);
 		}
 		else if (predicate instanceof FuzzyMatchPredicate p)
 		{
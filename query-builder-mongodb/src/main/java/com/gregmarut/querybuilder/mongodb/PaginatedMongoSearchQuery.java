@@ -25,11 +25,18 @@ package com.gregmarut.querybuilder.mongodb;
 import com.gregmarut.querybuilder.Sort;
 import com.gregmarut.querybuilder.mongodb.result.PagedDocumentResults;
 import com.gregmarut.querybuilder.predicate.Predicate;
+import com.gregmarut.querybuilder.result.PageTotal;
 import com.gregmarut.querybuilder.result.PagedResults;
+import com.gregmarut.querybuilder.result.TotalCountStrategy;
+import org.bson.Document;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
 import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,36 +44,93 @@ import java.util.List;
 import java.util.Optional;
 
 /**
- * Provides a query that can be used to perform paginated searches in a mongo collection.
+ * Provides a query that can be used to perform paginated searches in a mongo collection. With an exact total the page and the
+ * total are computed in a single round trip using a $facet stage so that only the requested page is ever materialized. Without
+ * it the page is sorted, skipped and limited at the top level of the pipeline where the sort can use an index and the server
+ * only keeps the top skip + limit documents.
  *
  * @param <E>
  */
 public class PaginatedMongoSearchQuery<E> extends BaseMongoQuery
 {
+	public static final String RESULTS = "results";
+	public static final String TOTAL = "total";
+	
 	private final int pageIndex;
 	private final int pageSize;
+	private final boolean allowDiskUse;
 	
 	public PaginatedMongoSearchQuery(final List<Predicate> predicates, final List<Sort> sortList, final int pageIndex, final int pageSize)
+	{
+		this(predicates, sortList, pageIndex, pageSize, false);
+	}
+	
+	public PaginatedMongoSearchQuery(final List<Predicate> predicates, final List<Sort> sortList, final int pageIndex, final int pageSize,
+		final boolean allowDiskUse)
 	{
 		super(predicates, sortList);
 		this.pageIndex = pageIndex;
 		this.pageSize = pageSize;
+		this.allowDiskUse = allowDiskUse;
 	}
 	
 	public PagedResults<E> run(final MongoTemplate mongoTemplate, final String collection)
 	{
+		return run(mongoTemplate, collection, TotalCountStrategy.exact());
+	}
+	
+	/**
+	 * Runs this search and determines the total with the given strategy. The exact strategy counts inside the aggregation, any
+	 * other strategy loads the page on its own and only counts the collection when the strategy asks for it.
+	 *
+	 * @param mongoTemplate
+	 * @param collection
+	 * @param totalCountStrategy
+	 * @return
+	 */
+	public PagedResults<E> run(final MongoTemplate mongoTemplate, final String collection, final TotalCountStrategy totalCountStrategy)
+	{
+		//the predicates can never match so there is no need to query the collection
+		if (isUnsatisfiable())
+		{
+			return new PagedResults<>(List.of(), pageIndex, 0);
+		}
+		
+		final boolean exact = TotalCountStrategy.exact() == totalCountStrategy;
+		
 		//build the aggregation
-		final Aggregation aggregation = buildAggregation();
+		final Aggregation aggregation = buildAggregation(exact);
+		
+		if (exact)
+		{
+			@SuppressWarnings("unchecked") final PagedDocumentResults<E> results =
+				mongoTemplate.aggregate(aggregation, collection, PagedDocumentResults.class).getUniqueMappedResult();
+			
+			final List<E> list = Optional.ofNullable(results).map(PagedDocumentResults::getResults).orElseGet(Collections::emptyList);
+			return new PagedResults<>(list, pageIndex, null == results ? 0 : results.getTotal());
+		}
 		
-		@SuppressWarnings("unchecked") final PagedDocumentResults<E> results =
-			mongoTemplate.aggregate(aggregation, collection, PagedDocumentResults.class).getUniqueMappedResult();
+		@SuppressWarnings("unchecked") final List<E> list =
+			(List<E>) (List<?>) mongoTemplate.aggregate(aggregation, collection, Document.class).getMappedResults();
 		
-		return Optional.ofNullable(results).map(PagedDocumentResults::getResults)
-			.map(list -> new PagedResults<E>(list, pageIndex, results.getTotal()))
-			.orElseGet(() -> new PagedResults<>(Collections.emptyList(), pageIndex, 0));
+		final PageTotal total = totalCountStrategy.resolve(pageIndex, pageSize, list.size(), limit -> {
+			final Query query = buildCriteria().map(Query::new).orElseGet(Query::new);
+			if (null != limit)
+			{
+				query.limit((int) Math.min(limit, Integer.MAX_VALUE));
+			}
+			return mongoTemplate.count(query, collection);
+		});
+		
+		return new PagedResults<>(list, pageIndex, total);
 	}
 	
-	private Aggregation buildAggregation()
+	Aggregation buildAggregation()
+	{
+		return buildAggregation(true);
+	}
+	
+	Aggregation buildAggregation(final boolean includeTotal)
 	{
 		//holds the list of aggregation operations
 		final List<AggregationOperation> aggregationOperations = new ArrayList<>();
@@ -74,18 +138,32 @@ public class PaginatedMongoSearchQuery<E> extends BaseMongoQuery
 		//add the criteria to the aggregation as a match expression
 		buildCriteria().ifPresent(criteria -> aggregationOperations.add(Aggregation.match(criteria)));
 		
-		//add the sort operation to the aggregation
-		buildSort().map(Aggregation::sort).ifPresent(aggregationOperations::add);
-		
-		//group the results
-		aggregationOperations.add(Aggregation.group().count().as("total").push("$$ROOT").as("results"));
+		//holds the operations that produce the requested page
+		final List<AggregationOperation> pageOperations = new ArrayList<>();
+		buildSort().map(Aggregation::sort).ifPresent(pageOperations::add);
+		pageOperations.add(Aggregation.skip((long) pageIndex * pageSize));
+		pageOperations.add(Aggregation.limit(pageSize));
 		
-		//define the projection of the results
-		aggregationOperations.add(Aggregation.project()
-			.and("total").as("total")
-			.and(ArrayOperators.Slice.sliceArrayOf("results").offset(pageIndex * pageSize).itemCount(pageSize)).as("results"));
+		if (includeTotal)
+		{
+			//compute the page and the total count side by side so that the full result set is never grouped into a single document
+			final FacetOperation facet = Aggregation.facet(pageOperations.toArray(AggregationOperation[]::new)).as(RESULTS);
+			aggregationOperations.add(facet.and(Aggregation.count().as(TOTAL)).as(TOTAL));
+			
+			//unwrap the total from the single element array produced by the count facet
+			aggregationOperations.add(Aggregation.project()
+				.and(RESULTS).as(RESULTS)
+				.and(ConditionalOperators.ifNull(ArrayOperators.ArrayElemAt.arrayOf(TOTAL + "." + TOTAL).elementAt(0)).then(0)).as(TOTAL));
+		}
+		else
+		{
+			//the total is left to the total count strategy, so the page is produced at the top level where the sort and limit are
+			//coalesced into a top-k sort and can use an index, a facet sub-pipeline can do neither
+			aggregationOperations.addAll(pageOperations);
+		}
 		
 		//build the entire aggregation
-		return Aggregation.newAggregation(aggregationOperations.toArray(AggregationOperation[]::new));
+		return Aggregation.newAggregation(aggregationOperations.toArray(AggregationOperation[]::new))
+			.withOptions(AggregationOptions.builder().allowDiskUse(allowDiskUse).build());
 	}
 }
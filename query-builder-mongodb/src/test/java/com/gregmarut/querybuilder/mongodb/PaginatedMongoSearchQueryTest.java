@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.mongodb;
+
+import com.gregmarut.querybuilder.Path;
+import com.gregmarut.querybuilder.QueryBuilder;
+import com.gregmarut.querybuilder.Sort;
+import com.gregmarut.querybuilder.predicate.EqualsPredicate;
+import com.gregmarut.querybuilder.predicate.InPredicate;
+import com.gregmarut.querybuilder.predicate.NotNullPredicate;
+import com.gregmarut.querybuilder.predicate.Predicate;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import java.util.List;
+
+public class PaginatedMongoSearchQueryTest
+{
+	@Test
+	public void facetPipeline()
+	{
+		final var query = new PaginatedMongoSearchQuery<Document>(
+			List.of(new EqualsPredicate("Greg", QueryBuilder.ROOT, "name")),
+			List.of(Sort.desc(new Path(QueryBuilder.ROOT, "createdOn"))),
+			2, 25);
+		
+		final List<Document> pipeline = query.buildAggregation().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		
+		Assertions.assertEquals(3, pipeline.size());
+		Assertions.assertTrue(pipeline.get(0).containsKey("$match"));
+		
+		final var facet = pipeline.get(1).get("$facet", Document.class);
+		Assertions.assertNotNull(facet);
+		
+		final var results = facet.getList(PaginatedMongoSearchQuery.RESULTS, Document.class);
+		Assertions.assertEquals(List.of(
+			new Document("$sort", new Document("createdOn", -1)),
+			new Document("$skip", 50L),
+			new Document("$limit", 25L)
+		), results);
+		
+		final var total = facet.getList(PaginatedMongoSearchQuery.TOTAL, Document.class);
+		Assertions.assertEquals(List.of(new Document("$count", PaginatedMongoSearchQuery.TOTAL)), total);
+		
+		Assertions.assertTrue(pipeline.get(2).containsKey("$project"));
+	}
+	
+	@Test
+	public void noPredicatesOrSort()
+	{
+		final var query = new PaginatedMongoSearchQuery<Document>(List.of(), List.of(), 0, 10);
+		
+		final List<Document> pipeline = query.buildAggregation().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		
+		Assertions.assertEquals(2, pipeline.size());
+		Assertions.assertEquals(List.of(
+			new Document("$skip", 0L),
+			new Document("$limit", 10L)
+		), pipeline.getFirst().get("$facet", Document.class).getList(PaginatedMongoSearchQuery.RESULTS, Document.class));
+	}
+	
+	@Test
+	public void notNullMatchesNotEqualToNull()
+	{
+		final var query = new PaginatedMongoSearchQuery<Document>(List.of(new NotNullPredicate(QueryBuilder.ROOT, "name")), List.of(), 0, 10);
+		
+		final List<Document> pipeline = query.buildAggregation().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		
+		Assertions.assertEquals(new Document("$match", new Document("$and", List.of(new Document("name", new Document("$ne", null))))),
+			pipeline.getFirst());
+	}
+	
+	@Test
+	public void allowDiskUse()
+	{
+		Assertions.assertFalse(new PaginatedMongoSearchQuery<Document>(List.of(), List.of(), 0, 10)
+			.buildAggregation().getOptions().isAllowDiskUse());
+		Assertions.assertTrue(new PaginatedMongoSearchQuery<Document>(List.of(), List.of(), 0, 10, true)
+			.buildAggregation().getOptions().isAllowDiskUse());
+	}
+	
+	@Test
+	public void pipelineSizeIndependentOfPageIndex()
+	{
+		final var predicates = List.<Predicate>of(new EqualsPredicate("Greg", QueryBuilder.ROOT, "name"));
+		final var sortList = List.of(Sort.desc(new Path(QueryBuilder.ROOT, "createdOn")));
+		
+		for (int pageIndex : new int[]{0, 1, 1_000, 100_000})
+		{
+			final var query = new PaginatedMongoSearchQuery<Document>(predicates, sortList, pageIndex, 50);
+			
+			//without a total the page stages run at the top level right after the filter, where the sort can use an index and
+			//is coalesced with the limit, instead of sorting every match inside a facet
+			final List<Document> pagePipeline = query.buildAggregation(false).toPipeline(Aggregation.DEFAULT_CONTEXT);
+			Assertions.assertEquals(List.of("$match", "$sort", "$skip", "$limit"),
+				pagePipeline.stream().map(stage -> stage.keySet().iterator().next()).toList());
+			Assertions.assertEquals(new Document("$sort", new Document("createdOn", -1)), pagePipeline.get(1));
+			Assertions.assertEquals(new Document("$skip", pageIndex * 50L), pagePipeline.get(2));
+			Assertions.assertEquals(new Document("$limit", 50L), pagePipeline.get(3));
+			
+			//with an exact total the matches are counted beside the page, never grouped into a single document
+			final List<Document> totalPipeline = query.buildAggregation(true).toPipeline(Aggregation.DEFAULT_CONTEXT);
+			Assertions.assertEquals(List.of("$match", "$facet", "$project"),
+				totalPipeline.stream().map(stage -> stage.keySet().iterator().next()).toList());
+			Assertions.assertFalse(totalPipeline.toString().contains("$$ROOT"));
+		}
+	}
+	
+	@Test
+	public void pipelineWithoutTotal()
+	{
+		final List<Document> pipeline = new PaginatedMongoSearchQuery<Document>(List.of(), List.of(), 0, 10)
+			.buildAggregation(false).toPipeline(Aggregation.DEFAULT_CONTEXT);
+		
+		Assertions.assertEquals(List.of(new Document("$skip", 0L), new Document("$limit", 10L)), pipeline);
+	}
+	
+	@Test
+	public void emptyInSkipsTheCollection()
+	{
+		final var query = new PaginatedMongoSearchQuery<Document>(
+			List.of(new EqualsPredicate("Greg", QueryBuilder.ROOT, "name"), new InPredicate(List.of(), QueryBuilder.ROOT, "status")),
+			List.of(), 0, 10);
+		
+		//no template is needed since the collection is never queried
+		final var page = query.run(null, "people");
+		
+		Assertions.assertEquals(0, page.total());
+		Assertions.assertTrue(page.results().isEmpty());
+	}
+}
@@ -25,9 +25,14 @@ package com.gregmarut.querybuilder.sdn;
 import com.gregmarut.querybuilder.cypher.CypherQuery;
 import com.gregmarut.querybuilder.sdn.mapping.MappingFunctionSupplier;
 import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
 import org.springframework.data.neo4j.core.Neo4jTemplate;
 import org.springframework.data.neo4j.core.PreparedQuery;
 
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
 @Slf4j
 public class PreparedCypherQuery implements Runnable
 {
@@ -50,6 +55,12 @@ public class PreparedCypherQuery implements Runnable
 	}
 	
 	protected <T> PreparedQuery<T> buildPreparedQuery(final Class<T> clazz, final MappingFunctionSupplier mappingFunctionSupplier)
+	{
+		return buildPreparedQuery(clazz, mappingFunctionSupplier.getMappingFunction(clazz));
+	}
+	
+	protected <T> PreparedQuery<T> buildPreparedQuery(final Class<T> clazz,
+		final Supplier<BiFunction<TypeSystem, MapAccessor, ?>> mappingFunction)
 	{
 		if (log.isTraceEnabled())
 		{
@@ -60,7 +71,7 @@ public class PreparedCypherQuery implements Runnable
 		return PreparedQuery.queryFor(clazz)
 			.withCypherQuery(cypherQuery.getQuery())
 			.withParameters(PropertyMapper.map(cypherQuery.getParams()))
-			.usingMappingFunction(mappingFunctionSupplier.getMappingFunction(clazz))
+			.usingMappingFunction(mappingFunction)
 			.build();
 	}
 	
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn;
+
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+import com.gregmarut.querybuilder.cypher.CypherQuery;
+import com.gregmarut.querybuilder.cypher.PaginatedCypherQuery;
+import com.gregmarut.querybuilder.result.PageTotal;
+import com.gregmarut.querybuilder.result.PagedResults;
+import com.gregmarut.querybuilder.result.TotalCountStrategy;
+import com.gregmarut.querybuilder.result.TotalCounter;
+import com.gregmarut.querybuilder.sdn.mapping.MappingFunctionSupplier;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
+import org.springframework.data.neo4j.core.Neo4jTemplate;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+public class PreparedPagedCypherQuery<T> extends PreparedResultCypherQuery<T>
+{
+	private final PaginatedCypherQuery<T> paginatedCypherQuery;
+	
+	public PreparedPagedCypherQuery(final PaginatedCypherQuery<T> paginatedCypherQuery, final Neo4jTemplate neo4jTemplate,
+		final MappingFunctionSupplier mappingFunctionSupplier)
+	{
+		super(paginatedCypherQuery.pageQuery().getType(), paginatedCypherQuery.pageQuery(), neo4jTemplate, mappingFunctionSupplier);
+		this.paginatedCypherQuery = paginatedCypherQuery;
+	}
+	
+	public PreparedPagedCypherQuery(final PaginatedCypherQuery<T> paginatedCypherQuery, final PreparedCypherQuery pageQuery)
+	{
+		this(paginatedCypherQuery, pageQuery.neo4jTemplate, pageQuery.mappingFunctionSupplier);
+	}
+	
+	/**
+	 * Runs this search and returns the requested page along with the exact total number of results
+	 *
+	 * @return
+	 */
+	public PagedResults<T> search()
+	{
+		return search(TotalCountStrategy.exact());
+	}
+	
+	/**
+	 * Runs this search and returns the requested page along with the total determined by the given strategy. When the page query
+	 * carries the total, it is read from the first row and the count query only runs for an empty page.
+	 *
+	 * @param totalCountStrategy
+	 * @return
+	 */
+	public PagedResults<T> search(final TotalCountStrategy totalCountStrategy)
+	{
+		final List<T> results;
+		final TotalCounter counter;
+		
+		if (paginatedCypherQuery.totalInline())
+		{
+			final List<Row<T>> rows = proxyNodes(() -> runRowQuery());
+			results = rows.stream().map(Row::result).toList();
+			
+			//every row carries the total, an empty page has to fall back to the count query
+			counter = rows.isEmpty() ? this::count : limit -> null == limit ? rows.get(0).total() : Math.min(rows.get(0).total(), limit);
+		}
+		else
+		{
+			results = list().toList();
+			counter = this::count;
+		}
+		
+		final PageTotal total = totalCountStrategy.resolve(paginatedCypherQuery.pageIndex(), paginatedCypherQuery.pageSize(),
+			results.size(), counter);
+		
+		return new PagedResults<>(results, paginatedCypherQuery.pageIndex(), total);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private List<Row<T>> runRowQuery()
+	{
+		final var resultClass = paginatedCypherQuery.pageQuery().getType();
+		final BiFunction<TypeSystem, MapAccessor, ?> mappingFunction = mappingFunctionSupplier.getMappingFunction(resultClass).get();
+		
+		//map the result columns as usual and read the total from its own column
+		final BiFunction<TypeSystem, MapAccessor, ?> rowMappingFunction = (typeSystem, mapAccessor) -> new Row<>(
+			null == mappingFunction ? mapAccessor.values().iterator().next().asObject() : mappingFunction.apply(typeSystem, mapAccessor),
+			mapAccessor.get(CypherBuilder.TOTAL).asLong());
+		
+		return (List<Row<T>>) (List<?>) neo4jTemplate.toExecutableQuery(buildPreparedQuery(Row.class, () -> rowMappingFunction)).getResults();
+	}
+	
+	/**
+	 * Counts the results of this search. A limited count runs the bounded count query, which stops reading rows at the limit.
+	 *
+	 * @param limit
+	 * @return
+	 */
+	private long count(@Nullable final Long limit)
+	{
+		final var boundedCountQuery = paginatedCypherQuery.boundedCountQuery();
+		
+		if (null != limit && null != boundedCountQuery)
+		{
+			final Map<String, Object> params = new HashMap<>(boundedCountQuery.getParams());
+			params.put(CypherBuilder.COUNT_LIMIT, limit);
+			
+			return new PreparedResultCypherQuery<>(Long.class, new CypherQuery(boundedCountQuery.getQuery(), params), neo4jTemplate,
+				mappingFunctionSupplier).get();
+		}
+		else
+		{
+			final var total = new PreparedResultCypherQuery<>(Long.class, paginatedCypherQuery.countQuery(), neo4jTemplate,
+				mappingFunctionSupplier).get();
+			
+			//a query built without a bounded variant can only be capped after counting
+			return null == limit ? total : Math.min(total, limit);
+		}
+	}
+	
+	private record Row<T>(T result, long total)
+	{
+	}
+}
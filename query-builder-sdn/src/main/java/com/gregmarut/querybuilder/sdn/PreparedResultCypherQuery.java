@@ -59,7 +59,7 @@ public class PreparedResultCypherQuery<T> extends PreparedCypherQuery
 		return proxyNodes(() -> neo4jTemplate.toExecutableQuery(buildPreparedQuery(resultClass, mappingFunctionSupplier)).getResults().stream());
 	}
 	
-	private <R> R proxyNodes(final Supplier<R> function)
+	protected <R> R proxyNodes(final Supplier<R> function)
 	{
 		//enable all nodes returned by these results to be proxied
 		final Set<Object> proxies = new HashSet<>();
@@ -23,6 +23,7 @@
 package com.gregmarut.querybuilder.sdn;
 
 import com.gregmarut.querybuilder.cypher.CypherQuery;
+import com.gregmarut.querybuilder.cypher.PaginatedCypherQuery;
 import com.gregmarut.querybuilder.cypher.TypedCypherQuery;
 
 public interface QueryExecutor
@@ -30,4 +31,27 @@ public interface QueryExecutor
 	PreparedCypherQuery prepare(CypherQuery cypherQuery);
 	
 	<T> PreparedResultCypherQuery<T> prepare(TypedCypherQuery<T> cypherQuery);
+	
+	/**
+	 * Prepares the given paginated query with the template and mapping of its prepared page query
+	 *
+	 * @param paginatedCypherQuery
+	 * @param <T>
+	 * @return
+	 */
+	default <T> PreparedPagedCypherQuery<T> prepare(final PaginatedCypherQuery<T> paginatedCypherQuery)
+	{
+		return new PreparedPagedCypherQuery<>(paginatedCypherQuery, prepare(paginatedCypherQuery.pageQuery()));
+	}
+	
+	/**
+	 * Runs the given query in an implicit (auto-commit) transaction. The server rejects a {@code CALL { ... } IN TRANSACTIONS}
+	 * subquery in any other kind of transaction.
+	 *
+	 * @param cypherQuery
+	 */
+	default void runInImplicitTransaction(final CypherQuery cypherQuery)
+	{
+		throw new IllegalStateException(getClass().getName() + " is unable to run queries in an implicit transaction");
+	}
 }
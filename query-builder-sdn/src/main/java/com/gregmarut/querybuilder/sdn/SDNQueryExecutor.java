@@ -25,19 +25,40 @@ package com.gregmarut.querybuilder.sdn;
 import com.gregmarut.querybuilder.cypher.CypherQuery;
 import com.gregmarut.querybuilder.cypher.TypedCypherQuery;
 import com.gregmarut.querybuilder.sdn.mapping.MappingFunctionSupplier;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.data.neo4j.core.Neo4jTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Nullable;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SDNQueryExecutor implements QueryExecutor
 {
 	private final Neo4jTemplate neo4jTemplate;
 	private final MappingFunctionSupplier mappingFunctionSupplier;
 	
+	//the template always runs its queries in an explicit transaction, the client runs them in an auto-commit one
+	@Nullable
+	private final Neo4jClient neo4jClient;
+	
+	public SDNQueryExecutor(final Neo4jTemplate neo4jTemplate, final MappingFunctionSupplier mappingFunctionSupplier)
+	{
+		this(neo4jTemplate, mappingFunctionSupplier, null);
+	}
+	
+	@Autowired
+	public SDNQueryExecutor(final Neo4jTemplate neo4jTemplate, final MappingFunctionSupplier mappingFunctionSupplier,
+		@Nullable final Neo4jClient neo4jClient)
+	{
+		this.neo4jTemplate = neo4jTemplate;
+		this.mappingFunctionSupplier = mappingFunctionSupplier;
+		this.neo4jClient = neo4jClient;
+	}
+	
 	@Override
 	public PreparedCypherQuery prepare(final CypherQuery cypherQuery)
 	{
@@ -49,4 +70,34 @@ public class SDNQueryExecutor implements QueryExecutor
 	{
 		return new PreparedResultCypherQuery<>(cypherQuery.getType(), cypherQuery, neo4jTemplate, mappingFunctionSupplier);
 	}
+	
+	/**
+	 * Runs the given query through the {@link Neo4jClient} in an auto-commit transaction. The client joins a transaction managed by
+	 * Spring if there is one, so the query is rejected when it is run from a transactional method.
+	 *
+	 * @param cypherQuery
+	 */
+	@Override
+	public void runInImplicitTransaction(final CypherQuery cypherQuery)
+	{
+		if (null == neo4jClient)
+		{
+			throw new IllegalStateException("A Neo4jClient is required to run queries in an implicit transaction");
+		}
+		else if (TransactionSynchronizationManager.isActualTransactionActive())
+		{
+			throw new IllegalStateException("Queries in an implicit transaction cannot be run while a transaction is active: "
+				+ cypherQuery.getQuery());
+		}
+		else
+		{
+			if (log.isTraceEnabled())
+			{
+				log.trace(cypherQuery.getQuery());
+				log.trace("Params: {}", cypherQuery.getParams());
+			}
+			
+			neo4jClient.query(cypherQuery.getQuery()).bindAll(PropertyMapper.map(cypherQuery.getParams())).run();
+		}
+	}
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.accessor;
+
+/**
+ * Typed, reflection free access to the fields of a {@link org.springframework.data.neo4j.core.schema.Node} class. An
+ * implementation named {@code <Node>_Accessor} is generated by the neo4j-sdnmodelgen annotation processor whenever this
+ * interface is on the compile path. Fields are addressed by their index which follows the declaration order starting
+ * with the top most superclass.
+ *
+ * @param <N> the type of node
+ */
+public interface NodeAccessor<N>
+{
+	Class<N> getNodeClass();
+	
+	int getFieldCount();
+	
+	String getFieldName(int index);
+	
+	/**
+	 * Returns the index of the field with the given name
+	 *
+	 * @param fieldName
+	 * @return the index of the field or -1 if the node does not declare a field with this name
+	 */
+	int indexOf(String fieldName);
+	
+	boolean isTransient(int index);
+	
+	/**
+	 * Returns the relationship declared by the field at the given index
+	 *
+	 * @param index
+	 * @return the relationship descriptor or null if the field is a property
+	 */
+	RelationshipDescriptor getRelationship(int index);
+	
+	/**
+	 * Returns the index of the field annotated with {@link org.springframework.data.neo4j.core.schema.Id}
+	 *
+	 * @return the index of the id field or -1 if the node does not declare one
+	 */
+	int getIdIndex();
+	
+	Object get(N node, int index);
+	
+	void set(N node, int index, Object value);
+	
+	default Object getId(final N node)
+	{
+		final int idIndex = getIdIndex();
+		if (idIndex < 0)
+		{
+			throw new IllegalArgumentException("No @Id field found on " + getNodeClass().getName());
+		}
+		else
+		{
+			return get(node, idIndex);
+		}
+	}
+}
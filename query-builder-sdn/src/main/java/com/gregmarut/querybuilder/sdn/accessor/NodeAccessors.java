@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.accessor;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locates the generated {@link NodeAccessor} of a node class. The lookup is made once per class and the absence of an
+ * accessor is cached as well so that callers can cheaply fall back to reflection.
+ */
+public class NodeAccessors
+{
+	public static final String ACCESSOR_SUFFIX = "_Accessor";
+	
+	private static final Map<Class<?>, Optional<NodeAccessor<?>>> ACCESSOR_CACHE = new ConcurrentHashMap<>();
+	
+	private NodeAccessors()
+	{
+	}
+	
+	/**
+	 * Finds the generated accessor for the given node class
+	 *
+	 * @param nodeClass the user class of the node, never a proxy class
+	 * @param <N>       the type of node
+	 * @return the accessor or empty if none was generated for this class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <N> Optional<NodeAccessor<N>> find(final Class<N> nodeClass)
+	{
+		return (Optional<NodeAccessor<N>>) (Optional<?>) ACCESSOR_CACHE.computeIfAbsent(nodeClass, NodeAccessors::load);
+	}
+	
+	private static Optional<NodeAccessor<?>> load(final Class<?> nodeClass)
+	{
+		//the processor writes the accessor next to the node using the simple name of the node
+		final var accessorClassName = nodeClass.getPackageName() + "." + nodeClass.getSimpleName() + ACCESSOR_SUFFIX;
+		
+		try
+		{
+			final var accessorClass = Class.forName(accessorClassName, true, nodeClass.getClassLoader());
+			final var accessor = accessorClass.getField("INSTANCE").get(null);
+			
+			//guard against an accessor generated for a different node which shares the simple name
+			if (accessor instanceof NodeAccessor<?> nodeAccessor && nodeAccessor.getNodeClass() == nodeClass)
+			{
+				return Optional.of(nodeAccessor);
+			}
+			else
+			{
+				return Optional.empty();
+			}
+		}
+		catch (ClassNotFoundException | NoSuchFieldException | IllegalAccessException e)
+		{
+			return Optional.empty();
+		}
+	}
+}
@@ -5,11 +5,28 @@ import com.gregmarut.querybuilder.sdn.QueryExecutor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public record BatchLinkQuery(CypherQuery query, String relationship, int batchSize)
+/**
+ * @param inTransactions whether the query commits its rows with {@code CALL { ... } IN TRANSACTIONS} and therefore has to run in an
+ *                       implicit transaction
+ */
+public record BatchLinkQuery(CypherQuery query, String relationship, int batchSize, boolean inTransactions)
 {
+	public BatchLinkQuery(final CypherQuery query, final String relationship, final int batchSize)
+	{
+		this(query, relationship, batchSize, false);
+	}
+	
 	public void execute(QueryExecutor queryExecutor)
 	{
 		log.trace("Batch linking {} {} relationships", batchSize, relationship);
-		queryExecutor.prepare(query).run();
+		
+		if (inTransactions)
+		{
+			queryExecutor.runInImplicitTransaction(query);
+		}
+		else
+		{
+			queryExecutor.prepare(query).run();
+		}
 	}
 }
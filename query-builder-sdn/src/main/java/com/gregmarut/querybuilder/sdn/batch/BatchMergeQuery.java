@@ -5,11 +5,28 @@ import com.gregmarut.querybuilder.sdn.QueryExecutor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public record BatchMergeQuery(CypherQuery query, String nodeLabel, int batchSize)
+/**
+ * @param inTransactions whether the query commits its rows with {@code CALL { ... } IN TRANSACTIONS} and therefore has to run in an
+ *                       implicit transaction
+ */
+public record BatchMergeQuery(CypherQuery query, String nodeLabel, int batchSize, boolean inTransactions)
 {
+	public BatchMergeQuery(final CypherQuery query, final String nodeLabel, final int batchSize)
+	{
+		this(query, nodeLabel, batchSize, false);
+	}
+	
 	public void execute(QueryExecutor queryExecutor)
 	{
 		log.trace("Batch merging {} {} nodes", batchSize, nodeLabel);
-		queryExecutor.prepare(query).run();
+		
+		if (inTransactions)
+		{
+			queryExecutor.runInImplicitTransaction(query);
+		}
+		else
+		{
+			queryExecutor.prepare(query).run();
+		}
 	}
 }
@@ -0,0 +1,100 @@
+package com.gregmarut.querybuilder.sdn.batch;
+
+import com.gregmarut.querybuilder.cypher.CallInTransactions;
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Options for the queries built by {@link BatchQueryBuilder}. By default every row of a query is written in one transaction. When
+ * transaction rows are set, the rows are written by a {@code CALL { ... } IN TRANSACTIONS OF n ROWS} subquery instead. The server
+ * then commits them in batches and its memory stays bounded no matter how many rows there are. Such queries are run with
+ * {@link com.gregmarut.querybuilder.sdn.QueryExecutor#runInImplicitTransaction} since the server only accepts them in an implicit
+ * (auto-commit) transaction, so they cannot be executed inside a transactional method.
+ *
+ * @param transactionRows the number of rows committed per transaction or null to write every row in one transaction
+ * @param concurrency     the number of transactions the server may run in parallel or null to run them one after another
+ * @param onError         what the server does when a transaction fails or null for the server default
+ * @param parallel        whether the rows are extracted from the nodes on the common fork join pool. The queries and the order of
+ *                        their rows are the same either way.
+ */
+public record BatchOptions(@Nullable Integer transactionRows, @Nullable Integer concurrency,
+	@Nullable CallInTransactions.OnError onError, boolean parallel)
+{
+	public static final BatchOptions DEFAULT = new BatchOptions(null, null, null);
+	
+	public BatchOptions
+	{
+		if (null != transactionRows && transactionRows < 1)
+		{
+			throw new IllegalArgumentException("The number of transaction rows must be at least 1. Found: " + transactionRows);
+		}
+		else if (null != concurrency && concurrency < 1)
+		{
+			throw new IllegalArgumentException("The concurrency must be at least 1. Found: " + concurrency);
+		}
+		else if (null == transactionRows && (null != concurrency || null != onError))
+		{
+			throw new IllegalArgumentException("The concurrency and the error handling require the transaction rows to be set");
+		}
+	}
+	
+	public BatchOptions(@Nullable final Integer transactionRows, @Nullable final Integer concurrency,
+		@Nullable final CallInTransactions.OnError onError)
+	{
+		this(transactionRows, concurrency, onError, false);
+	}
+	
+	public static BatchOptions inTransactionsOf(final int transactionRows)
+	{
+		return new BatchOptions(transactionRows, null, null);
+	}
+	
+	public BatchOptions concurrent(final int concurrency)
+	{
+		return new BatchOptions(transactionRows, concurrency, onError, parallel);
+	}
+	
+	public BatchOptions onError(final CallInTransactions.OnError onError)
+	{
+		return new BatchOptions(transactionRows, concurrency, onError, parallel);
+	}
+	
+	/**
+	 * Extracts the rows of very large node collections in parallel. Only nodes that are not modified concurrently may be passed.
+	 *
+	 * @return
+	 */
+	public BatchOptions inParallel()
+	{
+		return new BatchOptions(transactionRows, concurrency, onError, true);
+	}
+	
+	public boolean isInTransactions()
+	{
+		return null != transactionRows;
+	}
+	
+	/**
+	 * Wraps the given body in a {@code CALL { ... } IN TRANSACTIONS} subquery configured by these options
+	 *
+	 * @param body
+	 * @return
+	 */
+	CallInTransactions toCallInTransactions(final CypherBuilder body)
+	{
+		final var call = CallInTransactions.of(body).ofRows(transactionRows);
+		
+		if (null != concurrency)
+		{
+			call.concurrent(concurrency);
+		}
+		
+		if (null != onError)
+		{
+			call.onError(onError);
+		}
+		
+		return call;
+	}
+}
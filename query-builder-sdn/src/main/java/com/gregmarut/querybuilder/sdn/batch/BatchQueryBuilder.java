@@ -29,8 +29,14 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Builds batch Cypher queries for merging and linking {@link BaseNode} objects in Neo4j.
@@ -52,36 +58,98 @@ public class BatchQueryBuilder
 	 */
 	public static <N extends BaseNode> List<BatchMergeQuery> buildBatchMergeQueries(final Collection<N> nodes)
 	{
-		//group nodes by class so heterogeneous collections each get their own UNWIND query
-		final Map<Class<? extends BaseNode>, List<N>> byClass = nodes.stream().collect(
+		return buildBatchMergeQueries(nodes, BatchOptions.DEFAULT);
+	}
+	
+	/**
+	 * Builds a list of {@link BatchMergeQuery} objects that upsert the given nodes, written as configured by the given options
+	 *
+	 * @param nodes   the collection of nodes to merge
+	 * @param options how the rows of each query are committed
+	 * @param <N>     the type of node
+	 * @return one {@link BatchMergeQuery} per unique node class
+	 */
+	public static <N extends BaseNode> List<BatchMergeQuery> buildBatchMergeQueries(final Collection<N> nodes, final BatchOptions options)
+	{
+		//group nodes by class so heterogeneous collections each get their own UNWIND query. The grouping collector keeps the
+		//encounter order of the classes and of the rows within each class even when the rows are extracted in parallel
+		final Map<Class<? extends BaseNode>, List<Map<String, Object>>> byClass = stream(nodes, options).collect(
 			Collectors.groupingBy(
 				SDNUtil::getOriginalClass,
 				LinkedHashMap::new,
-				Collectors.toList()
+				Collectors.mapping(BatchQueryBuilder::toMergeRow, Collectors.toList())
 			));
 		
-		return byClass.entrySet().stream().map((e) -> {
-			final var nodeClass = e.getKey();
-			final var nodeList = e.getValue();
-			
-			//build a list of property maps, one per node, with type conversions applied
-			final var rows = nodeList.stream()
-				.map(node -> PropertyMapper.map(SDNUtil.extractModifiedProperties(node)))
-				.toList();
-			
-			final var unwind = new Unwind<>(Variable.of(rows), "row");
-			final var row = unwind.getAlias();
-			final var n = SDNNode.of(nodeClass).named("n");
-			n.withProperty(n.getIdField(), new LiteralCypherString(row.getAlias() + "." + n.getIdField()));
-			
-			final var query = CypherBuilder.create()
-				.unwind(unwind)
-				.merge(new Merge(n))
-				.set(new SetMerge(n, row))
-				.build();
-			
-			return new BatchMergeQuery(query, n.getLabel(), nodeList.size());
-		}).toList();
+		return byClass.entrySet().stream()
+			.map(e -> toMergeQuery(e.getKey(), e.getValue(), options))
+			.toList();
+	}
+	
+	/**
+	 * Lazily builds {@link BatchMergeQuery} objects of at most {@code chunkSize} rows each. The rows are extracted as the returned
+	 * stream is consumed and a query is emitted as soon as the rows of one node class fill a chunk, so at most one partial chunk per
+	 * node class is held in memory. Once the nodes are exhausted the remaining partial chunks are emitted in the order their class
+	 * was first seen.
+	 *
+	 * @param nodes     the nodes to merge
+	 * @param chunkSize the maximum number of rows of each query
+	 * @param options   how the rows of each query are committed
+	 * @param <N>       the type of node
+	 * @return a lazy stream of queries which closes the given stream of nodes when it is closed
+	 */
+	public static <N extends BaseNode> Stream<BatchMergeQuery> streamBatchMergeQueries(final Stream<N> nodes, final int chunkSize,
+		final BatchOptions options)
+	{
+		return streamBatchMergeQueries(nodes, chunkSize, Long.MAX_VALUE, options);
+	}
+	
+	/**
+	 * Lazily builds {@link BatchMergeQuery} objects like {@link #streamBatchMergeQueries(Stream, int, BatchOptions)} but also closes
+	 * a chunk once the estimated size of its parameters reaches {@code maxParameterBytes}. A single row that exceeds the limit on its
+	 * own is still written in a chunk of its own.
+	 *
+	 * @param nodes             the nodes to merge
+	 * @param chunkSize         the maximum number of rows of each query
+	 * @param maxParameterBytes the estimated parameter size at which a chunk is closed
+	 * @param options           how the rows of each query are committed
+	 * @param <N>               the type of node
+	 * @return a lazy stream of queries which closes the given stream of nodes when it is closed
+	 */
+	public static <N extends BaseNode> Stream<BatchMergeQuery> streamBatchMergeQueries(final Stream<N> nodes, final int chunkSize,
+		final long maxParameterBytes, final BatchOptions options)
+	{
+		final Stream<GroupedRow<Class<? extends BaseNode>>> rows = nodes.map(node ->
+			new GroupedRow<>(SDNUtil.getOriginalClass(node), toMergeRow(node)));
+		
+		return chunk(rows, chunkSize, maxParameterBytes, (nodeClass, chunk) -> toMergeQuery(nodeClass, chunk, options));
+	}
+	
+	/**
+	 * Builds the UNWIND query that merges the given rows of a single node class
+	 *
+	 * @param nodeClass the class of the nodes
+	 * @param rows      the property maps, one per node, with type conversions applied
+	 * @param options   how the rows are committed
+	 * @return the merge query
+	 */
+	private static BatchMergeQuery toMergeQuery(final Class<? extends BaseNode> nodeClass, final List<Map<String, Object>> rows,
+		final BatchOptions options)
+	{
+		final var unwind = new Unwind<>(Variable.of(rows), "row");
+		final var row = unwind.getAlias();
+		final var n = SDNNode.of(nodeClass).named("n");
+		n.withProperty(n.getIdField(), new LiteralCypherString(row.getAlias() + "." + n.getIdField()));
+		
+		final var query = buildUnwindQuery(unwind, options, builder -> builder
+			.merge(new Merge(n))
+			.set(new SetMerge(n, row)));
+		
+		return new BatchMergeQuery(query, n.getLabel(), rows.size(), options.isInTransactions());
+	}
+	
+	private static Map<String, Object> toMergeRow(final BaseNode node)
+	{
+		return PropertyMapper.map(SDNUtil.extractModifiedProperties(node));
 	}
 	
 	/**
@@ -106,7 +174,20 @@ public class BatchQueryBuilder
 	 */
 	public static <N extends BaseNode> List<BatchLinkQuery> buildBatchLinkQueries(final Collection<N> nodes)
 	{
-		return buildLinkQueries(nodes, false);
+		return buildLinkQueries(nodes, false, BatchOptions.DEFAULT);
+	}
+	
+	/**
+	 * Builds the same queries as {@link #buildBatchLinkQueries(Collection)}, written as configured by the given options
+	 *
+	 * @param nodes   the collection of nodes whose modified relationships should be linked
+	 * @param options how the rows of each query are committed
+	 * @param <N>     the type of node
+	 * @return one {@link BatchLinkQuery} per unique relationship group
+	 */
+	public static <N extends BaseNode> List<BatchLinkQuery> buildBatchLinkQueries(final Collection<N> nodes, final BatchOptions options)
+	{
+		return buildLinkQueries(nodes, false, options);
 	}
 	
 	/**
@@ -132,7 +213,73 @@ public class BatchQueryBuilder
 	 */
 	public static <N extends BaseNode> List<BatchLinkQuery> buildBatchReplaceLinkQueries(final Collection<N> nodes)
 	{
-		return buildLinkQueries(nodes, true);
+		return buildLinkQueries(nodes, true, BatchOptions.DEFAULT);
+	}
+	
+	/**
+	 * Builds the same queries as {@link #buildBatchReplaceLinkQueries(Collection)}, written as configured by the given options
+	 *
+	 * @param nodes   the collection of nodes whose modified relationships should be linked
+	 * @param options how the rows of each query are committed
+	 * @param <N>     the type of node
+	 * @return one {@link BatchLinkQuery} per unique relationship group
+	 */
+	public static <N extends BaseNode> List<BatchLinkQuery> buildBatchReplaceLinkQueries(final Collection<N> nodes,
+		final BatchOptions options)
+	{
+		return buildLinkQueries(nodes, true, options);
+	}
+	
+	/**
+	 * Lazily builds the same relationships as {@link #buildBatchLinkQueries(Collection)} in queries of at most {@code chunkSize}
+	 * rows each. Rows are grouped and emitted the same way as by {@link #streamBatchMergeQueries(Stream, int, BatchOptions)}.
+	 *
+	 * @param nodes     the nodes whose modified relationships should be linked
+	 * @param chunkSize the maximum number of rows of each query
+	 * @param options   how the rows of each query are committed
+	 * @param <N>       the type of node
+	 * @return a lazy stream of queries which closes the given stream of nodes when it is closed
+	 */
+	public static <N extends BaseNode> Stream<BatchLinkQuery> streamBatchLinkQueries(final Stream<N> nodes, final int chunkSize,
+		final BatchOptions options)
+	{
+		return streamLinkQueries(nodes, chunkSize, Long.MAX_VALUE, false, options);
+	}
+	
+	/**
+	 * Lazily builds the same relationships as {@link #buildBatchReplaceLinkQueries(Collection)} in queries of at most
+	 * {@code chunkSize} rows each. Rows are grouped and emitted the same way as by
+	 * {@link #streamBatchMergeQueries(Stream, int, BatchOptions)}.
+	 *
+	 * @param nodes     the nodes whose modified relationships should be linked
+	 * @param chunkSize the maximum number of rows of each query
+	 * @param options   how the rows of each query are committed
+	 * @param <N>       the type of node
+	 * @return a lazy stream of queries which closes the given stream of nodes when it is closed
+	 */
+	public static <N extends BaseNode> Stream<BatchLinkQuery> streamBatchReplaceLinkQueries(final Stream<N> nodes, final int chunkSize,
+		final BatchOptions options)
+	{
+		return streamLinkQueries(nodes, chunkSize, Long.MAX_VALUE, true, options);
+	}
+	
+	/**
+	 * Lazily builds {@link BatchLinkQuery} objects in chunks that are closed by row count or by the estimated size of their
+	 * parameters, whichever limit is reached first.
+	 *
+	 * @param nodes             the nodes whose modified relationships should be linked
+	 * @param chunkSize         the maximum number of rows of each query
+	 * @param maxParameterBytes the estimated parameter size at which a chunk is closed
+	 * @param replaceSemantics  whether to use replace semantics for singular relationships
+	 * @param options           how the rows of each query are committed
+	 * @param <N>               the type of node
+	 * @return a lazy stream of queries which closes the given stream of nodes when it is closed
+	 */
+	public static <N extends BaseNode> Stream<BatchLinkQuery> streamLinkQueries(final Stream<N> nodes, final int chunkSize,
+		final long maxParameterBytes, final boolean replaceSemantics, final BatchOptions options)
+	{
+		return chunk(nodes.flatMap(BatchQueryBuilder::toLinkRows), chunkSize, maxParameterBytes,
+			(key, chunk) -> toLinkQuery(key, chunk, replaceSemantics, options));
 	}
 	
 	/**
@@ -142,93 +289,103 @@ public class BatchQueryBuilder
 	 *
 	 * @param nodes            the collection of nodes whose modified relationships should be linked
 	 * @param replaceSemantics whether to use replace semantics for singular relationships
+	 * @param options          how the rows of each query are committed
 	 * @return one {@link BatchLinkQuery} per unique relationship group
 	 */
-	private static <N extends BaseNode> List<BatchLinkQuery> buildLinkQueries(final Collection<N> nodes, final boolean replaceSemantics)
+	private static <N extends BaseNode> List<BatchLinkQuery> buildLinkQueries(final Collection<N> nodes, final boolean replaceSemantics,
+		final BatchOptions options)
 	{
 		// Groups all relationship rows by the combination of relationship type + direction + node classes.
 		// Each unique combination becomes its own UNWIND query so that the MATCH labels and relationship
-		// type are always homogeneous within a single query.
-		record GroupKey(
-			String relationshipValue,
-			org.springframework.data.neo4j.core.schema.Relationship.Direction direction,
-			Class<? extends BaseNode> relatedClass,  // the node on the other end of the relationship
-			Class<? extends BaseNode> parentClass    // the node that declares the @Relationship field
-		)
-		{
-		}
-		
-		// Each entry maps a GroupKey to the list of {fromId, toId} row maps that will be passed to UNWIND.
-		// fromId = id of the related (other-end) node; toId = id of the parent (declaring) node.
-		final Map<GroupKey, List<Map<String, Object>>> byGroup = new LinkedHashMap<>();
+		// type are always homogeneous within a single query. The grouping collector keeps the encounter
+		// order of the groups and of their rows even when the rows are extracted in parallel.
+		final Map<LinkGroupKey, List<Map<String, Object>>> byGroup = stream(nodes, options)
+			.flatMap(BatchQueryBuilder::toLinkRows)
+			.collect(Collectors.groupingBy(
+				GroupedRow::key,
+				LinkedHashMap::new,
+				Collectors.mapping(GroupedRow::row, Collectors.toList())
+			));
 		
-		for (final N node : nodes)
-		{
-			final var parentIdField = SDNUtil.getIDField(node);
-			final var parentId = PropertyMapper.map(
-				SDNUtil.extractProperties(node, Set.of(parentIdField), false).get(parentIdField.getName()));
-			
-			for (final var rel : SDNUtil.extractModifiedRelationships(node))
-			{
-				final var relatedNode = rel.getTarget();
-				final var relatedIdField = SDNUtil.getIDField(relatedNode);
-				final var relatedId = PropertyMapper.map(
-					SDNUtil.extractProperties(relatedNode, Set.of(relatedIdField), false).get(relatedIdField.getName()));
-				
-				final var key = new GroupKey(
-					rel.getAnnotation().value(),
-					rel.getAnnotation().direction(),
-					SDNUtil.getOriginalClass(relatedNode),
-					SDNUtil.getOriginalClass(node)
-				);
-				
-				// Each row carries the two IDs needed to MATCH and MERGE both ends of the relationship.
-				final var row = new HashMap<String, Object>();
-				row.put("fromId", relatedId);  // used to MATCH node (a) — the related node
-				row.put("toId", parentId);     // used to MATCH node (b) — the parent node
-				
-				byGroup.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
-			}
-		}
+		return byGroup.entrySet().stream()
+			.map(e -> toLinkQuery(e.getKey(), e.getValue(), replaceSemantics, options))
+			.toList();
+	}
+	
+	/**
+	 * Extracts one row per modified relationship of the given node, keyed by the group of the relationship
+	 *
+	 * @param node the node whose modified relationships should be linked
+	 * @return the grouped {fromId, toId} rows of the node
+	 */
+	private static Stream<GroupedRow<LinkGroupKey>> toLinkRows(final BaseNode node)
+	{
+		final var parentId = PropertyMapper.map(SDNUtil.getId(node));
+		final var parentClass = SDNUtil.getOriginalClass(node);
 		
-		return byGroup.entrySet().stream().map(e -> {
-			final var key = e.getKey();
-			final var rows = e.getValue();
-			
-			final var unwind = new Unwind<>(Variable.of(rows), "row");
-			final var row = unwind.getAlias();
+		return SDNUtil.extractModifiedRelationships(node).stream().map(rel -> {
+			final var relatedNode = rel.getTarget();
+			final var relatedId = PropertyMapper.map(SDNUtil.getId(relatedNode));
 			
-			// (a) represents the related node — matched by row.fromId
-			final var a = SDNNode.of(key.relatedClass()).named("a");
-			a.withProperty(a.getIdField(), new LiteralCypherString(row.getAlias() + ".fromId"));
+			final var key = new LinkGroupKey(
+				SDNUtil.getRelationshipType(rel.getAnnotation()),
+				rel.getAnnotation().direction(),
+				SDNUtil.getOriginalClass(relatedNode),
+				parentClass
+			);
 			
-			// (b) represents the parent node — matched by row.toId
-			final var b = SDNNode.of(key.parentClass()).named("b");
-			b.withProperty(b.getIdField(), new LiteralCypherString(row.getAlias() + ".toId"));
+			// Each row carries the two IDs needed to MATCH and MERGE both ends of the relationship.
+			final Map<String, Object> row = new HashMap<>();
+			row.put("fromId", relatedId);  // used to MATCH node (a) — the related node
+			row.put("toId", parentId);     // used to MATCH node (b) — the parent node
 			
-			final var relationship = new Relationship(key.relationshipValue());
-			
-			// The @Relationship direction is relative to the parent class:
-			//   OUTGOING → (b)-[:REL]->(a)  i.e. parent points to related
-			//   INCOMING → (a)-[:REL]->(b)  i.e. related points to parent
-			final Path mergePath = switch (key.direction())
-			{
-				case OUTGOING -> Path.start(b).out(relationship).to(a).build();
-				case INCOMING -> Path.start(a).out(relationship).to(b).build();
-			};
-			
-			//use replace semantics when opted in and the field is singular
-			final CypherQuery query = replaceSemantics && SDNUtil.isSingularRelationship(key.parentClass(), key.relationshipValue(), key.direction())
-				? buildSingularLinkQuery(unwind, a, key.relatedClass(), b, key.relationshipValue(), key.direction(), mergePath)
-				: CypherBuilder.create()
-				.unwind(unwind)
-				.match(new Match(a))
-				.match(new Match(b))
-				.merge(new Merge(mergePath))
-				.build();
-			
-			return new BatchLinkQuery(query, key.relationshipValue(), rows.size());
-		}).toList();
+			return new GroupedRow<>(key, row);
+		});
+	}
+	
+	/**
+	 * Builds the UNWIND query that links the given rows of a single relationship group
+	 *
+	 * @param key              the relationship type, direction and node classes shared by the rows
+	 * @param rows             the {fromId, toId} rows
+	 * @param replaceSemantics whether to use replace semantics for singular relationships
+	 * @param options          how the rows are committed
+	 * @return the link query
+	 */
+	private static BatchLinkQuery toLinkQuery(final LinkGroupKey key, final List<Map<String, Object>> rows, final boolean replaceSemantics,
+		final BatchOptions options)
+	{
+		final var unwind = new Unwind<>(Variable.of(rows), "row");
+		final var row = unwind.getAlias();
+		
+		// (a) represents the related node — matched by row.fromId
+		final var a = SDNNode.of(key.relatedClass()).named("a");
+		a.withProperty(a.getIdField(), new LiteralCypherString(row.getAlias() + ".fromId"));
+		
+		// (b) represents the parent node — matched by row.toId
+		final var b = SDNNode.of(key.parentClass()).named("b");
+		b.withProperty(b.getIdField(), new LiteralCypherString(row.getAlias() + ".toId"));
+		
+		final var relationship = new Relationship(key.relationshipValue());
+		
+		// The @Relationship direction is relative to the parent class:
+		//   OUTGOING → (b)-[:REL]->(a)  i.e. parent points to related
+		//   INCOMING → (a)-[:REL]->(b)  i.e. related points to parent
+		final Path mergePath = switch (key.direction())
+		{
+			case OUTGOING -> Path.start(b).out(relationship).to(a).build();
+			case INCOMING -> Path.start(a).out(relationship).to(b).build();
+		};
+		
+		//use replace semantics when opted in and the field is singular
+		final CypherQuery query = replaceSemantics && SDNUtil.isSingularRelationship(key.parentClass(), key.relationshipValue(), key.direction())
+			? buildSingularLinkQuery(unwind, options, a, key.relatedClass(), b, key.relationshipValue(), key.direction(), mergePath)
+			: buildUnwindQuery(unwind, options, builder -> builder
+			.match(new Match(a))
+			.match(new Match(b))
+			.merge(new Merge(mergePath)));
+		
+		return new BatchLinkQuery(query, key.relationshipValue(), rows.size(), options.isInTransactions());
 	}
 	
 	/**
@@ -241,6 +398,7 @@ public class BatchQueryBuilder
 	 * </p>
 	 *
 	 * @param unwind    the UNWIND clause already built in the caller
+	 * @param options   how the rows of the query are committed
 	 * @param a         the related node matched by row.fromId
 	 * @param aClass    the Java class for the related node
 	 * @param b         the parent node matched by row.toId (already bound; reused so the context omits its label in OPTIONAL MATCH)
@@ -249,7 +407,7 @@ public class BatchQueryBuilder
 	 * @param mergePath the path used for the final MERGE clause
 	 * @return a {@link CypherQuery} implementing the replace-then-merge pattern
 	 */
-	private static CypherQuery buildSingularLinkQuery(final Unwind<?> unwind, final Node a, final Class<? extends BaseNode> aClass,
+	private static CypherQuery buildSingularLinkQuery(final Unwind<?> unwind, final BatchOptions options, final Node a, final Class<? extends BaseNode> aClass,
 		final Node b, final String relValue, final org.springframework.data.neo4j.core.schema.Relationship.Direction direction, final Path mergePath)
 	{
 		final var generator = new IdentifierGenerator();
@@ -282,14 +440,149 @@ public class BatchQueryBuilder
 		final var loopVarName = generator.next();
 		final Identifiable loopVar = () -> loopVarName;
 		
-		return CypherBuilder.create()
-			.unwind(unwind)
+		return buildUnwindQuery(unwind, options, builder -> builder
 			.match(new Match(a))
 			.match(new Match(b))
 			.match(Match.optional(stalePath).where(whereNotSame))
 			.with(new With().add(a).add(b).add(collectedStaleRels))
 			.forEach(new ForEach(loopVar, LiteralCypherString.of(staleRelsAlias), Delete.delete(loopVar)))
-			.merge(new Merge(mergePath))
+			.merge(new Merge(mergePath)));
+	}
+	
+	/**
+	 * Builds a query that unwinds the rows and applies the given body to each of them. When the options commit the rows in
+	 * batches, the body is moved into a {@code CALL { ... } IN TRANSACTIONS} subquery that imports the row:
+	 * <pre>
+	 * UNWIND $rows AS row
+	 * CALL {
+	 * WITH row
+	 * ...
+	 * } IN TRANSACTIONS OF 1000 ROWS
+	 * </pre>
+	 *
+	 * @param unwind  the UNWIND clause of the rows
+	 * @param options how the rows are committed
+	 * @param body    adds the phrases that are applied to each row
+	 * @return the query
+	 */
+	private static CypherQuery buildUnwindQuery(final Unwind<?> unwind, final BatchOptions options,
+		final UnaryOperator<CypherBuilder> body)
+	{
+		if (!options.isInTransactions())
+		{
+			return body.apply(CypherBuilder.create().unwind(unwind)).build();
+		}
+		
+		final var subquery = body.apply(CypherBuilder.create().with(new With(List.of(unwind.getAlias()))));
+		
+		return CypherBuilder.create()
+			.unwind(unwind)
+			.call(options.toCallInTransactions(subquery))
 			.build();
 	}
+	
+	private static <N> Stream<N> stream(final Collection<N> nodes, final BatchOptions options)
+	{
+		//the collection's own spliterator splits the nodes across the common fork join pool
+		return options.parallel() ? nodes.parallelStream() : nodes.stream();
+	}
+	
+	/**
+	 * Lazily collects the grouped rows into chunks of at most {@code chunkSize} rows or {@code maxParameterBytes} estimated bytes. A
+	 * chunk is converted into a query as soon as it is full and the partial chunks that remain once the rows are exhausted are
+	 * converted in the order their group was first seen.
+	 *
+	 * @param rows              the grouped rows
+	 * @param chunkSize         the maximum number of rows of each chunk
+	 * @param maxParameterBytes the estimated size at which a chunk is closed
+	 * @param toQuery           converts a full or final chunk of a group into a query
+	 * @return a lazy stream of queries
+	 */
+	private static <K, Q> Stream<Q> chunk(final Stream<GroupedRow<K>> rows, final int chunkSize, final long maxParameterBytes,
+		final BiFunction<K, List<Map<String, Object>>, Q> toQuery)
+	{
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("The chunk size must be at least 1. Found: " + chunkSize);
+		}
+		else if (maxParameterBytes < 1)
+		{
+			throw new IllegalArgumentException("The maximum parameter size must be at least 1. Found: " + maxParameterBytes);
+		}
+		
+		//the size of the rows is only estimated when it can close a chunk
+		final boolean limitBytes = maxParameterBytes < Long.MAX_VALUE;
+		final var iterator = rows.iterator();
+		final Map<K, PendingChunk> pending = new LinkedHashMap<>();
+		
+		final var spliterator = new Spliterators.AbstractSpliterator<Q>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL)
+		{
+			@Override
+			public boolean tryAdvance(final Consumer<? super Q> action)
+			{
+				//read rows until the chunk of one of the groups is full
+				K fullKey = null;
+				while (null == fullKey && iterator.hasNext())
+				{
+					final var row = iterator.next();
+					final var chunk = pending.computeIfAbsent(row.key(), k -> new PendingChunk());
+					chunk.rows.add(row.row());
+					chunk.bytes += limitBytes ? ParameterSizeEstimator.estimate(row.row()) : 0;
+					
+					if (chunk.rows.size() >= chunkSize || chunk.bytes >= maxParameterBytes)
+					{
+						fullKey = row.key();
+					}
+				}
+				
+				//once all of the rows are read the partial chunks are flushed one at a time
+				if (null == fullKey && !pending.isEmpty())
+				{
+					fullKey = pending.keySet().iterator().next();
+				}
+				
+				if (null != fullKey)
+				{
+					action.accept(toQuery.apply(fullKey, pending.remove(fullKey).rows));
+					return true;
+				}
+				else
+				{
+					return false;
+				}
+			}
+		};
+		
+		return StreamSupport.stream(spliterator, false).onClose(rows::close);
+	}
+	
+	//the rows of a group that have not been emitted yet
+	private static final class PendingChunk
+	{
+		private final List<Map<String, Object>> rows = new ArrayList<>();
+		private long bytes;
+	}
+	
+	/**
+	 * The relationship type, direction and node classes shared by all of the rows of one link query
+	 *
+	 * @param relationshipValue the relationship type
+	 * @param direction         the direction relative to the parent node
+	 * @param relatedClass      the node on the other end of the relationship
+	 * @param parentClass       the node that declares the @Relationship field
+	 */
+	private record LinkGroupKey(String relationshipValue, org.springframework.data.neo4j.core.schema.Relationship.Direction direction,
+		Class<? extends BaseNode> relatedClass, Class<? extends BaseNode> parentClass)
+	{
+	}
+	
+	/**
+	 * A row of an UNWIND query together with the key of the query it belongs to
+	 *
+	 * @param key the key of the query
+	 * @param row the row
+	 */
+	private record GroupedRow<K>(K key, Map<String, Object> row)
+	{
+	}
 }
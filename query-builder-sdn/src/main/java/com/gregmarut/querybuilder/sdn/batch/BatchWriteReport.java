@@ -0,0 +1,64 @@
+package com.gregmarut.querybuilder.sdn.batch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of a {@link BatchWriter#write} call
+ *
+ * @param chunks  every chunk that was written, merge chunks first and each phase in the order its chunks completed
+ * @param elapsed the wall clock time of the whole write
+ */
+public record BatchWriteReport(List<Chunk> chunks, Duration elapsed)
+{
+	public long rows()
+	{
+		return chunks.stream().mapToLong(Chunk::rows).sum();
+	}
+	
+	public long rows(final Phase phase)
+	{
+		return chunks.stream().filter(chunk -> chunk.phase() == phase).mapToLong(Chunk::rows).sum();
+	}
+	
+	public double rowsPerSecond()
+	{
+		final long nanos = elapsed.toNanos();
+		if (0 == nanos)
+		{
+			return 0;
+		}
+		else
+		{
+			return rows() * 1_000_000_000d / nanos;
+		}
+	}
+	
+	public Duration maxChunkLatency()
+	{
+		return chunks.stream().map(Chunk::latency).max(Duration::compareTo).orElse(Duration.ZERO);
+	}
+	
+	public int retries()
+	{
+		return chunks.stream().mapToInt(chunk -> chunk.attempts() - 1).sum();
+	}
+	
+	public enum Phase
+	{
+		MERGE, LINK
+	}
+	
+	/**
+	 * A single query written by the {@link BatchWriter}
+	 *
+	 * @param phase    whether the chunk merged nodes or linked relationships
+	 * @param label    the node label or relationship type of the chunk
+	 * @param rows     the number of rows of the chunk
+	 * @param attempts the number of times the chunk was attempted
+	 * @param latency  the time from the first attempt until the chunk was committed, including the backoff of any retries
+	 */
+	public record Chunk(Phase phase, String label, int rows, int attempts, Duration latency)
+	{
+	}
+}
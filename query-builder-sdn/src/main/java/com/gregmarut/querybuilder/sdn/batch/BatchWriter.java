@@ -0,0 +1,220 @@
+package com.gregmarut.querybuilder.sdn.batch;
+
+import com.gregmarut.querybuilder.sdn.QueryExecutor;
+import com.gregmarut.querybuilder.sdn.model.BaseNode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.exceptions.TransientException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Writes large collections of nodes with the queries of the {@link BatchQueryBuilder}. The rows are split into chunks bounded by
+ * row count and estimated parameter size, and the chunks are written on virtual threads with at most
+ * {@link BatchWriterOptions#concurrency()} of them in flight. Chunks are built lazily as permits free up, so only the in flight
+ * chunks and the partial chunk of each group are held in memory.
+ * <p>
+ * All of the merge chunks are committed before the first link chunk is started, so every relationship is linked to nodes that
+ * already exist. A chunk that fails with a transient error such as a deadlock is retried with an exponential backoff. Any other
+ * error, or a transient error that outlasts its attempts, stops the write once the chunks in flight have finished and is rethrown
+ * as an {@link IllegalStateException}. The relationships are not linked when one of the merge chunks failed.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BatchWriter
+{
+	private final QueryExecutor queryExecutor;
+	
+	@Getter
+	private final BatchWriterOptions options;
+	
+	public BatchWriter(final QueryExecutor queryExecutor)
+	{
+		this(queryExecutor, BatchWriterOptions.DEFAULT);
+	}
+	
+	/**
+	 * Merges the given nodes and then links their modified relationships
+	 *
+	 * @param nodes
+	 * @return the rows, throughput and chunk latencies of the write
+	 */
+	public BatchWriteReport write(final Collection<? extends BaseNode> nodes)
+	{
+		final long start = System.nanoTime();
+		final List<BatchWriteReport.Chunk> chunks = Collections.synchronizedList(new ArrayList<>());
+		
+		//the nodes have to be committed before any relationship can be matched against them
+		writeChunks(BatchQueryBuilder.streamBatchMergeQueries(nodes.stream(), options.maxRows(), options.maxParameterBytes(),
+				options.queryOptions())
+			.map(query -> new ChunkTask(BatchWriteReport.Phase.MERGE, query.nodeLabel(), query.batchSize(),
+				() -> query.execute(queryExecutor))), chunks);
+		
+		writeChunks(BatchQueryBuilder.streamLinkQueries(nodes.stream(), options.maxRows(), options.maxParameterBytes(),
+				options.replaceLinks(), options.queryOptions())
+			.map(query -> new ChunkTask(BatchWriteReport.Phase.LINK, query.relationship(), query.batchSize(),
+				() -> query.execute(queryExecutor))), chunks);
+		
+		final var report = new BatchWriteReport(List.copyOf(chunks), Duration.ofNanos(System.nanoTime() - start));
+		log.debug("Batch wrote {} rows in {} chunks in {} ms ({} rows/sec, {} retries)", report.rows(), report.chunks().size(),
+			report.elapsed().toMillis(), Math.round(report.rowsPerSecond()), report.retries());
+		
+		return report;
+	}
+	
+	/**
+	 * Writes every chunk of the given stream and waits until all of them are committed
+	 *
+	 * @param tasks
+	 * @param chunks collects the chunks as they are committed
+	 */
+	private void writeChunks(final Stream<ChunkTask> tasks, final List<BatchWriteReport.Chunk> chunks)
+	{
+		final var permits = new Semaphore(options.concurrency());
+		final var failure = new AtomicReference<Throwable>();
+		
+		//closing the executor waits for the chunks in flight
+		try (tasks; var executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			final var iterator = tasks.iterator();
+			while (null == failure.get() && iterator.hasNext())
+			{
+				final var task = iterator.next();
+				permits.acquire();
+				
+				//a chunk may have failed while waiting for the permit
+				if (null == failure.get())
+				{
+					executor.execute(() -> {
+						try
+						{
+							chunks.add(write(task));
+						}
+						catch (final RuntimeException | Error e)
+						{
+							failure.compareAndSet(null, e);
+						}
+						finally
+						{
+							permits.release();
+						}
+					});
+				}
+				else
+				{
+					permits.release();
+				}
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while writing batch chunks", e);
+		}
+		
+		if (null != failure.get())
+		{
+			throw new IllegalStateException(failure.get().getMessage(), failure.get());
+		}
+	}
+	
+	/**
+	 * Writes a single chunk, retrying transient failures until the attempts of the options are used up
+	 *
+	 * @param task
+	 * @return
+	 */
+	private BatchWriteReport.Chunk write(final ChunkTask task)
+	{
+		final long start = System.nanoTime();
+		
+		for (int attempt = 1; ; attempt++)
+		{
+			try
+			{
+				task.query().run();
+				
+				final var chunk = new BatchWriteReport.Chunk(task.phase(), task.label(), task.rows(), attempt,
+					Duration.ofNanos(System.nanoTime() - start));
+				log.debug("Batch {} of {} {} rows took {} ms", task.phase(), chunk.rows(), chunk.label(), chunk.latency().toMillis());
+				
+				return chunk;
+			}
+			catch (final RuntimeException e)
+			{
+				if (attempt >= options.maxAttempts() || !isTransient(e))
+				{
+					throw new IllegalStateException("Failed to write the " + task.phase() + " chunk of " + task.rows() + " "
+						+ task.label() + " rows after " + attempt + " attempt(s)", e);
+				}
+				
+				final var backoff = jitter(options.backoff(attempt));
+				log.debug("Retrying the {} chunk of {} {} rows in {} ms: {}", task.phase(), task.rows(), task.label(),
+					backoff.toMillis(), e.getMessage());
+				sleep(backoff);
+			}
+		}
+	}
+	
+	/**
+	 * Returns whether the given error or any of its causes is one the server expects to succeed when retried, such as a deadlock
+	 * between two concurrent chunks
+	 *
+	 * @param e
+	 * @return
+	 */
+	static boolean isTransient(final Throwable e)
+	{
+		for (Throwable cause = e; null != cause; cause = cause.getCause())
+		{
+			if (cause instanceof TransientException || cause instanceof TransientDataAccessException)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	//chunks that deadlocked on each other would collide again if they retried at the same time
+	private static Duration jitter(final Duration backoff)
+	{
+		final long millis = backoff.toMillis();
+		if (millis < 2)
+		{
+			return backoff;
+		}
+		else
+		{
+			return Duration.ofMillis(ThreadLocalRandom.current().nextLong(millis / 2, millis + 1));
+		}
+	}
+	
+	private static void sleep(final Duration duration)
+	{
+		try
+		{
+			Thread.sleep(duration);
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting to retry a batch chunk", e);
+		}
+	}
+	
+	private record ChunkTask(BatchWriteReport.Phase phase, String label, int rows, Runnable query)
+	{
+	}
+}
@@ -0,0 +1,115 @@
+package com.gregmarut.querybuilder.sdn.batch;
+
+import java.time.Duration;
+
+/**
+ * Options for the {@link BatchWriter}. A chunk of rows is closed once it holds {@code maxRows} rows or its parameters reach an
+ * estimated {@code maxParameterBytes} bytes, whichever happens first. This keeps the request payloads and the transaction state on
+ * the server bounded no matter how wide the rows are.
+ *
+ * @param maxRows           the maximum number of rows written by one query
+ * @param maxParameterBytes the estimated parameter size at which a chunk is closed
+ * @param concurrency       the number of chunks that are written at the same time
+ * @param maxAttempts       the number of times a chunk is attempted before its transient failure is rethrown
+ * @param initialBackoff    the delay before the first retry. Every following retry doubles it.
+ * @param maxBackoff        the upper bound of the delay between two retries
+ * @param replaceLinks      whether singular relationships are linked with replace semantics
+ * @param queryOptions      how the rows of each query are committed. Queries written in transactions of rows run in an implicit
+ *                          transaction, so the writer cannot be used inside a transactional method with them.
+ */
+public record BatchWriterOptions(int maxRows, long maxParameterBytes, int concurrency, int maxAttempts, Duration initialBackoff,
+	Duration maxBackoff, boolean replaceLinks, BatchOptions queryOptions)
+{
+	public static final BatchWriterOptions DEFAULT = new BatchWriterOptions(10_000, 16L * 1024 * 1024, 4, 5,
+		Duration.ofMillis(100), Duration.ofSeconds(5), false, BatchOptions.DEFAULT);
+	
+	public BatchWriterOptions
+	{
+		if (maxRows < 1)
+		{
+			throw new IllegalArgumentException("The maximum number of rows must be at least 1. Found: " + maxRows);
+		}
+		else if (maxParameterBytes < 1)
+		{
+			throw new IllegalArgumentException("The maximum parameter size must be at least 1. Found: " + maxParameterBytes);
+		}
+		else if (concurrency < 1)
+		{
+			throw new IllegalArgumentException("The concurrency must be at least 1. Found: " + concurrency);
+		}
+		else if (maxAttempts < 1)
+		{
+			throw new IllegalArgumentException("The maximum number of attempts must be at least 1. Found: " + maxAttempts);
+		}
+		else if (initialBackoff.isNegative() || maxBackoff.isNegative())
+		{
+			throw new IllegalArgumentException("The backoff must not be negative");
+		}
+	}
+	
+	public BatchWriterOptions withMaxRows(final int maxRows)
+	{
+		return new BatchWriterOptions(maxRows, maxParameterBytes, concurrency, maxAttempts, initialBackoff, maxBackoff,
+			replaceLinks, queryOptions);
+	}
+	
+	public BatchWriterOptions withMaxParameterBytes(final long maxParameterBytes)
+	{
+		return new BatchWriterOptions(maxRows, maxParameterBytes, concurrency, maxAttempts, initialBackoff, maxBackoff,
+			replaceLinks, queryOptions);
+	}
+	
+	public BatchWriterOptions withConcurrency(final int concurrency)
+	{
+		return new BatchWriterOptions(maxRows, maxParameterBytes, concurrency, maxAttempts, initialBackoff, maxBackoff,
+			replaceLinks, queryOptions);
+	}
+	
+	/**
+	 * Sets how often a chunk is attempted when it fails with a transient error and how long to wait between the attempts
+	 *
+	 * @param maxAttempts
+	 * @param initialBackoff
+	 * @param maxBackoff
+	 * @return
+	 */
+	public BatchWriterOptions withRetry(final int maxAttempts, final Duration initialBackoff, final Duration maxBackoff)
+	{
+		return new BatchWriterOptions(maxRows, maxParameterBytes, concurrency, maxAttempts, initialBackoff, maxBackoff,
+			replaceLinks, queryOptions);
+	}
+	
+	public BatchWriterOptions withReplaceLinks(final boolean replaceLinks)
+	{
+		return new BatchWriterOptions(maxRows, maxParameterBytes, concurrency, maxAttempts, initialBackoff, maxBackoff,
+			replaceLinks, queryOptions);
+	}
+	
+	public BatchWriterOptions withQueryOptions(final BatchOptions queryOptions)
+	{
+		return new BatchWriterOptions(maxRows, maxParameterBytes, concurrency, maxAttempts, initialBackoff, maxBackoff,
+			replaceLinks, queryOptions);
+	}
+	
+	/**
+	 * Returns the delay before the given retry, doubling the initial backoff for every retry up to the maximum backoff
+	 *
+	 * @param retry the number of the retry, starting at 1
+	 * @return
+	 */
+	Duration backoff(final int retry)
+	{
+		final long initial = initialBackoff.toMillis();
+		final long delay = initial << Math.min(retry - 1, 30);
+		
+		//an overflowing shift is capped as well
+		if (delay < initial || delay > maxBackoff.toMillis())
+		{
+			return maxBackoff;
+		}
+		else
+		{
+			return Duration.ofMillis(delay);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.gregmarut.querybuilder.sdn.batch;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the number of bytes a query parameter occupies once it is sent to the server. The estimate follows the shape of the
+ * Bolt encoding closely enough to keep request payloads bounded, it is not meant to be exact.
+ */
+public class ParameterSizeEstimator
+{
+	//the marker and length header written in front of every value
+	private static final int HEADER_BYTES = 1;
+	
+	//the largest encoding of an integer or float
+	private static final int NUMBER_BYTES = 9;
+	
+	private ParameterSizeEstimator()
+	{
+	}
+	
+	/**
+	 * Estimates the encoded size of a parameter value, including the nested values of maps, collections and arrays
+	 *
+	 * @param value
+	 * @return
+	 */
+	public static long estimate(final Object value)
+	{
+		if (null == value || value instanceof Boolean)
+		{
+			return HEADER_BYTES;
+		}
+		else if (value instanceof Number)
+		{
+			return NUMBER_BYTES;
+		}
+		else if (value instanceof CharSequence s)
+		{
+			return HEADER_BYTES + 4 + utf8Length(s);
+		}
+		else if (value instanceof byte[] bytes)
+		{
+			return HEADER_BYTES + 4 + bytes.length;
+		}
+		else if (value instanceof Map<?, ?> map)
+		{
+			long size = HEADER_BYTES + 4;
+			for (final Map.Entry<?, ?> entry : map.entrySet())
+			{
+				size += estimate(entry.getKey()) + estimate(entry.getValue());
+			}
+			return size;
+		}
+		else if (value instanceof Collection<?> collection)
+		{
+			long size = HEADER_BYTES + 4;
+			for (final Object item : collection)
+			{
+				size += estimate(item);
+			}
+			return size;
+		}
+		else if (value.getClass().isArray())
+		{
+			long size = HEADER_BYTES + 4;
+			for (int i = 0; i < Array.getLength(value); i++)
+			{
+				size += estimate(Array.get(value, i));
+			}
+			return size;
+		}
+		else
+		{
+			//temporal and spatial values are small structures, anything else is sent as its string form
+			return HEADER_BYTES + 4 + utf8Length(String.valueOf(value));
+		}
+	}
+	
+	/**
+	 * Counts the bytes the given characters take once they are encoded as UTF-8, without encoding them
+	 *
+	 * @param s
+	 * @return
+	 */
+	static long utf8Length(final CharSequence s)
+	{
+		long length = 0;
+		for (int i = 0; i < s.length(); i++)
+		{
+			final char c = s.charAt(i);
+			if (c < 0x80)
+			{
+				length += 1;
+			}
+			else if (c < 0x800 || Character.isSurrogate(c))
+			{
+				//each half of a surrogate pair counts 2 of the 4 bytes the pair is encoded with
+				length += 2;
+			}
+			else
+			{
+				length += 3;
+			}
+		}
+		return length;
+	}
+}
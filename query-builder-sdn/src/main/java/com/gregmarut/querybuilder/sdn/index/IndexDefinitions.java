@@ -0,0 +1,163 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.index;
+
+import com.gregmarut.querybuilder.cypher.IndexQuery;
+import com.gregmarut.querybuilder.sdn.model.BaseNode;
+import com.gregmarut.querybuilder.sdn.model.SDNNode;
+import com.gregmarut.querybuilder.sdn.util.ReflectionUtil;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the {@code CREATE FULLTEXT INDEX} and {@code CREATE VECTOR INDEX} statements for the properties of a node class that
+ * are annotated with {@link FulltextIndexed} or {@link VectorIndexed}, and the {@link IndexQuery} calls that search those indexes
+ * by the same names. The statements use {@code IF NOT EXISTS} so they can be run on every startup.
+ */
+public class IndexDefinitions
+{
+	private static final String FULLTEXT_SUFFIX = "_fulltext";
+	private static final String VECTOR_SUFFIX = "_vector";
+	private static final String VARIABLE = "n";
+	
+	private IndexDefinitions()
+	{
+	
+	}
+	
+	/**
+	 * Returns the statements that create every index of the given node class
+	 *
+	 * @param nodeClass
+	 * @return
+	 */
+	public static List<String> createStatements(final Class<? extends BaseNode> nodeClass)
+	{
+		final var label = SDNNode.of(nodeClass).getLabel();
+		final List<String> statements = new ArrayList<>();
+		
+		//group the full-text properties by index, keeping the order they were declared in
+		final Map<String, List<String>> fulltextIndexes = new LinkedHashMap<>();
+		for (Field field : ReflectionUtil.getAllDeclaredFields(nodeClass))
+		{
+			final var fulltextIndexed = field.getDeclaredAnnotation(FulltextIndexed.class);
+			
+			if (null != fulltextIndexed)
+			{
+				fulltextIndexes.computeIfAbsent(getFulltextIndexName(label, fulltextIndexed), k -> new ArrayList<>())
+					.add(field.getName());
+			}
+		}
+		
+		fulltextIndexes.forEach((indexName, properties) -> statements.add("CREATE FULLTEXT INDEX " + indexName + " IF NOT EXISTS FOR ("
+			+ VARIABLE + ":" + label + ") ON EACH [" + properties.stream()
+			.map(property -> VARIABLE + "." + property)
+			.collect(Collectors.joining(", ")) + "]"));
+		
+		for (Field field : ReflectionUtil.getAllDeclaredFields(nodeClass))
+		{
+			final var vectorIndexed = field.getDeclaredAnnotation(VectorIndexed.class);
+			
+			if (null != vectorIndexed)
+			{
+				if (vectorIndexed.dimensions() <= 0)
+				{
+					throw new IllegalArgumentException("dimensions must be positive on " + nodeClass.getName() + "." + field.getName());
+				}
+				
+				statements.add("CREATE VECTOR INDEX " + getVectorIndexName(label, field.getName(), vectorIndexed)
+					+ " IF NOT EXISTS FOR (" + VARIABLE + ":" + label + ") ON (" + VARIABLE + "." + field.getName() + ")"
+					+ " OPTIONS {indexConfig: {`vector.dimensions`: " + vectorIndexed.dimensions()
+					+ ", `vector.similarity_function`: '" + vectorIndexed.similarity().name().toLowerCase(Locale.ROOT) + "'}}");
+			}
+		}
+		
+		return statements;
+	}
+	
+	/**
+	 * Searches the full-text index that the given property of the node class belongs to
+	 *
+	 * @param nodeClass
+	 * @param propertyName
+	 * @param query
+	 * @param alias
+	 * @return
+	 */
+	public static IndexQuery fulltextQuery(final Class<? extends BaseNode> nodeClass, final String propertyName, final String query,
+		final String alias)
+	{
+		final var fulltextIndexed = getAnnotatedField(nodeClass, propertyName, FulltextIndexed.class);
+		return IndexQuery.fulltextNodes(getFulltextIndexName(SDNNode.of(nodeClass).getLabel(), fulltextIndexed), query, alias);
+	}
+	
+	/**
+	 * Searches the vector index of the given property of the node class for the nearest nodes to the given vector
+	 *
+	 * @param nodeClass
+	 * @param propertyName
+	 * @param neighbors
+	 * @param vector
+	 * @param alias
+	 * @return
+	 */
+	public static IndexQuery vectorQuery(final Class<? extends BaseNode> nodeClass, final String propertyName, final int neighbors,
+		final List<? extends Number> vector, final String alias)
+	{
+		final var vectorIndexed = getAnnotatedField(nodeClass, propertyName, VectorIndexed.class);
+		return IndexQuery.vectorNodes(getVectorIndexName(SDNNode.of(nodeClass).getLabel(), propertyName, vectorIndexed), neighbors,
+			vector, alias);
+	}
+	
+	private static <A extends Annotation> A getAnnotatedField(final Class<?> nodeClass, final String propertyName,
+		final Class<A> annotationClass)
+	{
+		final var annotation = ReflectionUtil.getDeclaredField(nodeClass, propertyName).getDeclaredAnnotation(annotationClass);
+		
+		if (null == annotation)
+		{
+			throw new IllegalArgumentException(nodeClass.getName() + "." + propertyName + " is not annotated with @"
+				+ annotationClass.getSimpleName());
+		}
+		
+		return annotation;
+	}
+	
+	private static String getFulltextIndexName(final String label, final FulltextIndexed fulltextIndexed)
+	{
+		return fulltextIndexed.index().isEmpty() ? label.toLowerCase(Locale.ROOT) + FULLTEXT_SUFFIX : fulltextIndexed.index();
+	}
+	
+	private static String getVectorIndexName(final String label, final String propertyName, final VectorIndexed vectorIndexed)
+	{
+		return vectorIndexed.index().isEmpty() ? label.toLowerCase(Locale.ROOT) + "_" + propertyName + VECTOR_SUFFIX
+			: vectorIndexed.index();
+	}
+}
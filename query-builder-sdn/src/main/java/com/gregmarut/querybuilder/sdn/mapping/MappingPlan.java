@@ -0,0 +1,297 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.mapping;
+
+import com.gregmarut.querybuilder.sdn.util.ReflectionUtil;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
+import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.core.schema.Node;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The precompiled steps that map a record to an instance of a class. Everything that only depends on the class is resolved once
+ * when the plan is created: the fields, a setter for each field, the conversion of each value and the constructor. Mapping a
+ * record then only reads its values and calls the setters.
+ *
+ * @param <T>
+ */
+public class MappingPlan<T>
+{
+	//the setters all take (Object, Object) so that they can be called with invokeExact
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	private final Supplier<T> instantiator;
+	private final FieldMapping[] fieldMappings;
+	
+	private MappingPlan(final Supplier<T> instantiator, final FieldMapping[] fieldMappings)
+	{
+		this.instantiator = instantiator;
+		this.fieldMappings = fieldMappings;
+	}
+	
+	public T map(final TypeSystem typeSystem, final MapAccessor mapAccessor)
+	{
+		final T instance = instantiator.get();
+		
+		for (FieldMapping fieldMapping : fieldMappings)
+		{
+			fieldMapping.map(instance, typeSystem, mapAccessor);
+		}
+		
+		return instance;
+	}
+	
+	public static <T> MappingPlan<T> of(final Class<T> clazz, final Neo4jMappingContext mappingContext)
+	{
+		try
+		{
+			final var lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+			final List<FieldMapping> fieldMappings = new ArrayList<>();
+			
+			//for each of the declared fields in this class
+			for (Field field : ReflectionUtil.getAllDeclaredFields(clazz))
+			{
+				//static fields belong to the class rather than to the record
+				if (!Modifier.isStatic(field.getModifiers()))
+				{
+					fieldMappings.add(new FieldMapping(field.getName(), createSetter(field), field.getType().isPrimitive(),
+						createConverter(field, mappingContext)));
+				}
+			}
+			
+			return new MappingPlan<>(createInstantiator(clazz, lookup), fieldMappings.toArray(new FieldMapping[0]));
+		}
+		catch (IllegalAccessException | NoSuchMethodException e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+	
+	/**
+	 * Creates a supplier that calls the no-argument constructor of the given class directly, falling back to a method handle if a
+	 * lambda cannot be spun for it
+	 *
+	 * @param clazz
+	 * @param lookup
+	 * @param <T>
+	 * @return
+	 * @throws NoSuchMethodException
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Supplier<T> createInstantiator(final Class<T> clazz, final MethodHandles.Lookup lookup)
+		throws NoSuchMethodException, IllegalAccessException
+	{
+		final var constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+		
+		try
+		{
+			return (Supplier<T>) LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+				MethodType.methodType(Object.class), constructor, MethodType.methodType(clazz)).getTarget().invokeExact();
+		}
+		catch (Throwable e)
+		{
+			final var genericConstructor = constructor.asType(MethodType.methodType(Object.class));
+			return () -> (T) invoke(genericConstructor);
+		}
+	}
+	
+	/**
+	 * Creates a setter for the given field. A method handle cannot write a final field, so final fields are written through
+	 * {@link Field#set(Object, Object)} instead
+	 *
+	 * @param field
+	 * @return
+	 * @throws IllegalAccessException
+	 * @throws NoSuchMethodException
+	 */
+	private static MethodHandle createSetter(final Field field) throws IllegalAccessException, NoSuchMethodException
+	{
+		if (Modifier.isFinal(field.getModifiers()))
+		{
+			field.setAccessible(true);
+			return MethodHandles.lookup().findVirtual(Field.class, "set", SETTER_TYPE).bindTo(field);
+		}
+		else
+		{
+			return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+				.unreflectSetter(field)
+				.asType(SETTER_TYPE);
+		}
+	}
+	
+	private static Converter createConverter(final Field field, final Neo4jMappingContext mappingContext)
+	{
+		final var type = field.getType();
+		
+		if (type.isAnnotationPresent(Node.class))
+		{
+			//nested nodes are mapped from the same record, the mapping function is looked up once
+			final var mappingFunction = mappingContext.getRequiredMappingFunctionFor(type);
+			return (typeSystem, mapAccessor, value) -> mappingFunction.apply(typeSystem, mapAccessor);
+		}
+		//check to see if this field is a collection
+		else if (Collection.class.isAssignableFrom(type))
+		{
+			//get the generic type of this collection to figure out how to map the values
+			final var genericType = (ParameterizedType) field.getGenericType();
+			final var itemConverter = createSimpleConverter((Class<?>) genericType.getActualTypeArguments()[0]);
+			final var collectionFactory = createCollectionFactory(type);
+			
+			return (typeSystem, mapAccessor, value) -> {
+				final var collection = collectionFactory.get();
+				for (Value v : value.values())
+				{
+					collection.add(itemConverter.apply(v));
+				}
+				
+				return collection;
+			};
+		}
+		else
+		{
+			final var simpleConverter = createSimpleConverter(type);
+			return (typeSystem, mapAccessor, value) -> simpleConverter.apply(value);
+		}
+	}
+	
+	private static Supplier<Collection<Object>> createCollectionFactory(final Class<?> collectionType)
+	{
+		if (collectionType.isAssignableFrom(List.class))
+		{
+			return ArrayList::new;
+		}
+		else if (collectionType.isAssignableFrom(Set.class))
+		{
+			return HashSet::new;
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unsupported collection type: " + collectionType);
+		}
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Function<Value, Object> createSimpleConverter(final Class<?> itemType)
+	{
+		if (itemType.isAssignableFrom(int.class))
+		{
+			return Value::asInt;
+		}
+		else if (itemType.isAssignableFrom(long.class))
+		{
+			return Value::asLong;
+		}
+		else if (itemType.isAssignableFrom(float.class))
+		{
+			return Value::asFloat;
+		}
+		else if (itemType.isAssignableFrom(double.class))
+		{
+			return Value::asDouble;
+		}
+		else if (itemType.isAssignableFrom(String.class))
+		{
+			return Value::asString;
+		}
+		else if (itemType.isEnum())
+		{
+			return value -> Enum.valueOf((Class<Enum>) itemType, value.asString());
+		}
+		else
+		{
+			return Value::asObject;
+		}
+	}
+	
+	private static Object invoke(final MethodHandle methodHandle)
+	{
+		try
+		{
+			return methodHandle.invokeExact();
+		}
+		catch (RuntimeException | Error e)
+		{
+			throw e;
+		}
+		catch (Throwable e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+	
+	@FunctionalInterface
+	private interface Converter
+	{
+		Object convert(final TypeSystem typeSystem, final MapAccessor mapAccessor, final Value value);
+	}
+	
+	private record FieldMapping(String name, MethodHandle setter, boolean primitive, Converter converter)
+	{
+		void map(final Object instance, final TypeSystem typeSystem, final MapAccessor mapAccessor)
+		{
+			final var value = mapAccessor.get(name);
+			
+			try
+			{
+				//check to see if this field is null
+				if (value.isNull())
+				{
+					//a primitive field cannot hold null so it keeps its default
+					if (!primitive)
+					{
+						setter.invokeExact(instance, (Object) null);
+					}
+				}
+				else
+				{
+					setter.invokeExact(instance, converter.convert(typeSystem, mapAccessor, value));
+				}
+			}
+			catch (RuntimeException | Error e)
+			{
+				throw e;
+			}
+			catch (Throwable e)
+			{
+				throw new RuntimeException(e);
+			}
+		}
+	}
+}
@@ -22,126 +22,44 @@
 
 package com.gregmarut.querybuilder.sdn.mapping;
 
-import com.gregmarut.querybuilder.sdn.util.ReflectionUtil;
 import lombok.RequiredArgsConstructor;
-import org.neo4j.driver.Value;
 import org.neo4j.driver.types.MapAccessor;
 import org.neo4j.driver.types.TypeSystem;
 import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
-import org.springframework.data.neo4j.core.schema.Node;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.ParameterizedType;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 import java.util.function.BiFunction;
 
+/**
+ * Maps records onto a class by the names of its fields. The {@link MappingPlan} of the class is created on the first record, once
+ * the mapping context is able to resolve the nested nodes, and reused for every record after it.
+ *
+ * @param <T>
+ */
 @RequiredArgsConstructor
 public class ReflectionMappingFunction<T> implements BiFunction<TypeSystem, MapAccessor, T>
 {
 	private final Class<T> clazz;
 	private final Neo4jMappingContext mappingContext;
 	
+	//creating the plan twice on a race is harmless, so it is not synchronized
+	private volatile MappingPlan<T> mappingPlan;
+	
 	@Override
 	public T apply(final TypeSystem typeSystem, final MapAccessor mapAccessor)
 	{
-		try
-		{
-			//create a new instance of the return type
-			final T instance = clazz.getDeclaredConstructor().newInstance();
-			
-			//for each of the declared fields in this class
-			for (Field field : ReflectionUtil.getAllDeclaredFields(clazz))
-			{
-				final var value = mapAccessor.get(field.getName());
-				field.setAccessible(true);
-				
-				//check to see if this field is null
-				if (value.isNull())
-				{
-					field.set(instance, null);
-				}
-				else if (field.getType().isAnnotationPresent(Node.class))
-				{
-					field.set(instance, mappingContext.getRequiredMappingFunctionFor(field.getType()).apply(typeSystem, mapAccessor));
-				}
-				//check to see if this field is a collection
-				else if (Collection.class.isAssignableFrom(field.getType()))
-				{
-					//get the generic type of this collection to figure out how to map the values
-					final var genericType = (ParameterizedType) field.getGenericType();
-					final var itemType = (Class<?>) genericType.getActualTypeArguments()[0];
-					final var collection = createCollectionInstance(field.getType());
-					for (Value v : value.values())
-					{
-						collection.add(mapSimpleValue(itemType, v));
-					}
-					
-					field.set(instance, collection);
-				}
-				else
-				{
-					field.set(instance, mapSimpleValue(field.getType(), value));
-				}
-			}
-			
-			return instance;
-		}
-		catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e)
-		{
-			throw new RuntimeException(e);
-		}
-	}
-	
-	private Collection<Object> createCollectionInstance(final Class<?> collectionType)
-	{
-		if (collectionType.isAssignableFrom(List.class))
-		{
-			return new ArrayList<>();
-		}
-		else if (collectionType.isAssignableFrom(Set.class))
-		{
-			return new HashSet<>();
-		}
-		else
-		{
-			throw new IllegalArgumentException("Unsupported collection type: " + collectionType);
-		}
+		return getMappingPlan().map(typeSystem, mapAccessor);
 	}
 	
-	private Object mapSimpleValue(final Class<?> itemType, final Value value)
+	public MappingPlan<T> getMappingPlan()
 	{
-		if (itemType.isAssignableFrom(int.class))
-		{
-			return value.asInt();
-		}
-		else if (itemType.isAssignableFrom(long.class))
-		{
-			return value.asLong();
-		}
-		else if (itemType.isAssignableFrom(float.class))
-		{
-			return value.asFloat();
-		}
-		else if (itemType.isAssignableFrom(double.class))
-		{
-			return value.asDouble();
-		}
-		else if (itemType.isAssignableFrom(String.class))
-		{
-			return value.asString();
-		}
-		else if (itemType.isEnum())
-		{
-			return Enum.valueOf((Class<Enum>) itemType, value.asString());
-		}
-		else
+		var plan = mappingPlan;
+		
+		if (null == plan)
 		{
-			return value.asObject();
+			plan = MappingPlan.of(clazz, mappingContext);
+			mappingPlan = plan;
 		}
+		
+		return plan;
 	}
 }
@@ -24,14 +24,12 @@ package com.gregmarut.querybuilder.sdn.model;
 
 import com.gregmarut.querybuilder.sdn.proxy.NodeProxyUtil;
 import com.gregmarut.querybuilder.sdn.util.SDNUtil;
-import lombok.SneakyThrows;
 
 import java.util.Objects;
 
 public abstract class BaseNode
 {
 	@Override
-	@SneakyThrows
 	public final boolean equals(final Object that)
 	{
 		if (this == that)
@@ -52,24 +50,13 @@ public abstract class BaseNode
 			return false;
 		}
 		
-		//find the id field
-		final var idField = SDNUtil.getIDField(this);
-		idField.setAccessible(true);
-		
-		final var thisId = idField.get(this);
-		final var thatId = idField.get(that);
-		
-		return Objects.equals(thisId, thatId);
+		//both nodes share the same class so the id is read through the same accessor
+		return Objects.equals(SDNUtil.getId(this), SDNUtil.getId((BaseNode) that));
 	}
 	
 	@Override
-	@SneakyThrows
 	public final int hashCode()
 	{
-		//find the id field
-		final var idField = SDNUtil.getIDField(this);
-		idField.setAccessible(true);
-		
-		return Objects.hashCode(idField.get(this));
+		return Objects.hashCode(SDNUtil.getId(this));
 	}
 }
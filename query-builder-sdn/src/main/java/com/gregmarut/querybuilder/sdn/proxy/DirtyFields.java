@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.proxy;
+
+import java.lang.reflect.Field;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The per instance dirty state of a tracking proxy. Fields are marked as they are written so that the change set can
+ * be read without comparing every field of the node.
+ */
+public class DirtyFields
+{
+	private final TrackedClass trackedClass;
+	
+	//the fields that were written since the last reset
+	private final BitSet dirty = new BitSet();
+	
+	//the collection fields whose declared type cannot hold an observable wrapper and therefore always count as changed
+	private final BitSet unobserved = new BitSet();
+	
+	DirtyFields(final TrackedClass trackedClass)
+	{
+		this.trackedClass = trackedClass;
+	}
+	
+	public void markDirty(final int index)
+	{
+		dirty.set(index);
+	}
+	
+	void markSetter(final String setterName)
+	{
+		final int index = trackedClass.getSetterIndex(setterName);
+		if (index >= 0)
+		{
+			dirty.set(index);
+		}
+	}
+	
+	public boolean isDirty()
+	{
+		return !dirty.isEmpty() || !unobserved.isEmpty();
+	}
+	
+	/**
+	 * Returns the fields that were written since the last reset
+	 *
+	 * @return a set of fields that have changed
+	 */
+	public Set<Field> getChangedFields()
+	{
+		final var changed = (BitSet) dirty.clone();
+		changed.or(unobserved);
+		
+		final var fields = trackedClass.getFields();
+		final Set<Field> changedFields = new LinkedHashSet<>();
+		for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1))
+		{
+			changedFields.add(fields[i]);
+		}
+		
+		return changedFields;
+	}
+	
+	/**
+	 * Clears all of the dirty fields and wraps the collection fields of the proxy in observable collections so that
+	 * their mutations mark the field as dirty
+	 *
+	 * @param proxy
+	 */
+	void reset(final Object proxy)
+	{
+		dirty.clear();
+		unobserved.clear();
+		
+		final var fields = trackedClass.getFields();
+		for (int i = 0; i < fields.length; i++)
+		{
+			try
+			{
+				final var value = fields[i].get(proxy);
+				if (value instanceof Collection<?> || value instanceof Map<?, ?>)
+				{
+					final var observable = observe(fields[i], value, i);
+					if (null != observable)
+					{
+						fields[i].set(proxy, observable);
+					}
+					else
+					{
+						unobserved.set(i);
+					}
+				}
+			}
+			catch (IllegalAccessException e)
+			{
+				throw new RuntimeException(e);
+			}
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Object observe(final Field field, final Object value, final int index)
+	{
+		final Runnable onChange = () -> markDirty(index);
+		final var type = field.getType();
+		
+		if (value instanceof List<?> list && type.isAssignableFrom(TrackedList.class))
+		{
+			//a collection that is already observed is rebound to this field of this proxy
+			final List<?> delegate = list instanceof TrackedList<?> tracked ? tracked.getDelegate() : list;
+			return new TrackedList<>((List<Object>) delegate, onChange);
+		}
+		else if (value instanceof Set<?> set && type.isAssignableFrom(TrackedSet.class))
+		{
+			final Set<?> delegate = set instanceof TrackedSet<?> tracked ? tracked.getDelegate() : set;
+			return new TrackedSet<>((Set<Object>) delegate, onChange);
+		}
+		else if (value instanceof Map<?, ?> map && type.isAssignableFrom(TrackedMap.class))
+		{
+			final Map<?, ?> delegate = map instanceof TrackedMap<?, ?> tracked ? tracked.getDelegate() : map;
+			return new TrackedMap<>((Map<Object, Object>) delegate, onChange);
+		}
+		else
+		{
+			return null;
+		}
+	}
+}
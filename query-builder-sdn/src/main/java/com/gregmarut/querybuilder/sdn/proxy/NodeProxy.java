@@ -26,6 +26,10 @@ import lombok.Getter;
 import lombok.SneakyThrows;
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.description.modifier.FieldPersistence;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.matcher.ElementMatchers;
 
 import java.lang.reflect.Field;
 import java.util.Map;
@@ -38,17 +42,36 @@ import java.util.concurrent.ConcurrentHashMap;
 public class NodeProxy
 {
 	public static final String SNAPSHOT_FIELD_NAME = "__snapshot";
+	public static final String DIRTY_FIELD_NAME = "__dirty";
+	
+	//the mode used by createProxy(target) when no mode is given
+	public static Mode defaultMode = Mode.SNAPSHOT;
 	
 	private static final Map<Class<?>, Class<?>> PROXY_CLASS_MAP = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Class<?>> TRACKING_PROXY_CLASS_MAP = new ConcurrentHashMap<>();
 	
 	public static boolean isProxy(final Object object)
 	{
 		return object.getClass().getName().contains("$ByteBuddy$");
 	}
 	
+	public static <T> T createProxy(final T target)
+	{
+		return createProxy(target, defaultMode);
+	}
+	
+	public static <T> T createProxy(final T target, final Mode mode)
+	{
+		return switch (mode)
+		{
+			case SNAPSHOT -> createSnapshotProxy(target);
+			case TRACKING -> createTrackingProxy(target);
+		};
+	}
+	
 	@SneakyThrows
 	@SuppressWarnings("unchecked")
-	public static <T> T createProxy(final T target)
+	private static <T> T createSnapshotProxy(final T target)
 	{
 		final Class<T> targetClass = (Class<T>) target.getClass();
 		
@@ -79,6 +102,45 @@ public class NodeProxy
 		return proxy;
 	}
 	
+	@SneakyThrows
+	@SuppressWarnings("unchecked")
+	private static <T> T createTrackingProxy(final T target)
+	{
+		final Class<T> targetClass = (Class<T>) target.getClass();
+		
+		//get or create the proxy class which routes every setter through the dirty tracking interceptor
+		final Class<T> proxyClass = (Class<T>) TRACKING_PROXY_CLASS_MAP.computeIfAbsent(targetClass, key -> {
+			try (var unloaded = new ByteBuddy()
+				.subclass(targetClass)
+				.defineField(DIRTY_FIELD_NAME, DirtyFields.class, Visibility.PRIVATE, FieldPersistence.TRANSIENT)
+				.implement(DirtyTracked.class)
+				.intercept(FieldAccessor.ofField(DIRTY_FIELD_NAME))
+				.method(ElementMatchers.isSetter())
+				.intercept(MethodDelegation.to(SetterInterceptor.class))
+				.make())
+			{
+				return unloaded
+					.load(targetClass.getClassLoader())
+					.getLoaded();
+			}
+		});
+		
+		// Create the proxy object using ByteBuddy
+		final T proxy = proxyClass
+			.getDeclaredConstructor()
+			.newInstance();
+		
+		//copy all of the fields from the target object to the proxy object before tracking is attached
+		NodeProxyUtil.copyFields(target, proxy);
+		
+		//attach a clean dirty set which also wraps the collection fields so that their mutations are observed
+		final var dirtyFields = new DirtyFields(TrackedClass.of(targetClass));
+		((DirtyTracked) proxy).__dirtyFields(dirtyFields);
+		dirtyFields.reset(proxy);
+		
+		return proxy;
+	}
+	
 	static Field getSnapshotField(final Object proxy) throws NoSuchFieldException
 	{
 		//find the snapshot field from this proxy
@@ -86,4 +148,17 @@ public class NodeProxy
 		snapshotField.setAccessible(true);
 		return snapshotField;
 	}
+	
+	/**
+	 * Determines how a proxy detects which of its fields have changed.
+	 */
+	public enum Mode
+	{
+		//keeps a copy of the node and compares every field against it when the changes are requested
+		SNAPSHOT,
+		
+		//records the fields that are written through setters or mutated collections as they happen. Fields that are
+		//assigned directly by other methods of the node are not seen in this mode.
+		TRACKING
+	}
 }
@@ -38,17 +38,28 @@ import java.util.Set;
 @Getter
 public class NodeProxyAccessor<N>
 {
-	//the snapshot object that was used when creating the proxy
+	//the snapshot object that was used when creating the proxy or null for a tracking proxy
 	private final N snapshot;
 	
 	//the proxied object
 	private final N proxy;
 	
+	//the dirty fields of a tracking proxy or null for a snapshot proxy
+	private final DirtyFields dirtyFields;
+	
 	@SneakyThrows
 	public void snapshot()
 	{
-		//copy all of the fields from the proxy object to the snapshot object
-		NodeProxyUtil.copyFields(proxy, snapshot);
+		if (null != dirtyFields)
+		{
+			//the current state becomes the baseline so all of the recorded writes are forgotten
+			dirtyFields.reset(proxy);
+		}
+		else
+		{
+			//copy all of the fields from the proxy object to the snapshot object
+			NodeProxyUtil.copyFields(proxy, snapshot);
+		}
 	}
 	
 	/**
@@ -58,11 +69,19 @@ public class NodeProxyAccessor<N>
 	 */
 	public Set<Field> getChangedFields()
 	{
-		return getDiff().keySet();
+		if (null != dirtyFields)
+		{
+			return dirtyFields.getChangedFields();
+		}
+		else
+		{
+			return getDiff().keySet();
+		}
 	}
 	
 	/**
-	 * Calculates the difference between the snapshot and the proxy object.
+	 * Calculates the difference between the snapshot and the proxy object. A tracking proxy keeps no copy of the
+	 * previous values so the old value of each diff is always null.
 	 *
 	 * @return a map of fields that have changed and the diff object that contains the old and new values
 	 */
@@ -70,22 +89,39 @@ public class NodeProxyAccessor<N>
 	{
 		final Map<Field, Diff<Object>> diff = new HashMap<>();
 		
-		for (Field field : ReflectionUtil.getAllDeclaredFields(snapshot.getClass()))
+		if (null != dirtyFields)
 		{
-			field.setAccessible(true);
-			try
+			for (Field field : dirtyFields.getChangedFields())
 			{
-				//check to see if the field has changed
-				final var oldValue = field.get(snapshot);
-				final var newValue = field.get(proxy);
-				if (!Objects.equals(oldValue, newValue))
+				try
 				{
-					diff.put(field, new Diff<>(oldValue, newValue));
+					diff.put(field, new Diff<>(null, field.get(proxy)));
+				}
+				catch (IllegalAccessException e)
+				{
+					throw new RuntimeException(e);
 				}
 			}
-			catch (IllegalAccessException e)
+		}
+		else
+		{
+			for (Field field : ReflectionUtil.getAllDeclaredFields(snapshot.getClass()))
 			{
-				throw new RuntimeException(e);
+				field.setAccessible(true);
+				try
+				{
+					//check to see if the field has changed
+					final var oldValue = field.get(snapshot);
+					final var newValue = field.get(proxy);
+					if (!Objects.equals(oldValue, newValue))
+					{
+						diff.put(field, new Diff<>(oldValue, newValue));
+					}
+				}
+				catch (IllegalAccessException e)
+				{
+					throw new RuntimeException(e);
+				}
 			}
 		}
 		
@@ -94,7 +130,11 @@ public class NodeProxyAccessor<N>
 	
 	public static <N> NodeProxyAccessor<N> extract(final N proxy)
 	{
-		if (NodeProxy.isProxy(proxy))
+		if (proxy instanceof DirtyTracked tracked)
+		{
+			return new NodeProxyAccessor<>(null, proxy, tracked.__dirtyFields());
+		}
+		else if (NodeProxy.isProxy(proxy))
 		{
 			try
 			{
@@ -104,7 +144,7 @@ public class NodeProxyAccessor<N>
 				//get the snapshot object from this proxy
 				final var snapshot = (N) snapshotField.get(proxy);
 				
-				return new NodeProxyAccessor<>(snapshot, proxy);
+				return new NodeProxyAccessor<>(snapshot, proxy, null);
 			}
 			catch (IllegalAccessException | NoSuchFieldException e)
 			{
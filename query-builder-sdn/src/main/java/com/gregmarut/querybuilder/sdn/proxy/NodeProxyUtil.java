@@ -22,9 +22,11 @@
 
 package com.gregmarut.querybuilder.sdn.proxy;
 
+import com.gregmarut.querybuilder.sdn.accessor.NodeAccessors;
 import com.gregmarut.querybuilder.sdn.util.ReflectionUtil;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -36,7 +38,8 @@ public class NodeProxyUtil
 {
 	public static Class<?> getUserClass(final Class<?> clazz)
 	{
-		return clazz.getName().contains("$")
+		//only generated proxies are unwrapped, nested node classes also carry a "$" in their name
+		return clazz.getName().contains("$ByteBuddy$")
 			? clazz.getSuperclass()
 			: clazz;
 	}
@@ -59,39 +62,64 @@ public class NodeProxyUtil
 		}
 	}
 	
+	@SuppressWarnings("unchecked")
 	public static <T> void copyFields(final T source, final T target)
 	{
-		//loop through all of the fields in the source object
-		for (Field field : ReflectionUtil.getAllDeclaredFields(getUserClass(source.getClass())))
+		final var userClass = getUserClass(source.getClass());
+		final var accessor = NodeAccessors.find((Class<Object>) userClass);
+		if (accessor.isPresent())
 		{
-			field.setAccessible(true);
-			
-			try
+			//copy through the generated accessor which already excludes static fields
+			final var nodeAccessor = accessor.get();
+			for (int i = 0; i < nodeAccessor.getFieldCount(); i++)
 			{
-				// get the value from the source object
-				Object value = field.get(source);
-				
-				// check if the value is a collection
-				if (value instanceof List)
+				nodeAccessor.set(target, i, copyValue(nodeAccessor.get(source, i)));
+			}
+		}
+		else
+		{
+			//loop through all of the fields in the source object
+			for (Field field : ReflectionUtil.getAllDeclaredFields(userClass))
+			{
+				//constants and other static fields belong to the class and are never copied
+				if (Modifier.isStatic(field.getModifiers()))
 				{
-					value = new ArrayList<>((List<?>) value);
+					continue;
 				}
-				else if (value instanceof Set)
+				
+				field.setAccessible(true);
+				
+				try
 				{
-					value = new HashSet<>((Set<?>) value);
+					// copy the value from the source object to the target object
+					field.set(target, copyValue(field.get(source)));
 				}
-				else if (value instanceof Map)
+				catch (IllegalAccessException e)
 				{
-					value = new HashMap<>((Map<?, ?>) value);
+					throw new RuntimeException(e);
 				}
-				
-				// copy the value from the source object to the target object
-				field.set(target, value);
-			}
-			catch (IllegalAccessException e)
-			{
-				throw new RuntimeException(e);
 			}
 		}
 	}
+	
+	private static Object copyValue(final Object value)
+	{
+		// check if the value is a collection
+		if (value instanceof List)
+		{
+			return new ArrayList<>((List<?>) value);
+		}
+		else if (value instanceof Set)
+		{
+			return new HashSet<>((Set<?>) value);
+		}
+		else if (value instanceof Map)
+		{
+			return new HashMap<>((Map<?, ?>) value);
+		}
+		else
+		{
+			return value;
+		}
+	}
 }
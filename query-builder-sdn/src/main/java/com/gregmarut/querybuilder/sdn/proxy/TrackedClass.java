@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.proxy;
+
+import com.gregmarut.querybuilder.sdn.util.ReflectionUtil;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The per class layout used by dirty tracking. Every instance field of the node is given a stable index into the
+ * dirty bitset and every setter is resolved to the index of the field it writes.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class TrackedClass
+{
+	private static final Map<Class<?>, TrackedClass> TRACKED_CLASS_MAP = new ConcurrentHashMap<>();
+	
+	//the instance fields of the node in index order
+	private final Field[] fields;
+	
+	//the field index for each setter name
+	private final Map<String, Integer> setterIndexes;
+	
+	public static TrackedClass of(final Class<?> clazz)
+	{
+		return TRACKED_CLASS_MAP.computeIfAbsent(NodeProxyUtil.getUserClass(clazz), TrackedClass::create);
+	}
+	
+	/**
+	 * Returns the index of the field written by the given setter
+	 *
+	 * @param setterName
+	 * @return the field index or -1 if the setter does not map to a field
+	 */
+	public int getSetterIndex(final String setterName)
+	{
+		return setterIndexes.getOrDefault(setterName, -1);
+	}
+	
+	private static TrackedClass create(final Class<?> clazz)
+	{
+		//constants and other static fields belong to the class and are never tracked
+		final var fields = ReflectionUtil.getAllDeclaredFields(clazz).stream()
+			.filter(field -> !Modifier.isStatic(field.getModifiers()))
+			.toArray(Field[]::new);
+		
+		final Map<String, Integer> fieldIndexes = new HashMap<>();
+		for (int i = 0; i < fields.length; i++)
+		{
+			fields[i].setAccessible(true);
+			
+			//a field hidden by a subclass field of the same name keeps the setter of the subclass
+			fieldIndexes.putIfAbsent(fields[i].getName(), i);
+		}
+		
+		//resolve the setters the class actually declares rather than guessing their names from the fields
+		final Map<String, Integer> setterIndexes = new HashMap<>();
+		for (PropertyDescriptor propertyDescriptor : getPropertyDescriptors(clazz))
+		{
+			final var writeMethod = propertyDescriptor.getWriteMethod();
+			if (null != writeMethod)
+			{
+				final var fieldIndex = findFieldIndex(fieldIndexes, propertyDescriptor.getName());
+				if (null != fieldIndex)
+				{
+					setterIndexes.put(writeMethod.getName(), fieldIndex);
+				}
+			}
+		}
+		
+		return new TrackedClass(fields, setterIndexes);
+	}
+	
+	private static PropertyDescriptor[] getPropertyDescriptors(final Class<?> clazz)
+	{
+		try
+		{
+			return Introspector.getBeanInfo(clazz).getPropertyDescriptors();
+		}
+		catch (IntrospectionException e)
+		{
+			throw new IllegalStateException("Unable to introspect " + clazz.getName(), e);
+		}
+	}
+	
+	/**
+	 * Finds the field behind a bean property. The property name is tried as is, with a lower case first letter (setXCoord
+	 * is the property "XCoord" for the field "xCoord") and with an "is" prefix (setActive writes the boolean field "isActive")
+	 *
+	 * @param fieldIndexes
+	 * @param propertyName
+	 * @return the field index or null if no field backs the property
+	 */
+	private static Integer findFieldIndex(final Map<String, Integer> fieldIndexes, final String propertyName)
+	{
+		final var capitalized = Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+		final var decapitalized = Character.toLowerCase(propertyName.charAt(0)) + propertyName.substring(1);
+		
+		if (fieldIndexes.containsKey(propertyName))
+		{
+			return fieldIndexes.get(propertyName);
+		}
+		else if (fieldIndexes.containsKey(decapitalized))
+		{
+			return fieldIndexes.get(decapitalized);
+		}
+		else
+		{
+			return fieldIndexes.get("is" + capitalized);
+		}
+	}
+}
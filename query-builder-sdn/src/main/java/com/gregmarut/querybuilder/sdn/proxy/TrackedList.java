@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.proxy;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A list that reports every structural change or element replacement to its owning tracking proxy. All of the bulk
+ * operations and iterators of {@link AbstractList} are routed through the overridden mutators.
+ */
+@RequiredArgsConstructor
+class TrackedList<E> extends AbstractList<E>
+{
+	@Getter
+	private final List<E> delegate;
+	
+	private final Runnable onChange;
+	
+	@Override
+	public E get(final int index)
+	{
+		return delegate.get(index);
+	}
+	
+	@Override
+	public int size()
+	{
+		return delegate.size();
+	}
+	
+	@Override
+	public boolean contains(final Object o)
+	{
+		return delegate.contains(o);
+	}
+	
+	@Override
+	public E set(final int index, final E element)
+	{
+		final E previous = delegate.set(index, element);
+		onChange.run();
+		return previous;
+	}
+	
+	@Override
+	public void add(final int index, final E element)
+	{
+		delegate.add(index, element);
+		modCount++;
+		onChange.run();
+	}
+	
+	@Override
+	public E remove(final int index)
+	{
+		final E removed = delegate.remove(index);
+		modCount++;
+		onChange.run();
+		return removed;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.proxy;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A map that reports every put, removal or entry update to its owning tracking proxy. The key set and values views of
+ * {@link AbstractMap} are backed by the tracked entry set so their removals are reported as well.
+ */
+@RequiredArgsConstructor
+class TrackedMap<K, V> extends AbstractMap<K, V>
+{
+	@Getter
+	private final Map<K, V> delegate;
+	
+	private final Runnable onChange;
+	
+	@Override
+	public int size()
+	{
+		return delegate.size();
+	}
+	
+	@Override
+	public boolean containsKey(final Object key)
+	{
+		return delegate.containsKey(key);
+	}
+	
+	@Override
+	public V get(final Object key)
+	{
+		return delegate.get(key);
+	}
+	
+	@Override
+	public V put(final K key, final V value)
+	{
+		final V previous = delegate.put(key, value);
+		onChange.run();
+		return previous;
+	}
+	
+	@Override
+	public V remove(final Object key)
+	{
+		final boolean present = delegate.containsKey(key);
+		final V removed = delegate.remove(key);
+		if (present)
+		{
+			onChange.run();
+		}
+		return removed;
+	}
+	
+	@Override
+	public void clear()
+	{
+		if (!delegate.isEmpty())
+		{
+			delegate.clear();
+			onChange.run();
+		}
+	}
+	
+	@Override
+	public Set<Entry<K, V>> entrySet()
+	{
+		return new AbstractSet<>()
+		{
+			@Override
+			public int size()
+			{
+				return delegate.size();
+			}
+			
+			@Override
+			public Iterator<Entry<K, V>> iterator()
+			{
+				final var iterator = delegate.entrySet().iterator();
+				return new TrackedSet.TrackedIterator<>(iterator, onChange)
+				{
+					@Override
+					public Entry<K, V> next()
+					{
+						return new TrackedEntry<>(super.next(), onChange);
+					}
+				};
+			}
+		};
+	}
+	
+	@RequiredArgsConstructor
+	static class TrackedEntry<K, V> implements Entry<K, V>
+	{
+		private final Entry<K, V> delegate;
+		private final Runnable onChange;
+		
+		@Override
+		public K getKey()
+		{
+			return delegate.getKey();
+		}
+		
+		@Override
+		public V getValue()
+		{
+			return delegate.getValue();
+		}
+		
+		@Override
+		public V setValue(final V value)
+		{
+			final V previous = delegate.setValue(value);
+			onChange.run();
+			return previous;
+		}
+		
+		@Override
+		public boolean equals(final Object o)
+		{
+			return delegate.equals(o);
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return delegate.hashCode();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.proxy;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A set that reports every addition or removal to its owning tracking proxy. Removals made through the iterator are
+ * reported as well, which covers all of the bulk operations of {@link AbstractSet}.
+ */
+@RequiredArgsConstructor
+class TrackedSet<E> extends AbstractSet<E>
+{
+	@Getter
+	private final Set<E> delegate;
+	
+	private final Runnable onChange;
+	
+	@Override
+	public int size()
+	{
+		return delegate.size();
+	}
+	
+	@Override
+	public boolean contains(final Object o)
+	{
+		return delegate.contains(o);
+	}
+	
+	@Override
+	public boolean add(final E e)
+	{
+		final boolean added = delegate.add(e);
+		if (added)
+		{
+			onChange.run();
+		}
+		return added;
+	}
+	
+	@Override
+	public boolean remove(final Object o)
+	{
+		final boolean removed = delegate.remove(o);
+		if (removed)
+		{
+			onChange.run();
+		}
+		return removed;
+	}
+	
+	@Override
+	public Iterator<E> iterator()
+	{
+		return new TrackedIterator<>(delegate.iterator(), onChange);
+	}
+	
+	@RequiredArgsConstructor
+	static class TrackedIterator<E> implements Iterator<E>
+	{
+		private final Iterator<E> delegate;
+		private final Runnable onChange;
+		
+		@Override
+		public boolean hasNext()
+		{
+			return delegate.hasNext();
+		}
+		
+		@Override
+		public E next()
+		{
+			return delegate.next();
+		}
+		
+		@Override
+		public void remove()
+		{
+			delegate.remove();
+			onChange.run();
+		}
+	}
+}
@@ -26,6 +26,8 @@ import com.gregmarut.querybuilder.cypher.Direction;
 import com.gregmarut.querybuilder.cypher.IdentifierGenerator;
 import com.gregmarut.querybuilder.cypher.Path;
 import com.gregmarut.querybuilder.cypher.node.Node;
+import com.gregmarut.querybuilder.sdn.accessor.NodeAccessor;
+import com.gregmarut.querybuilder.sdn.accessor.NodeAccessors;
 import com.gregmarut.querybuilder.sdn.model.BaseNode;
 import com.gregmarut.querybuilder.sdn.model.SDNNode;
 import com.gregmarut.querybuilder.sdn.proxy.NodeProxy;
@@ -41,16 +43,17 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -74,6 +77,9 @@ public class SDNUtil
 	//cache singular-relationship results to avoid repeated reflection on every batch row
 	private static final Map<SingularRelationshipKey, Boolean> SINGULAR_RELATIONSHIP_CACHE = new ConcurrentHashMap<>();
 	
+	//cache the relationship annotations of each node class that has a generated accessor, indexed like the accessor
+	private static final Map<Class<?>, Relationship[]> RELATIONSHIP_ANNOTATION_CACHE = new ConcurrentHashMap<>();
+	
 	/**
 	 * Returns the {@link Field} annotated with {@link Id} on the class of the given node.
 	 *
@@ -99,6 +105,37 @@ public class SDNUtil
 			.orElseThrow(() -> new IllegalArgumentException("No @Id field found on " + nodeClass.getName())));
 	}
 	
+	/**
+	 * Returns the value of the {@link Id} field of the given node. The generated accessor of the node class is used when
+	 * present, otherwise the value is read through reflection.
+	 *
+	 * @param node the node whose id should be returned
+	 * @return the id of the node, which may be null
+	 */
+	public static Object getId(final BaseNode node)
+	{
+		final var accessor = findAccessor(node);
+		if (accessor.isPresent())
+		{
+			return accessor.get().getId(node);
+		}
+		else
+		{
+			return getFieldValue(getIDField(node), node);
+		}
+	}
+	
+	/**
+	 * Finds the generated {@link NodeAccessor} for the class of the given node regardless whether it is a proxy or not.
+	 *
+	 * @param node the node object for which to find the accessor
+	 * @return the accessor or empty if none was generated for the class of the node
+	 */
+	public static Optional<NodeAccessor<BaseNode>> findAccessor(final BaseNode node)
+	{
+		return NodeAccessors.find(getOriginalClass(node));
+	}
+	
 	/**
 	 * Gets the original class of the given node object regardless whether it is a proxy or not.
 	 *
@@ -131,7 +168,15 @@ public class SDNUtil
 		else
 		{
 			//extract all of the non-null properties from this node
-			return extractProperties(node, Set.copyOf(ReflectionUtil.getAllDeclaredFields(node.getClass())), false);
+			final var accessor = findAccessor(node);
+			if (accessor.isPresent())
+			{
+				return extractProperties(node, accessor.get(), allIndexes(accessor.get()), false);
+			}
+			else
+			{
+				return extractProperties(node, Set.copyOf(ReflectionUtil.getAllDeclaredFields(node.getClass())), false);
+			}
 		}
 	}
 	
@@ -151,12 +196,29 @@ public class SDNUtil
 			final var accessor = NodeProxyAccessor.extract(node);
 			
 			//extract only of the non-null relationships that have changed from this node
-			return extractNonNullRelationships(node, accessor.getChangedFields());
+			final var nodeAccessor = findAccessor(node);
+			if (nodeAccessor.isPresent())
+			{
+				return extractNonNullRelationships(node, nodeAccessor.get(),
+					indexesOf(nodeAccessor.get(), accessor.getChangedFields()));
+			}
+			else
+			{
+				return extractNonNullRelationships(node, accessor.getChangedFields());
+			}
 		}
 		else
 		{
 			//extract all of the non-null relationships from this node
-			return extractNonNullRelationships(node, Set.copyOf(ReflectionUtil.getAllDeclaredFields(node.getClass())));
+			final var accessor = findAccessor(node);
+			if (accessor.isPresent())
+			{
+				return extractNonNullRelationships(node, accessor.get(), allIndexes(accessor.get()));
+			}
+			else
+			{
+				return extractNonNullRelationships(node, Set.copyOf(ReflectionUtil.getAllDeclaredFields(node.getClass())));
+			}
 		}
 	}
 	
@@ -171,21 +233,58 @@ public class SDNUtil
 	 */
 	public static Map<String, Object> extractProperties(final BaseNode node, final Set<Field> fields, final boolean allowNullValues)
 	{
-		final var entries = fields.stream()
-			//ignore transient fields
-			.filter(field -> !Modifier.isTransient(field.getModifiers()))
-			//filter out all of the fields that are annotated with @Relationship
-			.filter(field -> null == field.getDeclaredAnnotation(Relationship.class))
-			//map the field to a key value pair of the field name and the value of that field
-			.map(field -> new AbstractMap.SimpleEntry<>(field.getName(), getFieldValue(field, node)))
-			.toList();
-		
+		final var accessor = findAccessor(node);
+		if (accessor.isPresent())
+		{
+			return extractProperties(node, accessor.get(), indexesOf(accessor.get(), fields), allowNullValues);
+		}
+		else
+		{
+			final var entries = fields.stream()
+				//ignore transient fields
+				.filter(field -> !Modifier.isTransient(field.getModifiers()))
+				//filter out all of the fields that are annotated with @Relationship
+				.filter(field -> null == field.getDeclaredAnnotation(Relationship.class))
+				//map the field to a key value pair of the field name and the value of that field
+				.map(field -> new AbstractMap.SimpleEntry<>(field.getName(), getFieldValue(field, node)))
+				.toList();
+			
+			final var properties = new HashMap<String, Object>();
+			entries.stream()
+				//filter out all of the fields that have a null value unless allowNullValues is true
+				.filter(entry -> allowNullValues || null != entry.getValue())
+				//add all of the properties to the map
+				.forEach(e -> properties.put(e.getKey(), e.getValue()));
+			
+			return properties;
+		}
+	}
+	
+	/**
+	 * Extracts the properties at the given field indexes through the generated accessor of the node. Transient fields
+	 * and relationships are ignored.
+	 *
+	 * @param node            the {@link BaseNode} object from which to extract the properties
+	 * @param accessor        the generated accessor of the node class
+	 * @param indexes         the field indexes to inspect on the node
+	 * @param allowNullValues if {@code true}, fields with {@code null} values are included in the result
+	 * @return a {@link Map} containing the properties of the {@code node}
+	 */
+	private static Map<String, Object> extractProperties(final BaseNode node, final NodeAccessor<BaseNode> accessor, final int[] indexes,
+		final boolean allowNullValues)
+	{
 		final var properties = new HashMap<String, Object>();
-		entries.stream()
-			//filter out all of the fields that have a null value unless allowNullValues is true
-			.filter(entry -> allowNullValues || null != entry.getValue())
-			//add all of the properties to the map
-			.forEach(e -> properties.put(e.getKey(), e.getValue()));
+		for (final int index : indexes)
+		{
+			if (!accessor.isTransient(index) && null == accessor.getRelationship(index))
+			{
+				final var value = accessor.get(node, index);
+				if (allowNullValues || null != value)
+				{
+					properties.put(accessor.getFieldName(index), value);
+				}
+			}
+		}
 		
 		return properties;
 	}
@@ -199,7 +298,7 @@ public class SDNUtil
 	 * </p>
 	 *
 	 * @param nodeClass         the class that declares the {@link Relationship} field
-	 * @param relationshipValue the {@link Relationship#value()} to match
+	 * @param relationshipValue the relationship type to match, as resolved by {@link #getRelationshipType(Relationship)}
 	 * @param direction         the {@link Relationship.Direction} to match
 	 * @return {@code true} if the matching field is not a {@link Collection}; {@code false} if it is a collection or no matching field exists
 	 */
@@ -207,14 +306,47 @@ public class SDNUtil
 		final Relationship.Direction direction)
 	{
 		return SINGULAR_RELATIONSHIP_CACHE.computeIfAbsent(new SingularRelationshipKey(nodeClass, relationshipValue, direction), k ->
-			ReflectionUtil.getAllDeclaredFields(k.nodeClass()).stream()
+			NodeAccessors.find(k.nodeClass())
+				.map(accessor -> isSingularRelationship(accessor, k.relationshipValue(), k.direction()))
+				.orElseGet(() -> ReflectionUtil.getAllDeclaredFields(k.nodeClass()).stream()
 				.filter(field -> {
 					final var annotation = field.getDeclaredAnnotation(Relationship.class);
-					return null != annotation && k.relationshipValue().equals(annotation.value()) && k.direction() == annotation.direction();
+					return null != annotation && k.relationshipValue().equals(getRelationshipType(annotation))
+						&& k.direction() == annotation.direction();
 				})
 				.findFirst()
 				.map(field -> !Collection.class.isAssignableFrom(field.getType()))
-				.orElse(false));
+				.orElse(false)));
+	}
+	
+	/**
+	 * Returns the type of the given relationship annotation. {@link Relationship#value()} and {@link Relationship#type()} are
+	 * aliases of each other, so whichever one is set is the type. The generated node accessors resolve it the same way.
+	 *
+	 * @param relationship
+	 * @return
+	 */
+	public static String getRelationshipType(final Relationship relationship)
+	{
+		return relationship.value().isEmpty() ? relationship.type() : relationship.value();
+	}
+	
+	private static boolean isSingularRelationship(final NodeAccessor<?> accessor, final String relationshipValue,
+		final Relationship.Direction direction)
+	{
+		boolean singular = false;
+		boolean found = false;
+		for (int i = 0; i < accessor.getFieldCount() && !found; i++)
+		{
+			final var relationship = accessor.getRelationship(i);
+			if (null != relationship && relationshipValue.equals(relationship.type()) && direction == relationship.direction())
+			{
+				singular = relationship.singular();
+				found = true;
+			}
+		}
+		
+		return singular;
 	}
 	
 	/**
@@ -249,6 +381,73 @@ public class SDNUtil
 			.toList();
 	}
 	
+	/**
+	 * Extracts the non-null relationships at the given field indexes through the generated accessor of the node and
+	 * returns them as a flat list of {@link RelationshipField}.
+	 *
+	 * @param node     the {@link BaseNode} object from which to extract the relationships
+	 * @param accessor the generated accessor of the node class
+	 * @param indexes  the field indexes to inspect on the node
+	 * @return a list of {@link RelationshipField} representing the non-null relationships of the {@code node}
+	 */
+	private static List<RelationshipField<BaseNode>> extractNonNullRelationships(final BaseNode node, final NodeAccessor<BaseNode> accessor,
+		final int[] indexes)
+	{
+		final Relationship[] annotations = RELATIONSHIP_ANNOTATION_CACHE.computeIfAbsent(accessor.getNodeClass(),
+			c -> getRelationshipAnnotations(accessor));
+		
+		final List<RelationshipField<BaseNode>> relationships = new ArrayList<>();
+		for (final int index : indexes)
+		{
+			if (!accessor.isTransient(index) && null != annotations[index])
+			{
+				final var target = accessor.get(node, index);
+				if (target instanceof Collection<?> c)
+				{
+					for (final Object value : c)
+					{
+						relationships.add(toRelationshipField(annotations[index], value));
+					}
+				}
+				else if (null != target)
+				{
+					relationships.add(toRelationshipField(annotations[index], target));
+				}
+			}
+		}
+		
+		return relationships;
+	}
+	
+	private static Relationship[] getRelationshipAnnotations(final NodeAccessor<?> accessor)
+	{
+		//the annotations are only resolved for the fields that the accessor describes as relationships
+		final var annotations = new Relationship[accessor.getFieldCount()];
+		for (int i = 0; i < annotations.length; i++)
+		{
+			if (null != accessor.getRelationship(i))
+			{
+				annotations[i] = ReflectionUtil.getDeclaredField(accessor.getNodeClass(), accessor.getFieldName(i))
+					.getDeclaredAnnotation(Relationship.class);
+			}
+		}
+		
+		return annotations;
+	}
+	
+	private static int[] allIndexes(final NodeAccessor<?> accessor)
+	{
+		return IntStream.range(0, accessor.getFieldCount()).toArray();
+	}
+	
+	private static int[] indexesOf(final NodeAccessor<?> accessor, final Set<Field> fields)
+	{
+		return fields.stream()
+			.mapToInt(field -> accessor.indexOf(field.getName()))
+			.filter(index -> index >= 0)
+			.toArray();
+	}
+	
 	/**
 	 * Converts a given {@link BaseNode} object and a collection of {@link RelationshipField} objects into a list of {@link Path} objects.
 	 *
@@ -263,7 +462,7 @@ public class SDNUtil
 		return relationshipFields.stream()
 			.map(r -> {
 				final com.gregmarut.querybuilder.cypher.Relationship relationship =
-					new com.gregmarut.querybuilder.cypher.Relationship(Objects.requireNonNull(r.getAnnotation().value()));
+					new com.gregmarut.querybuilder.cypher.Relationship(getRelationshipType(r.getAnnotation()));
 				relationship.getProperties().putAll(r.getProperties());
 				final Node endNode = SDNNode.withIdPropertyOnly(r.getTarget()).named(generator);
 				final Direction direction = switch (r.getAnnotation().direction())
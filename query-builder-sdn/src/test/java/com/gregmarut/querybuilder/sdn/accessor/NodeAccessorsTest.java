@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.accessor;
+
+import com.gregmarut.querybuilder.sdn.batch.BatchQueryBuilder;
+import com.gregmarut.querybuilder.sdn.model.BaseNode;
+import com.gregmarut.querybuilder.sdn.model.MovieNode;
+import com.gregmarut.querybuilder.sdn.model.PersonNode;
+import com.gregmarut.querybuilder.sdn.model.Relationships;
+import com.gregmarut.querybuilder.sdn.proxy.NodeProxy;
+import com.gregmarut.querybuilder.sdn.util.SDNUtil;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.neo4j.core.schema.Id;
+import org.springframework.data.neo4j.core.schema.Node;
+import org.springframework.data.neo4j.core.schema.Relationship;
+
+import java.util.List;
+import java.util.Map;
+
+public class NodeAccessorsTest
+{
+	private static final String RATED = "RATED";
+	
+	@Test
+	public void generatedAccessor()
+	{
+		final var accessor = NodeAccessors.find(PersonNode.class).orElseThrow();
+		Assertions.assertEquals(PersonNode.class, accessor.getNodeClass());
+		Assertions.assertEquals(5, accessor.getFieldCount());
+		Assertions.assertEquals(0, accessor.getIdIndex());
+		Assertions.assertEquals(1, accessor.indexOf("name"));
+		Assertions.assertEquals(-1, accessor.indexOf("missing"));
+		
+		final var person = new PersonNode("123", "Greg", 1989, null);
+		Assertions.assertEquals("123", accessor.getId(person));
+		
+		accessor.set(person, accessor.indexOf("born"), 1990);
+		Assertions.assertEquals(1990, person.getBorn());
+		Assertions.assertEquals(1990, accessor.get(person, accessor.indexOf("born")));
+		
+		Assertions.assertNull(accessor.getRelationship(accessor.indexOf("name")));
+		Assertions.assertEquals(new RelationshipDescriptor(Relationships.ACTED_IN, Relationship.Direction.OUTGOING, false),
+			accessor.getRelationship(accessor.indexOf("actedInMovies")));
+		
+		final var movieAccessor = NodeAccessors.find(MovieNode.class).orElseThrow();
+		Assertions.assertEquals(new RelationshipDescriptor(Relationships.DIRECTED, Relationship.Direction.INCOMING, true),
+			movieAccessor.getRelationship(movieAccessor.indexOf("director")));
+	}
+	
+	@Test
+	public void extractThroughAccessor()
+	{
+		final var movie = new MovieNode("1", "The Matrix");
+		final var person = new PersonNode("123", "Greg", 1989, null);
+		person.setActedInMovies(List.of(movie));
+		
+		Assertions.assertEquals(Map.of("id", "123", "name", "Greg", "born", 1989), SDNUtil.extractModifiedProperties(person));
+		
+		final var relationships = SDNUtil.extractModifiedRelationships(person);
+		Assertions.assertEquals(1, relationships.size());
+		Assertions.assertEquals(Relationships.ACTED_IN, relationships.getFirst().getAnnotation().value());
+		Assertions.assertEquals(movie, relationships.getFirst().getTarget());
+		
+		Assertions.assertTrue(SDNUtil.isSingularRelationship(MovieNode.class, Relationships.DIRECTED, Relationship.Direction.INCOMING));
+		Assertions.assertFalse(SDNUtil.isSingularRelationship(PersonNode.class, Relationships.ACTED_IN, Relationship.Direction.OUTGOING));
+		
+		//the proxy copies its fields through the accessor as well
+		final var proxy = NodeProxy.createProxy(person);
+		Assertions.assertEquals("Greg", proxy.getName());
+		Assertions.assertEquals(List.of(movie), proxy.getActedInMovies());
+		Assertions.assertEquals(person, proxy);
+	}
+	
+	@Test
+	public void fallbackToReflection()
+	{
+		Assertions.assertTrue(NodeAccessors.find(PlainNode.class).isEmpty());
+		
+		final var node = new PlainNode();
+		node.setKey("abc");
+		
+		Assertions.assertEquals("abc", SDNUtil.getId(node));
+		Assertions.assertEquals(Map.of("key", "abc"), SDNUtil.extractModifiedProperties(node));
+		Assertions.assertEquals(node.hashCode(), NodeProxy.createProxy(node).hashCode());
+	}
+	
+	@Test
+	public void relationshipTypeAttributeMatchesReflection()
+	{
+		final var accessor = NodeAccessors.find(RatingNode.class).orElseThrow();
+		Assertions.assertTrue(NodeAccessors.find(PlainRatingNode.class).isEmpty());
+		Assertions.assertEquals(new RelationshipDescriptor(RATED, Relationship.Direction.OUTGOING, true),
+			accessor.getRelationship(accessor.indexOf("rated")));
+		
+		//the generated accessor and reflection both read the type attribute when the value is not set
+		Assertions.assertTrue(SDNUtil.isSingularRelationship(RatingNode.class, RATED, Relationship.Direction.OUTGOING));
+		Assertions.assertTrue(SDNUtil.isSingularRelationship(PlainRatingNode.class, RATED, Relationship.Direction.OUTGOING));
+		
+		final var movie = new MovieNode("1", "The Matrix");
+		final var rating = new RatingNode();
+		rating.setKey("r1");
+		rating.setRated(movie);
+		
+		Assertions.assertEquals(RATED, BatchQueryBuilder.buildBatchLinkQueries(List.of(rating)).getFirst().relationship());
+	}
+	
+	//not annotated with @Node so no accessor is generated for it
+	@Getter
+	@Setter
+	public static class PlainNode extends BaseNode
+	{
+		@Id
+		private String key;
+	}
+	
+	@Node("Rating")
+	@Getter
+	@Setter
+	public static class RatingNode extends BaseNode
+	{
+		@Id
+		private String key;
+		
+		@Relationship(type = RATED, direction = Relationship.Direction.OUTGOING)
+		private MovieNode rated;
+	}
+	
+	//the same node without @Node, so its relationship is read through reflection
+	@Getter
+	@Setter
+	public static class PlainRatingNode extends BaseNode
+	{
+		@Id
+		private String key;
+		
+		@Relationship(type = RATED, direction = Relationship.Direction.OUTGOING)
+		private MovieNode rated;
+	}
+}
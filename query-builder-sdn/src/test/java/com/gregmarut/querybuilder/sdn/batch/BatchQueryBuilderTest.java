@@ -1,13 +1,19 @@
 package com.gregmarut.querybuilder.sdn.batch;
 
+import com.gregmarut.querybuilder.cypher.CallInTransactions;
 import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import com.gregmarut.querybuilder.sdn.model.BaseNode;
 import com.gregmarut.querybuilder.sdn.model.MovieNode;
 import com.gregmarut.querybuilder.sdn.model.PersonNode;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 class BatchQueryBuilderTest
 {
@@ -39,6 +45,39 @@ class BatchQueryBuilderTest
 			SET n += row""", batchMergeQueries.getFirst().query().getQuery());
 	}
 	
+	@Test
+	void mergeAllInTransactions()
+	{
+		final var personNodes = List.of(
+			new PersonNode("1", "Greg", 1989, "greg@example.com"),
+			new PersonNode("2", "John", 1976, "john@example.com")
+		);
+		
+		final var options = BatchOptions.inTransactionsOf(1000).concurrent(4).onError(CallInTransactions.OnError.CONTINUE);
+		final var batchMergeQueries = BatchQueryBuilder.buildBatchMergeQueries(personNodes, options);
+		
+		final var query = batchMergeQueries.getFirst().query();
+		Assertions.assertEquals(1, query.getParams().size());
+		
+		Assertions.assertEquals("""
+			UNWIND $_v0 AS row
+			CALL {
+			WITH row
+			MERGE (n:Person{id: row.id})
+			SET n += row
+			} IN 4 CONCURRENT TRANSACTIONS OF 1000 ROWS ON ERROR CONTINUE""", query.getQuery());
+	}
+	
+	@Test
+	void transactionOptionsRequireTransactionRows()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new BatchOptions(null, 4, null));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new BatchOptions(null, null, CallInTransactions.OnError.BREAK));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> BatchOptions.inTransactionsOf(0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> BatchOptions.inTransactionsOf(10).concurrent(0));
+		Assertions.assertTrue(BatchOptions.inTransactionsOf(10).concurrent(2).isInTransactions());
+	}
+	
 	@Test
 	void linkAll()
 	{
@@ -65,6 +104,27 @@ class BatchQueryBuilderTest
 			MERGE (b)-[:ACTED_IN]->(a)""", batchLinkQueries.getFirst().query().getQuery());
 	}
 	
+	@Test
+	void linkAllInTransactions()
+	{
+		final var personNode1 = new PersonNode("1", "Greg", 1989, "greg@example.com");
+		personNode1.setActedInMovies(List.of(new MovieNode("1", "Movie 1"), new MovieNode("2", "Movie 2")));
+		
+		final var batchLinkQueries = BatchQueryBuilder.buildBatchLinkQueries(List.of(personNode1), BatchOptions.inTransactionsOf(500));
+		
+		final var query = batchLinkQueries.getFirst().query();
+		Assertions.assertEquals(1, query.getParams().size());
+		
+		Assertions.assertEquals("""
+			UNWIND $_v0 AS row
+			CALL {
+			WITH row
+			MATCH (a:Movie{id: row.fromId})
+			MATCH (b:Person{id: row.toId})
+			MERGE (b)-[:ACTED_IN]->(a)
+			} IN TRANSACTIONS OF 500 ROWS""", query.getQuery());
+	}
+	
 	@Test
 	void linkSingularRelationshipDefaultBehavior()
 	{
@@ -110,4 +170,107 @@ class BatchQueryBuilderTest
 			FOREACH (_i_4 IN _i_3 | DELETE _i_4)
 			MERGE (a)-[:DIRECTED]->(b)""", query.getQuery());
 	}
+	
+	@Test
+	void parallelExtractionKeepsOrder()
+	{
+		final var nodes = new ArrayList<BaseNode>();
+		for (int i = 0; i < 5000; i++)
+		{
+			final var person = new PersonNode("p" + i, "Person " + i, 1950 + i % 50, null);
+			person.setActedInMovies(List.of(new MovieNode("m" + i, "Movie " + i)));
+			nodes.add(person);
+			
+			//interleave a second node class so the grouping order matters
+			if (i % 7 == 0)
+			{
+				final var movie = new MovieNode("m" + i, "Movie " + i);
+				movie.setDirector(person);
+				nodes.add(movie);
+			}
+		}
+		
+		final var sequentialMerges = BatchQueryBuilder.buildBatchMergeQueries(nodes);
+		final var parallelMerges = BatchQueryBuilder.buildBatchMergeQueries(nodes, BatchOptions.DEFAULT.inParallel());
+		Assertions.assertEquals(2, parallelMerges.size());
+		Assertions.assertEquals(sequentialMerges.stream().map(q -> q.query().getParams()).toList(),
+			parallelMerges.stream().map(q -> q.query().getParams()).toList());
+		
+		final var sequentialLinks = BatchQueryBuilder.buildBatchLinkQueries(nodes);
+		final var parallelLinks = BatchQueryBuilder.buildBatchLinkQueries(nodes, BatchOptions.DEFAULT.inParallel());
+		Assertions.assertEquals(2, parallelLinks.size());
+		Assertions.assertEquals(sequentialLinks.stream().map(q -> q.query().getParams()).toList(),
+			parallelLinks.stream().map(q -> q.query().getParams()).toList());
+	}
+	
+	@Test
+	void streamMergeChunks()
+	{
+		final var nodes = new ArrayList<BaseNode>();
+		for (int i = 0; i < 5; i++)
+		{
+			nodes.add(new PersonNode("p" + i, "Person " + i, null, null));
+			nodes.add(new MovieNode("m" + i, "Movie " + i));
+		}
+		
+		final var queries = BatchQueryBuilder.streamBatchMergeQueries(nodes.stream(), 2, BatchOptions.DEFAULT).toList();
+		
+		//full chunks are emitted as soon as they fill, then the partial chunks in the order their class was first seen
+		Assertions.assertEquals(List.of("Person", "Movie", "Person", "Movie", "Person", "Movie"),
+			queries.stream().map(BatchMergeQuery::nodeLabel).toList());
+		Assertions.assertEquals(List.of(2, 2, 2, 2, 1, 1), queries.stream().map(BatchMergeQuery::batchSize).toList());
+		
+		Assertions.assertEquals("""
+			UNWIND $_v0 AS row
+			MERGE (n:Person{id: row.id})
+			SET n += row""", queries.getFirst().query().getQuery());
+	}
+	
+	@Test
+	void streamLinkChunksAreLazy()
+	{
+		final var read = new AtomicInteger();
+		final var people = IntStream.range(0, 10).mapToObj(i -> {
+			read.incrementAndGet();
+			final var person = new PersonNode("p" + i, "Person " + i, null, null);
+			person.setActedInMovies(List.of(new MovieNode("a" + i, null), new MovieNode("b" + i, null)));
+			return person;
+		});
+		
+		final var iterator = BatchQueryBuilder.streamBatchLinkQueries(people, 3, BatchOptions.DEFAULT).iterator();
+		final var first = iterator.next();
+		
+		//the second person fills the first chunk so the remaining people have not been read yet
+		Assertions.assertEquals(2, read.get());
+		Assertions.assertEquals(3, first.batchSize());
+		Assertions.assertEquals("ACTED_IN", first.relationship());
+		
+		var rows = 3;
+		while (iterator.hasNext())
+		{
+			rows += iterator.next().batchSize();
+		}
+		Assertions.assertEquals(20, rows);
+		Assertions.assertEquals(10, read.get());
+	}
+	
+	@Test
+	void streamChunksByParameterSize()
+	{
+		final var people = IntStream.range(0, 10)
+			.mapToObj(i -> new PersonNode("p" + i, "x".repeat(100), null, null))
+			.toList();
+		
+		//every row is well over 100 bytes so each chunk is closed after its third row
+		final var queries = BatchQueryBuilder.streamBatchMergeQueries(people.stream(), 1000, 300, BatchOptions.DEFAULT).toList();
+		
+		Assertions.assertEquals(List.of(3, 3, 3, 1), queries.stream().map(BatchMergeQuery::batchSize).toList());
+	}
+	
+	@Test
+	void streamRejectsEmptyChunks()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> BatchQueryBuilder.streamBatchMergeQueries(Stream.<PersonNode>empty(), 0, BatchOptions.DEFAULT));
+	}
 }
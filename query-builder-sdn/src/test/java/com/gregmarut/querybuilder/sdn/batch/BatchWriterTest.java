@@ -0,0 +1,223 @@
+package com.gregmarut.querybuilder.sdn.batch;
+
+import com.gregmarut.querybuilder.cypher.CypherQuery;
+import com.gregmarut.querybuilder.cypher.TypedCypherQuery;
+import com.gregmarut.querybuilder.sdn.PreparedCypherQuery;
+import com.gregmarut.querybuilder.sdn.PreparedResultCypherQuery;
+import com.gregmarut.querybuilder.sdn.QueryExecutor;
+import com.gregmarut.querybuilder.sdn.model.MovieNode;
+import com.gregmarut.querybuilder.sdn.model.PersonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.exceptions.TransientException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+class BatchWriterTest
+{
+	private static final BatchWriterOptions OPTIONS = BatchWriterOptions.DEFAULT
+		.withMaxRows(4)
+		.withRetry(3, Duration.ofMillis(1), Duration.ofMillis(2));
+	
+	@Test
+	void mergesBeforeLinking()
+	{
+		final var executor = new RecordingQueryExecutor(query -> sleep(5));
+		final var report = new BatchWriter(executor, OPTIONS.withConcurrency(3)).write(people(10));
+		
+		//10 people in chunks of 4 and 20 ACTED_IN rows in chunks of 4
+		Assertions.assertEquals(3, report.chunks().stream().filter(c -> c.phase() == BatchWriteReport.Phase.MERGE).count());
+		Assertions.assertEquals(5, report.chunks().stream().filter(c -> c.phase() == BatchWriteReport.Phase.LINK).count());
+		Assertions.assertEquals(10, report.rows(BatchWriteReport.Phase.MERGE));
+		Assertions.assertEquals(20, report.rows(BatchWriteReport.Phase.LINK));
+		Assertions.assertTrue(report.rowsPerSecond() > 0);
+		Assertions.assertTrue(report.maxChunkLatency().toMillis() >= 5);
+		
+		//no relationship is linked before every node is merged
+		final var kinds = executor.queries.stream().map(BatchWriterTest::isLink).toList();
+		Assertions.assertEquals(List.of(false, false, false, true, true, true, true, true), kinds);
+		Assertions.assertTrue(executor.maxInFlight.get() <= 3);
+	}
+	
+	@Test
+	void boundsConcurrency()
+	{
+		//the first two chunks wait for each other so both permits are held at the same time
+		final var bothHeld = new CountDownLatch(2);
+		final var executor = new RecordingQueryExecutor(query -> {
+			bothHeld.countDown();
+			await(bothHeld);
+		});
+		new BatchWriter(executor, OPTIONS.withMaxRows(1).withConcurrency(2)).write(people(8));
+		
+		Assertions.assertTrue(executor.maxInFlight.get() <= 2);
+		Assertions.assertEquals(2, executor.maxInFlight.get());
+	}
+	
+	@Test
+	void retriesTransientFailures()
+	{
+		final var failures = new AtomicInteger(2);
+		final var executor = new RecordingQueryExecutor(query -> {
+			if (isLink(query) && failures.getAndDecrement() > 0)
+			{
+				throw new TransientDataAccessResourceException("deadlock",
+					new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "deadlock"));
+			}
+		});
+		
+		final var report = new BatchWriter(executor, OPTIONS.withConcurrency(1)).write(people(2));
+		
+		Assertions.assertEquals(2, report.retries());
+		Assertions.assertEquals(3, report.chunks().getLast().attempts());
+		Assertions.assertEquals(4, report.rows(BatchWriteReport.Phase.LINK));
+	}
+	
+	@Test
+	void rethrowsWhenAttemptsAreUsedUp()
+	{
+		final var executor = new RecordingQueryExecutor(query -> {
+			throw new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "deadlock");
+		});
+		
+		final var writer = new BatchWriter(executor, OPTIONS);
+		final var e = Assertions.assertThrows(IllegalStateException.class, () -> writer.write(people(2)));
+		
+		Assertions.assertTrue(e.getMessage().contains("after 3 attempt(s)"), e.getMessage());
+		Assertions.assertEquals(3, executor.queries.size());
+	}
+	
+	@Test
+	void doesNotLinkAfterFailedMerge()
+	{
+		final var executor = new RecordingQueryExecutor(query -> {
+			if (!isLink(query))
+			{
+				throw new IllegalArgumentException("constraint violated");
+			}
+		});
+		
+		final var writer = new BatchWriter(executor, OPTIONS.withConcurrency(1));
+		Assertions.assertThrows(IllegalStateException.class, () -> writer.write(people(10)));
+		
+		//the non transient failure is not retried and stops the remaining chunks
+		Assertions.assertEquals(1, executor.queries.size());
+	}
+	
+	@Test
+	void writesInTransactionsInImplicitTransactions()
+	{
+		final var executor = new RecordingQueryExecutor(query -> {
+		});
+		
+		new BatchWriter(executor, OPTIONS.withQueryOptions(BatchOptions.inTransactionsOf(2))).write(people(4));
+		
+		//a CALL IN TRANSACTIONS query is rejected by the server inside of an explicit transaction
+		Assertions.assertEquals(3, executor.queries.size());
+		Assertions.assertEquals(List.copyOf(executor.queries), List.copyOf(executor.implicitQueries));
+	}
+	
+	private static List<PersonNode> people(final int count)
+	{
+		return IntStream.range(0, count).mapToObj(i -> {
+			final var person = new PersonNode("p" + i, "Person " + i, null, null);
+			person.setActedInMovies(List.of(new MovieNode("a" + i, null), new MovieNode("b" + i, null)));
+			return person;
+		}).toList();
+	}
+	
+	private static boolean isLink(final CypherQuery query)
+	{
+		return query.getQuery().contains("ACTED_IN");
+	}
+	
+	private static void sleep(final long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static void await(final CountDownLatch latch)
+	{
+		try
+		{
+			if (!latch.await(5, TimeUnit.SECONDS))
+			{
+				throw new IllegalStateException("Timed out waiting for the concurrent chunks");
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	//stands in for a database by recording the queries and running the given behavior for each of them
+	private static class RecordingQueryExecutor implements QueryExecutor
+	{
+		private final ConcurrentLinkedQueue<CypherQuery> queries = new ConcurrentLinkedQueue<>();
+		private final ConcurrentLinkedQueue<CypherQuery> implicitQueries = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+		private final Consumer<CypherQuery> behavior;
+		
+		private RecordingQueryExecutor(final Consumer<CypherQuery> behavior)
+		{
+			this.behavior = behavior;
+		}
+		
+		@Override
+		public PreparedCypherQuery prepare(final CypherQuery cypherQuery)
+		{
+			return new PreparedCypherQuery(cypherQuery, null, null)
+			{
+				@Override
+				public void run()
+				{
+					execute(cypherQuery);
+				}
+			};
+		}
+		
+		@Override
+		public void runInImplicitTransaction(final CypherQuery cypherQuery)
+		{
+			implicitQueries.add(cypherQuery);
+			execute(cypherQuery);
+		}
+		
+		private void execute(final CypherQuery cypherQuery)
+		{
+			queries.add(cypherQuery);
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try
+			{
+				behavior.accept(cypherQuery);
+			}
+			finally
+			{
+				inFlight.decrementAndGet();
+			}
+		}
+		
+		@Override
+		public <T> PreparedResultCypherQuery<T> prepare(final TypedCypherQuery<T> cypherQuery)
+		{
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.gregmarut.querybuilder.sdn.batch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+class ParameterSizeEstimatorTest
+{
+	@Test
+	void countsEncodedBytesOfStrings()
+	{
+		for (final String s : new String[]{"Keanu", "Zoë", "北京", "🎬 Matrix"})
+		{
+			Assertions.assertEquals(s.getBytes(StandardCharsets.UTF_8).length, ParameterSizeEstimator.utf8Length(s), s);
+		}
+		
+		//the same number of characters costs more once they need several bytes each
+		Assertions.assertTrue(ParameterSizeEstimator.estimate("北京") > ParameterSizeEstimator.estimate("ab"));
+	}
+}
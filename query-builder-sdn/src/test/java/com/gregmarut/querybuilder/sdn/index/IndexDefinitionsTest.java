@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.index;
+
+import com.gregmarut.querybuilder.cypher.CypherBuilder;
+import com.gregmarut.querybuilder.cypher.OrderType;
+import com.gregmarut.querybuilder.cypher.QueryBuilderContext;
+import com.gregmarut.querybuilder.sdn.model.BaseNode;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.neo4j.core.schema.Id;
+import org.springframework.data.neo4j.core.schema.Node;
+
+import java.util.List;
+import java.util.Map;
+
+public class IndexDefinitionsTest
+{
+	@Test
+	public void createStatements()
+	{
+		Assertions.assertEquals(List.of(
+			"CREATE FULLTEXT INDEX article_fulltext IF NOT EXISTS FOR (n:Article) ON EACH [n.title, n.body]",
+			"CREATE FULLTEXT INDEX author_search IF NOT EXISTS FOR (n:Article) ON EACH [n.author]",
+			"CREATE VECTOR INDEX article_embedding_vector IF NOT EXISTS FOR (n:Article) ON (n.embedding) OPTIONS {indexConfig: "
+				+ "{`vector.dimensions`: 3, `vector.similarity_function`: 'cosine'}}"), IndexDefinitions.createStatements(ArticleNode.class));
+	}
+	
+	@Test
+	public void fulltextQueryUsesIndexName()
+	{
+		final var indexQuery = IndexDefinitions.fulltextQuery(ArticleNode.class, "body", "graph*", "a");
+		final var articleNode = indexQuery.getAsNode(ArticleNode.class);
+		
+		final var query = CypherBuilder.create()
+			.call(indexQuery)
+			.addReturn(articleNode)
+			.orderBy(indexQuery.getScoreAlias(), OrderType.DESC)
+			.build(QueryBuilderContext.createCanonical());
+		
+		Assertions.assertEquals("CALL db.index.fulltext.queryNodes($_v0, $_v1) YIELD node AS a, score AS a_score RETURN a "
+			+ "ORDER BY a_score DESC", query.getQuery());
+		Assertions.assertEquals(Map.of("_v0", "article_fulltext", "_v1", "graph*"), query.getParams());
+	}
+	
+	@Test
+	public void vectorQueryUsesIndexName()
+	{
+		final var indexQuery = IndexDefinitions.vectorQuery(ArticleNode.class, "embedding", 5, List.of(0.1, 0.2, 0.3), "a");
+		
+		Assertions.assertEquals("article_embedding_vector", indexQuery.getArguments().get(0).getValue());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> IndexDefinitions.vectorQuery(ArticleNode.class, "title", 5,
+			List.of(0.1), "a"));
+	}
+	
+	@Getter
+	@Setter
+	@Node("Article")
+	public static class ArticleNode extends BaseNode
+	{
+		@Id
+		private String id;
+		
+		@FulltextIndexed
+		private String title;
+		
+		@FulltextIndexed
+		private String body;
+		
+		@FulltextIndexed(index = "author_search")
+		private String author;
+		
+		@VectorIndexed(dimensions = 3)
+		private List<Double> embedding;
+	}
+}
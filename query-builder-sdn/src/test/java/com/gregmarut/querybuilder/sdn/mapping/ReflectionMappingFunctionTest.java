@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 Greg Marut
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gregmarut.querybuilder.sdn.mapping;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Values;
+import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ReflectionMappingFunctionTest
+{
+	@Test
+	public void mapsEveryKindOfField()
+	{
+		final var mappingFunction = new ReflectionMappingFunction<>(MovieView.class, new Neo4jMappingContext());
+		
+		final Map<String, Object> row = new HashMap<>();
+		row.put("title", "The Matrix");
+		row.put("released", 1999);
+		row.put("views", 12345678901L);
+		row.put("rating", 8.7);
+		row.put("genre", "SCIENCE_FICTION");
+		row.put("tags", List.of("action", "cyberpunk"));
+		row.put("actorIds", List.of("a", "b", "a"));
+		
+		final var movie = mappingFunction.apply(null, Values.value(row));
+		
+		Assertions.assertEquals("The Matrix", movie.getTitle());
+		Assertions.assertEquals(1999, movie.getReleased());
+		Assertions.assertEquals(12345678901L, movie.getViews());
+		Assertions.assertEquals(8.7, movie.getRating());
+		Assertions.assertEquals(Genre.SCIENCE_FICTION, movie.getGenre());
+		Assertions.assertEquals(List.of("action", "cyberpunk"), movie.getTags());
+		Assertions.assertEquals(Set.of("a", "b"), movie.getActorIds());
+	}
+	
+	@Test
+	public void mapsMissingValuesToNull()
+	{
+		final var mappingFunction = new ReflectionMappingFunction<>(MovieView.class, new Neo4jMappingContext());
+		
+		final var movie = mappingFunction.apply(null, Values.value(Map.of("title", "The Matrix")));
+		
+		Assertions.assertEquals("The Matrix", movie.getTitle());
+		Assertions.assertNull(movie.getGenre());
+		Assertions.assertNull(movie.getTags());
+		
+		//primitives keep their default
+		Assertions.assertEquals(0, movie.getReleased());
+	}
+	
+	@Test
+	public void reusesMappingPlan()
+	{
+		final var mappingFunction = new ReflectionMappingFunction<>(MovieView.class, new Neo4jMappingContext());
+		
+		Assertions.assertSame(mappingFunction.getMappingPlan(), mappingFunction.getMappingPlan());
+	}
+	
+	@Test
+	public void mapsFinalFields()
+	{
+		final var mappingFunction = new ReflectionMappingFunction<>(RatingView.class, new Neo4jMappingContext());
+		
+		final var rating = mappingFunction.apply(null, Values.value(Map.of("source", "critics", "score", 9)));
+		
+		Assertions.assertEquals("critics", rating.getSource());
+		Assertions.assertEquals(9, rating.getScore());
+	}
+	
+	public enum Genre
+	{
+		DRAMA,
+		SCIENCE_FICTION,
+	}
+	
+	@Getter
+	@Setter
+	public static class MovieView
+	{
+		public static final String LABEL = "Movie";
+		
+		private String title;
+		private int released;
+		private long views;
+		private double rating;
+		private Genre genre;
+		private List<String> tags;
+		private Set<String> actorIds;
+	}
+	
+	@Getter
+	public static class RatingView
+	{
+		private final String source;
+		private final int score;
+		
+		public RatingView()
+		{
+			this.source = null;
+			this.score = 0;
+		}
+	}
+}
@@ -17,7 +17,10 @@
 
 package com.gregmarut.querybuilder.sdn.proxy;
 
+import com.gregmarut.querybuilder.sdn.model.MovieNode;
 import com.gregmarut.querybuilder.sdn.model.PersonNode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -26,6 +29,9 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 class NodeProxyTest
 {
@@ -132,4 +138,153 @@ class NodeProxyTest
 		Assertions.assertEquals(personNode, proxy);
 		Assertions.assertEquals(proxy, personNode);
 	}
+	
+	@Test
+	void staticFieldsAreNotCopied()
+	{
+		final var node = new ConstantNode();
+		node.setName("Greg");
+		
+		final var proxy = NodeProxy.createProxy(node);
+		proxy.setName("Gregory");
+		
+		Assertions.assertEquals("Gregory", proxy.getName());
+		Assertions.assertEquals(1, NodeProxyAccessor.extract(proxy).getChangedFields().size());
+	}
+	
+	@Test
+	void staticFieldsAreNotCloned()
+	{
+		final var node = new ConstantNode();
+		node.setName("Greg");
+		
+		//copying a static final field would throw, so the clone only carries the instance fields
+		final var clone = NodeProxyUtil.clone(node);
+		Assertions.assertNotSame(node, clone);
+		Assertions.assertEquals("Greg", clone.getName());
+		Assertions.assertEquals("Constant", ConstantNode.LABEL);
+	}
+	
+	@Test
+	void trackingSetters()
+	{
+		final var personNode = new PersonNode("123", "John", 1988, null);
+		final var proxy = NodeProxy.createProxy(personNode, NodeProxy.Mode.TRACKING);
+		
+		Assertions.assertInstanceOf(DirtyTracked.class, proxy);
+		Assertions.assertEquals("John", proxy.getName());
+		Assertions.assertTrue(NodeProxyAccessor.extract(proxy).getChangedFields().isEmpty());
+		
+		proxy.setName("Jonathan");
+		proxy.setBorn(null);
+		
+		final var accessor = NodeProxyAccessor.extract(proxy);
+		final var changedFields = new ArrayList<>(accessor.getChangedFields());
+		changedFields.sort(Comparator.comparing(Field::getName));
+		Assertions.assertEquals(2, changedFields.size());
+		Assertions.assertEquals("born", changedFields.get(0).getName());
+		Assertions.assertEquals("name", changedFields.get(1).getName());
+		Assertions.assertNull(accessor.getSnapshot());
+	}
+	
+	@Test
+	void trackingCollections()
+	{
+		final var personNode = new PersonNode("123", "John", 1988, null);
+		personNode.setActedInMovies(new ArrayList<>(List.of(new MovieNode("1", "The Matrix"))));
+		
+		final var proxy = NodeProxy.createProxy(personNode, NodeProxy.Mode.TRACKING);
+		final var accessor = NodeProxyAccessor.extract(proxy);
+		
+		//reading the collection does not mark it as dirty
+		Assertions.assertEquals(1, proxy.getActedInMovies().size());
+		Assertions.assertTrue(accessor.getChangedFields().isEmpty());
+		
+		proxy.getActedInMovies().add(new MovieNode("2", "The Matrix Reloaded"));
+		Assertions.assertEquals(1, accessor.getChangedFields().size());
+		Assertions.assertEquals("actedInMovies", accessor.getChangedFields().iterator().next().getName());
+		
+		//the proxy works on its own copy of the collection
+		Assertions.assertEquals(1, personNode.getActedInMovies().size());
+		
+		//taking a snapshot makes the current state the new baseline
+		accessor.snapshot();
+		Assertions.assertTrue(accessor.getChangedFields().isEmpty());
+		
+		proxy.getActedInMovies().removeIf(movie -> movie.getId().equals("1"));
+		Assertions.assertEquals(1, accessor.getChangedFields().size());
+		Assertions.assertEquals(1, accessor.getDiff().size());
+	}
+	
+	@Test
+	void trackingMaps()
+	{
+		final var node = new CollectionNode();
+		node.setAttributes(new HashMap<>(Map.of("a", "1")));
+		
+		final var proxy = NodeProxy.createProxy(node, NodeProxy.Mode.TRACKING);
+		final var accessor = NodeProxyAccessor.extract(proxy);
+		
+		Assertions.assertTrue(accessor.getChangedFields().isEmpty());
+		
+		//updating an entry writes through to the map and marks the field
+		proxy.getAttributes().entrySet().iterator().next().setValue("2");
+		Assertions.assertEquals(1, accessor.getChangedFields().size());
+		Assertions.assertEquals("2", proxy.getAttributes().get("a"));
+	}
+	
+	@Test
+	void trackingUnobservableCollections()
+	{
+		final var node = new CollectionNode();
+		node.setNames(new ArrayList<>(List.of("Greg")));
+		
+		final var proxy = NodeProxy.createProxy(node, NodeProxy.Mode.TRACKING);
+		final var changedFields = NodeProxyAccessor.extract(proxy).getChangedFields();
+		
+		//a field declared as a concrete collection cannot be observed and is always reported
+		Assertions.assertEquals(1, changedFields.size());
+		Assertions.assertEquals("names", changedFields.iterator().next().getName());
+	}
+	
+	@Test
+	void trackingSettersThatDoNotFollowTheFieldName()
+	{
+		final var proxy = NodeProxy.createProxy(new PointNode(), NodeProxy.Mode.TRACKING);
+		
+		//lombok generates setXCoord for xCoord and setActive for the boolean isActive
+		proxy.setXCoord(1);
+		proxy.setActive(true);
+		
+		final var changedFields = new ArrayList<>(NodeProxyAccessor.extract(proxy).getChangedFields());
+		changedFields.sort(Comparator.comparing(Field::getName));
+		Assertions.assertEquals(2, changedFields.size());
+		Assertions.assertEquals("isActive", changedFields.get(0).getName());
+		Assertions.assertEquals("xCoord", changedFields.get(1).getName());
+	}
+	
+	@Getter
+	@Setter
+	public static class CollectionNode
+	{
+		private ArrayList<String> names;
+		private Map<String, String> attributes;
+	}
+	
+	@Getter
+	@Setter
+	public static class PointNode
+	{
+		private int xCoord;
+		private boolean isActive;
+	}
+	
+	@Getter
+	@Setter
+	public static class ConstantNode
+	{
+		public static final String LABEL = "Constant";
+		
+		private String name;
+	}
 }